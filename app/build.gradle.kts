@@ -29,6 +29,12 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests.all {
+            // ScaleStressTest runs only with -Pstress=true
+            it.systemProperty("stress", findProperty("stress") ?: "false")
+        }
+    }
 }
 
 dependencies {
@@ -0,0 +1,78 @@
+package com.example.dijkstravisualizerapp.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.GraphGenerators;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Draws generated graphs of growing size through {@link GraphRenderer}, the half of the
+ * scale stress suite that needs a real canvas. Records how long recording the layers and
+ * replaying them take, and the heap and native memory after each size; results go to logcat
+ * under this class's name.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GraphRendererStressTest {
+    private static final String TAG = "GraphRendererStress";
+    private static final int[] EDGE_COUNTS = { 1_000, 10_000, 100_000 };
+    private static final int REPLAYS = 20;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    @Test
+    public void draw_growingGraphs() {
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Log.i(TAG, String.format(Locale.ROOT, "%9s %12s %12s %12s %10s %10s",
+                "edges", "layout ms", "record ms", "replay ms", "heap MB", "native MB"));
+        for (int edgeCount : EDGE_COUNTS) {
+            long start = System.nanoTime();
+            Graph graph = GraphGenerators.toGraph(GraphGenerators.randomGeometric(edgeCount / 3, 6, 1));
+            graph.getArcCount();
+            long layoutNanos = System.nanoTime() - start;
+
+            GraphRenderer renderer = new GraphRenderer();
+            GraphRenderer.NodeColors colors = node -> node.getId() % 2 == 0 ? Color.BLUE : Color.GREEN;
+            start = System.nanoTime();
+            drawFrame(canvas, renderer, graph, colors);
+            long recordNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < REPLAYS; i++) drawFrame(canvas, renderer, graph, colors);
+            long replayNanos = (System.nanoTime() - start) / REPLAYS;
+
+            Runtime runtime = Runtime.getRuntime();
+            Log.i(TAG, String.format(Locale.ROOT, "%9d %12.1f %12.1f %12.2f %10.1f %10.1f",
+                    graph.getEdges().size(), layoutNanos / 1e6, recordNanos / 1e6, replayNanos / 1e6,
+                    (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0,
+                    Debug.getNativeHeapAllocatedSize() / 1048576.0));
+            assertTrue(graph.getEdges().size() > edgeCount / 2);
+        }
+        bitmap.recycle();
+    }
+
+    // One frame as the view draws it: the edge layer, a highlighted path, the node layer
+    private static void drawFrame(Canvas canvas, GraphRenderer renderer, Graph graph, GraphRenderer.NodeColors colors) {
+        canvas.drawColor(Color.WHITE);
+        renderer.drawEdges(canvas, graph, WIDTH, HEIGHT);
+        List<Edge> edges = graph.getEdges();
+        for (int i = 0; i < Math.min(edges.size(), 200); i++) renderer.highlightEdge(edges.get(i), Color.RED, 3);
+        renderer.drawHighlightedEdges(canvas);
+        renderer.drawNodes(canvas, graph, colors, WIDTH, HEIGHT);
+    }
+}
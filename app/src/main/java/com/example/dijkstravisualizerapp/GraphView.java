@@ -5,11 +5,12 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.os.Handler;
 import android.util.AttributeSet;
 import android.view.View;
 import android.widget.TextView;
 
+import com.example.dijkstravisualizerapp.view.PlaybackController;
+
 import java.util.*;
 
 public class GraphView extends View {
@@ -30,8 +31,7 @@ public class GraphView extends View {
     private List<DijkstraAnimationStep> animationSteps = new ArrayList<>();
     private int currentStepIndex = -1;
     private boolean isAnimating = false;
-    private Handler animationHandler = new Handler();
-    private Runnable animationRunnable;
+    private final PlaybackController playback; // Plays steps on display frames instead of a 1 second timer
     private List<Edge> currentAnimationPath = new ArrayList<>(); // To store path edges during animation
 
     // Constructor
@@ -39,17 +39,8 @@ public class GraphView extends View {
         super(context, attrs);
         // Set background color to white
         setBackgroundColor(Color.WHITE);
+        playback = new PlaybackController(this::advancePlayback);
         createHardcodedGraphStructure(); // Create graph structure without positions initially
-
-        animationRunnable = new Runnable() {
-            @Override
-            public void run() {
-                stepAnimation();
-                if (isAnimating) {
-                    animationHandler.postDelayed(this, 1000); // Delay for animation step (1 second)
-                }
-            }
-        };
     }
 
     // Method to set the TextView for displaying information
@@ -231,7 +222,7 @@ public class GraphView extends View {
          animationSteps.clear();
          currentStepIndex = -1;
          isAnimating = false;
-         animationHandler.removeCallbacks(animationRunnable);
+         playback.pause();
          currentAnimationPath.clear(); // Clear animation path
          for (Node n : nodes) {
             n.distance = Double.MAX_VALUE;
@@ -249,7 +240,7 @@ public class GraphView extends View {
             invalidate();
         } else {
             isAnimating = false;
-            animationHandler.removeCallbacks(animationRunnable);
+            playback.pause();
              if (infoText != null && animationSteps.size() > 0) {
                  infoText.setText(animationSteps.get(animationSteps.size() - 1).description);
             }
@@ -260,6 +251,25 @@ public class GraphView extends View {
         }
     }
 
+    // Called by the playback controller each frame with the number of steps due; applies them all, then redraws once
+    private boolean advancePlayback(int steps) {
+        if (currentStepIndex >= animationSteps.size() - 1) {
+            stepAnimation(); // Past the last step: finish up like a manual step would
+            return false;
+        }
+        for (int i = 0; i < steps && currentStepIndex < animationSteps.size() - 1; i++) {
+            currentStepIndex++;
+            applyAnimationStep(animationSteps.get(currentStepIndex));
+        }
+        invalidate();
+        return true;
+    }
+
+    // Sets how many steps per second playback shows (1 = one step a second)
+    public void setPlaybackSpeed(float stepsPerSecond) {
+        playback.setSpeed(stepsPerSecond);
+    }
+
     // Apply a specific animation step's state to the graph view
     private void applyAnimationStep(DijkstraAnimationStep step) {
         // Apply the state from the animation step to node distances
@@ -284,14 +294,14 @@ public class GraphView extends View {
     public void startAnimation() {
         if (!isAnimating && currentStepIndex < animationSteps.size() - 1) {
             isAnimating = true;
-            animationHandler.postDelayed(animationRunnable, 0); // Start immediately or with a small delay
+            playback.play(); // First step shows on the next frame
         }
     }
 
     // Pause the animation playback
     public void pauseAnimation() {
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         if (infoText != null && currentStepIndex != -1) {
              infoText.setText("Animation Paused at Step " + (currentStepIndex + 1));
         }
@@ -336,7 +346,7 @@ public class GraphView extends View {
         animationSteps.clear();
         currentStepIndex = -1;
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         currentAnimationPath.clear(); // Clear animation path
         // Redraw the view to show the empty graph
         invalidate();
@@ -354,7 +364,7 @@ public class GraphView extends View {
         animationSteps.clear();
         currentStepIndex = -1;
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         currentAnimationPath.clear();
 
         // Create 10 nodes
@@ -449,6 +459,6 @@ public class GraphView extends View {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         // Clean up the handler to prevent memory leaks
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
     }
 }
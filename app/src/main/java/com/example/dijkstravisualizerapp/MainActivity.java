@@ -1,20 +1,44 @@
 package com.example.dijkstravisualizerapp;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.widget.Button;
+import android.widget.SeekBar;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
 
+import com.example.dijkstravisualizerapp.view.FrameStats;
 import com.example.dijkstravisualizerapp.view.GraphView;
+import com.example.dijkstravisualizerapp.view.RunSaver;
+
+import java.io.File;
 
 /**
  * Main activity for the Dijkstra's Algorithm Visualizer.
  * Provides the user interface for controlling the visualization.
  */
 public class MainActivity extends AppCompatActivity {
+    private static final String TAG = "DijkstraVisualizer";
+    // Instance state: the step on screen; the graph and run are kept in files by the saver
+    private static final String KEY_STEP_INDEX = "step_index";
     private GraphView graphView;
     private Button runButton, resetButton, stepButton, playButton, pauseButton;
     private TextView infoText;
+    private SeekBar stepSeekBar, speedSeekBar;
+    private TextView speedText;
+    private RunHolder runHolder;
+
+    /**
+     * Keeps the graph view's run in memory while the activity is recreated for a
+     * configuration change, such as a rotation, together with the saver that knows
+     * which run is already on disk.
+     */
+    public static class RunHolder extends ViewModel {
+        GraphView.RetainedRun run;
+        RunSaver saver;
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -25,6 +49,39 @@ public class MainActivity extends AppCompatActivity {
         initializeViews();
         // Set up button click listeners
         setupClickListeners();
+        restoreRun(savedInstanceState);
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        // The saver already keeps the graph and run on disk, in case the process is killed
+        outState.putInt(KEY_STEP_INDEX, graphView.getCurrentStepIndex());
+        // After a configuration change, the next activity takes the run over as it is
+        if (isChangingConfigurations()) runHolder.run = graphView.retainRun();
+    }
+
+    /**
+     * Puts back the run the previous activity showed: from memory after a configuration
+     * change, from the saved files after the process was killed. Neither searches again.
+     */
+    private void restoreRun(Bundle savedInstanceState) {
+        runHolder = new ViewModelProvider(this).get(RunHolder.class);
+        if (runHolder.saver == null) {
+            // Cache, so the system may reclaim the files; the activity then starts over with the demo graph
+            runHolder.saver = new RunSaver(new File(getCacheDir(), "run"),
+                    e -> Log.w(TAG, "Could not save or load the run", e));
+        }
+        graphView.setRunSaver(runHolder.saver);
+        if (runHolder.run != null) {
+            graphView.restoreRun(runHolder.run);
+            runHolder.run = null;
+        } else if (savedInstanceState != null) {
+            graphView.loadRun(savedInstanceState.getInt(KEY_STEP_INDEX, -1));
+        } else {
+            // A new session; the files may still hold the last one's graph
+            graphView.saveRun();
+        }
     }
 
     /**
@@ -38,9 +95,17 @@ public class MainActivity extends AppCompatActivity {
         playButton = findViewById(R.id.playBtn);
         pauseButton = findViewById(R.id.pauseBtn);
         infoText = findViewById(R.id.infoText);
+        stepSeekBar = findViewById(R.id.stepSeekBar);
+        speedSeekBar = findViewById(R.id.speedSeekBar);
+        speedText = findViewById(R.id.speedText);
 
         // Set the info text view for the graph view
         graphView.setInfoText(infoText);
+        // Keep the seek bar in line with the step on screen
+        graphView.setOnStepChangeListener((stepIndex, totalSteps) -> {
+            stepSeekBar.setMax(Math.max(totalSteps - 1, 0));
+            stepSeekBar.setProgress(Math.max(stepIndex, 0));
+        });
     }
 
     /**
@@ -52,5 +117,52 @@ public class MainActivity extends AppCompatActivity {
         stepButton.setOnClickListener(v -> graphView.stepAnimation());
         playButton.setOnClickListener(v -> graphView.startAnimation());
         pauseButton.setOnClickListener(v -> graphView.pauseAnimation());
+        // Long-pressing the info text toggles the rendering overlay; turning it off logs the report
+        infoText.setOnLongClickListener(v -> {
+            FrameStats stats = graphView.getFrameStats();
+            if (stats != null) Log.i(TAG, "Rendering report:\n" + stats.report());
+            graphView.setInstrumentationEnabled(stats == null);
+            return true;
+        });
+        stepSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                // Scrub through the run; programmatic updates come from the graph view itself
+                if (fromUser) graphView.seekTo(progress);
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+                graphView.pauseAnimation();
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) { }
+        });
+        speedSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                applySpeed(progress);
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) { }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) { }
+        });
+        applySpeed(speedSeekBar.getProgress());
+    }
+
+    /**
+     * Each notch of the speed bar doubles the playback speed: notch 2 is one step a second,
+     * notch 0 a quarter of that, and the last notch plays a quarter million steps a second.
+     */
+    private void applySpeed(int progress) {
+        float stepsPerSecond = (float) Math.pow(2, progress - 2);
+        graphView.setPlaybackSpeed(stepsPerSecond);
+        speedText.setText(stepsPerSecond < 1
+                ? "Speed: 1/" + Math.round(1 / stepsPerSecond) + "x"
+                : "Speed: " + Math.round(stepsPerSecond) + "x");
     }
 } 
\ No newline at end of file
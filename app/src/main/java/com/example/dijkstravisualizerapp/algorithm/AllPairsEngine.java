@@ -0,0 +1,151 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Computes the shortest distance between every pair of nodes into a {@link DistanceMatrix}.
+ * Two strategies are available:
+ * <ul>
+ * <li>Repeated Dijkstra runs one search per source, each source as its own parallel task,
+ * with every worker thread reusing one pooled {@link ShortestPathEngine}. It costs about
+ * n searches, so it suits sparse graphs like road networks.</li>
+ * <li>Blocked Floyd–Warshall relaxes the flat matrix in square tiles that fit in cache,
+ * a round of tiles at a time: the diagonal tile, then its row and column, then the rest
+ * in parallel. It costs n³ whatever the number of edges, so it suits dense graphs.</li>
+ * </ul>
+ */
+public class AllPairsEngine {
+
+    public enum Strategy {
+        /** One Dijkstra search per source, in parallel */
+        REPEATED_DIJKSTRA,
+        /** Cache-blocked Floyd–Warshall over the flat matrix */
+        BLOCKED_FLOYD_WARSHALL
+    }
+
+    // 64 x 64 doubles is 32 KB per tile, so the three tiles a kernel touches stay in L2 cache
+    private static final int BLOCK_SIZE = 64;
+
+    private final IndexedGraph graph;
+    private boolean parallel = true;
+
+    public AllPairsEngine(IndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @param parallel Whether the work may be spread over several threads; on by default
+     */
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    /**
+     * Picks the strategy expected to be faster for the graph: Floyd–Warshall once the graph
+     * is dense enough that n Dijkstra searches do more work than n³ matrix updates.
+     */
+    public Strategy chooseStrategy() {
+        long nodes = graph.getNodeCount();
+        long arcs = graph.getArcCount();
+        // n searches of about m log n each, against n³ cheap and cache-friendly updates
+        double logNodes = Math.max(1, 31 - Integer.numberOfLeadingZeros((int) Math.max(nodes, 1)));
+        return arcs * logNodes * 4 > nodes * nodes ? Strategy.BLOCKED_FLOYD_WARSHALL : Strategy.REPEATED_DIJKSTRA;
+    }
+
+    /**
+     * Computes all distances with the strategy that suits the graph.
+     */
+    public DistanceMatrix compute() {
+        return compute(chooseStrategy());
+    }
+
+    /**
+     * Computes all distances with the given strategy.
+     * @return A new matrix; unreachable pairs hold Double.MAX_VALUE
+     */
+    public DistanceMatrix compute(Strategy strategy) {
+        DistanceMatrix matrix = new DistanceMatrix(graph.getNodeCount());
+        if (strategy == Strategy.REPEATED_DIJKSTRA) {
+            repeatedDijkstra(matrix);
+        } else {
+            blockedFloydWarshall(matrix);
+        }
+        return matrix;
+    }
+
+    private void repeatedDijkstra(DistanceMatrix matrix) {
+        int nodeCount = graph.getNodeCount();
+        double[] distances = matrix.array();
+        WorkspacePool<ShortestPathEngine> engines = new WorkspacePool<>(
+                () -> new ShortestPathEngine(graph), Runtime.getRuntime().availableProcessors());
+        IntStream sources = IntStream.range(0, nodeCount);
+        if (parallel) sources = sources.parallel();
+        // Each task writes only its own row, so the tasks never share a slot
+        sources.forEach(source -> {
+            ShortestPathEngine engine = engines.acquire();
+            try {
+                engine.run(source);
+                int row = source * nodeCount;
+                for (int node = 0; node < nodeCount; node++) {
+                    distances[row + node] = engine.getDistance(node);
+                }
+            } finally {
+                engines.release(engine);
+            }
+        });
+    }
+
+    private void blockedFloydWarshall(DistanceMatrix matrix) {
+        int n = graph.getNodeCount();
+        double[] d = matrix.array();
+        for (int node = 0; node < n; node++) {
+            d[node * n + node] = 0;
+            for (int arc = graph.getFirstArc(node), end = graph.getArcEnd(node); arc < end; arc++) {
+                int index = node * n + graph.getArcTarget(arc);
+                d[index] = Math.min(d[index], graph.getArcWeight(arc));
+            }
+        }
+
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        boolean inParallel = parallel && blocks > 1;
+        for (int kb = 0; kb < blocks; kb++) {
+            final int k = kb;
+            // The diagonal tile depends only on itself
+            relaxTile(d, n, k, k, k);
+            // Tiles in the same block row or column depend on the diagonal tile
+            IntStream line = IntStream.range(0, blocks).filter(b -> b != k);
+            if (inParallel) line = line.parallel();
+            line.forEach(b -> {
+                relaxTile(d, n, k, b, k);
+                relaxTile(d, n, b, k, k);
+            });
+            // Every other tile depends on its row and column tiles; split the work by block row
+            IntStream rows = IntStream.range(0, blocks).filter(b -> b != k);
+            if (inParallel) rows = rows.parallel();
+            rows.forEach(ib -> {
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb != k) relaxTile(d, n, ib, jb, k);
+                }
+            });
+        }
+    }
+
+    // Relaxes tile (ib, jb) through every intermediate node of block kb
+    private static void relaxTile(double[] d, int n, int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * BLOCK_SIZE);
+        int jStart = jb * BLOCK_SIZE, jEnd = Math.min(n, jStart + BLOCK_SIZE);
+        int kEnd = Math.min(n, (kb + 1) * BLOCK_SIZE);
+        for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+                int iRow = i * n;
+                double viaK = d[iRow + k];
+                if (viaK == Double.MAX_VALUE) continue;
+                for (int j = jStart; j < jEnd; j++) {
+                    double distance = viaK + d[kRow + j];
+                    if (distance < d[iRow + j]) d[iRow + j] = distance;
+                }
+            }
+        }
+    }
+}
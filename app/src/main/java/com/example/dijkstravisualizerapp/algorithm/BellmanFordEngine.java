@@ -0,0 +1,332 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+import com.example.dijkstravisualizerapp.model.ReversedGraph;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest paths on graphs that may have negative weights, where Dijkstra's algorithm
+ * gives wrong answers because it never revisits a settled node. The engine checks the
+ * weights once: if none is negative it simply runs a {@link ShortestPathEngine}; otherwise
+ * it runs Bellman-Ford, which keeps relaxing arcs until no distance improves.
+ *
+ * Bellman-Ford runs in one of two ways. The queue-based variant (SPFA) only re-examines
+ * nodes whose distance just improved, which is usually far less than the n full passes of
+ * the textbook version. On large graphs it instead runs in rounds spread over every core:
+ * each round, every node whose in-neighbors changed pulls its best distance from the
+ * previous round's values, so no two threads ever write the same slot.
+ *
+ * A negative cycle reachable from the source makes distances unbounded. Both variants
+ * notice it once some shortest path would need n or more arcs, stop, and report the
+ * cycle. Note that in an undirected graph any negative edge is such a cycle, since it
+ * can be walked back and forth.
+ */
+public class BellmanFordEngine {
+    // Below this many nodes a round is too small to be worth splitting across threads
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final IndexedGraph graph;
+    private final boolean negativeWeights;
+    // Runs the searches when no weight is negative; null otherwise
+    private final ShortestPathEngine dijkstra;
+    private final double[] distances;
+    private final int[] previousNodes;
+    private final int[] previousArcs;
+    // SPFA: the nodes waiting to be re-examined as a ring, and the arcs on each node's current path
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] hops;
+    // Parallel rounds: built on first use
+    private ReversedGraph reversed;
+    private double[] roundDistances;
+    private boolean[] changed;
+    private boolean[] active;
+    // Scratch for finding a cycle among the previous-node links
+    private final int[] marks;
+    private int[] negativeCycle;
+    private int source = -1;
+    private boolean parallel = true;
+    private SolverMetrics metrics;
+
+    public BellmanFordEngine(IndexedGraph graph) {
+        this.graph = graph;
+        this.negativeWeights = hasNegativeWeights(graph);
+        int nodeCount = negativeWeights ? graph.getNodeCount() : 0;
+        this.dijkstra = negativeWeights ? null : new ShortestPathEngine(graph);
+        this.distances = new double[nodeCount];
+        this.previousNodes = new int[nodeCount];
+        this.previousArcs = new int[nodeCount];
+        this.queue = new int[nodeCount];
+        this.queued = new boolean[nodeCount];
+        this.hops = new int[nodeCount];
+        this.marks = new int[nodeCount];
+    }
+
+    /**
+     * @param graph The graph to check
+     * @return true if any arc of the graph has a negative weight
+     */
+    public static boolean hasNegativeWeights(IndexedGraph graph) {
+        for (int arc = 0, arcCount = graph.getArcCount(); arc < arcCount; arc++) {
+            if (graph.getArcWeight(arc) < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the graph has negative weights, so runs use Bellman-Ford rather than Dijkstra
+     */
+    public boolean usesBellmanFord() { return negativeWeights; }
+
+    /**
+     * @param parallel Whether Bellman-Ford may run in rounds on several threads on large graphs; on by default
+     */
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    /**
+     * Attaches metrics that every following run reports into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        if (dijkstra != null) dijkstra.setMetrics(metrics);
+    }
+    public SolverMetrics getMetrics() { return metrics; }
+
+    public IndexedGraph getGraph() { return graph; }
+    public int getSource() { return source; }
+
+    /**
+     * Computes shortest distances from the source to every reachable node.
+     * @param source The id of the start node
+     * @return true on success, false if a negative cycle is reachable from the source;
+     *         distances and paths are then meaningless, see {@link #getNegativeCycle()}
+     */
+    public boolean run(int source) {
+        this.source = source;
+        negativeCycle = null;
+        if (dijkstra != null) {
+            dijkstra.run(source);
+            return true;
+        }
+
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+        Arrays.fill(distances, Double.MAX_VALUE);
+        Arrays.fill(previousNodes, -1);
+        Arrays.fill(previousArcs, -1);
+        distances[source] = 0;
+        if (timed) {
+            long now = System.nanoTime();
+            metrics.addResetNanos(now - phaseStart);
+            phaseStart = now;
+        }
+
+        if (parallel && graph.getNodeCount() >= PARALLEL_THRESHOLD) {
+            runRounds(source);
+        } else {
+            runQueue(source);
+        }
+        if (timed) metrics.addSearchNanos(System.nanoTime() - phaseStart);
+        return negativeCycle == null;
+    }
+
+    // Queue-based Bellman-Ford: a node is re-examined only after its distance improves
+    private void runQueue(int source) {
+        int nodeCount = graph.getNodeCount();
+        Arrays.fill(queued, false);
+        hops[source] = 0;
+        // Every queued node appears once, so a ring of n slots never overflows
+        int head = 0, size = 1;
+        queue[0] = source;
+        queued[source] = true;
+
+        long pushes = 1, pops = 0, decreaseKeys = 0, relaxations = 0, improved = 0;
+        // Looking for a cycle costs O(n), so after a miss wait for n more relaxations
+        long nextCycleCheck = 0;
+        search:
+        while (size > 0) {
+            int current = queue[head];
+            head = head + 1 == nodeCount ? 0 : head + 1;
+            size--;
+            queued[current] = false;
+            pops++;
+            double currentDistance = distances[current];
+            for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                int neighbor = graph.getArcTarget(arc);
+                double newDist = currentDistance + graph.getArcWeight(arc);
+                relaxations++;
+                if (newDist < distances[neighbor]) {
+                    if (distances[neighbor] != Double.MAX_VALUE) decreaseKeys++;
+                    improved++;
+                    distances[neighbor] = newDist;
+                    previousNodes[neighbor] = current;
+                    previousArcs[neighbor] = arc;
+                    hops[neighbor] = hops[current] + 1;
+                    // A shortest path never needs n arcs unless it goes round a negative cycle
+                    if (hops[neighbor] >= nodeCount && relaxations >= nextCycleCheck) {
+                        if (findNegativeCycle()) break search;
+                        nextCycleCheck = relaxations + nodeCount;
+                    }
+                    if (!queued[neighbor]) {
+                        int tail = head + size;
+                        queue[tail >= nodeCount ? tail - nodeCount : tail] = neighbor;
+                        size++;
+                        queued[neighbor] = true;
+                        pushes++;
+                    }
+                }
+            }
+        }
+        if (metrics != null) metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+    }
+
+    // Bellman-Ford in rounds: round k finds the best paths of up to k arcs, every node in parallel
+    private void runRounds(int source) {
+        int nodeCount = graph.getNodeCount();
+        if (reversed == null) {
+            reversed = new ReversedGraph(graph);
+            roundDistances = new double[nodeCount];
+            changed = new boolean[nodeCount];
+            active = new boolean[nodeCount];
+        }
+        Arrays.fill(changed, false);
+        Arrays.fill(active, false);
+        changed[source] = true;
+
+        long pulls = 0, relaxations = 0, improved = 0;
+        for (int rounds = 1; ; rounds++) {
+            // Only nodes an improved node leads to can improve this round. Racing writes all store true.
+            int changes = IntStream.range(0, nodeCount).parallel().filter(node -> changed[node]).map(node -> {
+                changed[node] = false;
+                for (int arc = graph.getFirstArc(node), end = graph.getArcEnd(node); arc < end; arc++) {
+                    active[graph.getArcTarget(arc)] = true;
+                }
+                return 1;
+            }).sum();
+            if (changes == 0) break;
+            improved += changes;
+            if (rounds > nodeCount && findNegativeCycle()) break;
+
+            System.arraycopy(distances, 0, roundDistances, 0, nodeCount);
+            LongSummaryStatistics round = IntStream.range(0, nodeCount).parallel()
+                    .filter(node -> active[node]).mapToLong(this::pull).summaryStatistics();
+            pulls += round.getCount();
+            relaxations += round.getSum();
+        }
+        if (metrics != null) metrics.recordSearch(pulls, pulls, 0, relaxations, improved, pulls);
+    }
+
+    // Takes the best distance to a node over its incoming arcs from last round's distances.
+    // Writes only this node's slots. Returns the number of arcs examined.
+    private long pull(int node) {
+        active[node] = false;
+        double best = roundDistances[node];
+        int bestArc = -1;
+        int firstArc = reversed.getFirstArc(node), end = reversed.getArcEnd(node);
+        for (int arc = firstArc; arc < end; arc++) {
+            double fromDistance = roundDistances[reversed.getArcTarget(arc)];
+            if (fromDistance == Double.MAX_VALUE) continue;
+            double newDist = fromDistance + reversed.getArcWeight(arc);
+            if (newDist < best) {
+                best = newDist;
+                bestArc = arc;
+            }
+        }
+        if (bestArc >= 0) {
+            distances[node] = best;
+            previousNodes[node] = reversed.getArcTarget(bestArc);
+            previousArcs[node] = reversed.getOriginalArc(bestArc);
+            changed[node] = true;
+        }
+        return end - firstArc;
+    }
+
+    // Looks for a cycle among the previous-node links, which can only be a negative one.
+    // Walks each chain once, marking nodes with the chain's start, so it takes O(n).
+    private boolean findNegativeCycle() {
+        Arrays.fill(marks, -1);
+        for (int start = 0; start < marks.length; start++) {
+            int node = start;
+            while (node >= 0 && marks[node] < 0) {
+                marks[node] = start;
+                node = previousNodes[node];
+            }
+            if (node >= 0 && marks[node] == start) {
+                // Back on this chain: node lies on a cycle
+                int length = 1;
+                for (int other = previousNodes[node]; other != node; other = previousNodes[other]) {
+                    length++;
+                }
+                int[] cycle = new int[length];
+                // The links point backwards, so fill from the end to list the cycle in arc order
+                for (int i = length - 1, other = node; i >= 0; i--, other = previousNodes[other]) {
+                    cycle[i] = other;
+                }
+                negativeCycle = cycle;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the last run found a negative cycle
+     */
+    public boolean hasNegativeCycle() { return negativeCycle != null; }
+
+    /**
+     * @return The node ids around the negative cycle found by the last run, in the order its
+     *         arcs lead, or an empty array if there was none
+     */
+    public int[] getNegativeCycle() {
+        return negativeCycle != null ? negativeCycle.clone() : new int[0];
+    }
+
+    /**
+     * @param node The id of a node
+     * @return The distance found by the last run, or Double.MAX_VALUE if the node wasn't reached
+     */
+    public double getDistance(int node) {
+        return dijkstra != null ? dijkstra.getDistance(node) : distances[node];
+    }
+
+    /**
+     * @param node The id of a node
+     * @return The node before it on its shortest path, or -1 for the source and unreached nodes
+     */
+    public int getPrevious(int node) {
+        return dijkstra != null ? dijkstra.getPrevious(node) : previousNodes[node];
+    }
+
+    /**
+     * @param node The id of a node
+     * @return The arc its shortest path arrives by, or -1 for the source and unreached nodes
+     */
+    public int getPreviousArc(int node) {
+        return dijkstra != null ? dijkstra.getPreviousArc(node) : previousArcs[node];
+    }
+
+    /**
+     * Reconstructs the shortest path found by the last run.
+     * @param target The id of the node to reach
+     * @return The node ids from the source to the target, or an empty array if it wasn't
+     *         reached or the run found a negative cycle
+     */
+    public int[] getPath(int target) {
+        if (dijkstra != null) return dijkstra.getPath(target);
+        if (negativeCycle != null || distances[target] == Double.MAX_VALUE) return new int[0];
+        int length = 1;
+        for (int node = target; previousNodes[node] >= 0; node = previousNodes[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target, i = length - 1; i >= 0; node = previousNodes[node], i--) {
+            path[i] = node;
+        }
+        return path;
+    }
+}
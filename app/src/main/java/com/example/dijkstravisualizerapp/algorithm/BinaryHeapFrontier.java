@@ -0,0 +1,120 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node ids that works for any non-negative weights.
+ * Unlike {@code PriorityQueue<Node>}, it remembers where every node sits in the heap,
+ * so lowering a node's distance is a sift-up instead of a linear remove and re-add.
+ */
+public class BinaryHeapFrontier implements Frontier {
+    // Node ids in heap order
+    private int[] heap;
+    // Distance of each node, indexed by node id
+    private double[] keys;
+    // Where each node sits in the heap array, or -1 if it isn't there
+    private int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap able to hold every node of a graph.
+     * @param nodeCount The number of nodes in the graph
+     */
+    public BinaryHeapFrontier(int nodeCount) {
+        this.heap = new int[Math.max(nodeCount, 1)];
+        this.keys = new double[heap.length];
+        this.positions = new int[heap.length];
+        Arrays.fill(positions, -1);
+    }
+
+    @Override
+    public void offer(int node, double distance) {
+        ensureCapacity(node + 1);
+        int position = positions[node];
+        if (position < 0) {
+            position = size++;
+            heap[position] = node;
+            positions[node] = position;
+        } else if (distance >= keys[node]) {
+            return;  // Never move a node backwards
+        }
+        keys[node] = distance;
+        siftUp(position);
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) return -1;
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return node >= 0 && node < positions.length && positions[node] >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+            heap[position] = parentNode;
+            positions[parentNode] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childNode = heap[child];
+            if (key <= keys[childNode]) break;
+            heap[position] = childNode;
+            positions[childNode] = position;
+            position = child;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void ensureCapacity(int nodeCount) {
+        if (nodeCount <= positions.length) return;
+        int capacity = Math.max(nodeCount, positions.length * 2);
+        int oldLength = positions.length;
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, oldLength, capacity, -1);
+    }
+}
@@ -4,19 +4,58 @@ import com.example.dijkstravisualizerapp.model.Edge;
 import com.example.dijkstravisualizerapp.model.Graph;
 import com.example.dijkstravisualizerapp.model.Node;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
  * Implements Dijkstra's algorithm - a clever way to find the shortest path in a graph.
  * Think of it like finding the best route on a map, where we always take the path that looks most promising.
+ *
+ * There are two ways to use it. {@link #run()} computes every step up front, which is handy for
+ * small graphs and tests. {@link #start(int)} only sets things up; each {@link #nextStep()} then runs
+ * the search just far enough to produce the next step, and only the most recent steps are kept for
+ * going back. That way the first step shows instantly however big the graph is. The distance
+ * trace the steps read from is not bounded that way: it keeps every improvement of the run, a
+ * few bytes each, so scrubbing back to a dropped step can still rebuild the distances.
+ * For runs too long to keep in memory at all, {@link #record(File)} streams every step to a file
+ * and {@link #replay(File)} navigates a recorded run straight from disk.
  */
 public class DijkstraAlgorithm {
     // The graph we're working with
     private final Graph graph;
-    // List to store each step of the algorithm for visualization
-    private final List<DijkstraStep> steps;
+    // The steps of the algorithm we've recorded so far for visualization
+    private StepHistory steps;
     // Tracks which step we're currently showing in the animation
     private int currentStepIndex;
+    // How node distances change over the steps of the last run
+    private DistanceTrace distanceTrace;
+    // Where counters and timings go, or null to skip measuring
+    private SolverMetrics metrics;
+    // While recording to a file: where generated steps go instead of memory
+    private FileStepTrace.Writer spill;
+    // While replaying a file: where steps are read back from, and the last one we rebuilt
+    private FileStepTrace fileTrace;
+    private File replayFile;
+    // The search's own state by node id: best distance so far, whether it is final, and the
+    // arc it is reached through or -1; null before any run. The nodes mirror these for
+    // whoever shows them, but the search never reads them back, so a view may rewrite the
+    // nodes to show an earlier step without derailing the rest of the run
+    private double[] distances;
+    private boolean[] visited;
+    private int[] previousArcs;
+    private DijkstraStep cachedStep;
+    private int cachedStepIndex;
+
+    // Where the search is paused between steps: the frontier, the node being explored,
+    // and the next of its arcs to check
+    private Frontier frontier;
+    private Node current;
+    private int nextArc;
+    private boolean searchComplete;
+    // Counters for metrics, published when the search completes
+    private long pushes, pops, decreaseKeys, relaxations, improved, searchNanos, recordingNanos;
 
     /**
      * Creates a new DijkstraAlgorithm instance for the given graph.
@@ -24,8 +63,9 @@ public class DijkstraAlgorithm {
      */
     public DijkstraAlgorithm(Graph graph) {
         this.graph = graph;
-        this.steps = new ArrayList<>();
+        this.steps = new StepHistory(StepHistory.UNBOUNDED);
         this.currentStepIndex = -1;  // Start before the first step
+        this.searchComplete = true;  // Nothing to search until we start
     }
 
     /**
@@ -38,110 +78,383 @@ public class DijkstraAlgorithm {
      * 5. Keep going until we've checked all possible paths
      */
     public List<DijkstraStep> run() {
+        start(StepHistory.UNBOUNDED);
+        while (generateStep()) {
+            // Keep going until the search has produced every step
+        }
+        // Return an unmodifiable list of steps for the animation
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Gets the search ready without running it: only the first step is recorded.
+     * Later steps are produced on demand by {@link #nextStep()} and {@link #seek(int)}.
+     * @param historyLimit How many of the most recent steps to keep for going back; the distance
+     *                     trace still keeps every change of the run, see the class comment
+     * @throws IllegalStateException If the graph has negative weights
+     */
+    public void start(int historyLimit) {
+        // Dijkstra never revisits a visited node, so a negative weight would give wrong distances
+        if (BellmanFordEngine.hasNegativeWeights(graph)) {
+            throw new IllegalStateException("The graph has negative weights; use BellmanFordEngine instead");
+        }
+        // Only read the clock when someone is collecting metrics
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+
         // Clear any previous run and reset the graph
-        steps.clear();
+        steps = new StepHistory(historyLimit);
+        fileTrace = null;
+        replayFile = null;
+        cachedStep = null;
         currentStepIndex = -1;
         graph.resetNodes();  // Reset all nodes to their initial state
+        int nodeCount = graph.getNodeCount();
+        distances = new double[nodeCount];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        visited = new boolean[nodeCount];
+        previousArcs = new int[nodeCount];
+        Arrays.fill(previousArcs, -1);
 
         // Initialize the start node with distance 0
         Node startNode = graph.getStartNode();
+        distances[startNode.getId()] = 0;
         startNode.setDistance(0);
         
-        // Create a snapshot of initial distances for the first animation step
-        Map<Node, Double> initialDistances = new HashMap<>();
-        for (Node node : graph.getNodes()) {
-            initialDistances.put(node, node.getDistance());  // All nodes start with MAX_VALUE except start
-        }
+        // The trace starts from a copy of the initial distances, all MAX_VALUE except the start,
+        // and then records only the improvements, so steps share it instead of copying every distance.
+        distanceTrace = new DistanceTrace(distances.clone());
         
         // Record the first step - starting our journey
-        steps.add(new DijkstraStep("Starting our journey from " + startNode.getLabel(), 
-                                 startNode, null, null, initialDistances));
+        if (spill != null) {
+            spillStep(FileStepTrace.KIND_START, startNode.getId(), -1, -1, 0);
+        } else {
+            steps.add(DijkstraStep.begin(startNode, distanceTrace.viewAt(0)));
+        }
 
-        // Create a priority queue that always gives us the closest unvisited node
-        // The comparator ensures we always get the node with smallest distance
-        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingDouble(Node::getDistance));
-        pq.add(startNode);  // Start with our source node
+        // Create a frontier that always gives us the closest unvisited node.
+        // Integer-weighted graphs like ours get a radix heap, anything else a binary heap.
+        frontier = Frontier.create(graph);
+        frontier.offer(startNode.getId(), 0);  // Start with our source node
+        current = null;
+        searchComplete = false;
 
-        // Keep track of current distances for animation updates
-        Map<Node, Double> currentDistances = new HashMap<>(initialDistances);
+        pushes = 1;
+        pops = decreaseKeys = relaxations = improved = searchNanos = recordingNanos = 0;
+        if (timed) metrics.addResetNanos(System.nanoTime() - phaseStart);
+    }
 
-        // Main algorithm loop - keep going until we've checked all possible paths
-        while (!pq.isEmpty()) {
-            // Get the closest unvisited node from our priority queue
-            Node current = pq.poll();
-            if (current.isVisited()) continue;  // Skip if we've already processed this node
+    /**
+     * Runs the search until it produces one more step.
+     * Resumes where the last call stopped: either in the middle of the current node's arcs,
+     * or by taking the next closest node from the frontier.
+     * @return false if the search had already finished and there was nothing left to record
+     */
+    private boolean generateStep() {
+        if (searchComplete) return false;
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+        List<Node> nodes = graph.getNodes();
+
+        while (true) {
+            // Check the remaining paths from the node we're exploring, walking its arcs in the graph's index
+            while (current != null && nextArc < graph.getArcEnd(current.getId())) {
+                int arc = nextArc++;
+                // Get the edge and the node at its other end
+                Edge edge = graph.getArcEdge(arc);
+                int target = graph.getArcTarget(arc);
+                Node neighbor = nodes.get(target);
 
-            // Record that we're visiting this node
-            steps.add(new DijkstraStep("Exploring node " + current.getLabel(), 
-                                     current, null, null, new HashMap<>(currentDistances)));
-            current.setVisited(true);  // Mark this node as visited
-
-            // Check all paths from this node to its neighbors
-            for (Edge edge : graph.getEdgesForNode(current)) {
-                // Get the other end of this edge
-                Node neighbor = edge.getOtherNode(current);
-                
                 // Only process unvisited neighbors
-                if (neighbor != null && !neighbor.isVisited()) {
-                    // Calculate the distance to neighbor through current node
-                    double newDist = current.getDistance() + edge.getWeight();
-                    
-                    // If we found a better path to the neighbor
-                    if (newDist < neighbor.getDistance()) {
-                        // Update the neighbor's distance and remember how we got here
-                        neighbor.setDistance(newDist);
-                        neighbor.setPrevious(current);
-                        
-                        // Update the priority queue to reflect the new distance
-                        pq.remove(neighbor);  // Remove old entry
-                        pq.add(neighbor);     // Add with new distance
-                        currentDistances.put(neighbor, neighbor.getDistance());
-
-                        // Record this improvement for animation
-                        steps.add(new DijkstraStep(
-                            "Found a better path to " + neighbor.getLabel() + 
-                            " through " + current.getLabel() + 
-                            " (new distance: " + String.format("%.2f", neighbor.getDistance()) + ")",
-                            null, edge, neighbor, new HashMap<>(currentDistances)
-                        ));
+                if (visited[target]) continue;
+
+                // Calculate the distance to neighbor through current node
+                double newDist = distances[current.getId()] + edge.getWeight();
+                int stepIndex = steps.size();
+                relaxations++;
+                long mark = timed ? System.nanoTime() : 0;
+
+                // If we found a better path to the neighbor
+                if (newDist < distances[target]) {
+                    // Update the neighbor's distance and remember how we got here
+                    boolean wasReached = distances[target] != Double.MAX_VALUE;
+                    distances[target] = newDist;
+                    previousArcs[target] = arc;
+                    neighbor.setDistance(newDist);
+                    neighbor.setPrevious(current);
+
+                    // Move the neighbor forward in the frontier (or add it)
+                    frontier.offer(target, newDist);
+                    improved++;
+                    if (wasReached) decreaseKeys++;
+                    else pushes++;
+
+                    // Record this improvement for animation
+                    if (timed) mark = System.nanoTime();
+                    if (spill != null) {
+                        spillStep(FileStepTrace.KIND_IMPROVE, current.getId(), arc, target, newDist);
                     } else {
-                        // Record that we checked but found no improvement
-                        steps.add(new DijkstraStep(
-                            "Checked path to " + neighbor.getLabel() + 
-                            " through " + current.getLabel() + 
-                            " - no improvement found",
-                            null, edge, null, new HashMap<>(currentDistances)
-                        ));
+                        distanceTrace.record(stepIndex, target, newDist, arc);
+                        steps.add(DijkstraStep.relax(current, edge, neighbor, true, distanceTrace.viewAt(stepIndex)));
                     }
+                } else if (spill != null) {
+                    spillStep(FileStepTrace.KIND_RELAX, current.getId(), arc, target, newDist);
+                } else {
+                    // Record that we checked but found no improvement
+                    steps.add(DijkstraStep.relax(current, edge, neighbor, false, distanceTrace.viewAt(stepIndex)));
                 }
+                if (timed) finishTiming(phaseStart, mark);
+                return true;
             }
+
+            // Main algorithm loop - keep going until we've checked all possible paths
+            if (frontier.isEmpty()) {
+                searchComplete = true;
+                current = null;
+                if (timed) {
+                    searchNanos += System.nanoTime() - phaseStart;
+                    metrics.addSearchNanos(searchNanos);
+                    metrics.addRecordingNanos(recordingNanos);
+                    metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+                }
+                return false;
+            }
+
+            // Get the closest unvisited node from our frontier.
+            // Each node is in the frontier at most once, so it is never already visited here.
+            current = nodes.get(frontier.poll());
+            nextArc = graph.getFirstArc(current.getId());
+            pops++;
+
+            // Record that we're visiting this node
+            long mark = timed ? System.nanoTime() : 0;
+            if (spill != null) {
+                spillStep(FileStepTrace.KIND_VISIT, current.getId(), -1, -1, distances[current.getId()]);
+            } else {
+                steps.add(DijkstraStep.visit(current, distanceTrace.viewAt(steps.size())));
+            }
+            visited[current.getId()] = true;  // Mark this node as visited
+            current.setVisited(true);
+            if (timed) finishTiming(phaseStart, mark);
+            return true;
         }
+    }
 
-        // Return an unmodifiable list of steps for the animation
-        return Collections.unmodifiableList(steps);
+    // Appends a step to the file being recorded. The search loop can't throw IOException,
+    // so failures travel unchecked until record() turns them back
+    private void spillStep(int kind, int node, int arc, int target, double distance) {
+        try {
+            spill.addStep(kind, node, arc, target, distance);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the whole search, streaming every step to a file instead of keeping it in memory,
+     * then replays the run from that file. Memory use stays flat however many steps the run
+     * takes, and the file can be opened again later with {@link #replay(File)}.
+     * @param file The file to record into, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void record(File file) throws IOException {
+        Node startNode = graph.getStartNode();
+        try (FileStepTrace.Writer writer = new FileStepTrace.Writer(file, graph.getNodeCount(),
+                graph.getArcCount(), startNode.getId())) {
+            spill = writer;
+            start(1);
+            while (generateStep()) {
+                // Every step goes straight to the file
+            }
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            spill = null;
+        }
+        replay(file);
+    }
+
+    /**
+     * Opens a run recorded by {@link #record(File)} for navigation, without searching again.
+     * Steps are read back from the mapped file as they're shown, and the graph's nodes are
+     * left in the run's final state so {@link #getFinalPath()} works as after a search.
+     * @param file A file recorded on this graph
+     * @throws IOException If the file cannot be read or was recorded on a different graph
+     */
+    public void replay(File file) throws IOException {
+        FileStepTrace trace = FileStepTrace.open(file);
+        if (trace.getNodeCount() != graph.getNodeCount() || trace.getArcCount() != graph.getArcCount()) {
+            throw new IOException("The run in " + file + " was recorded on a different graph");
+        }
+        List<Node> nodes = graph.getNodes();
+        Node startNode = nodes.get(trace.getStartNode());
+        if (graph.getStartNode() != startNode) {
+            Node target = graph.getTargetNode();
+            graph.setStartAndTarget(startNode, target != null ? target : startNode);
+        }
+
+        // Put every node in its final state, as the search itself would have left it
+        graph.resetNodes();
+        double[] distances = new double[nodes.size()];
+        int[] previousArcs = new int[nodes.size()];
+        trace.copyStateAt(trace.getStepCount() - 1, distances, previousArcs);
+        this.distances = distances;
+        this.previousArcs = previousArcs;
+        visited = new boolean[nodes.size()];
+        for (Node node : nodes) {
+            int id = node.getId();
+            visited[id] = distances[id] != Double.MAX_VALUE;
+            node.setDistance(distances[id]);
+            node.setVisited(visited[id]);
+            if (previousArcs[id] >= 0) node.setPrevious(graph.getArcEdge(previousArcs[id]).getOtherNode(node));
+        }
+
+        steps = new StepHistory(1);
+        distanceTrace = null;
+        fileTrace = trace;
+        replayFile = file;
+        cachedStep = null;
+        currentStepIndex = -1;
+        frontier = null;
+        current = null;
+        searchComplete = true;
+    }
+
+    /**
+     * Takes over a search another engine ran from the graph's start node, as if this algorithm
+     * had run it without recording steps: the nodes, {@link #getFinalPath()} and
+     * {@link #getShortestPathTree()} show its result. A pick needs only that one bounded search.
+     * @param engine An engine on this graph whose last run started at the start node
+     * @param limit How far the search settled nodes; farther ones count as unreached, as a
+     *              search that stopped at its target leaves their distances tentative
+     */
+    public void showResult(ShortestPathEngine engine, double limit) {
+        if (engine.getGraph() != graph) throw new IllegalArgumentException("The engine searched another graph");
+        steps = new StepHistory(StepHistory.UNBOUNDED);
+        distanceTrace = null;
+        fileTrace = null;
+        replayFile = null;
+        cachedStep = null;
+        currentStepIndex = -1;
+        frontier = null;
+        current = null;
+        searchComplete = true;
+
+        graph.resetNodes();
+        List<Node> nodes = graph.getNodes();
+        distances = new double[nodes.size()];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        visited = new boolean[nodes.size()];
+        previousArcs = new int[nodes.size()];
+        Arrays.fill(previousArcs, -1);
+        for (Node node : nodes) {
+            int id = node.getId();
+            double distance = engine.getDistance(id);
+            if (distance > limit || distance == Double.MAX_VALUE) continue;
+            distances[id] = distance;
+            visited[id] = true;
+            previousArcs[id] = engine.getPreviousArc(id);
+            node.setDistance(distance);
+            node.setVisited(true);
+            int previous = engine.getPrevious(id);
+            if (previous >= 0) node.setPrevious(nodes.get(previous));
+        }
+    }
+
+    // The number of steps that exist, in memory or in the replayed file
+    private int stepCount() {
+        return fileTrace != null ? fileTrace.getStepCount() : steps.size();
+    }
+
+    // The oldest step that can still be shown
+    private int firstHeldStep() {
+        return fileTrace != null ? 0 : steps.getFirstIndex();
+    }
+
+    private DijkstraStep stepAt(int index) {
+        if (fileTrace == null) return steps.get(index);
+        // Views ask for the current step many times per frame, so keep the last one we rebuilt
+        if (cachedStep == null || cachedStepIndex != index) {
+            cachedStep = readStep(index);
+            cachedStepIndex = index;
+        }
+        return cachedStep;
+    }
+
+    // Rebuilds a step from its record in the file, resolving ids to the graph's nodes and edges
+    private DijkstraStep readStep(int index) {
+        List<Node> nodes = graph.getNodes();
+        Node node = nodes.get(fileTrace.getStepNode(index));
+        DistanceView view = fileTrace.viewAt(index);
+        int kind = fileTrace.getStepKind(index);
+        switch (kind) {
+            case FileStepTrace.KIND_START:
+                return DijkstraStep.begin(node, view);
+            case FileStepTrace.KIND_VISIT:
+                return DijkstraStep.visit(node, view);
+            default:
+                return DijkstraStep.relax(node, graph.getArcEdge(fileTrace.getStepArc(index)),
+                        nodes.get(fileTrace.getStepTarget(index)), kind == FileStepTrace.KIND_IMPROVE, view);
+        }
+    }
+
+    // Adds the time since phaseStart to the search, and since mark to step recording
+    private void finishTiming(long phaseStart, long mark) {
+        long now = System.nanoTime();
+        searchNanos += now - phaseStart;
+        recordingNanos += now - mark;
     }
 
     // Animation control methods
     public int getCurrentStepIndex() { return currentStepIndex; }
-    public int getTotalSteps() { return steps.size(); }
+    /**
+     * The number of steps recorded so far. After {@link #run()}, or once a started
+     * search is complete, this is the total for the whole run.
+     */
+    public int getTotalSteps() { return stepCount(); }
+    /**
+     * @return true once the search has produced its last step
+     */
+    public boolean isComplete() { return searchComplete; }
+    /**
+     * @return The oldest step we can still go back to
+     */
+    public int getFirstAvailableStep() { return firstHeldStep(); }
+    /**
+     * @return How node distances change over the run, in memory or read from the replayed file
+     */
+    public DistanceTimeline getDistanceTrace() { return fileTrace != null ? fileTrace : distanceTrace; }
+    /**
+     * @return The file the run is replayed from, or null while the run is held in memory
+     */
+    public File getReplayFile() { return replayFile; }
+
+    /**
+     * Attaches metrics that every following run and path reconstruction report into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) { this.metrics = metrics; }
+    public SolverMetrics getMetrics() { return metrics; }
     
     /**
      * Get the current step in our animation
      * Returns null if we haven't started or have finished
      */
     public DijkstraStep getCurrentStep() {
-        return currentStepIndex >= 0 && currentStepIndex < steps.size() ? 
-               steps.get(currentStepIndex) : null;
+        return currentStepIndex >= firstHeldStep() && currentStepIndex < stepCount() ? 
+               stepAt(currentStepIndex) : null;
     }
 
     /**
      * Move to the next step in our algorithm visualization.
      * This is like pressing 'next' in a tutorial - we'll see what happens next in our path-finding journey.
+     * If the step hasn't been computed yet, the search runs just far enough to produce it.
      */
     public DijkstraStep nextStep() {
-        if (currentStepIndex < steps.size() - 1) {
+        if (currentStepIndex < stepCount() - 1 || generateStep()) {
             currentStepIndex++;
-            return steps.get(currentStepIndex);
+            return stepAt(currentStepIndex);
         }
         return null;  // We've reached the end
     }
@@ -151,38 +464,79 @@ public class DijkstraAlgorithm {
      * Useful if you want to review what just happened.
      */
     public DijkstraStep previousStep() {
-        if (currentStepIndex > 0) {
+        if (currentStepIndex > Math.max(0, firstHeldStep())) {
             currentStepIndex--;
-            return steps.get(currentStepIndex);
+            return stepAt(currentStepIndex);
+        }
+        return null;  // We're at the beginning, or as far back as we kept
+    }
+
+    /**
+     * Jump straight to any step of the animation, like dragging a seek bar.
+     * Recorded steps are stored in order, so jumping back takes the same time wherever we land;
+     * jumping past the last recorded step runs the search forward until it gets there.
+     * @param index The step to show; clamped to the steps that exist and are still held
+     * @return The step we landed on, or null if there are no steps yet
+     */
+    public DijkstraStep seek(int index) {
+        if (stepCount() == 0) return null;
+        while (index >= stepCount() && generateStep()) {
+            // Produce steps until we reach the one asked for, or the search ends
         }
-        return null;  // We're at the beginning
+        currentStepIndex = Math.max(firstHeldStep(), Math.min(index, stepCount() - 1));
+        return stepAt(currentStepIndex);
     }
 
     /**
      * Reconstruct the shortest path from start to target.
-     * We do this by following the 'previous' pointers we set during the algorithm,
+     * We do this by following the arcs the run recorded for each node,
      * like retracing our steps to find how we got to our destination.
+     * Each hop is one lookup, whatever the degree of the nodes along the way.
      */
     public List<Edge> getFinalPath() {
+        long start = metrics != null ? System.nanoTime() : 0;
         List<Edge> path = new ArrayList<>();
         Node current = graph.getTargetNode();
         
-        // Follow the path backwards from target to start
-        while (current != null && current.getPrevious() != null) {
-            // Get the edge that connects current node to its previous node
-            Edge edge = graph.getEdge(current.getPrevious(), current);
-            if (edge != null) {
-                path.add(edge);
-            }
+        // Follow the path backwards from target to start, through the arcs the run recorded
+        while (current != null && previousArcs != null && previousArcs[current.getId()] >= 0) {
+            Edge edge = graph.getArcEdge(previousArcs[current.getId()]);
+            path.add(edge);
             // Move to the previous node in the path
-            current = current.getPrevious();
+            current = edge.getOtherNode(current);
         }
         
         // Reverse the path so it goes from start to target
         Collections.reverse(path);
+        if (metrics != null) metrics.addPathNanos(System.nanoTime() - start);
         return path;
     }
 
+    /**
+     * Collects the paths from the start to every node at once, as the search stands now:
+     * after a complete run, the whole shortest-path tree.
+     * @return The tree, independent of the graph's nodes from here on
+     */
+    public ShortestPathTree getShortestPathTree() {
+        List<Node> nodes = graph.getNodes();
+        double[] treeDistances = new double[nodes.size()];
+        int[] previousNodes = new int[nodes.size()];
+        int[] arcs = new int[nodes.size()];
+        Arrays.fill(treeDistances, Double.MAX_VALUE);
+        Arrays.fill(previousNodes, -1);
+        Arrays.fill(arcs, -1);
+        if (distances != null) {
+            for (Node node : nodes) {
+                int id = node.getId();
+                treeDistances[id] = distances[id];
+                arcs[id] = previousArcs[id];
+                if (arcs[id] >= 0) previousNodes[id] = graph.getArcEdge(arcs[id]).getOtherNode(node).getId();
+            }
+        }
+        Node startNode = graph.getStartNode();
+        return new ShortestPathTree(startNode != null ? startNode.getId() : -1, treeDistances, previousNodes, arcs);
+    }
+
     /**
      * Represents a single step in our algorithm visualization.
      * Each step captures what's happening at that moment:
@@ -190,28 +544,69 @@ public class DijkstraAlgorithm {
      * - Which edge we're considering
      * - What distances we know
      * - A human-readable description of what's happening
+     * Descriptions of visit and relax steps are only built when the UI asks for them,
+     * so recording a step in the search loop doesn't format any text.
      */
     public static class DijkstraStep {
-        private final String description;      // What's happening in this step
+        private String description;            // What's happening in this step, built lazily
         private final Node highlightedNode;    // The node we're focusing on
         private final Edge highlightedEdge;    // The edge we're considering
         private final Node updatedNode;        // The node whose distance we updated
-        private final Map<Node, Double> nodeDistances;  // Current best distances we know
+        private final DistanceView nodeDistances;  // Current best distances we know
+        private final Node fromNode;           // For relax steps: the node we're exploring
+        private final Node toNode;             // For relax steps: the neighbor we checked
 
         public DijkstraStep(String description, Node highlightedNode, Edge highlightedEdge, 
-                          Node updatedNode, Map<Node, Double> nodeDistances) {
+                          Node updatedNode, DistanceView nodeDistances) {
+            this(description, highlightedNode, highlightedEdge, updatedNode, nodeDistances, null, null);
+        }
+
+        private DijkstraStep(String description, Node highlightedNode, Edge highlightedEdge,
+                             Node updatedNode, DistanceView nodeDistances, Node fromNode, Node toNode) {
             this.description = description;
             this.highlightedNode = highlightedNode;
             this.highlightedEdge = highlightedEdge;
             this.updatedNode = updatedNode;
             this.nodeDistances = nodeDistances;
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        // The first step of a run, at its start node
+        static DijkstraStep begin(Node start, DistanceView nodeDistances) {
+            return new DijkstraStep("Starting our journey from " + start.getLabel(), start, null, null, nodeDistances);
+        }
+
+        // A step where we start exploring a node
+        static DijkstraStep visit(Node node, DistanceView nodeDistances) {
+            return new DijkstraStep(null, node, null, null, nodeDistances, null, null);
+        }
+
+        // A step where we check the edge from one node to a neighbor
+        static DijkstraStep relax(Node from, Edge edge, Node to, boolean improved, DistanceView nodeDistances) {
+            return new DijkstraStep(null, null, edge, improved ? to : null, nodeDistances, from, to);
         }
 
         // Getters for animation
-        public String getDescription() { return description; }
+        public String getDescription() {
+            if (description == null) {
+                if (toNode == null) {
+                    description = "Exploring node " + highlightedNode.getLabel();
+                } else if (updatedNode != null) {
+                    description = "Found a better path to " + toNode.getLabel() + 
+                                  " through " + fromNode.getLabel() + 
+                                  " (new distance: " + String.format("%.2f", nodeDistances.getDistance(toNode)) + ")";
+                } else {
+                    description = "Checked path to " + toNode.getLabel() + 
+                                  " through " + fromNode.getLabel() + 
+                                  " - no improvement found";
+                }
+            }
+            return description;
+        }
         public Node getHighlightedNode() { return highlightedNode; }
         public Edge getHighlightedEdge() { return highlightedEdge; }
         public Node getUpdatedNode() { return updatedNode; }
-        public Map<Node, Double> getNodeDistances() { return Collections.unmodifiableMap(nodeDistances); }
+        public DistanceView getNodeDistances() { return nodeDistances; }
     }
-} 
\ No newline at end of file
+}
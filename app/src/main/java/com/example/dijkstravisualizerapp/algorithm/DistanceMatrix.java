@@ -0,0 +1,136 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * The shortest distance between every pair of nodes, as one flat row-major array:
+ * the distance from node i to node j is at index i * size + j. Unreachable pairs hold
+ * Double.MAX_VALUE. A matrix costs 8 bytes per pair, so 5,000 nodes take 200 MB; the
+ * flat layout keeps it to a single allocation and lets rows be scanned sequentially.
+ */
+public class DistanceMatrix {
+    // File header: magic, format version, node count
+    private static final int MAGIC = 0x44415053;  // "DAPS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final int size;
+    private final double[] distances;
+
+    /**
+     * Creates a matrix for a graph of the given size with every distance unknown.
+     * @param size The number of nodes
+     */
+    public DistanceMatrix(int size) {
+        if ((long) size * size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A distance matrix of " + size + " nodes exceeds the array limit");
+        }
+        this.size = size;
+        this.distances = new double[size * size];
+        Arrays.fill(distances, Double.MAX_VALUE);
+    }
+
+    public int size() { return size; }
+
+    /**
+     * @param from The id of the node to start from
+     * @param to The id of the node to reach
+     * @return The shortest distance, or Double.MAX_VALUE if there is no path
+     */
+    public double get(int from, int to) { return distances[from * size + to]; }
+
+    void set(int from, int to, double distance) { distances[from * size + to] = distance; }
+
+    // The backing array, for engines that fill the matrix in place
+    double[] array() { return distances; }
+
+    /**
+     * Writes the matrix to a file that {@link #readFrom(File)} can load later.
+     * @param file The file to write, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeTo(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(size);
+            header.flip();
+            writeFully(channel, header);
+
+            // Stream the rows out through one reusable buffer
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            DoubleBuffer values = buffer.asDoubleBuffer();
+            int written = 0;
+            while (written < distances.length) {
+                int count = Math.min(values.capacity(), distances.length - written);
+                values.clear();
+                values.put(distances, written, count);
+                buffer.clear();
+                buffer.limit(count * 8);
+                writeFully(channel, buffer);
+                written += count;
+            }
+        }
+    }
+
+    /**
+     * Loads a matrix written by {@link #writeTo(File)}.
+     * @param file The matrix file
+     * @return The matrix
+     * @throws IOException If the file cannot be read or is not a distance matrix
+     */
+    public static DistanceMatrix readFrom(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_BYTES);
+            readFully(channel, buffer, file);
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a distance matrix: " + file);
+            }
+            int size = buffer.getInt();
+            if (channel.size() < HEADER_BYTES + 8L * size * size) {
+                throw new IOException("Truncated distance matrix " + file);
+            }
+
+            DistanceMatrix matrix = new DistanceMatrix(size);
+            double[] distances = matrix.distances;
+            buffer.clear();
+            // A view over the whole buffer, so each chunk read below shows up in it
+            DoubleBuffer values = buffer.asDoubleBuffer();
+            int read = 0;
+            while (read < distances.length) {
+                int count = Math.min(BUFFER_BYTES / 8, distances.length - read);
+                buffer.clear();
+                buffer.limit(count * 8);
+                readFully(channel, buffer, file);
+                values.clear();
+                values.get(distances, read, count);
+                read += count;
+            }
+            return matrix;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, File file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new IOException("Truncated distance matrix " + file);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+/**
+ * How node distances and predecessor arcs evolve over the steps of a run.
+ * Changes are numbered in step order, so the nodes that differ between two steps are
+ * the changes between firstChangeAfter of each. Implemented in memory by {@link DistanceTrace}
+ * and on disk by {@link FileStepTrace}.
+ */
+public interface DistanceTimeline {
+
+    int getNodeCount();
+
+    int getChangeCount();
+
+    /**
+     * Looks up a node's distance as it stood after a step.
+     * @param node The id of the node
+     * @param step The index of the step
+     * @return The distance, or Double.MAX_VALUE if the node hadn't been reached by then
+     */
+    double getDistance(int node, int step);
+
+    /**
+     * Looks up the arc a node was reached through as it stood after a step.
+     * @param node The id of the node
+     * @param step The index of the step
+     * @return The arc id, or -1 if the node hadn't been reached through any arc by then
+     */
+    int getPreviousArc(int node, int step);
+
+    /**
+     * Finds where the changes after a step begin.
+     * The nodes that differ between steps a < b are those of changes
+     * firstChangeAfter(a) up to, but excluding, firstChangeAfter(b).
+     * @param step The index of a step, or -1 for the state before the first step
+     * @return The index of the first change recorded after that step
+     */
+    int firstChangeAfter(int step);
+
+    int getChangeNode(int change);
+
+    int getChangeStep(int change);
+
+    /**
+     * @return The distance the change gave its node
+     */
+    double getChangeDistance(int change);
+
+    /**
+     * @return The arc the change reached its node through
+     */
+    int getChangeArc(int change);
+
+    /**
+     * The distance the change's node had just before the change: that of the node's previous
+     * change, or its starting distance. Undoing the changes between two steps newest first
+     * with this brings every node back to the earlier step, without a lookup per node.
+     * @param change The index of a change
+     * @return The node's distance before the change
+     */
+    double getDistanceBefore(int change);
+
+    /**
+     * @param change The index of a change
+     * @return The arc the change's node was reached through just before the change, or -1
+     */
+    int getPreviousArcBefore(int change);
+
+    /**
+     * @param step The index of a step
+     * @return A read-only view of every node's distance as it stood after that step
+     */
+    DistanceView viewAt(int step);
+
+    /**
+     * Fills in the distance and predecessor arc of every node as they stood after a step.
+     * Cheaper than looking up each node on its own when most nodes are needed.
+     * @param step The index of a step, or -1 for the state before the first step
+     * @param distances Receives the distances, indexed by node id
+     * @param previousArcs Receives the predecessor arcs, indexed by node id
+     */
+    default void copyStateAt(int step, double[] distances, int[] previousArcs) {
+        for (int node = 0, count = getNodeCount(); node < count; node++) {
+            distances[node] = getDistance(node, step);
+            previousArcs[node] = getPreviousArc(node, step);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Records how node distances change over the steps of a run, using only primitive arrays.
+ * Instead of copying every distance into every step, it keeps the starting distances plus
+ * one entry per improvement, and each node remembers which entries belong to it.
+ * The distance of a node at any step is then a binary search over that node's own changes,
+ * and the nodes that differ between two steps are exactly the log entries between them,
+ * which lets a view jump anywhere in a run and touch only what changed.
+ */
+public class DistanceTrace implements DistanceTimeline {
+    private final double[] initialDistances;
+
+    // The change log: at step changeSteps[i], node changeNodes[i] got distance changeValues[i],
+    // reached through arc changeArcs[i]; changePrevious[i] is the node's entry before, or -1
+    private int[] changeSteps;
+    private int[] changeNodes;
+    private double[] changeValues;
+    private int[] changeArcs;
+    private int[] changePrevious;
+    private int changeCount;
+
+    // For each node, the indexes of its entries in the change log, in step order
+    private final int[][] nodeChanges;
+    private final int[] nodeChangeCounts;
+
+    /**
+     * Starts a trace from the distances before the first step.
+     * @param initialDistances The starting distance of each node, indexed by node id; copied
+     */
+    public DistanceTrace(double[] initialDistances) {
+        this.initialDistances = initialDistances.clone();
+        this.changeSteps = new int[16];
+        this.changeNodes = new int[16];
+        this.changeValues = new double[16];
+        this.changeArcs = new int[16];
+        this.changePrevious = new int[16];
+        this.nodeChanges = new int[initialDistances.length][];
+        this.nodeChangeCounts = new int[initialDistances.length];
+    }
+
+    /**
+     * Records that a node's distance changed at a step.
+     * Steps must be recorded in non-decreasing order.
+     * @param step The index of the step the change belongs to
+     * @param node The id of the node
+     * @param distance The node's new distance
+     * @param arc The arc the node is now reached through
+     */
+    public void record(int step, int node, double distance, int arc) {
+        if (changeCount == changeSteps.length) {
+            int capacity = changeCount * 2;
+            changeSteps = Arrays.copyOf(changeSteps, capacity);
+            changeNodes = Arrays.copyOf(changeNodes, capacity);
+            changeValues = Arrays.copyOf(changeValues, capacity);
+            changeArcs = Arrays.copyOf(changeArcs, capacity);
+            changePrevious = Arrays.copyOf(changePrevious, capacity);
+        }
+        changeSteps[changeCount] = step;
+        changeNodes[changeCount] = node;
+        changeValues[changeCount] = distance;
+        changeArcs[changeCount] = arc;
+
+        int[] changes = nodeChanges[node];
+        int count = nodeChangeCounts[node];
+        if (changes == null) {
+            changes = nodeChanges[node] = new int[2];
+        } else if (count == changes.length) {
+            changes = nodeChanges[node] = Arrays.copyOf(changes, count * 2);
+        }
+        changePrevious[changeCount] = count > 0 ? changes[count - 1] : -1;
+        changes[count] = changeCount;
+        nodeChangeCounts[node] = count + 1;
+        changeCount++;
+    }
+
+    /**
+     * Looks up a node's distance as it stood after a step.
+     * @param node The id of the node
+     * @param step The index of the step
+     * @return The distance, or Double.MAX_VALUE if the node hadn't been reached by then
+     */
+    @Override
+    public double getDistance(int node, int step) {
+        int change = lastChangeOf(node, step);
+        return change < 0 ? initialDistances[node] : changeValues[change];
+    }
+
+    /**
+     * Looks up the arc a node was reached through as it stood after a step.
+     * @param node The id of the node
+     * @param step The index of the step
+     * @return The arc id, or -1 if the node hadn't been reached through any arc by then
+     */
+    @Override
+    public int getPreviousArc(int node, int step) {
+        int change = lastChangeOf(node, step);
+        return change < 0 ? -1 : changeArcs[change];
+    }
+
+    /**
+     * Finds where the changes after a step begin in the change log.
+     * The nodes that differ between steps a < b are those of entries
+     * firstChangeAfter(a) up to, but excluding, firstChangeAfter(b).
+     * @param step The index of a step, or -1 for the state before the first step
+     * @return The index of the first change log entry recorded after that step
+     */
+    @Override
+    public int firstChangeAfter(int step) {
+        int low = 0, high = changeCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (changeSteps[mid] <= step) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    @Override
+    public int getChangeNode(int change) { return changeNodes[change]; }
+    @Override
+    public int getChangeStep(int change) { return changeSteps[change]; }
+    @Override
+    public double getChangeDistance(int change) { return changeValues[change]; }
+    @Override
+    public int getChangeArc(int change) { return changeArcs[change]; }
+
+    @Override
+    public double getDistanceBefore(int change) {
+        int previous = changePrevious[change];
+        return previous < 0 ? initialDistances[changeNodes[change]] : changeValues[previous];
+    }
+
+    @Override
+    public int getPreviousArcBefore(int change) {
+        int previous = changePrevious[change];
+        return previous < 0 ? -1 : changeArcs[previous];
+    }
+
+    // Index in the change log of the node's last change at or before the step, or -1
+    private int lastChangeOf(int node, int step) {
+        int[] changes = nodeChanges[node];
+        int low = 0, high = nodeChangeCounts[node] - 1, found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (changeSteps[changes[mid]] <= step) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found < 0 ? -1 : changes[found];
+    }
+
+    @Override
+    public int getNodeCount() { return initialDistances.length; }
+    @Override
+    public int getChangeCount() { return changeCount; }
+
+    /**
+     * @param step The index of a step
+     * @return A read-only view of every node's distance as it stood after that step
+     */
+    @Override
+    public DistanceView viewAt(int step) {
+        return new StepView(this, step);
+    }
+
+    // A view of any timeline at one step; it looks distances up on demand and copies nothing
+    static final class StepView implements DistanceView {
+        private final DistanceTimeline trace;
+        private final int step;
+
+        StepView(DistanceTimeline trace, int step) {
+            this.trace = trace;
+            this.step = step;
+        }
+
+        @Override
+        public double getDistance(int node) { return trace.getDistance(node, step); }
+
+        @Override
+        public int size() { return trace.getNodeCount(); }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Node;
+
+/**
+ * A read-only look at the best known distance of every node at one moment of a run.
+ * Distances are primitive doubles, with Double.MAX_VALUE standing for "not reached yet".
+ */
+public interface DistanceView {
+
+    /**
+     * @param node The id of a node
+     * @return The node's distance, or Double.MAX_VALUE if it hasn't been reached
+     */
+    double getDistance(int node);
+
+    /**
+     * @param node A node of the graph the run was made on
+     * @return The node's distance, or Double.MAX_VALUE if it hasn't been reached
+     */
+    default double getDistance(Node node) {
+        return getDistance(node.getId());
+    }
+
+    /**
+     * @return The number of nodes covered by this view
+     */
+    int size();
+}
@@ -0,0 +1,444 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * The steps of a run and the distance changes they caused, kept in a file instead of on the heap.
+ * A {@link Writer} appends fixed-size step and change records through buffered channels while the
+ * search runs, and every so many changes writes a keyframe holding the full distance and
+ * predecessor state. {@link #open(File)} memory-maps the finished file, so any step can be read
+ * back in constant time, and the state at any step is the nearest keyframe before it plus the
+ * few changes since. A run of hundreds of millions of steps thus costs disk space rather than
+ * heap, and a saved file can be replayed later without running the search again.
+ *
+ * File layout, little-endian: a header, then one 24-byte record per step
+ * (kind, node, arc, target, distance), then one 24-byte record per change
+ * (step, node, arc, the node's previous change or -1, distance), then the keyframes
+ * (all distances, then all arcs).
+ */
+public class FileStepTrace implements DistanceTimeline {
+    /** The run started at the step's node */
+    public static final int KIND_START = 0;
+    /** The step's node was taken from the frontier */
+    public static final int KIND_VISIT = 1;
+    /** The arc from the step's node to its target was checked without improvement */
+    public static final int KIND_RELAX = 2;
+    /** The arc from the step's node gave its target the step's distance */
+    public static final int KIND_IMPROVE = 3;
+
+    // File header: magic, format version, node count, arc count, start node, step count,
+    // change count, keyframe interval, keyframe count, padding
+    private static final int MAGIC = 0x44535452;  // "DSTR"
+    // Version 2 links each change to the node's previous one
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 40;
+    private static final int RECORD_BYTES = 24;
+    // Mappings are split into chunks under the 2 GB buffer limit; this size holds a whole
+    // number of records and keyframe values, so none of them straddles two chunks
+    private static final long CHUNK_BYTES = 3L << 28;
+    private static final int MIN_KEYFRAME_INTERVAL = 4096;
+
+    private final int nodeCount;
+    private final int arcCount;
+    private final int startNode;
+    private final int stepCount;
+    private final int changeCount;
+    private final int keyframeInterval;
+    private final long keyframeBytes;
+    private final Region steps;
+    private final Region changes;
+    private final Region keyframes;
+
+    private FileStepTrace(int nodeCount, int arcCount, int startNode, int stepCount, int changeCount,
+                          int keyframeInterval, Region steps, Region changes, Region keyframes) {
+        this.nodeCount = nodeCount;
+        this.arcCount = arcCount;
+        this.startNode = startNode;
+        this.stepCount = stepCount;
+        this.changeCount = changeCount;
+        this.keyframeInterval = keyframeInterval;
+        this.keyframeBytes = keyframeBytes(nodeCount);
+        this.steps = steps;
+        this.changes = changes;
+        this.keyframes = keyframes;
+    }
+
+    /**
+     * Memory-maps a trace file finished by a {@link Writer}.
+     * @param file The trace file
+     * @return A read-only trace backed by the mapped file
+     * @throws IOException If the file cannot be read or is not a finished trace file
+     */
+    public static FileStepTrace open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) throw new IOException("Truncated step trace " + file);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a step trace: " + file);
+            }
+            int nodeCount = header.getInt();
+            int arcCount = header.getInt();
+            int startNode = header.getInt();
+            int stepCount = header.getInt();
+            int changeCount = header.getInt();
+            int keyframeInterval = header.getInt();
+            int keyframeCount = header.getInt();
+            // A writer that never finished leaves the step count at zero
+            if (stepCount == 0) throw new IOException("Unfinished step trace " + file);
+
+            long position = HEADER_BYTES;
+            long stepBytes = (long) stepCount * RECORD_BYTES;
+            long changeBytes = (long) changeCount * RECORD_BYTES;
+            long allKeyframeBytes = keyframeCount * keyframeBytes(nodeCount);
+            if (channel.size() < position + stepBytes + changeBytes + allKeyframeBytes) {
+                throw new IOException("Truncated step trace " + file);
+            }
+            Region steps = new Region(channel, position, stepBytes);
+            position += stepBytes;
+            Region changes = new Region(channel, position, changeBytes);
+            position += changeBytes;
+            Region keyframes = new Region(channel, position, allKeyframeBytes);
+            // The mappings stay valid after the channel is closed
+            return new FileStepTrace(nodeCount, arcCount, startNode, stepCount, changeCount,
+                    keyframeInterval, steps, changes, keyframes);
+        }
+    }
+
+    public int getArcCount() { return arcCount; }
+    public int getStartNode() { return startNode; }
+    public int getStepCount() { return stepCount; }
+
+    /**
+     * @param step The index of a step
+     * @return One of the KIND_ constants
+     */
+    public int getStepKind(int step) { return steps.getInt((long) step * RECORD_BYTES); }
+
+    /**
+     * @return The node started from, visited, or relaxed from
+     */
+    public int getStepNode(int step) { return steps.getInt((long) step * RECORD_BYTES + 4); }
+
+    /**
+     * @return The arc checked by a relax step, or -1
+     */
+    public int getStepArc(int step) { return steps.getInt((long) step * RECORD_BYTES + 8); }
+
+    /**
+     * @return The node at the end of the arc checked by a relax step, or -1
+     */
+    public int getStepTarget(int step) { return steps.getInt((long) step * RECORD_BYTES + 12); }
+
+    /**
+     * @return The distance of the visited node, or the distance through the checked arc
+     */
+    public double getStepDistance(int step) { return steps.getDouble((long) step * RECORD_BYTES + 16); }
+
+    @Override
+    public int getNodeCount() { return nodeCount; }
+
+    @Override
+    public int getChangeCount() { return changeCount; }
+
+    @Override
+    public int getChangeStep(int change) { return changes.getInt((long) change * RECORD_BYTES); }
+
+    @Override
+    public int getChangeNode(int change) { return changes.getInt((long) change * RECORD_BYTES + 4); }
+
+    @Override
+    public int getChangeArc(int change) { return changes.getInt((long) change * RECORD_BYTES + 8); }
+
+    @Override
+    public double getChangeDistance(int change) { return changes.getDouble((long) change * RECORD_BYTES + 16); }
+
+    // The node's change before this one, or -1
+    private int getPreviousChange(int change) { return changes.getInt((long) change * RECORD_BYTES + 12); }
+
+    @Override
+    public double getDistanceBefore(int change) {
+        int previous = getPreviousChange(change);
+        if (previous >= 0) return getChangeDistance(previous);
+        return getChangeNode(change) == startNode ? 0 : Double.MAX_VALUE;
+    }
+
+    @Override
+    public int getPreviousArcBefore(int change) {
+        int previous = getPreviousChange(change);
+        return previous >= 0 ? getChangeArc(previous) : -1;
+    }
+
+    @Override
+    public int firstChangeAfter(int step) {
+        int low = 0, high = changeCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getChangeStep(mid) <= step) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    @Override
+    public double getDistance(int node, int step) {
+        int end = firstChangeAfter(step);
+        int change = lastChangeOf(node, end);
+        return change >= 0 ? getChangeDistance(change) : keyframes.getDouble(keyframeStart(end) + 8L * node);
+    }
+
+    @Override
+    public int getPreviousArc(int node, int step) {
+        int end = firstChangeAfter(step);
+        int change = lastChangeOf(node, end);
+        return change >= 0 ? getChangeArc(change) : keyframes.getInt(keyframeStart(end) + 8L * nodeCount + 4L * node);
+    }
+
+    @Override
+    public void copyStateAt(int step, double[] distances, int[] previousArcs) {
+        int end = firstChangeAfter(step);
+        long base = keyframeStart(end);
+        for (int node = 0; node < nodeCount; node++) {
+            distances[node] = keyframes.getDouble(base + 8L * node);
+            previousArcs[node] = keyframes.getInt(base + 8L * nodeCount + 4L * node);
+        }
+        for (int change = end / keyframeInterval * keyframeInterval; change < end; change++) {
+            int node = getChangeNode(change);
+            distances[node] = getChangeDistance(change);
+            previousArcs[node] = getChangeArc(change);
+        }
+    }
+
+    @Override
+    public DistanceView viewAt(int step) {
+        return new DistanceTrace.StepView(this, step);
+    }
+
+    // Where the keyframe holding the state before change `end` and all later changes begins
+    private long keyframeStart(int end) {
+        return end / keyframeInterval * keyframeBytes;
+    }
+
+    // The node's last change before `end` since the keyframe covering it, or -1.
+    // Scans backwards, so nodes that changed recently are found quickly.
+    private int lastChangeOf(int node, int end) {
+        int first = end / keyframeInterval * keyframeInterval;
+        for (int change = end - 1; change >= first; change--) {
+            if (getChangeNode(change) == node) return change;
+        }
+        return -1;
+    }
+
+    // A keyframe is every distance then every arc, padded so the next one's distances stay aligned
+    private static long keyframeBytes(int nodeCount) {
+        return (12L * nodeCount + 7) & ~7L;
+    }
+
+    // A read-only mapping of a file region of any length
+    private static final class Region {
+        private final ByteBuffer[] chunks;
+
+        Region(FileChannel channel, long position, long length) throws IOException {
+            int count = (int) ((length + CHUNK_BYTES - 1) / CHUNK_BYTES);
+            chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = i * CHUNK_BYTES;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + offset,
+                        Math.min(CHUNK_BYTES, length - offset)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        int getInt(long at) {
+            return chunks[(int) (at / CHUNK_BYTES)].getInt((int) (at % CHUNK_BYTES));
+        }
+
+        double getDouble(long at) {
+            return chunks[(int) (at / CHUNK_BYTES)].getDouble((int) (at % CHUNK_BYTES));
+        }
+    }
+
+    /**
+     * Streams the steps of a run into a trace file.
+     * Steps go straight to the file, while changes and keyframes are staged in temporary files
+     * next to it and appended by {@link #finish()}, so everything is written strictly sequentially.
+     * Memory use is the current distance state plus a few write buffers, whatever the run's length.
+     * Closing without finishing deletes the file, since a partial trace can't be opened.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_BYTES = 64 * 1024;
+
+        private final File file;
+        private final int nodeCount;
+        private final int arcCount;
+        private final int startNode;
+        private final int keyframeInterval;
+        // The state after the changes so far, from which keyframes are written, and each node's last change
+        private final double[] distances;
+        private final int[] previousArcs;
+        private final int[] lastChanges;
+
+        private final File changeFile;
+        private final File keyframeFile;
+        private final RandomAccessFile stepOut;
+        private final RandomAccessFile changeOut;
+        private final RandomAccessFile keyframeOut;
+        private final ByteBuffer stepBuffer;
+        private final ByteBuffer changeBuffer;
+        private final ByteBuffer keyframeBuffer;
+
+        private int stepCount;
+        private int changeCount;
+        private int keyframeCount;
+        private boolean finished;
+
+        /**
+         * Starts a trace file for a run on a graph.
+         * @param file The file to write, replaced if it exists
+         * @param nodeCount The number of nodes in the graph
+         * @param arcCount The number of arcs in the graph, kept to check replays against
+         * @param startNode The id of the node the run starts from
+         * @throws IOException If the file or its temporary companions cannot be created
+         */
+        public Writer(File file, int nodeCount, int arcCount, int startNode) throws IOException {
+            this.file = file;
+            this.nodeCount = nodeCount;
+            this.arcCount = arcCount;
+            this.startNode = startNode;
+            this.keyframeInterval = Math.max(MIN_KEYFRAME_INTERVAL, nodeCount / 4);
+            this.distances = new double[nodeCount];
+            this.previousArcs = new int[nodeCount];
+            Arrays.fill(distances, Double.MAX_VALUE);
+            this.lastChanges = new int[nodeCount];
+            Arrays.fill(previousArcs, -1);
+            Arrays.fill(lastChanges, -1);
+            distances[startNode] = 0;
+
+            File directory = file.getAbsoluteFile().getParentFile();
+            this.changeFile = File.createTempFile("changes", ".tmp", directory);
+            this.keyframeFile = File.createTempFile("keyframes", ".tmp", directory);
+            this.stepOut = new RandomAccessFile(file, "rw");
+            this.changeOut = new RandomAccessFile(changeFile, "rw");
+            this.keyframeOut = new RandomAccessFile(keyframeFile, "rw");
+            this.stepBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.changeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.keyframeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            FileChannel channel = stepOut.getChannel();
+            channel.truncate(0);
+            // The header is written last; until then the step count reads as zero
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES));
+            writeKeyframe();
+        }
+
+        /**
+         * Appends one step. An improving relax step also records the change it makes,
+         * and writes a keyframe whenever another interval of changes is complete.
+         * @param kind One of the KIND_ constants
+         * @param node The node started from, visited, or relaxed from
+         * @param arc The arc checked by a relax step, or -1
+         * @param target The node at the end of that arc, or -1
+         * @param distance The visited node's distance, or the distance through the arc
+         */
+        public void addStep(int kind, int node, int arc, int target, double distance) throws IOException {
+            if (stepBuffer.remaining() < RECORD_BYTES) flush(stepOut.getChannel(), stepBuffer);
+            stepBuffer.putInt(kind).putInt(node).putInt(arc).putInt(target).putDouble(distance);
+
+            if (kind == KIND_IMPROVE) {
+                if (changeBuffer.remaining() < RECORD_BYTES) flush(changeOut.getChannel(), changeBuffer);
+                changeBuffer.putInt(stepCount).putInt(target).putInt(arc).putInt(lastChanges[target]).putDouble(distance);
+                distances[target] = distance;
+                previousArcs[target] = arc;
+                lastChanges[target] = changeCount;
+                changeCount++;
+                if (changeCount % keyframeInterval == 0) writeKeyframe();
+            }
+            stepCount++;
+        }
+
+        public int getStepCount() { return stepCount; }
+
+        /**
+         * Appends the staged changes and keyframes and writes the header, after which
+         * the file can be opened with {@link FileStepTrace#open(File)}.
+         */
+        public void finish() throws IOException {
+            if (finished) return;
+            FileChannel out = stepOut.getChannel();
+            flush(out, stepBuffer);
+            flush(changeOut.getChannel(), changeBuffer);
+            flush(keyframeOut.getChannel(), keyframeBuffer);
+            append(out, changeOut.getChannel());
+            append(out, keyframeOut.getChannel());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(arcCount).putInt(startNode)
+                    .putInt(stepCount).putInt(changeCount).putInt(keyframeInterval).putInt(keyframeCount).putInt(0);
+            header.flip();
+            out.position(0);
+            writeFully(out, header);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                stepOut.close();
+                changeOut.close();
+                keyframeOut.close();
+            } finally {
+                changeFile.delete();
+                keyframeFile.delete();
+                if (!finished) file.delete();
+            }
+        }
+
+        private void writeKeyframe() throws IOException {
+            FileChannel channel = keyframeOut.getChannel();
+            for (double distance : distances) {
+                if (keyframeBuffer.remaining() < 8) flush(channel, keyframeBuffer);
+                keyframeBuffer.putDouble(distance);
+            }
+            for (int arc : previousArcs) {
+                if (keyframeBuffer.remaining() < 4) flush(channel, keyframeBuffer);
+                keyframeBuffer.putInt(arc);
+            }
+            if (nodeCount % 2 != 0) {
+                if (keyframeBuffer.remaining() < 4) flush(channel, keyframeBuffer);
+                keyframeBuffer.putInt(0);
+            }
+            keyframeCount++;
+        }
+
+        private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+
+        // Copies a whole staging file onto the end of the output, letting the OS move the bytes
+        private static void append(FileChannel out, FileChannel in) throws IOException {
+            long size = in.size();
+            long position = 0;
+            out.position(out.size());
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+/**
+ * The set of nodes Dijkstra's algorithm has reached but not yet settled,
+ * ordered by their tentative distance from the start.
+ * Nodes are addressed by their id inside the graph, and each node is held at most once:
+ * offering a shorter distance for a node already in the frontier moves it forward in place.
+ */
+public interface Frontier {
+
+    /**
+     * Adds a node to the frontier, or lowers its distance if it is already there.
+     * @param node The id of the node
+     * @param distance The tentative distance of the node
+     */
+    void offer(int node, double distance);
+
+    /**
+     * Removes the node with the smallest distance.
+     * @return The id of the removed node, or -1 if the frontier is empty
+     */
+    int poll();
+
+    /**
+     * Checks if a node is currently waiting in the frontier.
+     * @param node The id of the node
+     * @return true if the node has been offered and not yet polled
+     */
+    boolean contains(int node);
+
+    boolean isEmpty();
+
+    /**
+     * Removes every node, keeping the allocated storage for the next run.
+     */
+    void clear();
+
+    /**
+     * Picks the fastest frontier for the given graph.
+     * Graphs whose weights are all non-negative integers get a {@link RadixHeapFrontier};
+     * every other graph falls back to a {@link BinaryHeapFrontier}.
+     * @param graph The graph the search will run on
+     * @return An empty frontier sized for the graph
+     */
+    static Frontier create(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        for (int arc = 0, arcCount = graph.getArcCount(); arc < arcCount; arc++) {
+            if (!RadixHeapFrontier.supportsWeight(graph.getArcWeight(arc))) {
+                return new BinaryHeapFrontier(nodeCount);
+            }
+        }
+        return new RadixHeapFrontier(nodeCount);
+    }
+}
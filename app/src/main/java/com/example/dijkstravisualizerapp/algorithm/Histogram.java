@@ -0,0 +1,85 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Counts non-negative values, such as latencies in nanoseconds, in a fixed set of buckets:
+ * eight per power of two, so a percentile is reported within 12.5% of the true value.
+ * The buckets are allocated once; recording is one array increment and never allocates,
+ * so it can run on every frame or every query. Not thread-safe.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+    private long total;
+
+    public Histogram() {}
+
+    /**
+     * Copies another histogram, e.g. to hand its contents to another thread.
+     */
+    public Histogram(Histogram other) {
+        System.arraycopy(other.counts, 0, counts, 0, BUCKETS);
+        this.count = other.count;
+        this.max = other.max;
+        this.total = other.total;
+    }
+
+    /**
+     * @param value The value to count; negative values count as 0
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        counts[bucket(value)]++;
+        count++;
+        total += value;
+        max = Math.max(max, value);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = max = total = 0;
+    }
+
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+
+    public double getMean() { return count == 0 ? 0 : (double) total / count; }
+
+    /**
+     * @param percentile Between 0 and 100
+     * @return A value that at least that share of the recorded values don't exceed,
+     *         or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) return Math.min(bucketUpperBound(bucket), max);
+        }
+        return max;
+    }
+
+    // Values below 8 get a bucket each; above, the top bit picks the power of two and the next three the sub-bucket
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int topBit = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (topBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (topBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // The largest value that falls into the bucket
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
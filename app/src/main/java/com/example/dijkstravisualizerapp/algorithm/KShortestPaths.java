@@ -0,0 +1,304 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+import com.example.dijkstravisualizerapp.model.Node;
+import com.example.dijkstravisualizerapp.model.ReversedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the k shortest loopless paths between two nodes with Yen's algorithm, e.g. to offer
+ * alternative routes. Each new path branches off an earlier one at some spur node: the part
+ * before the spur is kept, and a spur search finds the best way on to the target that avoids
+ * the earlier paths' next arcs and the kept nodes.
+ *
+ * The spur searches share one shortest-path tree towards the target, computed once per query
+ * on the reversed graph. It prunes them in three ways: when the tree's own route from the spur
+ * avoids everything blocked, that route is the answer and no search runs; otherwise the tree's
+ * distances serve as an exact-lower-bound heuristic that steers the search (A*); and nodes the
+ * tree can't reach are never queued. The spur searches of one round are independent, so they
+ * run in parallel, each thread reusing a pooled workspace whose arrays are reset by generation
+ * stamps rather than cleared.
+ *
+ * The graph must not change while an instance is in use.
+ */
+public class KShortestPaths {
+    // Below this many spur nodes a round runs on the calling thread; forking would cost more
+    private static final int PARALLEL_THRESHOLD = 8;
+    private static final Comparator<Path> BY_COST = (a, b) -> {
+        int order = Double.compare(a.cost, b.cost);
+        return order != 0 ? order : Integer.compare(a.arcs.length, b.arcs.length);
+    };
+
+    private final Graph graph;
+    private final ReversedGraph reversed;
+    // Shortest paths towards the current target: distances double as the spur searches' heuristic
+    private final ShortestPathEngine toTarget;
+    private final WorkspacePool<SpurSearch> workspaces;
+    private boolean parallel = true;
+
+    public KShortestPaths(Graph graph) {
+        this.graph = graph;
+        this.reversed = new ReversedGraph(graph);
+        this.toTarget = new ShortestPathEngine(reversed);
+        this.workspaces = new WorkspacePool<>(() -> new SpurSearch(graph),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallel Whether spur searches of one round may run on several threads; on by default
+     */
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    /**
+     * Finds up to k shortest loopless paths, shortest first.
+     * @param source The node to start from
+     * @param target The node to reach
+     * @param k How many paths to find at most
+     * @return The paths as lists of edges; fewer than k if the graph has no more loopless paths
+     */
+    public List<List<Edge>> find(Node source, Node target, int k) {
+        List<Path> paths = findPaths(source.getId(), target.getId(), k);
+        List<List<Edge>> edgePaths = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            List<Edge> edges = new ArrayList<>(path.arcs.length);
+            for (int arc : path.arcs) {
+                edges.add(graph.getArcEdge(arc));
+            }
+            edgePaths.add(edges);
+        }
+        return edgePaths;
+    }
+
+    /**
+     * Finds up to k shortest loopless paths between node ids, shortest first.
+     * Not thread-safe: one query at a time per instance.
+     */
+    public List<Path> findPaths(int source, int target, int k) {
+        List<Path> accepted = new ArrayList<>();
+        if (k <= 0) return accepted;
+        toTarget.run(target);
+        if (toTarget.getDistance(source) == Double.MAX_VALUE) return accepted;
+
+        accepted.add(followTree(source, target, null, null, 0, 0));
+        PriorityQueue<Path> candidates = new PriorityQueue<>(BY_COST);
+        Set<Path> seen = new HashSet<>(accepted);
+        while (accepted.size() < k) {
+            Path last = accepted.get(accepted.size() - 1);
+            Path[] spurPaths = new Path[last.arcs.length];
+            if (parallel && spurPaths.length >= PARALLEL_THRESHOLD) {
+                IntStream.range(0, spurPaths.length).parallel()
+                        .forEach(i -> spurPaths[i] = spur(last, i, accepted, target));
+            } else {
+                for (int i = 0; i < spurPaths.length; i++) {
+                    spurPaths[i] = spur(last, i, accepted, target);
+                }
+            }
+            // Merge in spur order, so results don't depend on thread timing
+            for (Path path : spurPaths) {
+                if (path != null && seen.add(path)) candidates.add(path);
+            }
+            Path next = candidates.poll();
+            if (next == null) break;
+            accepted.add(next);
+        }
+        return accepted;
+    }
+
+    // The best path that follows `last` up to its i-th node and then deviates from every
+    // accepted path sharing that prefix, or null if there is none
+    private Path spur(Path last, int i, List<Path> accepted, int target) {
+        SpurSearch search = workspaces.acquire();
+        try {
+            search.begin();
+            for (int j = 0; j < i; j++) {
+                search.blockNode(last.nodes[j]);
+            }
+            for (Path path : accepted) {
+                if (path.arcs.length > i && path.sharesPrefix(last, i)) search.blockArc(path.arcs[i]);
+            }
+
+            int spurNode = last.nodes[i];
+            double rootCost = 0;
+            for (int j = 0; j < i; j++) {
+                rootCost += graph.getArcWeight(last.arcs[j]);
+            }
+            // Often the tree's route on from the spur node avoids everything blocked; it's then optimal
+            Path shortcut = followTree(spurNode, target, search, last, i, rootCost);
+            if (shortcut != null) return shortcut;
+            return search.run(spurNode, target, toTarget, last, i, rootCost);
+        } finally {
+            workspaces.release(search);
+        }
+    }
+
+    // Follows the tree from a node to the target, prefixed by the first i arcs of `root`.
+    // Returns null if the route runs into anything the search has blocked.
+    private Path followTree(int from, int target, SpurSearch blocked, Path root, int i, double rootCost) {
+        int length = 0;
+        for (int node = from; node != target; node = toTarget.getPrevious(node)) {
+            int arc = reversed.getOriginalArc(toTarget.getPreviousArc(node));
+            if (blocked != null && (blocked.isArcBlocked(arc) || blocked.isNodeBlocked(toTarget.getPrevious(node)))) {
+                return null;
+            }
+            length++;
+        }
+        int[] arcs = new int[i + length];
+        int[] nodes = new int[i + length + 1];
+        if (root != null) {
+            System.arraycopy(root.arcs, 0, arcs, 0, i);
+            System.arraycopy(root.nodes, 0, nodes, 0, i);
+        }
+        nodes[i] = from;
+        for (int node = from, at = i; node != target; node = toTarget.getPrevious(node), at++) {
+            arcs[at] = reversed.getOriginalArc(toTarget.getPreviousArc(node));
+            nodes[at + 1] = toTarget.getPrevious(node);
+        }
+        return new Path(arcs, nodes, rootCost + toTarget.getDistance(from));
+    }
+
+    /**
+     * One loopless path, as arc ids and the node ids they pass through.
+     * Two paths are equal when they use the same arcs.
+     */
+    public static final class Path {
+        private final int[] arcs;
+        private final int[] nodes;
+        private final double cost;
+        private final int hash;
+
+        Path(int[] arcs, int[] nodes, double cost) {
+            this.arcs = arcs;
+            this.nodes = nodes;
+            this.cost = cost;
+            this.hash = Arrays.hashCode(arcs);
+        }
+
+        public double getCost() { return cost; }
+        public int getArcCount() { return arcs.length; }
+        public int getArc(int index) { return arcs[index]; }
+        /**
+         * @param index From 0, the source, to getArcCount(), the target
+         */
+        public int getNode(int index) { return nodes[index]; }
+
+        // Whether both paths start with the same i arcs. Comparing arcs rather than nodes keeps
+        // paths that differ only in a parallel edge apart
+        boolean sharesPrefix(Path other, int i) {
+            for (int j = 0; j < i; j++) {
+                if (arcs[j] != other.arcs[j]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path && hash == ((Path) o).hash && Arrays.equals(arcs, ((Path) o).arcs);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    /**
+     * The reusable state of one spur search. Distances, blocked nodes and blocked arcs are
+     * valid only when stamped with the current generation, so starting a new search is O(1).
+     */
+    private static final class SpurSearch {
+        private final IndexedGraph graph;
+        private final Frontier frontier;
+        private final double[] distances;
+        private final int[] parentNodes;
+        private final int[] parentArcs;
+        private final int[] reachedStamps;
+        private final int[] blockedNodeStamps;
+        private final int[] blockedArcStamps;
+        private int generation;
+
+        SpurSearch(IndexedGraph graph) {
+            this.graph = graph;
+            this.frontier = Frontier.create(graph);
+            int nodeCount = graph.getNodeCount();
+            this.distances = new double[nodeCount];
+            this.parentNodes = new int[nodeCount];
+            this.parentArcs = new int[nodeCount];
+            this.reachedStamps = new int[nodeCount];
+            this.blockedNodeStamps = new int[nodeCount];
+            this.blockedArcStamps = new int[graph.getArcCount()];
+        }
+
+        void begin() {
+            if (++generation == Integer.MAX_VALUE) {
+                // Stamps would wrap; start over from clean arrays
+                Arrays.fill(reachedStamps, 0);
+                Arrays.fill(blockedNodeStamps, 0);
+                Arrays.fill(blockedArcStamps, 0);
+                generation = 1;
+            }
+            frontier.clear();
+        }
+
+        void blockNode(int node) { blockedNodeStamps[node] = generation; }
+        void blockArc(int arc) { blockedArcStamps[arc] = generation; }
+        boolean isNodeBlocked(int node) { return blockedNodeStamps[node] == generation; }
+        boolean isArcBlocked(int arc) { return blockedArcStamps[arc] == generation; }
+
+        /**
+         * A* from the spur node to the target around the blocked nodes and arcs, guided by
+         * the exact distances to the target in the unblocked graph.
+         * @return The whole path, root included, or null if the target can't be reached
+         */
+        Path run(int spurNode, int target, ShortestPathEngine toTarget, Path root, int i, double rootCost) {
+            distances[spurNode] = 0;
+            reachedStamps[spurNode] = generation;
+            frontier.offer(spurNode, toTarget.getDistance(spurNode));
+            while (!frontier.isEmpty()) {
+                int current = frontier.poll();
+                if (current == target) return buildPath(spurNode, target, root, i, rootCost);
+                double currentDistance = distances[current];
+                for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                    int neighbor = graph.getArcTarget(arc);
+                    if (isArcBlocked(arc) || isNodeBlocked(neighbor)) continue;
+                    double remaining = toTarget.getDistance(neighbor);
+                    // The target can't be reached from there at all
+                    if (remaining == Double.MAX_VALUE) continue;
+                    double newDist = currentDistance + graph.getArcWeight(arc);
+                    if (reachedStamps[neighbor] != generation || newDist < distances[neighbor]) {
+                        reachedStamps[neighbor] = generation;
+                        distances[neighbor] = newDist;
+                        parentNodes[neighbor] = current;
+                        parentArcs[neighbor] = arc;
+                        frontier.offer(neighbor, newDist + remaining);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Path buildPath(int spurNode, int target, Path root, int i, double rootCost) {
+            int length = 0;
+            for (int node = target; node != spurNode; node = parentNodes[node]) {
+                length++;
+            }
+            int[] arcs = new int[i + length];
+            int[] nodes = new int[i + length + 1];
+            System.arraycopy(root.arcs, 0, arcs, 0, i);
+            System.arraycopy(root.nodes, 0, nodes, 0, i);
+            nodes[i + length] = target;
+            for (int node = target, at = i + length - 1; node != spurNode; node = parentNodes[node], at--) {
+                arcs[at] = parentArcs[node];
+                nodes[at] = parentNodes[node];
+            }
+            return new Path(arcs, nodes, rootCost + distances[target]);
+        }
+    }
+}
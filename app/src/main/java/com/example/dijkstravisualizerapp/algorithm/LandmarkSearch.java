@@ -0,0 +1,188 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point A* guided by a {@link LandmarkTable}. The landmark bounds are consistent,
+ * so like Dijkstra's algorithm each node is settled once, but the search heads for the
+ * target instead of growing evenly in every direction, and settles far fewer nodes.
+ *
+ * Each query keeps only the few landmarks that bound the source-to-target distance best;
+ * the rest would mostly cost reads without tightening the bound. Arrays are stamped with
+ * a generation per query rather than cleared, so a query costs time in proportion to the
+ * nodes it reaches, not the size of the graph. One query at a time per instance.
+ */
+public class LandmarkSearch {
+    private static final int DEFAULT_ACTIVE_LANDMARKS = 4;
+
+    private final LandmarkTable table;
+    private final IndexedGraph graph;
+    private final Frontier frontier;
+    private final double[] distances;
+    // Each node's bound, computed once when it is first reached
+    private final double[] bounds;
+    private final int[] previousNodes;
+    private final int[] previousArcs;
+    private final int[] reachedStamps;
+    private int generation;
+    // The landmarks the current query uses, best bound first
+    private final int[] active;
+    private final double[] activeBounds;
+    private int activeCount;
+    private int source = -1;
+    private int target = -1;
+    private SolverMetrics metrics;
+
+    public LandmarkSearch(LandmarkTable table) {
+        this.table = table;
+        this.graph = table.getGraph();
+        this.frontier = Frontier.create(graph);
+        int nodeCount = graph.getNodeCount();
+        this.distances = new double[nodeCount];
+        this.bounds = new double[nodeCount];
+        this.previousNodes = new int[nodeCount];
+        this.previousArcs = new int[nodeCount];
+        this.reachedStamps = new int[nodeCount];
+        this.active = new int[table.getLandmarkCount()];
+        this.activeBounds = new double[active.length];
+        this.activeCount = Math.min(DEFAULT_ACTIVE_LANDMARKS, active.length);
+    }
+
+    /**
+     * @param count How many landmarks each query uses at most; all of them if more than the table has
+     */
+    public void setActiveLandmarks(int count) {
+        this.activeCount = Math.max(0, Math.min(count, active.length));
+    }
+
+    /**
+     * Attaches metrics that every following query reports into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) { this.metrics = metrics; }
+    public SolverMetrics getMetrics() { return metrics; }
+
+    /**
+     * Computes the shortest distance from the source to the target.
+     * @param source The id of the start node
+     * @param target The id of the target node
+     * @return The distance, or Double.MAX_VALUE if the target can't be reached
+     */
+    public double run(int source, int target) {
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+        this.source = source;
+        this.target = target;
+        if (++generation == Integer.MAX_VALUE) {
+            // Stamps would wrap; start over from a clean array
+            Arrays.fill(reachedStamps, 0);
+            generation = 1;
+        }
+        frontier.clear();
+        chooseLandmarks(source, target);
+        if (timed) {
+            long now = System.nanoTime();
+            metrics.addResetNanos(now - phaseStart);
+            phaseStart = now;
+        }
+
+        reach(source, 0, -1, -1);
+        if (bounds[source] != Double.MAX_VALUE) frontier.offer(source, bounds[source]);
+        long pushes = 1, pops = 0, decreaseKeys = 0, relaxations = 0, improved = 0;
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            pops++;
+            if (current == target) break;
+            double currentDistance = distances[current];
+            for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                int neighbor = graph.getArcTarget(arc);
+                double newDist = currentDistance + graph.getArcWeight(arc);
+                relaxations++;
+                if (reachedStamps[neighbor] != generation) {
+                    pushes++;
+                    improved++;
+                    reach(neighbor, newDist, current, arc);
+                    // Nodes the landmarks show can't reach the target are never queued
+                    if (bounds[neighbor] != Double.MAX_VALUE) frontier.offer(neighbor, newDist + bounds[neighbor]);
+                } else if (newDist < distances[neighbor]) {
+                    decreaseKeys++;
+                    improved++;
+                    distances[neighbor] = newDist;
+                    previousNodes[neighbor] = current;
+                    previousArcs[neighbor] = arc;
+                    if (bounds[neighbor] != Double.MAX_VALUE) frontier.offer(neighbor, newDist + bounds[neighbor]);
+                }
+            }
+        }
+
+        if (timed) {
+            metrics.addSearchNanos(System.nanoTime() - phaseStart);
+            metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+        }
+        return getDistance(target);
+    }
+
+    private void reach(int node, double distance, int previousNode, int previousArc) {
+        reachedStamps[node] = generation;
+        distances[node] = distance;
+        previousNodes[node] = previousNode;
+        previousArcs[node] = previousArc;
+        bounds[node] = table.lowerBound(node, target, active, activeCount);
+    }
+
+    // Keeps the landmarks that bound this query best, by insertion into a short sorted list
+    private void chooseLandmarks(int source, int target) {
+        int kept = 0;
+        for (int i = 0; i < active.length; i++) {
+            double bound = table.landmarkBound(source, target, i);
+            if (kept == activeCount && (kept == 0 || bound <= activeBounds[kept - 1])) continue;
+            // Append while there is room, otherwise drop the weakest
+            int at = kept < activeCount ? kept++ : kept - 1;
+            while (at > 0 && activeBounds[at - 1] < bound) {
+                activeBounds[at] = activeBounds[at - 1];
+                active[at] = active[at - 1];
+                at--;
+            }
+            activeBounds[at] = bound;
+            active[at] = i;
+        }
+    }
+
+    public int getSource() { return source; }
+
+    /**
+     * @param node The id of a node
+     * @return The distance the last query found to it, or Double.MAX_VALUE if it wasn't reached.
+     *         Only the target's distance is sure to be the shortest.
+     */
+    public double getDistance(int node) {
+        return reachedStamps[node] == generation ? distances[node] : Double.MAX_VALUE;
+    }
+
+    /**
+     * Reconstructs the shortest path found by the last query.
+     * @return The node ids from the source to the target, or an empty array if it wasn't reached
+     */
+    public int[] getPath() {
+        if (target < 0 || getDistance(target) == Double.MAX_VALUE) return new int[0];
+        int length = 1;
+        for (int node = target; previousNodes[node] >= 0; node = previousNodes[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target, i = length - 1; i >= 0; node = previousNodes[node], i--) {
+            path[i] = node;
+        }
+        return path;
+    }
+
+    /**
+     * @param node The id of a node on the last query's path
+     * @return The arc its path arrives by, or -1 for the source
+     */
+    public int getPreviousArc(int node) {
+        return reachedStamps[node] == generation ? previousArcs[node] : -1;
+    }
+}
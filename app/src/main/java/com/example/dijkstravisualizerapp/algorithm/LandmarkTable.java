@@ -0,0 +1,278 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+import com.example.dijkstravisualizerapp.model.ReversedGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed distances between every node and a few landmark nodes, for the ALT
+ * heuristic (A*, Landmarks, Triangle inequality). For a landmark L the triangle
+ * inequality gives two lower bounds on the distance from v to t:
+ * d(v, L) - d(t, L) and d(L, t) - d(L, v). The best of them over all landmarks is
+ * usually far tighter than the straight-line distance, and stays valid whatever the
+ * weights mean, as long as none is negative.
+ *
+ * Distances are kept in two flat tables, node-major, so the bounds for one node are
+ * a single run of reads. Building runs two full searches per landmark, from it and
+ * towards it, spread over every core.
+ */
+public class LandmarkTable {
+
+    /** How landmarks are chosen */
+    public enum Selection {
+        /**
+         * Each new landmark is the node farthest from all landmarks so far, spreading
+         * them out towards the edges of the graph. Cheap: one search per landmark.
+         */
+        FARTHEST,
+        /**
+         * Each new landmark sits at the end of the branch of a shortest-path tree where
+         * the landmarks so far give the weakest bounds (Goldberg and Werneck's "avoid").
+         * Slower to pick; whether its bounds beat FARTHEST depends on the graph.
+         */
+        AVOID
+    }
+
+    private final IndexedGraph graph;
+    private final int[] landmarks;
+    // fromLandmark[node * count + i] is d(landmark i, node), toLandmark[...] is d(node, landmark i)
+    private final double[] fromLandmark;
+    private final double[] toLandmark;
+    private final long buildNanos;
+
+    /**
+     * Picks landmarks and computes their distance tables.
+     * @param graph The graph; weights must not be negative
+     * @param count How many landmarks to pick; at most the number of nodes
+     * @param selection How to pick them
+     * @param seed Seeds the random choices, so the same seed gives the same landmarks
+     */
+    public LandmarkTable(IndexedGraph graph, int count, Selection selection, long seed) {
+        long start = System.nanoTime();
+        int nodeCount = graph.getNodeCount();
+        count = Math.min(count, nodeCount);
+        this.graph = graph;
+        this.landmarks = new int[count];
+        this.fromLandmark = new double[nodeCount * count];
+        this.toLandmark = new double[nodeCount * count];
+
+        ReversedGraph reversed = new ReversedGraph(graph);
+        int threads = Runtime.getRuntime().availableProcessors();
+        WorkspacePool<ShortestPathEngine> forward = new WorkspacePool<>(() -> new ShortestPathEngine(graph), threads);
+        WorkspacePool<ShortestPathEngine> backward = new WorkspacePool<>(() -> new ShortestPathEngine(reversed), threads);
+        Random random = new Random(seed);
+        if (selection == Selection.FARTHEST) {
+            selectFarthest(random, forward);
+            fillColumns(0, count, forward, backward);
+        } else {
+            // Each choice depends on the bounds of the landmarks before it
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = selectAvoiding(i, random, forward);
+                fillColumns(i, i + 1, forward, backward);
+            }
+        }
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    private void selectFarthest(Random random, WorkspacePool<ShortestPathEngine> engines) {
+        int nodeCount = graph.getNodeCount();
+        ShortestPathEngine engine = engines.acquire();
+        // Start from the node farthest from a random one rather than the random node itself
+        engine.run(random.nextInt(nodeCount));
+        for (int i = 0; i < landmarks.length; i++) {
+            if (i > 0) engine.runFromSources(Arrays.copyOf(landmarks, i));
+            int farthest = -1;
+            double farthestDistance = -1;
+            for (int node = 0; node < nodeCount; node++) {
+                double distance = engine.getDistance(node);
+                if (i > 0 && distance == 0) continue;
+                // A node no landmark reaches is farther than any reachable one
+                if (distance > farthestDistance) {
+                    farthest = node;
+                    farthestDistance = distance;
+                }
+            }
+            landmarks[i] = farthest;
+        }
+        engines.release(engine);
+    }
+
+    // Goldberg and Werneck's avoid: grow a shortest-path tree from a random root, weigh each
+    // node by how much the current bound underestimates its distance, and follow the heaviest
+    // subtrees down to a leaf. Subtrees holding a landmark weigh nothing.
+    private int selectAvoiding(int chosen, Random random, WorkspacePool<ShortestPathEngine> engines) {
+        int nodeCount = graph.getNodeCount();
+        ShortestPathEngine engine = engines.acquire();
+        try {
+            boolean[] holdsLandmark = new boolean[nodeCount];
+            for (int i = 0; i < chosen; i++) holdsLandmark[landmarks[i]] = true;
+            // Any node but a landmark; the walk below never ends on one
+            int root;
+            do {
+                root = random.nextInt(nodeCount);
+            } while (holdsLandmark[root]);
+            engine.run(root);
+            double[] gaps = new double[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                double distance = engine.getDistance(node);
+                if (distance != Double.MAX_VALUE) gaps[node] = distance - bound(root, node, chosen);
+            }
+            return heaviestLeaf(engine, gaps, holdsLandmark);
+        } finally {
+            engines.release(engine);
+        }
+    }
+
+    // Walks down the shortest-path tree of the engine's last run, from its source into the heaviest
+    // subtree each time, and returns where the weight runs out. A node weighs its gap plus its
+    // children; a subtree holding a landmark weighs nothing. Distances can't order the tree, as a
+    // zero-weight arc leaves a child as far as its parent, so it is walked through child lists.
+    static int heaviestLeaf(ShortestPathEngine engine, double[] gaps, boolean[] holdsLandmark) {
+        int nodeCount = gaps.length;
+        int root = engine.getSource();
+        // Each node's children, firstChild[node] .. firstChild[node + 1] - 1 in children
+        int[] firstChild = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            int parent = engine.getPrevious(node);
+            if (parent >= 0) firstChild[parent + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) firstChild[node + 1] += firstChild[node];
+        int[] children = new int[firstChild[nodeCount]];
+        int[] next = Arrays.copyOf(firstChild, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            int parent = engine.getPrevious(node);
+            if (parent >= 0) children[next[parent]++] = node;
+        }
+
+        // Breadth-first from the root puts every parent before its children, so read backwards
+        // it visits every subtree before its root
+        int[] order = new int[nodeCount];
+        int reached = 0;
+        order[reached++] = root;
+        for (int i = 0; i < reached; i++) {
+            for (int child = firstChild[order[i]]; child < firstChild[order[i] + 1]; child++) {
+                order[reached++] = children[child];
+            }
+        }
+
+        boolean[] holds = holdsLandmark.clone();
+        double[] sizes = new double[nodeCount];
+        int[] heaviestChild = new int[nodeCount];
+        Arrays.fill(heaviestChild, -1);
+        for (int i = reached - 1; i >= 0; i--) {
+            int node = order[i];
+            if (holds[node]) {
+                sizes[node] = 0;
+            } else {
+                sizes[node] += gaps[node];
+            }
+            int parent = engine.getPrevious(node);
+            if (parent < 0) continue;
+            if (holds[node]) holds[parent] = true;
+            sizes[parent] += sizes[node];
+            if (heaviestChild[parent] < 0 || sizes[node] > sizes[heaviestChild[parent]]) {
+                heaviestChild[parent] = node;
+            }
+        }
+        int node = root;
+        while (heaviestChild[node] >= 0 && sizes[heaviestChild[node]] > 0) {
+            node = heaviestChild[node];
+        }
+        return node;
+    }
+
+    // Fills landmark columns [first, end): one search from and one towards each landmark, in parallel
+    private void fillColumns(int first, int end, WorkspacePool<ShortestPathEngine> forward,
+                             WorkspacePool<ShortestPathEngine> backward) {
+        int count = landmarks.length;
+        int nodeCount = graph.getNodeCount();
+        IntStream.range(2 * first, 2 * end).parallel().forEach(task -> {
+            int column = task / 2;
+            boolean towards = (task & 1) == 1;
+            WorkspacePool<ShortestPathEngine> pool = towards ? backward : forward;
+            double[] table = towards ? toLandmark : fromLandmark;
+            ShortestPathEngine engine = pool.acquire();
+            try {
+                engine.run(landmarks[column]);
+                for (int node = 0; node < nodeCount; node++) {
+                    table[node * count + column] = engine.getDistance(node);
+                }
+            } finally {
+                pool.release(engine);
+            }
+        });
+    }
+
+    /**
+     * A lower bound on the distance from one node to another.
+     * @param from The id of the node to start from
+     * @param to The id of the node to reach
+     * @return The best bound any landmark gives, 0 if none gives one, or Double.MAX_VALUE
+     *         if a landmark shows the target can't be reached
+     */
+    public double lowerBound(int from, int to) {
+        return bound(from, to, landmarks.length);
+    }
+
+    // The best bound over the first `used` landmarks
+    private double bound(int from, int to, int used) {
+        double best = 0;
+        for (int i = 0; i < used; i++) {
+            best = Math.max(best, landmarkBound(from, to, i));
+        }
+        return best;
+    }
+
+    /**
+     * The lower bound using only some of the landmarks, for searches that keep to the
+     * few that bound their query best.
+     * @param active Indexes of the landmarks to use
+     * @param activeCount How many entries of active to use
+     */
+    double lowerBound(int from, int to, int[] active, int activeCount) {
+        double best = 0;
+        for (int a = 0; a < activeCount; a++) {
+            best = Math.max(best, landmarkBound(from, to, active[a]));
+        }
+        return best;
+    }
+
+    // The bound landmark i gives; a landmark that can't reach or be reached from both nodes gives none
+    double landmarkBound(int from, int to, int i) {
+        int count = landmarks.length;
+        int fromIndex = from * count + i, toIndex = to * count + i;
+        double best = 0;
+        double fromTo = toLandmark[fromIndex], targetTo = toLandmark[toIndex];
+        if (targetTo != Double.MAX_VALUE) {
+            // The target reaches the landmark but this node doesn't, so it can't reach the target either
+            if (fromTo == Double.MAX_VALUE) return Double.MAX_VALUE;
+            best = fromTo - targetTo;
+        }
+        double fromFrom = fromLandmark[fromIndex], targetFrom = fromLandmark[toIndex];
+        if (fromFrom != Double.MAX_VALUE && targetFrom != Double.MAX_VALUE) best = Math.max(best, targetFrom - fromFrom);
+        return Math.max(best, 0);
+    }
+
+    public IndexedGraph getGraph() { return graph; }
+
+    public int getLandmarkCount() { return landmarks.length; }
+
+    /**
+     * @param index From 0 to getLandmarkCount() - 1
+     * @return The id of the landmark node
+     */
+    public int getLandmark(int index) { return landmarks[index]; }
+
+    /**
+     * @return How long picking the landmarks and filling the tables took, in nanoseconds
+     */
+    public long getBuildNanos() { return buildNanos; }
+
+    /**
+     * @return The size of the distance tables in bytes
+     */
+    public long getTableBytes() { return 8L * (fromLandmark.length + toLandmark.length); }
+}
@@ -0,0 +1,165 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap of node ids for graphs whose weights are all non-negative integers.
+ * It relies on Dijkstra's distances never going below the last polled one: a node is filed
+ * into the bucket of the highest bit where its distance differs from that last value, so
+ * polling only ever compares keys inside one bucket instead of sifting a whole heap.
+ * Lowering a node's distance files a fresh entry and leaves the old one to be skipped later.
+ */
+public class RadixHeapFrontier implements Frontier {
+    // Largest weight we accept, so that distances stay exact both as doubles and as longs
+    static final double MAX_WEIGHT = 1L << 32;
+
+    // Bucket 0 holds keys equal to lastKey; bucket i holds keys whose highest bit differing from lastKey is i - 1
+    private static final int BUCKET_COUNT = 65;
+
+    private final int[][] bucketNodes;
+    private final long[][] bucketKeys;
+    private final int[] bucketSizes;
+    // Current distance of each node and whether it is still waiting, indexed by node id
+    private long[] keys;
+    private boolean[] queued;
+    private int queuedCount;
+    // The last key polled; every key in the heap is at least this large
+    private long lastKey;
+
+    /**
+     * Creates an empty radix heap able to hold every node of a graph.
+     * @param nodeCount The number of nodes in the graph
+     */
+    public RadixHeapFrontier(int nodeCount) {
+        this.bucketNodes = new int[BUCKET_COUNT][];
+        this.bucketKeys = new long[BUCKET_COUNT][];
+        this.bucketSizes = new int[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketNodes[i] = new int[4];
+            bucketKeys[i] = new long[4];
+        }
+        this.keys = new long[Math.max(nodeCount, 1)];
+        this.queued = new boolean[keys.length];
+    }
+
+    /**
+     * Checks if an edge weight can be handled by this heap.
+     * @param weight The weight of an edge
+     * @return true if the weight is a non-negative integer small enough to keep distances exact
+     */
+    public static boolean supportsWeight(double weight) {
+        return weight >= 0 && weight <= MAX_WEIGHT && weight == Math.rint(weight);
+    }
+
+    @Override
+    public void offer(int node, double distance) {
+        ensureCapacity(node + 1);
+        long key = (long) distance;
+        if (queued[node]) {
+            if (key >= keys[node]) return;  // Never move a node backwards
+        } else {
+            queued[node] = true;
+            queuedCount++;
+        }
+        if (key < lastKey) {
+            throw new IllegalArgumentException("Distance " + distance + " is below the last polled distance " + lastKey);
+        }
+        keys[node] = key;
+        push(bucketOf(key), node, key);
+    }
+
+    @Override
+    public int poll() {
+        if (queuedCount == 0) return -1;
+        while (true) {
+            // Anything live in bucket 0 has the smallest possible key
+            while (bucketSizes[0] > 0) {
+                int index = --bucketSizes[0];
+                int node = bucketNodes[0][index];
+                if (isLive(node, bucketKeys[0][index])) {
+                    queued[node] = false;
+                    queuedCount--;
+                    return node;
+                }
+            }
+            redistributeFirstNonEmptyBucket();
+        }
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return node >= 0 && node < queued.length && queued[node];
+    }
+
+    @Override
+    public boolean isEmpty() { return queuedCount == 0; }
+
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            for (int i = 0; i < bucketSizes[bucket]; i++) {
+                queued[bucketNodes[bucket][i]] = false;
+            }
+            bucketSizes[bucket] = 0;
+        }
+        queuedCount = 0;
+        lastKey = 0;
+    }
+
+    /**
+     * Moves the smallest key of the first non-empty bucket into lastKey and spreads that
+     * bucket's entries over the lower buckets. Stale entries are dropped along the way.
+     */
+    private void redistributeFirstNonEmptyBucket() {
+        for (int bucket = 1; bucket < BUCKET_COUNT; bucket++) {
+            int size = bucketSizes[bucket];
+            if (size == 0) continue;
+            int[] nodes = bucketNodes[bucket];
+            long[] entryKeys = bucketKeys[bucket];
+
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                if (isLive(nodes[i], entryKeys[i]) && entryKeys[i] < min) {
+                    min = entryKeys[i];
+                }
+            }
+            bucketSizes[bucket] = 0;
+            if (min == Long.MAX_VALUE) continue;  // Only stale entries were left here
+
+            lastKey = min;
+            for (int i = 0; i < size; i++) {
+                if (isLive(nodes[i], entryKeys[i])) {
+                    push(bucketOf(entryKeys[i]), nodes[i], entryKeys[i]);
+                }
+            }
+            return;
+        }
+        throw new IllegalStateException("Radix heap lost track of " + queuedCount + " queued nodes");
+    }
+
+    private boolean isLive(int node, long key) {
+        return queued[node] && keys[node] == key;
+    }
+
+    private int bucketOf(long key) {
+        return key == lastKey ? 0 : 64 - Long.numberOfLeadingZeros(key ^ lastKey);
+    }
+
+    private void push(int bucket, int node, long key) {
+        int size = bucketSizes[bucket];
+        if (size == bucketNodes[bucket].length) {
+            bucketNodes[bucket] = Arrays.copyOf(bucketNodes[bucket], size * 2);
+            bucketKeys[bucket] = Arrays.copyOf(bucketKeys[bucket], size * 2);
+        }
+        bucketNodes[bucket][size] = node;
+        bucketKeys[bucket][size] = key;
+        bucketSizes[bucket] = size + 1;
+    }
+
+    private void ensureCapacity(int nodeCount) {
+        if (nodeCount <= keys.length) return;
+        int capacity = Math.max(nodeCount, keys.length * 2);
+        keys = Arrays.copyOf(keys, capacity);
+        queued = Arrays.copyOf(queued, capacity);
+    }
+}
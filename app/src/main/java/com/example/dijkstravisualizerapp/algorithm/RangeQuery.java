@@ -0,0 +1,207 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Finds every node within a cost limit of a source, e.g. the service area of a depot.
+ * Unlike a full run it never relaxes past the limit, so its cost depends on the size of the
+ * area rather than the graph. Several limits can be given at once to get isochrone bands
+ * from a single search: nodes settle in order of distance, so each band is a contiguous
+ * run of the reached nodes.
+ *
+ * An instance is a workspace: its arrays are allocated once, and a query only resets the
+ * nodes the previous one touched, so repeated queries allocate nothing and cost nothing
+ * for the parts of the graph they don't reach. Results stay valid until the next query.
+ * Use one instance per thread, e.g. from a {@link WorkspacePool}.
+ */
+public class RangeQuery {
+    private final IndexedGraph graph;
+    private final Frontier frontier;
+    // Best known distance to each node; Double.MAX_VALUE except for nodes the last query touched
+    private final double[] distances;
+    // The nodes whose distance the last query set, so the next one can reset just those
+    private final int[] touched;
+    private int touchedCount;
+    // The nodes within the limit and their distances, in order of distance
+    private final int[] reachedNodes;
+    private final double[] reachedDistances;
+    private int reachedCount;
+    // The band limits of the last query, and where each band ends among the reached nodes
+    private double[] bandLimits = new double[4];
+    private int[] bandEnds = new int[4];
+    private int bandCount;
+    private final double[] singleLimit = new double[1];
+    // Where counters and timings go, or null to skip measuring
+    private SolverMetrics metrics;
+
+    public RangeQuery(IndexedGraph graph) {
+        this.graph = graph;
+        this.frontier = Frontier.create(graph);
+        int nodeCount = graph.getNodeCount();
+        this.distances = new double[nodeCount];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        this.touched = new int[nodeCount];
+        this.reachedNodes = new int[nodeCount];
+        this.reachedDistances = new double[nodeCount];
+    }
+
+    /**
+     * Finds every node whose shortest distance from the source is at most the limit.
+     * @param source The id of the start node
+     * @param limit The largest distance to include
+     * @return The number of nodes reached, including the source
+     */
+    public int run(int source, double limit) {
+        singleLimit[0] = limit;
+        return runBands(source, singleLimit);
+    }
+
+    /**
+     * Finds the nodes in each of several distance bands in one search.
+     * Band b holds the nodes farther than bandLimits[b - 1] but at most bandLimits[b] away;
+     * band 0 starts at the source.
+     * @param source The id of the start node
+     * @param bandLimits Ascending, non-negative band limits; the last one bounds the search. Copied.
+     * @return The number of nodes reached, including the source
+     */
+    public int runBands(int source, double[] bandLimits) {
+        if (bandLimits.length == 0) throw new IllegalArgumentException("At least one band limit is needed");
+        for (int band = 0; band < bandLimits.length; band++) {
+            if (!(bandLimits[band] >= 0) || (band > 0 && bandLimits[band] < bandLimits[band - 1])) {
+                throw new IllegalArgumentException("Band limits must be ascending and non-negative");
+            }
+        }
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+
+        // Undo only what the previous query touched
+        for (int i = 0; i < touchedCount; i++) {
+            distances[touched[i]] = Double.MAX_VALUE;
+        }
+        touchedCount = 0;
+        reachedCount = 0;
+        frontier.clear();
+        setBandLimits(bandLimits);
+        double limit = bandLimits[bandLimits.length - 1];
+
+        distances[source] = 0;
+        touched[touchedCount++] = source;
+        frontier.offer(source, 0);
+        if (timed) {
+            long now = System.nanoTime();
+            metrics.addResetNanos(now - phaseStart);
+            phaseStart = now;
+        }
+
+        long pushes = 1, pops = 0, decreaseKeys = 0, relaxations = 0, improved = 0;
+        int band = 0;
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            pops++;
+            double currentDistance = distances[current];
+            // Nodes settle in order of distance, so passing a band limit closes that band for good
+            while (currentDistance > bandLimits[band]) {
+                bandEnds[band++] = reachedCount;
+            }
+            reachedNodes[reachedCount] = current;
+            reachedDistances[reachedCount++] = currentDistance;
+
+            for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                int neighbor = graph.getArcTarget(arc);
+                double newDist = currentDistance + graph.getArcWeight(arc);
+                relaxations++;
+                // Never expand past the limit: such nodes are not even queued
+                if (newDist <= limit && newDist < distances[neighbor]) {
+                    if (distances[neighbor] == Double.MAX_VALUE) {
+                        touched[touchedCount++] = neighbor;
+                        pushes++;
+                    } else {
+                        decreaseKeys++;
+                    }
+                    improved++;
+                    distances[neighbor] = newDist;
+                    frontier.offer(neighbor, newDist);
+                }
+            }
+        }
+        while (band < bandCount) {
+            bandEnds[band++] = reachedCount;
+        }
+
+        if (timed) {
+            metrics.addSearchNanos(System.nanoTime() - phaseStart);
+            metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+        }
+        return reachedCount;
+    }
+
+    // Copies the limits into the reused band arrays, growing them only for more bands than ever before
+    private void setBandLimits(double[] limits) {
+        if (limits.length > this.bandLimits.length) {
+            this.bandLimits = new double[limits.length];
+            this.bandEnds = new int[limits.length];
+        }
+        System.arraycopy(limits, 0, this.bandLimits, 0, limits.length);
+        bandCount = limits.length;
+    }
+
+    /**
+     * Attaches metrics that every following query reports into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) { this.metrics = metrics; }
+    public SolverMetrics getMetrics() { return metrics; }
+
+    public IndexedGraph getGraph() { return graph; }
+
+    /**
+     * @return The number of nodes the last query reached
+     */
+    public int getReachedCount() { return reachedCount; }
+
+    /**
+     * @param index Between 0 and getReachedCount() - 1
+     * @return The id of a reached node; nodes are ordered by distance, nearest first
+     */
+    public int getReachedNode(int index) { return reachedNodes[index]; }
+
+    /**
+     * @param index Between 0 and getReachedCount() - 1
+     * @return The distance of the reached node at that index
+     */
+    public double getReachedDistance(int index) { return reachedDistances[index]; }
+
+    public int getBandCount() { return bandCount; }
+
+    /**
+     * The reached nodes of band b are those from index getBandEnd(b - 1), or 0 for the first
+     * band, up to but excluding getBandEnd(b).
+     * @param band The index of a band of the last query
+     * @return One past the index of the band's last reached node
+     */
+    public int getBandEnd(int band) { return bandEnds[band]; }
+
+    /**
+     * @param node The id of a node
+     * @return Its distance if the last query reached it, otherwise Double.MAX_VALUE
+     */
+    public double getDistance(int node) { return distances[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The band of the last query the node falls in, or -1 if it wasn't reached
+     */
+    public int getBand(int node) {
+        double distance = distances[node];
+        if (distance == Double.MAX_VALUE) return -1;
+        int low = 0, high = bandCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (distance <= bandLimits[mid]) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm over any {@link IndexedGraph}, without recording animation steps.
+ * It works purely on node and arc ids, so it runs the same on the in-memory {@code Graph}
+ * and on graphs that have no Node objects at all, like {@code OffHeapGraph}.
+ * The distance and predecessor arrays are allocated once and reused by every run.
+ * A run can also start from many sources at once, which partitions the graph by nearest
+ * source in the time of a single search.
+ * Weights must not be negative; {@link BellmanFordEngine} handles graphs where they are.
+ */
+public class ShortestPathEngine {
+    private final IndexedGraph graph;
+    private final Frontier frontier;
+    // Best known distance to each node, Double.MAX_VALUE if unreached
+    private final double[] distances;
+    // The node and arc each node was reached through, -1 for the source and unreached nodes
+    private final int[] previousNodes;
+    private final int[] previousArcs;
+    // For each node, the index in the sources array of the source it is nearest to, -1 if unreached
+    private final int[] owners;
+    private int source = -1;
+    // Reused so single-source runs don't allocate
+    private final int[] singleSource = new int[1];
+    // Marks the targets of a multi-target run; allocated on the first one
+    private boolean[] targetMarks;
+    // Where counters and timings go, or null to skip measuring
+    private SolverMetrics metrics;
+
+    /**
+     * Creates an engine for the given graph, picking the frontier that suits its weights.
+     */
+    public ShortestPathEngine(IndexedGraph graph) {
+        this(graph, Frontier.create(graph));
+    }
+
+    /**
+     * Creates an engine with the given frontier. A graph whose weights change between runs,
+     * such as a {@code VersionedGraph.Reader}, needs a {@link BinaryHeapFrontier}: the radix
+     * heap only suits weights that are known to stay integers.
+     * @param graph The graph to search
+     * @param frontier An empty frontier able to hold every node of the graph
+     */
+    public ShortestPathEngine(IndexedGraph graph, Frontier frontier) {
+        this.graph = graph;
+        this.frontier = frontier;
+        int nodeCount = graph.getNodeCount();
+        this.distances = new double[nodeCount];
+        this.previousNodes = new int[nodeCount];
+        this.previousArcs = new int[nodeCount];
+        this.owners = new int[nodeCount];
+    }
+
+    /**
+     * Computes shortest distances from the source to every reachable node.
+     * @param source The id of the start node
+     */
+    public void run(int source) {
+        singleSource[0] = source;
+        search(singleSource, -1, 0);
+    }
+
+    /**
+     * Computes, in one pass, the distance from every node to its nearest source and which
+     * source that is, e.g. the closest depot for each address. All sources start at distance
+     * zero, so the search grows from all of them together and each node is claimed by the
+     * first one to settle it; ties go to whichever source the frontier settles first.
+     * {@link #getOwner(int)} then gives the partition, and paths lead back to the owning source.
+     * @param sources The ids of the start nodes; a node listed twice counts once, at its first index
+     */
+    public void runFromSources(int... sources) {
+        search(sources, -1, 0);
+    }
+
+    /**
+     * Computes the shortest distance from the source to one target, stopping
+     * as soon as the target is settled.
+     * @param source The id of the start node
+     * @param target The id of the target node
+     * @return The distance to the target, or Double.MAX_VALUE if it can't be reached
+     */
+    public double run(int source, int target) {
+        singleSource[0] = source;
+        search(singleSource, target, 0);
+        return distances[target];
+    }
+
+    /**
+     * Computes the shortest distances from the source to several targets in one search,
+     * stopping as soon as all of them are settled. Answers a group of queries from the same
+     * source for the cost of the farthest one.
+     * @param source The id of the start node
+     * @param targets The ids of the target nodes; duplicates are fine
+     */
+    public void run(int source, int[] targets) {
+        if (targetMarks == null) targetMarks = new boolean[distances.length];
+        int targetCount = 0;
+        for (int target : targets) {
+            if (!targetMarks[target]) {
+                targetMarks[target] = true;
+                targetCount++;
+            }
+        }
+        singleSource[0] = source;
+        try {
+            search(singleSource, -1, targetCount);
+        } finally {
+            for (int target : targets) targetMarks[target] = false;
+        }
+    }
+
+    // Stops when the target is settled or, with targetCount > 0, when that many marked targets are
+    private void search(int[] sources, int target, int targetCount) {
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+
+        Arrays.fill(distances, Double.MAX_VALUE);
+        Arrays.fill(previousNodes, -1);
+        Arrays.fill(previousArcs, -1);
+        Arrays.fill(owners, -1);
+        frontier.clear();
+        this.source = sources.length == 1 ? sources[0] : -1;
+
+        long pushes = 0;
+        for (int i = 0; i < sources.length; i++) {
+            int source = sources[i];
+            if (owners[source] >= 0) continue;
+            distances[source] = 0;
+            owners[source] = i;
+            frontier.offer(source, 0);
+            pushes++;
+        }
+        if (timed) {
+            long now = System.nanoTime();
+            metrics.addResetNanos(now - phaseStart);
+            phaseStart = now;
+        }
+
+        long pops = 0, decreaseKeys = 0, relaxations = 0, improved = 0;
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            pops++;
+            if (current == target) break;
+            if (targetCount > 0 && targetMarks[current] && --targetCount == 0) break;
+            double currentDistance = distances[current];
+            for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                int neighbor = graph.getArcTarget(arc);
+                double newDist = currentDistance + graph.getArcWeight(arc);
+                relaxations++;
+                if (newDist < distances[neighbor]) {
+                    if (distances[neighbor] == Double.MAX_VALUE) pushes++;
+                    else decreaseKeys++;
+                    improved++;
+                    distances[neighbor] = newDist;
+                    previousNodes[neighbor] = current;
+                    previousArcs[neighbor] = arc;
+                    owners[neighbor] = owners[current];
+                    frontier.offer(neighbor, newDist);
+                }
+            }
+        }
+
+        if (timed) {
+            metrics.addSearchNanos(System.nanoTime() - phaseStart);
+            metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+        }
+    }
+
+    /**
+     * Attaches metrics that every following run and path reconstruction report into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) { this.metrics = metrics; }
+    public SolverMetrics getMetrics() { return metrics; }
+
+    public IndexedGraph getGraph() { return graph; }
+    /**
+     * @return The source of the last single-source run, or -1 after a run from several sources
+     */
+    public int getSource() { return source; }
+
+    /**
+     * @param node The id of a node
+     * @return The distance found by the last run, or Double.MAX_VALUE if the node wasn't reached
+     */
+    public double getDistance(int node) { return distances[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The node before it on its shortest path, or -1 for the source and unreached nodes
+     */
+    public int getPrevious(int node) { return previousNodes[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The arc its shortest path arrives by, or -1 for the source and unreached nodes
+     */
+    public int getPreviousArc(int node) { return previousArcs[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The index, in the sources of the last run, of the source nearest to the node,
+     *         or -1 if no source reaches it; always 0 for reached nodes after a single-source run
+     */
+    public int getOwner(int node) { return owners[node]; }
+
+    /**
+     * Reconstructs the shortest path found by the last run.
+     * @param target The id of the node to reach
+     * @return The node ids from the source to the target, or an empty array if it wasn't reached
+     */
+    public int[] getPath(int target) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (distances[target] == Double.MAX_VALUE) return new int[0];
+        int length = 1;
+        for (int node = target; previousNodes[node] >= 0; node = previousNodes[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target, i = length - 1; i >= 0; node = previousNodes[node], i--) {
+            path[i] = node;
+        }
+        if (metrics != null) metrics.addPathNanos(System.nanoTime() - start);
+        return path;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The result of a single-source search as a whole: the distance to every node and the
+ * arc each one is reached by, which together form the tree of shortest paths from the
+ * source. It is a copy, so it stays valid when the engine runs again.
+ *
+ * Every node also knows its depth, the number of arcs on its path, so a path is built by
+ * allocating it at its final length and filling it back to front, one array read per hop,
+ * without a second walk or a reversal. For route tables, {@link #writePathsTo(File)}
+ * streams the path to every node, and {@link #writeTo(File)} the tree itself.
+ */
+public class ShortestPathTree {
+    // Tree file header: magic, format version, node count, source
+    private static final int MAGIC = 0x44535054;  // "DSPT"
+    // Path file header: magic, format version, node count, source, path count
+    private static final int PATHS_MAGIC = 0x44535050;  // "DSPP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final int source;
+    // Distance of each node, Double.MAX_VALUE if unreached
+    private final double[] distances;
+    // The node and arc each node is reached through, -1 for the source and unreached nodes
+    private final int[] previousNodes;
+    private final int[] previousArcs;
+    // Arcs on each node's path, -1 for unreached nodes
+    private final int[] depths;
+
+    ShortestPathTree(int source, double[] distances, int[] previousNodes, int[] previousArcs) {
+        this.source = source;
+        this.distances = distances;
+        this.previousNodes = previousNodes;
+        this.previousArcs = previousArcs;
+        this.depths = computeDepths(distances, previousNodes);
+    }
+
+    /**
+     * Copies the tree found by the engine's last single-source run. A run that stopped at a
+     * target only has final distances for nodes no farther than the target.
+     * @param engine An engine that has run from one source
+     * @return The tree, independent of the engine from here on
+     */
+    public static ShortestPathTree of(ShortestPathEngine engine) {
+        int nodeCount = engine.getGraph().getNodeCount();
+        double[] distances = new double[nodeCount];
+        int[] previousNodes = new int[nodeCount];
+        int[] previousArcs = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            distances[node] = engine.getDistance(node);
+            previousNodes[node] = engine.getPrevious(node);
+            previousArcs[node] = engine.getPreviousArc(node);
+        }
+        return new ShortestPathTree(engine.getSource(), distances, previousNodes, previousArcs);
+    }
+
+    // Fills in each node's depth from its parent's, walking up only as far as the first node
+    // already known; throws IllegalArgumentException if the previous nodes run in a cycle
+    private static int[] computeDepths(double[] distances, int[] previousNodes) {
+        int nodeCount = distances.length;
+        int[] depths = new int[nodeCount];
+        // -2 while unknown, -3 while on the chain being walked
+        Arrays.fill(depths, -2);
+        int[] chain = new int[16];
+        for (int node = 0; node < nodeCount; node++) {
+            if (depths[node] != -2) continue;
+            if (distances[node] == Double.MAX_VALUE) {
+                depths[node] = -1;
+                continue;
+            }
+            int length = 0;
+            int current = node;
+            while (current >= 0 && depths[current] < -1) {
+                if (depths[current] == -3) throw new IllegalArgumentException("The previous nodes cycle through node " + current);
+                if (length == chain.length) chain = Arrays.copyOf(chain, 2 * length);
+                chain[length++] = current;
+                depths[current] = -3;
+                current = previousNodes[current];
+            }
+            int depth = current >= 0 ? depths[current] : -1;
+            while (length > 0) depths[chain[--length]] = ++depth;
+        }
+        return depths;
+    }
+
+    public int getSource() { return source; }
+    public int getNodeCount() { return distances.length; }
+
+    /**
+     * @param node The id of a node
+     * @return Its distance from the source, or Double.MAX_VALUE if it wasn't reached
+     */
+    public double getDistance(int node) { return distances[node]; }
+
+    public boolean isReached(int node) { return distances[node] != Double.MAX_VALUE; }
+
+    /**
+     * @param node The id of a node
+     * @return The node before it on its shortest path, or -1 for the source and unreached nodes
+     */
+    public int getPrevious(int node) { return previousNodes[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The arc its shortest path arrives by, or -1 for the source and unreached nodes
+     */
+    public int getPreviousArc(int node) { return previousArcs[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The number of arcs on its shortest path, 0 for the source, -1 if it wasn't reached
+     */
+    public int getDepth(int node) { return depths[node]; }
+
+    /**
+     * @param target The id of the node to reach
+     * @return The node ids from the source to the target, or an empty array if it wasn't reached
+     */
+    public int[] getPath(int target) {
+        int[] path = new int[depths[target] + 1];
+        for (int node = target, i = path.length - 1; i >= 0; node = previousNodes[node], i--) {
+            path[i] = node;
+        }
+        return path;
+    }
+
+    /**
+     * @param target The id of the node to reach
+     * @return The arc ids from the source to the target, or an empty array if it wasn't reached
+     *         or is the source
+     */
+    public int[] getPathArcs(int target) {
+        int[] arcs = new int[Math.max(depths[target], 0)];
+        for (int node = target, i = arcs.length - 1; i >= 0; node = previousNodes[node], i--) {
+            arcs[i] = previousArcs[node];
+        }
+        return arcs;
+    }
+
+    /**
+     * @param graph The graph the tree was computed on
+     * @param target The node to reach
+     * @return The edges from the source to the target, empty if it wasn't reached
+     */
+    public List<Edge> getPathEdges(Graph graph, int target) {
+        int[] arcs = getPathArcs(target);
+        List<Edge> edges = new ArrayList<>(arcs.length);
+        for (int arc : arcs) edges.add(graph.getArcEdge(arc));
+        return edges;
+    }
+
+    /**
+     * Writes the tree to a file that {@link #readFrom(File)} can load later: after the header,
+     * the previous node, the previous arc and the distance of every node, each as one block.
+     * @param file The file to write, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeTo(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(distances.length).putInt(source);
+            for (int previous : previousNodes) putInt(channel, buffer, previous);
+            for (int arc : previousArcs) putInt(channel, buffer, arc);
+            for (double distance : distances) {
+                if (buffer.remaining() < 8) flush(channel, buffer);
+                buffer.putDouble(distance);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Loads a tree written by {@link #writeTo(File)}.
+     * @param file The tree file
+     * @return The tree
+     * @throws IOException If the file cannot be read, is not a tree file, or is corrupt
+     */
+    public static ShortestPathTree readFrom(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, file);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a shortest-path tree: " + file);
+            }
+            int nodeCount = header.getInt();
+            int source = header.getInt();
+            // The body is read into one buffer, so it must fit an array
+            if (nodeCount < 0 || 16L * nodeCount > Integer.MAX_VALUE || source < -1 || source >= nodeCount) {
+                throw new IOException("Corrupt shortest-path tree " + file + ": " + nodeCount + " nodes, source " + source);
+            }
+            if (channel.size() < HEADER_BYTES + 16L * nodeCount) {
+                throw new IOException("Truncated shortest-path tree " + file);
+            }
+            ByteBuffer body = ByteBuffer.allocate(16 * nodeCount).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, body, file);
+            body.flip();
+            int[] previousNodes = new int[nodeCount];
+            int[] previousArcs = new int[nodeCount];
+            double[] distances = new double[nodeCount];
+            body.asIntBuffer().get(previousNodes);
+            body.position(4 * nodeCount);
+            body.asIntBuffer().get(previousArcs);
+            body.position(8 * nodeCount);
+            body.asDoubleBuffer().get(distances);
+            for (int node = 0; node < nodeCount; node++) {
+                if (previousNodes[node] < -1 || previousNodes[node] >= nodeCount || previousArcs[node] < -1) {
+                    throw new IOException("Corrupt shortest-path tree " + file + ": node " + node
+                            + " comes from node " + previousNodes[node] + " by arc " + previousArcs[node]);
+                }
+            }
+            try {
+                return new ShortestPathTree(source, distances, previousNodes, previousArcs);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt shortest-path tree " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the path to every reached node, as a route table: after the header, one record
+     * per node with its id, the number of nodes on its path, and the path's node ids from the
+     * source on. Records come in depth-first order of the tree, so each path is copied from
+     * a stack of the current branch instead of being walked back from its target.
+     * @param file The file to write, replaced if it exists
+     * @return The number of paths written
+     * @throws IOException If the file cannot be written
+     */
+    public int writePathsTo(File file) throws IOException {
+        int nodeCount = distances.length;
+        // The children of each node, grouped by parent
+        int[] childStarts = new int[nodeCount + 1];
+        int pathCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (previousNodes[node] >= 0) childStarts[previousNodes[node] + 1]++;
+            if (depths[node] >= 0) pathCount++;
+        }
+        for (int node = 0; node < nodeCount; node++) childStarts[node + 1] += childStarts[node];
+        int[] children = new int[childStarts[nodeCount]];
+        int[] cursors = Arrays.copyOf(childStarts, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            if (previousNodes[node] >= 0) children[cursors[previousNodes[node]]++] = node;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(PATHS_MAGIC).putInt(VERSION).putInt(nodeCount).putInt(source).putInt(pathCount);
+            // The current branch from a root, and the next child to visit at each level
+            int[] branch = new int[16];
+            int[] nextChild = new int[16];
+            for (int root = 0; root < nodeCount; root++) {
+                if (depths[root] != 0) continue;
+                int length = 0;
+                branch[length] = root;
+                nextChild[length++] = childStarts[root];
+                putPath(channel, buffer, branch, length);
+                while (length > 0) {
+                    int node = branch[length - 1];
+                    if (nextChild[length - 1] == childStarts[node + 1]) {
+                        length--;
+                        continue;
+                    }
+                    int child = children[nextChild[length - 1]++];
+                    if (length == branch.length) {
+                        branch = Arrays.copyOf(branch, 2 * length);
+                        nextChild = Arrays.copyOf(nextChild, 2 * length);
+                    }
+                    branch[length] = child;
+                    nextChild[length++] = childStarts[child];
+                    putPath(channel, buffer, branch, length);
+                }
+            }
+            flush(channel, buffer);
+        }
+        return pathCount;
+    }
+
+    private static void putPath(FileChannel channel, ByteBuffer buffer, int[] branch, int length) throws IOException {
+        putInt(channel, buffer, branch[length - 1]);
+        putInt(channel, buffer, length);
+        for (int i = 0; i < length; i++) putInt(channel, buffer, branch[i]);
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) flush(channel, buffer);
+        buffer.putInt(value);
+    }
+
+    // Writes out what the buffer holds and empties it for more
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, File file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new IOException("Truncated shortest-path tree " + file);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.Locale;
+
+/**
+ * Collects counters and phase timings from shortest-path runs.
+ * Solvers only report into it when one is attached, and they count in local variables
+ * during the search, publishing once per run; without metrics attached the search pays
+ * nothing beyond a few register increments and never reads the clock.
+ * Totals accumulate across runs until {@link #reset()}. Not thread-safe: attach one
+ * instance per solver, or take snapshots from the thread that runs it.
+ */
+public class SolverMetrics {
+    private long runs;
+    private long heapPushes;
+    private long heapPops;
+    private long decreaseKeys;
+    private long relaxations;
+    private long improvedRelaxations;
+    private long settledNodes;
+    private long resetNanos;
+    private long searchNanos;
+    private long pathNanos;
+    private long recordingNanos;
+
+    /**
+     * Adds the counters of one search.
+     */
+    void recordSearch(long heapPushes, long heapPops, long decreaseKeys, long relaxations,
+                      long improvedRelaxations, long settledNodes) {
+        this.runs++;
+        this.heapPushes += heapPushes;
+        this.heapPops += heapPops;
+        this.decreaseKeys += decreaseKeys;
+        this.relaxations += relaxations;
+        this.improvedRelaxations += improvedRelaxations;
+        this.settledNodes += settledNodes;
+    }
+
+    void addResetNanos(long nanos) { resetNanos += nanos; }
+    void addSearchNanos(long nanos) { searchNanos += nanos; }
+    void addPathNanos(long nanos) { pathNanos += nanos; }
+    void addRecordingNanos(long nanos) { recordingNanos += nanos; }
+
+    /**
+     * Clears all counters and timings.
+     */
+    public void reset() {
+        runs = heapPushes = heapPops = decreaseKeys = relaxations = improvedRelaxations = settledNodes = 0;
+        resetNanos = searchNanos = pathNanos = recordingNanos = 0;
+    }
+
+    /**
+     * @return An immutable copy of the current totals
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * The totals of a {@link SolverMetrics} at one moment, safe to hand to another thread or log.
+     * Search time includes step recording time when the solver records animation steps.
+     */
+    public static final class Snapshot {
+        private final long runs;
+        private final long heapPushes;
+        private final long heapPops;
+        private final long decreaseKeys;
+        private final long relaxations;
+        private final long improvedRelaxations;
+        private final long settledNodes;
+        private final long resetNanos;
+        private final long searchNanos;
+        private final long pathNanos;
+        private final long recordingNanos;
+
+        private Snapshot(SolverMetrics metrics) {
+            this.runs = metrics.runs;
+            this.heapPushes = metrics.heapPushes;
+            this.heapPops = metrics.heapPops;
+            this.decreaseKeys = metrics.decreaseKeys;
+            this.relaxations = metrics.relaxations;
+            this.improvedRelaxations = metrics.improvedRelaxations;
+            this.settledNodes = metrics.settledNodes;
+            this.resetNanos = metrics.resetNanos;
+            this.searchNanos = metrics.searchNanos;
+            this.pathNanos = metrics.pathNanos;
+            this.recordingNanos = metrics.recordingNanos;
+        }
+
+        public long getRuns() { return runs; }
+        public long getHeapPushes() { return heapPushes; }
+        public long getHeapPops() { return heapPops; }
+        public long getDecreaseKeys() { return decreaseKeys; }
+        public long getRelaxations() { return relaxations; }
+        public long getImprovedRelaxations() { return improvedRelaxations; }
+        public long getSettledNodes() { return settledNodes; }
+        public long getResetNanos() { return resetNanos; }
+        public long getSearchNanos() { return searchNanos; }
+        public long getPathNanos() { return pathNanos; }
+        public long getRecordingNanos() { return recordingNanos; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "SolverMetrics{runs=%d, pushes=%d, pops=%d, decreaseKeys=%d, relaxations=%d, improved=%d, settled=%d, "
+                            + "resetMs=%.3f, searchMs=%.3f, pathMs=%.3f, recordingMs=%.3f}",
+                    runs, heapPushes, heapPops, decreaseKeys, relaxations, improvedRelaxations, settledNodes,
+                    resetNanos / 1e6, searchNanos / 1e6, pathNanos / 1e6, recordingNanos / 1e6);
+        }
+    }
+}
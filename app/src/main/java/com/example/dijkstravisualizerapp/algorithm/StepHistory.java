@@ -0,0 +1,83 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * The recorded steps of a run, addressed by their absolute step index.
+ * With a limit it keeps only the most recent steps in a ring buffer, so a lazily
+ * generated run can go on for millions of steps in constant memory; without one it
+ * simply grows and keeps every step.
+ */
+class StepHistory extends AbstractList<DijkstraAlgorithm.DijkstraStep> {
+    static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final int limit;
+    private DijkstraAlgorithm.DijkstraStep[] ring;
+    // Absolute index of the oldest step still held, and how many steps were ever added
+    private int firstIndex;
+    private int totalAdded;
+
+    /**
+     * @param limit How many of the most recent steps to keep, or UNBOUNDED to keep all
+     */
+    StepHistory(int limit) {
+        this.limit = Math.max(limit, 1);
+        this.ring = new DijkstraAlgorithm.DijkstraStep[Math.min(this.limit, 64)];
+    }
+
+    @Override
+    public boolean add(DijkstraAlgorithm.DijkstraStep step) {
+        int held = totalAdded - firstIndex;
+        if (held == ring.length) {
+            if (ring.length < limit) {
+                grow();
+            } else {
+                ring[firstIndex % ring.length] = null;
+                firstIndex++;
+            }
+        }
+        ring[totalAdded % ring.length] = step;
+        totalAdded++;
+        return true;
+    }
+
+    /**
+     * @param index An absolute step index between getFirstIndex() and size() - 1
+     */
+    @Override
+    public DijkstraAlgorithm.DijkstraStep get(int index) {
+        if (index < firstIndex || index >= totalAdded) {
+            throw new IndexOutOfBoundsException("Step " + index + " is not held (" + firstIndex + ".." + (totalAdded - 1) + ")");
+        }
+        return ring[index % ring.length];
+    }
+
+    /**
+     * @return The number of steps ever added, i.e. one past the newest step index
+     */
+    @Override
+    public int size() { return totalAdded; }
+
+    @Override
+    public void clear() {
+        Arrays.fill(ring, null);
+        firstIndex = 0;
+        totalAdded = 0;
+    }
+
+    /**
+     * @return The index of the oldest step still held
+     */
+    int getFirstIndex() { return firstIndex; }
+
+    private void grow() {
+        // Unwrap the ring in step order into a larger array, keeping index % length addressing valid
+        int capacity = (int) Math.min((long) ring.length * 2, limit);
+        DijkstraAlgorithm.DijkstraStep[] larger = new DijkstraAlgorithm.DijkstraStep[capacity];
+        for (int index = firstIndex; index < totalAdded; index++) {
+            larger[index % capacity] = ring[index % ring.length];
+        }
+        ring = larger;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+import com.example.dijkstravisualizerapp.model.TravelTimeProfiles;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm for "leave at t" queries on arcs whose travel time depends on when
+ * they are entered, as given by {@link TravelTimeProfiles}. Nodes are settled in order of
+ * earliest arrival; since every arc is FIFO, arriving earlier at a node is never worse, so
+ * the first arrival settled is the best one, just as with fixed weights.
+ *
+ * Evaluating a profile is a binary search over its breakpoints. Most arcs entered around
+ * the same time fall into the same piece of their profile, so the engine keeps, per profile,
+ * the piece it last found and the time range it covers, and only searches again when a
+ * time falls outside it. The arrays are allocated once and reused by every run.
+ */
+public class TimeDependentEngine {
+    private final TravelTimeProfiles profiles;
+    private final IndexedGraph graph;
+    private final Frontier frontier;
+    // Earliest known arrival at each node, Double.MAX_VALUE if unreached
+    private final double[] arrivals;
+    // The node and arc each node was reached through, -1 for the source and unreached nodes
+    private final int[] previousNodes;
+    private final int[] previousArcs;
+    private int source = -1;
+    private double departure;
+    // Per profile, the breakpoint starting the piece last looked up and the times it covers
+    private int[] segments = new int[0];
+    private double[] segmentFrom = new double[0];
+    private double[] segmentTo = new double[0];
+    private long cacheHits;
+    private long cacheMisses;
+    // Where counters and timings go, or null to skip measuring
+    private SolverMetrics metrics;
+
+    /**
+     * Creates an engine for the graph the profiles belong to. Profiles can still be added
+     * and assigned afterwards, between runs.
+     */
+    public TimeDependentEngine(TravelTimeProfiles profiles) {
+        this.profiles = profiles;
+        this.graph = profiles.getGraph();
+        int nodeCount = graph.getNodeCount();
+        this.frontier = new BinaryHeapFrontier(nodeCount);
+        this.arrivals = new double[nodeCount];
+        this.previousNodes = new int[nodeCount];
+        this.previousArcs = new int[nodeCount];
+    }
+
+    /**
+     * Computes the earliest arrival at every reachable node.
+     * @param source The id of the start node
+     * @param departure When the trip leaves the source
+     */
+    public void run(int source, double departure) {
+        search(source, departure, -1);
+    }
+
+    /**
+     * Computes the earliest arrival at one target, stopping as soon as it is settled.
+     * @param source The id of the start node
+     * @param target The id of the target node
+     * @param departure When the trip leaves the source
+     * @return The arrival time at the target, or Double.MAX_VALUE if it can't be reached
+     */
+    public double run(int source, int target, double departure) {
+        search(source, departure, target);
+        return arrivals[target];
+    }
+
+    private void search(int source, double departure, int target) {
+        boolean timed = metrics != null;
+        long phaseStart = timed ? System.nanoTime() : 0;
+
+        Arrays.fill(arrivals, Double.MAX_VALUE);
+        Arrays.fill(previousNodes, -1);
+        Arrays.fill(previousArcs, -1);
+        frontier.clear();
+        resetCache();
+        this.source = source;
+        this.departure = departure;
+        arrivals[source] = departure;
+        frontier.offer(source, departure);
+        if (timed) {
+            long now = System.nanoTime();
+            metrics.addResetNanos(now - phaseStart);
+            phaseStart = now;
+        }
+
+        long pushes = 1, pops = 0, decreaseKeys = 0, relaxations = 0, improved = 0;
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            pops++;
+            if (current == target) break;
+            double currentArrival = arrivals[current];
+            for (int arc = graph.getFirstArc(current), end = graph.getArcEnd(current); arc < end; arc++) {
+                int neighbor = graph.getArcTarget(arc);
+                int profile = profiles.getProfile(arc);
+                double travel = graph.getArcWeight(arc);
+                if (profile >= 0) travel *= factor(profile, currentArrival);
+                double newArrival = currentArrival + travel;
+                relaxations++;
+                if (newArrival < arrivals[neighbor]) {
+                    if (arrivals[neighbor] == Double.MAX_VALUE) pushes++;
+                    else decreaseKeys++;
+                    improved++;
+                    arrivals[neighbor] = newArrival;
+                    previousNodes[neighbor] = current;
+                    previousArcs[neighbor] = arc;
+                    frontier.offer(neighbor, newArrival);
+                }
+            }
+        }
+
+        if (timed) {
+            metrics.addSearchNanos(System.nanoTime() - phaseStart);
+            metrics.recordSearch(pushes, pops, decreaseKeys, relaxations, improved, pops);
+        }
+    }
+
+    // The profile's factor at the time, searching the breakpoints only when the time leaves the cached piece
+    private double factor(int profile, double time) {
+        if (time >= segmentFrom[profile] && time < segmentTo[profile]) {
+            cacheHits++;
+            return profiles.interpolate(profile, segments[profile], time);
+        }
+        cacheMisses++;
+        int segment = profiles.getSegment(profile, time);
+        int first = profiles.getBreakpointStart(profile), last = profiles.getBreakpointEnd(profile) - 1;
+        segments[profile] = segment;
+        segmentFrom[profile] = segment == first ? Double.NEGATIVE_INFINITY : profiles.getBreakpointTime(segment);
+        segmentTo[profile] = segment == last ? Double.POSITIVE_INFINITY : profiles.getBreakpointTime(segment + 1);
+        return profiles.interpolate(profile, segment, time);
+    }
+
+    // Empties the cache, growing it first if profiles were added since the last run
+    private void resetCache() {
+        int profileCount = profiles.getProfileCount();
+        if (segments.length < profileCount) {
+            segments = new int[profileCount];
+            segmentFrom = new double[profileCount];
+            segmentTo = new double[profileCount];
+        }
+        // An empty range, so the first lookup of every profile misses
+        Arrays.fill(segmentFrom, Double.POSITIVE_INFINITY);
+        Arrays.fill(segmentTo, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Attaches metrics that every following run reports into.
+     * @param metrics The metrics to fill, or null to stop measuring
+     */
+    public void setMetrics(SolverMetrics metrics) { this.metrics = metrics; }
+    public SolverMetrics getMetrics() { return metrics; }
+
+    public TravelTimeProfiles getProfiles() { return profiles; }
+    public int getSource() { return source; }
+    public double getDeparture() { return departure; }
+
+    /**
+     * @param node The id of a node
+     * @return The earliest arrival found by the last run, or Double.MAX_VALUE if the node wasn't reached
+     */
+    public double getArrival(int node) { return arrivals[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return How long the trip from the source takes, or Double.MAX_VALUE if the node wasn't reached
+     */
+    public double getTravelTime(int node) {
+        return arrivals[node] == Double.MAX_VALUE ? Double.MAX_VALUE : arrivals[node] - departure;
+    }
+
+    /**
+     * @param node The id of a node
+     * @return The node before it on its fastest path, or -1 for the source and unreached nodes
+     */
+    public int getPrevious(int node) { return previousNodes[node]; }
+
+    /**
+     * @param node The id of a node
+     * @return The arc its fastest path arrives by, or -1 for the source and unreached nodes
+     */
+    public int getPreviousArc(int node) { return previousArcs[node]; }
+
+    /**
+     * @return How many profile lookups, over all runs, reused the cached piece
+     */
+    public long getCacheHits() { return cacheHits; }
+
+    /**
+     * @return How many profile lookups, over all runs, needed a binary search
+     */
+    public long getCacheMisses() { return cacheMisses; }
+
+    /**
+     * Reconstructs the fastest path found by the last run.
+     * @param target The id of the node to reach
+     * @return The node ids from the source to the target, or an empty array if it wasn't reached
+     */
+    public int[] getPath(int target) {
+        if (arrivals[target] == Double.MAX_VALUE) return new int[0];
+        int length = 1;
+        for (int node = target; previousNodes[node] >= 0; node = previousNodes[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target, i = length - 1; i >= 0; node = previousNodes[node], i--) {
+            path[i] = node;
+        }
+        return path;
+    }
+}
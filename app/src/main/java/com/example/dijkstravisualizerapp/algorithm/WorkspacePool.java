@@ -0,0 +1,52 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import java.util.function.Supplier;
+
+/**
+ * Hands out reusable search workspaces, such as {@link RangeQuery} or {@link ShortestPathEngine},
+ * so threads answering many queries don't allocate node-sized arrays per query.
+ * A workspace is created only when none is idle, and is kept for reuse when released, up to
+ * the pool's capacity. Acquiring and releasing an idle workspace allocates nothing.
+ * Safe to use from any thread; a workspace itself must only be used by the thread holding it.
+ */
+public class WorkspacePool<T> {
+    private final Supplier<? extends T> factory;
+    private final Object[] idle;
+    private int idleCount;
+
+    /**
+     * @param factory Creates a new workspace when none is idle
+     * @param capacity How many idle workspaces to keep at most
+     */
+    public WorkspacePool(Supplier<? extends T> factory, int capacity) {
+        this.factory = factory;
+        this.idle = new Object[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return An idle workspace, or a new one if all are in use
+     */
+    public T acquire() {
+        synchronized (this) {
+            if (idleCount > 0) {
+                @SuppressWarnings("unchecked")
+                T workspace = (T) idle[--idleCount];
+                idle[idleCount] = null;
+                return workspace;
+            }
+        }
+        // Create outside the lock; workspaces can be large
+        return factory.get();
+    }
+
+    /**
+     * Returns a workspace for reuse. It must not be used again by the caller.
+     */
+    public void release(T workspace) {
+        synchronized (this) {
+            if (idleCount < idle.length) idle[idleCount++] = workspace;
+        }
+    }
+
+    public synchronized int getIdleCount() { return idleCount; }
+}
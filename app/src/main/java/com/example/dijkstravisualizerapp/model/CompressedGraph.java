@@ -0,0 +1,215 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.Arrays;
+
+/**
+ * A read-only graph packed into a fraction of the memory of {@link Graph} or even
+ * {@link OffHeapGraph}, for networks too large to keep uncompressed.
+ * <ul>
+ *   <li>Each node's arcs are sorted by target and the targets stored as varint-encoded
+ *       differences: the first relative to the node itself, each next one relative to the
+ *       one before. With a locality-preserving numbering (see {@link NodeOrder}) most
+ *       arcs take one or two bytes instead of four.</li>
+ *   <li>Weights are quantized to 16 or 32-bit fixed point: weight × scale, rounded. A weight
+ *       reads back within {@link #getMaxWeightError()} of the original.</li>
+ * </ul>
+ * Nothing is decompressed up front. The arcs are cut into blocks of eight, and the first
+ * arc of each block is encoded relative to its node again, with its byte position and node
+ * kept aside; reading an arc decodes from the start of its node or its block, whichever is
+ * later, so at most seven arcs before it. Reads keep no state, so one instance can be
+ * searched from any number of threads at once, as the parallel engines do. Since arcs are
+ * sorted by target, arc ids differ from those of the graph it was compressed from.
+ */
+public class CompressedGraph implements IndexedGraph {
+    private static final int BLOCK_SHIFT = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int nodeCount;
+    private final int arcCount;
+    // x and y of each node, interleaved
+    private final float[] coordinates;
+    // nodeCount + 1 entries; the arcs of node i are firstArcs[i] .. firstArcs[i + 1] - 1
+    private final int[] firstArcs;
+    // One entry per block of arcs: the byte its encoded targets start at, and the node its first arc leaves
+    private final int[] blockPositions;
+    private final int[] blockNodes;
+    private final byte[] targets;
+    // Quantized weights, one of the two depending on the width
+    private final short[] shortWeights;
+    private final int[] intWeights;
+    private final double scale;
+
+    private CompressedGraph(int nodeCount, int arcCount, float[] coordinates, int[] firstArcs, int[] blockPositions,
+                            int[] blockNodes, byte[] targets, short[] shortWeights, int[] intWeights, double scale) {
+        this.nodeCount = nodeCount;
+        this.arcCount = arcCount;
+        this.coordinates = coordinates;
+        this.firstArcs = firstArcs;
+        this.blockPositions = blockPositions;
+        this.blockNodes = blockNodes;
+        this.targets = targets;
+        this.shortWeights = shortWeights;
+        this.intWeights = intWeights;
+        this.scale = scale;
+    }
+
+    /**
+     * Compresses any indexed graph.
+     * @param graph The graph to compress
+     * @param weightBits 16 or 32: the width of each quantized weight
+     * @param scale What weights are multiplied by before rounding; 100 keeps two decimals
+     * @return A compressed graph with the same node ids
+     * @throws IllegalArgumentException If a weight is negative or too large for the width at this scale
+     */
+    public static CompressedGraph compress(IndexedGraph graph, int weightBits, double scale) {
+        if (weightBits != 16 && weightBits != 32) {
+            throw new IllegalArgumentException("Weights take 16 or 32 bits, not " + weightBits);
+        }
+        if (!(scale > 0)) throw new IllegalArgumentException("Scale must be positive: " + scale);
+        long maxQuantized = weightBits == 16 ? 0xFFFF : Integer.MAX_VALUE;
+
+        int nodeCount = graph.getNodeCount();
+        int arcCount = graph.getArcCount();
+        float[] coordinates = new float[2 * nodeCount];
+        int[] firstArcs = new int[nodeCount + 1];
+        int blockCount = (arcCount + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int[] blockPositions = new int[blockCount];
+        int[] blockNodes = new int[blockCount];
+        short[] shortWeights = weightBits == 16 ? new short[arcCount] : null;
+        int[] intWeights = weightBits == 32 ? new int[arcCount] : null;
+        ByteSink sink = new ByteSink(arcCount + nodeCount);
+        // A node's arcs as (target << 32 | original arc), so sorting orders them by target
+        long[] arcs = new long[16];
+
+        int arc = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            coordinates[2 * node] = graph.getNodeX(node);
+            coordinates[2 * node + 1] = graph.getNodeY(node);
+            firstArcs[node] = arc;
+
+            int first = graph.getFirstArc(node), degree = graph.getArcEnd(node) - first;
+            if (degree > arcs.length) arcs = new long[Math.max(degree, 2 * arcs.length)];
+            for (int i = 0; i < degree; i++) {
+                arcs[i] = (long) graph.getArcTarget(first + i) << 32 | (first + i);
+            }
+            Arrays.sort(arcs, 0, degree);
+
+            int previous = node;
+            for (int i = 0; i < degree; i++, arc++) {
+                int target = (int) (arcs[i] >>> 32);
+                // The first arc of a node or of a block is relative to the node, the only difference that can be negative
+                boolean blockStart = (arc & (BLOCK_SIZE - 1)) == 0;
+                if (blockStart) {
+                    blockPositions[arc >>> BLOCK_SHIFT] = sink.size;
+                    blockNodes[arc >>> BLOCK_SHIFT] = node;
+                }
+                sink.writeVarint(i == 0 || blockStart ? zigzag(target - node) : target - previous);
+                previous = target;
+
+                double weight = graph.getArcWeight((int) arcs[i]);
+                long quantized = Math.round(weight * scale);
+                if (!(weight >= 0) || quantized > maxQuantized) {
+                    throw new IllegalArgumentException("Weight " + weight + " doesn't fit in " + weightBits
+                            + " bits at scale " + scale);
+                }
+                if (shortWeights != null) shortWeights[arc] = (short) quantized;
+                else intWeights[arc] = (int) quantized;
+            }
+        }
+        firstArcs[nodeCount] = arc;
+        return new CompressedGraph(nodeCount, arcCount, coordinates, firstArcs, blockPositions, blockNodes,
+                Arrays.copyOf(sink.bytes, sink.size), shortWeights, intWeights, scale);
+    }
+
+    @Override
+    public int getNodeCount() { return nodeCount; }
+
+    @Override
+    public int getArcCount() { return arcCount; }
+
+    @Override
+    public int getFirstArc(int node) { return firstArcs[node]; }
+
+    @Override
+    public int getArcEnd(int node) { return firstArcs[node + 1]; }
+
+    @Override
+    public int getArcTarget(int arc) {
+        if (arc < 0 || arc >= arcCount) throw new IndexOutOfBoundsException("No arc " + arc);
+        int block = arc >>> BLOCK_SHIFT, first = block << BLOCK_SHIFT;
+        int node = blockNodes[block];
+        while (firstArcs[node + 1] <= arc) node++;
+        // Decoding starts at the arc's node or its block, whichever comes later; the bytes before are only skipped
+        int start = Math.max(first, firstArcs[node]), position = blockPositions[block];
+        for (int skipped = first; skipped < start; ) {
+            if (targets[position++] >= 0) skipped++;
+        }
+        int target = 0;
+        for (int i = start; i <= arc; i++) {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = targets[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            target = i == start ? node + unzigzag(value) : target + value;
+        }
+        return target;
+    }
+
+    @Override
+    public double getArcWeight(int arc) {
+        return (shortWeights != null ? shortWeights[arc] & 0xFFFF : intWeights[arc]) / scale;
+    }
+
+    @Override
+    public float getNodeX(int node) { return coordinates[2 * node]; }
+
+    @Override
+    public float getNodeY(int node) { return coordinates[2 * node + 1]; }
+
+    public int getWeightBits() { return shortWeights != null ? 16 : 32; }
+    public double getScale() { return scale; }
+
+    /**
+     * @return How far at most a weight read back is from the weight it was compressed from
+     */
+    public double getMaxWeightError() { return 0.5 / scale; }
+
+    /**
+     * @return The bytes taken by the arrays holding the graph
+     */
+    public long getByteSize() {
+        long weightBytes = shortWeights != null ? 2L * shortWeights.length : 4L * intWeights.length;
+        return 4L * coordinates.length + 4L * firstArcs.length + 4L * blockPositions.length + 4L * blockNodes.length
+                + targets.length + weightBytes;
+    }
+
+    /**
+     * @return The bytes taken by the encoded arc targets alone
+     */
+    public long getTargetBytes() { return targets.length; }
+
+    private static int zigzag(int value) { return (value << 1) ^ (value >> 31); }
+
+    private static int unzigzag(int value) { return (value >>> 1) ^ -(value & 1); }
+
+    // A growable byte array for the encoded targets
+    private static final class ByteSink {
+        byte[] bytes;
+        int size;
+
+        ByteSink(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeVarint(int value) {
+            if (size + 5 > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(size + 5, 2 * bytes.length));
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
@@ -2,29 +2,48 @@ package com.example.dijkstravisualizerapp.model;
 
 /**
  * Represents an edge (connection) between two nodes in the graph.
- * Each edge has a weight and connects two nodes.
+ * Each edge has a weight and connects two nodes. An undirected edge can be
+ * traversed both ways; a directed edge only from its source to its destination.
  */
 public class Edge {
     private final Node source;
     private final Node destination;
     private final double weight;
+    private final boolean directed;
+    // Position in the graph's edge list, -1 until added
+    private int index = -1;
 
     /**
-     * Creates a new edge connecting two nodes with a specified weight.
+     * Creates a new undirected edge connecting two nodes with a specified weight.
      * @param source The source node
      * @param destination The destination node
      * @param weight The weight/cost of traversing this edge
      */
     public Edge(Node source, Node destination, double weight) {
+        this(source, destination, weight, false);
+    }
+
+    /**
+     * Creates a new edge connecting two nodes with a specified weight.
+     * @param source The source node
+     * @param destination The destination node
+     * @param weight The weight/cost of traversing this edge
+     * @param directed Whether the edge can only be traversed from source to destination
+     */
+    public Edge(Node source, Node destination, double weight, boolean directed) {
         this.source = source;
         this.destination = destination;
         this.weight = weight;
+        this.directed = directed;
     }
 
     // Getters
     public Node getSource() { return source; }
     public Node getDestination() { return destination; }
     public double getWeight() { return weight; }
+    public boolean isDirected() { return directed; }
+    int getIndex() { return index; }
+    void setIndex(int index) { this.index = index; }
 
     /**
      * Checks if this edge connects the given node.
@@ -36,7 +55,17 @@ public class Edge {
     }
 
     /**
-     * Gets the other node connected by this edge.
+     * Checks if this edge can be traversed from one node to another.
+     * @param from The node to leave
+     * @param to The node to arrive at
+     * @return true if the edge joins the nodes in that direction
+     */
+    public boolean leads(Node from, Node to) {
+        return (source == from && destination == to) || (!directed && source == to && destination == from);
+    }
+
+    /**
+     * Gets the other node connected by this edge, whichever way it may be traversed.
      * @param node One of the nodes connected by this edge
      * @return The other node connected by this edge, or null if the given node is not connected
      */
@@ -1,17 +1,40 @@
 package com.example.dijkstravisualizerapp.model;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * Represents a graph with nodes and edges.
  * Provides methods for graph operations and Dijkstra's algorithm.
  */
-public class Graph {
+public class Graph implements IndexedGraph {
+    // File header: magic, format version, node count, edge count, start id, target id
+    private static final int MAGIC = 0x44475246;  // "DGRF"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // A node record without its label: x, y, distance, previous id, visited, label length
+    private static final int NODE_BYTES = 25;
+    // An edge record: source id, destination id, weight, directed
+    private static final int EDGE_BYTES = 17;
+
     private final List<Node> nodes;
     private final List<Edge> edges;
     private Node startNode;
     private Node targetNode;
 
+    // Arc index for IndexedGraph, rebuilt lazily after nodes or edges are added
+    private int[] arcOffsets;
+    private int[] arcTargets;
+    private double[] arcWeights;
+    private Edge[] arcEdges;
+
     public Graph() {
         this.nodes = new ArrayList<>();
         this.edges = new ArrayList<>();
@@ -26,33 +49,88 @@ public class Graph {
     /**
      * Adds a node to the graph.
      * @param node The node to add
+     * @throws IllegalArgumentException If the node belongs to another graph
      */
     public void addNode(Node node) {
-        if (!nodes.contains(node)) {
+        if (!contains(node)) {
+            // Taking it over would renumber it under the other graph
+            if (node.getId() >= 0) throw new IllegalArgumentException("Node " + node.getLabel() + " belongs to another graph");
+            node.setId(nodes.size());
             nodes.add(node);
+            invalidateArcs();
         }
     }
 
     /**
-     * Adds an edge to the graph.
+     * Checks whether a node belongs to this graph.
+     * Uses the node's id, so the check does not scan the node list.
+     * @param node The node to check
+     * @return true if the node was added to this graph
+     */
+    public boolean contains(Node node) {
+        int id = node.getId();
+        return id >= 0 && id < nodes.size() && nodes.get(id) == node;
+    }
+
+    /**
+     * Checks whether an edge belongs to this graph.
+     * Uses the edge's index, so the check does not scan the edge list.
+     * @param edge The edge to check
+     * @return true if the edge was added to this graph
+     */
+    public boolean contains(Edge edge) {
+        int index = edge.getIndex();
+        return index >= 0 && index < edges.size() && edges.get(index) == edge;
+    }
+
+    /**
+     * Adds an edge to the graph, and its nodes if they aren't in it yet.
      * @param edge The edge to add
+     * @throws IllegalArgumentException If the edge or one of its nodes belongs to another graph
      */
     public void addEdge(Edge edge) {
-        if (!edges.contains(edge)) {
-            edges.add(edge);
-            // Ensure both nodes are in the graph
+        if (!contains(edge)) {
+            if (edge.getIndex() >= 0) throw new IllegalArgumentException("Edge " + edge + " belongs to another graph");
+            // Ensure both nodes are in the graph; this throws before the edge is added if one can't be
             addNode(edge.getSource());
             addNode(edge.getDestination());
+            edge.setIndex(edges.size());
+            edges.add(edge);
+            invalidateArcs();
         }
     }
 
+    /**
+     * Renumbers the nodes in the given order and rebuilds the arc index, so nodes that are
+     * close in the graph sit close in memory; see {@link NodeOrder}. Node objects, their
+     * labels and the edges stay the same, only ids change. Anything built from the old ids,
+     * such as an engine or a recorded run, must be rebuilt.
+     * @param order order[newId] = current id of the node to move there
+     * @throws IllegalArgumentException If order is not a permutation of the node ids
+     */
+    public void reorder(int[] order) {
+        if (order.length != nodes.size()) {
+            throw new IllegalArgumentException("Order has " + order.length + " nodes, graph has " + nodes.size());
+        }
+        NodeOrder.inverse(order);  // Validates the permutation
+        Node[] reordered = new Node[order.length];
+        for (int newId = 0; newId < order.length; newId++) {
+            reordered[newId] = nodes.get(order[newId]);
+        }
+        for (int newId = 0; newId < reordered.length; newId++) {
+            reordered[newId].setId(newId);
+            nodes.set(newId, reordered[newId]);
+        }
+        invalidateArcs();
+    }
+
     /**
      * Sets the start and target nodes for Dijkstra's algorithm.
      * @param start The start node
      * @param target The target node
      */
     public void setStartAndTarget(Node start, Node target) {
-        if (nodes.contains(start) && nodes.contains(target)) {
+        if (contains(start) && contains(target)) {
             this.startNode = start;
             this.targetNode = target;
         } else {
@@ -67,24 +145,121 @@ public class Graph {
      */
     public List<Edge> getEdgesForNode(Node node) {
         List<Edge> nodeEdges = new ArrayList<>();
+        if (!contains(node)) return nodeEdges;
+        ensureArcs();
+        for (int arc = arcOffsets[node.getId()]; arc < arcOffsets[node.getId() + 1]; arc++) {
+            nodeEdges.add(arcEdges[arc]);
+        }
+        return nodeEdges;
+    }
+
+    /**
+     * Gets the edge an arc was created from.
+     * @param arc The id of an arc, as used by {@link IndexedGraph}
+     * @return The edge behind the arc
+     */
+    public Edge getArcEdge(int arc) {
+        ensureArcs();
+        return arcEdges[arc];
+    }
+
+    @Override
+    public int getNodeCount() { return nodes.size(); }
+
+    @Override
+    public int getArcCount() {
+        ensureArcs();
+        return arcTargets.length;
+    }
+
+    @Override
+    public int getFirstArc(int node) {
+        ensureArcs();
+        return arcOffsets[node];
+    }
+
+    @Override
+    public int getArcEnd(int node) {
+        ensureArcs();
+        return arcOffsets[node + 1];
+    }
+
+    @Override
+    public int getArcTarget(int arc) {
+        ensureArcs();
+        return arcTargets[arc];
+    }
+
+    @Override
+    public double getArcWeight(int arc) {
+        ensureArcs();
+        return arcWeights[arc];
+    }
+
+    @Override
+    public float getNodeX(int node) { return nodes.get(node).getX(); }
+
+    @Override
+    public float getNodeY(int node) { return nodes.get(node).getY(); }
+
+    private void invalidateArcs() {
+        arcOffsets = null;
+    }
+
+    /**
+     * Builds the arc index: every undirected edge becomes one arc out of each of its nodes,
+     * and every directed edge one arc out of its source, grouped by the node they leave
+     * so each node's arcs are contiguous.
+     */
+    private void ensureArcs() {
+        if (arcOffsets != null) return;
+        int nodeCount = nodes.size();
+        int[] offsets = new int[nodeCount + 1];
         for (Edge edge : edges) {
-            if (edge.connects(node)) {
-                nodeEdges.add(edge);
+            offsets[edge.getSource().getId() + 1]++;
+            if (!edge.isDirected() && edge.getDestination() != edge.getSource()) {
+                offsets[edge.getDestination().getId() + 1]++;
             }
         }
-        return nodeEdges;
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        int[] targets = new int[offsets[nodeCount]];
+        double[] weights = new double[targets.length];
+        Edge[] arcEdgeArray = new Edge[targets.length];
+        for (Edge edge : edges) {
+            int source = edge.getSource().getId();
+            int destination = edge.getDestination().getId();
+            int arc = cursor[source]++;
+            targets[arc] = destination;
+            weights[arc] = edge.getWeight();
+            arcEdgeArray[arc] = edge;
+            if (!edge.isDirected() && destination != source) {
+                arc = cursor[destination]++;
+                targets[arc] = source;
+                weights[arc] = edge.getWeight();
+                arcEdgeArray[arc] = edge;
+            }
+        }
+
+        arcTargets = targets;
+        arcWeights = weights;
+        arcEdges = arcEdgeArray;
+        arcOffsets = offsets;
     }
 
     /**
-     * Gets the edge between two nodes if it exists.
-     * @param node1 First node
-     * @param node2 Second node
-     * @return The edge between the nodes, or null if no edge exists
+     * Gets the edge that leads from one node to another if it exists.
+     * Undirected edges match either way round, directed edges only from their source.
+     * @param node1 The node to leave
+     * @param node2 The node to arrive at
+     * @return The edge between the nodes, or null if no edge leads from node1 to node2
      */
     public Edge getEdge(Node node1, Node node2) {
         for (Edge edge : edges) {
-            if ((edge.getSource() == node1 && edge.getDestination() == node2) ||
-                (edge.getSource() == node2 && edge.getDestination() == node1)) {
+            if (edge.leads(node1, node2)) {
                 return edge;
             }
         }
@@ -100,6 +275,163 @@ public class Graph {
         }
     }
 
+    /**
+     * Copies the graph with what {@link #writeTo(File)} saves: node ids, positions, labels and
+     * state, edges in the same order, and the start and target. Nothing is shared, so the copy
+     * can be read on another thread while this graph keeps changing.
+     * @return A new graph whose arc index matches this one's
+     */
+    public Graph copy() {
+        Graph copy = new Graph();
+        for (Node node : nodes) {
+            Node copied = new Node(node.getX(), node.getY(), node.getLabel());
+            copied.setDistance(node.getDistance());
+            copied.setVisited(node.isVisited());
+            copy.addNode(copied);
+        }
+        for (Node node : nodes) {
+            if (node.getPrevious() != null) copy.nodes.get(node.getId()).setPrevious(copy.nodes.get(node.getPrevious().getId()));
+        }
+        for (Edge edge : edges) {
+            copy.addEdge(new Edge(copy.nodes.get(edge.getSource().getId()), copy.nodes.get(edge.getDestination().getId()),
+                    edge.getWeight(), edge.isDirected()));
+        }
+        if (startNode != null && targetNode != null) {
+            copy.setStartAndTarget(copy.nodes.get(startNode.getId()), copy.nodes.get(targetNode.getId()));
+        }
+        return copy;
+    }
+
+    /**
+     * Writes the graph to a file that {@link #readFrom(File)} can load later, together with
+     * the start and target and the distance, visited flag and previous node of every node,
+     * so a shown result comes back as it was. After the header, one record per node, then
+     * one per edge, all little-endian.
+     * @param file The file to write, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeTo(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(nodes.size()).putInt(edges.size())
+                    .putInt(startNode != null ? startNode.getId() : -1)
+                    .putInt(targetNode != null ? targetNode.getId() : -1);
+            for (Node node : nodes) {
+                byte[] label = node.getLabel().getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < NODE_BYTES) flush(channel, buffer);
+                buffer.putFloat(node.getX()).putFloat(node.getY()).putDouble(node.getDistance())
+                        .putInt(node.getPrevious() != null ? node.getPrevious().getId() : -1)
+                        .put((byte) (node.isVisited() ? 1 : 0)).putInt(label.length);
+                // Labels are short, but nothing stops one from outgrowing the buffer
+                for (int offset = 0; offset < label.length; ) {
+                    if (!buffer.hasRemaining()) flush(channel, buffer);
+                    int length = Math.min(buffer.remaining(), label.length - offset);
+                    buffer.put(label, offset, length);
+                    offset += length;
+                }
+            }
+            for (Edge edge : edges) {
+                if (buffer.remaining() < EDGE_BYTES) flush(channel, buffer);
+                buffer.putInt(edge.getSource().getId()).putInt(edge.getDestination().getId())
+                        .putDouble(edge.getWeight()).put((byte) (edge.isDirected() ? 1 : 0));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Loads a graph written by {@link #writeTo(File)}, with its start, target and node state.
+     * @param file The graph file
+     * @return A new graph with the same node ids, labels, positions and edges
+     * @throws IOException If the file cannot be read, is not a graph file, or is corrupt
+     */
+    public static Graph readFrom(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            require(channel, buffer, HEADER_BYTES, file);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            int nodeCount = buffer.getInt();
+            int edgeCount = buffer.getInt();
+            int start = buffer.getInt();
+            int target = buffer.getInt();
+            if (nodeCount < 0 || edgeCount < 0 || channel.size() < HEADER_BYTES + (long) NODE_BYTES * nodeCount
+                    + (long) EDGE_BYTES * edgeCount) {
+                throw new IOException("Truncated graph file " + file);
+            }
+            checkId(start, nodeCount, true, file);
+            checkId(target, nodeCount, true, file);
+
+            Graph graph = new Graph();
+            int[] previousIds = new int[nodeCount];
+            for (int id = 0; id < nodeCount; id++) {
+                require(channel, buffer, NODE_BYTES, file);
+                float x = buffer.getFloat(), y = buffer.getFloat();
+                double distance = buffer.getDouble();
+                previousIds[id] = checkId(buffer.getInt(), nodeCount, true, file);
+                boolean visited = buffer.get() != 0;
+                int labelLength = buffer.getInt();
+                // The labels must leave room for the edge records after them
+                long unread = channel.size() - channel.position() + buffer.remaining();
+                if (labelLength < 0 || labelLength > unread - (long) EDGE_BYTES * edgeCount) {
+                    throw new IOException("Corrupt graph file " + file + ": label of " + labelLength + " bytes");
+                }
+                byte[] label = new byte[labelLength];
+                for (int offset = 0; offset < label.length; ) {
+                    require(channel, buffer, 1, file);
+                    int length = Math.min(buffer.remaining(), label.length - offset);
+                    buffer.get(label, offset, length);
+                    offset += length;
+                }
+                Node node = new Node(x, y, new String(label, StandardCharsets.UTF_8));
+                node.setDistance(distance);
+                node.setVisited(visited);
+                graph.addNode(node);
+            }
+            for (int id = 0; id < nodeCount; id++) {
+                if (previousIds[id] >= 0) graph.nodes.get(id).setPrevious(graph.nodes.get(previousIds[id]));
+            }
+            for (int i = 0; i < edgeCount; i++) {
+                require(channel, buffer, EDGE_BYTES, file);
+                Node source = graph.nodes.get(checkId(buffer.getInt(), nodeCount, false, file));
+                Node destination = graph.nodes.get(checkId(buffer.getInt(), nodeCount, false, file));
+                double weight = buffer.getDouble();
+                graph.addEdge(new Edge(source, destination, weight, buffer.get() != 0));
+            }
+            if (start >= 0 && target >= 0) graph.setStartAndTarget(graph.nodes.get(start), graph.nodes.get(target));
+            return graph;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Returns the id if it names one of the file's nodes, or is -1 where none is allowed
+    private static int checkId(int id, int nodeCount, boolean optional, File file) throws IOException {
+        if (id >= nodeCount || id < (optional ? -1 : 0)) {
+            throw new IOException("Corrupt graph file " + file + ": node id " + id + " of " + nodeCount);
+        }
+        return id;
+    }
+
+    // Reads on until the buffer holds at least the given number of unread bytes
+    private static void require(FileChannel channel, ByteBuffer buffer, int bytes, File file) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) throw new IOException("Truncated graph file " + file);
+        }
+        buffer.flip();
+    }
+
     /**
      * Creates a graph with the hardcoded structure for the Dijkstra visualizer.
      * @return A new graph with the predefined structure
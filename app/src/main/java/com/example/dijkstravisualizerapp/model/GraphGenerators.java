@@ -0,0 +1,214 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded generators of large synthetic graphs, for seeing how the solvers and the view
+ * behave at sizes the hard-coded demo graph never reaches. Every generator writes its
+ * edges straight into an {@link OffHeapGraph.Builder}, so a graph of millions of edges
+ * never exists as Node and Edge objects; {@link #toGraph(IndexedGraph)} makes them when
+ * the view needs them. The same seed always gives the same graph.
+ *
+ * All edges are undirected with integer weights, so searches get the radix heap. Nodes
+ * are laid out roughly {@link #SPACING} apart, like nodes placed by hand in the view.
+ */
+public final class GraphGenerators {
+    /**
+     * The typical distance between neighboring nodes, in view pixels.
+     */
+    public static final float SPACING = 100;
+
+    private GraphGenerators() {}
+
+    /**
+     * A grid where each node joins its right and lower neighbors, like a street map.
+     * @param width Nodes per row
+     * @param height Nodes per column
+     * @param maxWeight Weights are drawn uniformly from 1 to this
+     * @param seed The seed for the weights
+     * @return A graph of width × height nodes and about 2 × width × height edges
+     */
+    public static OffHeapGraph grid(int width, int height, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int nodeCount = checkedNodeCount((long) width * height);
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(nodeCount, 2 * nodeCount);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int node = y * width + x;
+                builder.setNode(node, x * SPACING, y * SPACING);
+                if (x + 1 < width) builder.addEdge(node, node + 1, 1 + random.nextInt(maxWeight));
+                if (y + 1 < height) builder.addEdge(node, node + width, 1 + random.nextInt(maxWeight));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * A random geometric graph: nodes scattered uniformly over a square, joined whenever
+     * they are closer than a radius, with the distance rounded up as weight. Close to a
+     * road network in that edges are short and the graph is spatially local. Pairs are only
+     * compared within neighboring cells of a bucket grid, so generation is linear in the output.
+     * @param nodeCount The number of nodes
+     * @param averageDegree The expected number of neighbors per node, which sets the radius
+     * @param seed The seed for the positions
+     * @return A graph of about nodeCount × averageDegree / 2 edges
+     */
+    public static OffHeapGraph randomGeometric(int nodeCount, double averageDegree, long seed) {
+        Random random = new Random(seed);
+        double side = Math.sqrt(nodeCount) * SPACING;
+        // Expected neighbors are nodeCount × π r² / side²
+        double radius = side * Math.sqrt(averageDegree / (Math.PI * nodeCount));
+        float[] xs = new float[nodeCount], ys = new float[nodeCount];
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(nodeCount, (int) Math.min(Integer.MAX_VALUE / 16,
+                (long) (nodeCount * averageDegree / 2 * 1.1)));
+        for (int node = 0; node < nodeCount; node++) {
+            xs[node] = (float) (random.nextDouble() * side);
+            ys[node] = (float) (random.nextDouble() * side);
+            builder.setNode(node, xs[node], ys[node]);
+        }
+
+        // Bucket the nodes into cells one radius wide, as linked lists through nextInCell
+        int cells = Math.max(1, (int) (side / radius));
+        int[] cellHeads = new int[cells * cells];
+        int[] nextInCell = new int[nodeCount];
+        Arrays.fill(cellHeads, -1);
+        for (int node = 0; node < nodeCount; node++) {
+            int cell = cellOf(ys[node], side, cells) * cells + cellOf(xs[node], side, cells);
+            nextInCell[node] = cellHeads[cell];
+            cellHeads[cell] = node;
+        }
+        double radiusSquared = radius * radius;
+        for (int node = 0; node < nodeCount; node++) {
+            int cx = cellOf(xs[node], side, cells), cy = cellOf(ys[node], side, cells);
+            for (int y = Math.max(cy - 1, 0); y <= Math.min(cy + 1, cells - 1); y++) {
+                for (int x = Math.max(cx - 1, 0); x <= Math.min(cx + 1, cells - 1); x++) {
+                    // Each pair once, from its lower id
+                    for (int other = cellHeads[y * cells + x]; other >= 0; other = nextInCell[other]) {
+                        if (other <= node) continue;
+                        double dx = xs[other] - xs[node], dy = ys[other] - ys[node];
+                        double squared = dx * dx + dy * dy;
+                        if (squared < radiusSquared) builder.addEdge(node, other, Math.max(1, Math.ceil(Math.sqrt(squared))));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * An Erdős–Rényi graph G(n, m): a fixed number of edges between uniformly random pairs
+     * of distinct nodes. No locality at all, which makes it the worst case for caches.
+     * Parallel edges are possible but rare on sparse graphs.
+     * @param nodeCount The number of nodes, at least 2
+     * @param edgeCount The number of edges
+     * @param maxWeight Weights are drawn uniformly from 1 to this
+     * @param seed The seed for the edges and positions
+     * @return The graph
+     */
+    public static OffHeapGraph erdosRenyi(int nodeCount, int edgeCount, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(nodeCount, edgeCount);
+        scatter(builder, nodeCount, random);
+        for (int i = 0; i < edgeCount; i++) {
+            int a = random.nextInt(nodeCount);
+            int b = random.nextInt(nodeCount - 1);
+            // Skip a itself, so every other node is equally likely
+            if (b >= a) b++;
+            builder.addEdge(a, b, 1 + random.nextInt(maxWeight));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A Barabási–Albert graph: nodes arrive one by one and each joins a fixed number of
+     * existing nodes picked in proportion to their degree. A few hubs end up with very high
+     * degree, as in social and web graphs, which stresses the frontier and the per-node arc loops.
+     * @param nodeCount The number of nodes, more than edgesPerNode
+     * @param edgesPerNode The edges each arriving node adds
+     * @param maxWeight Weights are drawn uniformly from 1 to this
+     * @param seed The seed for the edges and positions
+     * @return A graph of about nodeCount × edgesPerNode edges
+     */
+    public static OffHeapGraph barabasiAlbert(int nodeCount, int edgesPerNode, int maxWeight, long seed) {
+        if (edgesPerNode < 1 || nodeCount <= edgesPerNode) {
+            throw new IllegalArgumentException("Need more than " + edgesPerNode + " nodes, and at least one edge per node");
+        }
+        Random random = new Random(seed);
+        long edgeCount = (long) (nodeCount - edgesPerNode) * edgesPerNode;
+        if (2 * edgeCount > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many edges: " + edgeCount);
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(nodeCount, (int) edgeCount);
+        scatter(builder, nodeCount, random);
+        // Both ends of every edge so far: picking a uniform entry picks a node in proportion to its degree
+        int[] endpoints = new int[(int) (2 * edgeCount)];
+        int endpointCount = 0;
+        int[] picked = new int[edgesPerNode];
+        for (int node = edgesPerNode; node < nodeCount; node++) {
+            for (int i = 0; i < edgesPerNode; i++) {
+                int target;
+                if (node == edgesPerNode) {
+                    // The first arrival joins every starting node
+                    target = i;
+                } else {
+                    do {
+                        target = endpoints[random.nextInt(endpointCount)];
+                    } while (contains(picked, i, target));
+                }
+                picked[i] = target;
+            }
+            for (int i = 0; i < edgesPerNode; i++) {
+                builder.addEdge(node, picked[i], 1 + random.nextInt(maxWeight));
+                endpoints[endpointCount++] = node;
+                endpoints[endpointCount++] = picked[i];
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Makes Node and Edge objects for an undirected graph, e.g. to show a generated graph in
+     * the view or to step through it. Each pair of opposite arcs becomes one edge.
+     * @param graph A graph whose arcs come in opposite pairs, as the generators make them
+     * @return A graph with the same node ids, positions and edges
+     */
+    public static Graph toGraph(IndexedGraph graph) {
+        Graph result = new Graph();
+        int nodeCount = graph.getNodeCount();
+        Node[] nodes = new Node[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodes[node] = new Node(graph.getNodeX(node), graph.getNodeY(node), String.valueOf(node));
+            result.addNode(nodes[node]);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int arc = graph.getFirstArc(node), end = graph.getArcEnd(node); arc < end; arc++) {
+                int target = graph.getArcTarget(arc);
+                if (target >= node) result.addEdge(new Edge(nodes[node], nodes[target], graph.getArcWeight(arc)));
+            }
+        }
+        return result;
+    }
+
+    // Random positions over a square sized for SPACING between neighbors
+    private static void scatter(OffHeapGraph.Builder builder, int nodeCount, Random random) {
+        float side = (float) Math.sqrt(nodeCount) * SPACING;
+        for (int node = 0; node < nodeCount; node++) {
+            builder.setNode(node, random.nextFloat() * side, random.nextFloat() * side);
+        }
+    }
+
+    private static int cellOf(float coordinate, double side, int cells) {
+        return Math.min((int) (coordinate / side * cells), cells - 1);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static int checkedNodeCount(long count) {
+        if (count > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too large for int ids: " + count);
+        return (int) count;
+    }
+}
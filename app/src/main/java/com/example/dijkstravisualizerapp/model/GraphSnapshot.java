@@ -0,0 +1,93 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One immutable version of a {@link VersionedGraph}. The node positions and the arc
+ * structure are shared by every version; the weights are split into fixed-size blocks
+ * of arcs, and a new version shares every block it didn't change with the one before.
+ * Nothing in a snapshot is ever written after it is published, so any number of threads
+ * can search it without synchronization.
+ */
+public final class GraphSnapshot implements IndexedGraph {
+    // 1024 weights, 8 KB, per block: small enough that a few updates copy little
+    static final int BLOCK_SHIFT = 10;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final long version;
+    // Shared by every version: x and y per node, and the arc index
+    private final float[] coordinates;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[][] weightBlocks;
+    // How many queries hold this version; see VersionedGraph.pin()
+    final AtomicInteger pins = new AtomicInteger();
+
+    GraphSnapshot(long version, float[] coordinates, int[] offsets, int[] targets, double[][] weightBlocks) {
+        this.version = version;
+        this.coordinates = coordinates;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weightBlocks = weightBlocks;
+    }
+
+    /**
+     * Copies the structure and weights of any indexed graph into version 0.
+     */
+    static GraphSnapshot copyOf(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        int arcCount = graph.getArcCount();
+        float[] coordinates = new float[2 * nodeCount];
+        int[] offsets = new int[nodeCount + 1];
+        int[] targets = new int[arcCount];
+        double[][] blocks = new double[(arcCount + BLOCK_MASK) >> BLOCK_SHIFT][BLOCK_SIZE];
+        for (int node = 0; node < nodeCount; node++) {
+            coordinates[2 * node] = graph.getNodeX(node);
+            coordinates[2 * node + 1] = graph.getNodeY(node);
+            offsets[node] = graph.getFirstArc(node);
+            for (int arc = graph.getFirstArc(node), end = graph.getArcEnd(node); arc < end; arc++) {
+                targets[arc] = graph.getArcTarget(arc);
+                blocks[arc >> BLOCK_SHIFT][arc & BLOCK_MASK] = graph.getArcWeight(arc);
+            }
+        }
+        offsets[nodeCount] = arcCount;
+        return new GraphSnapshot(0, coordinates, offsets, targets, blocks);
+    }
+
+    /**
+     * @return The version number, counting up from 0 with each publish
+     */
+    public long getVersion() { return version; }
+
+    // For the writer building the next version
+    double[][] weightBlocks() { return weightBlocks; }
+
+    GraphSnapshot next(double[][] weightBlocks) {
+        return new GraphSnapshot(version + 1, coordinates, offsets, targets, weightBlocks);
+    }
+
+    @Override
+    public int getNodeCount() { return offsets.length - 1; }
+
+    @Override
+    public int getArcCount() { return targets.length; }
+
+    @Override
+    public int getFirstArc(int node) { return offsets[node]; }
+
+    @Override
+    public int getArcEnd(int node) { return offsets[node + 1]; }
+
+    @Override
+    public int getArcTarget(int arc) { return targets[arc]; }
+
+    @Override
+    public double getArcWeight(int arc) { return weightBlocks[arc >> BLOCK_SHIFT][arc & BLOCK_MASK]; }
+
+    @Override
+    public float getNodeX(int node) { return coordinates[2 * node]; }
+
+    @Override
+    public float getNodeY(int node) { return coordinates[2 * node + 1]; }
+}
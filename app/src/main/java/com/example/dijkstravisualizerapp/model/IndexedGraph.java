@@ -0,0 +1,43 @@
+package com.example.dijkstravisualizerapp.model;
+
+/**
+ * The traversal view of a graph that the shortest-path engines work on.
+ * Nodes are numbered 0 to getNodeCount() - 1, and the arcs leaving a node occupy the
+ * contiguous range getFirstArc(node) to getArcEnd(node) - 1, so a search can walk
+ * neighbors with plain int and double reads instead of touching Node and Edge objects.
+ * An undirected edge shows up as one arc in each direction, a directed edge as a single arc.
+ */
+public interface IndexedGraph {
+
+    int getNodeCount();
+
+    int getArcCount();
+
+    /**
+     * @param node The id of a node
+     * @return The first arc leaving the node
+     */
+    int getFirstArc(int node);
+
+    /**
+     * @param node The id of a node
+     * @return One past the last arc leaving the node
+     */
+    int getArcEnd(int node);
+
+    /**
+     * @param arc The id of an arc
+     * @return The id of the node the arc leads to
+     */
+    int getArcTarget(int arc);
+
+    /**
+     * @param arc The id of an arc
+     * @return The weight/cost of traversing the arc
+     */
+    double getArcWeight(int arc);
+
+    float getNodeX(int node);
+
+    float getNodeY(int node);
+}
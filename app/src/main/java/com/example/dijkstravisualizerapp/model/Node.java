@@ -8,6 +8,7 @@ public class Node {
     private float x;
     private float y;
     private final String label;
+    private int id;
     private double distance;
     private boolean visited;
     private Node previous;
@@ -22,6 +23,7 @@ public class Node {
         this.x = x;
         this.y = y;
         this.label = label;
+        this.id = -1;
         this.distance = Double.MAX_VALUE;
         this.visited = false;
         this.previous = null;
@@ -33,6 +35,7 @@ public class Node {
     public float getY() { return y; }
     public void setY(float y) { this.y = y; }
     public String getLabel() { return label; }
+    public int getId() { return id; }
     public double getDistance() { return distance; }
     public void setDistance(double distance) { this.distance = distance; }
     public boolean isVisited() { return visited; }
@@ -40,6 +43,12 @@ public class Node {
     public Node getPrevious() { return previous; }
     public void setPrevious(Node previous) { this.previous = previous; }
 
+    /**
+     * Assigns the dense index of this node inside its graph.
+     * Only the owning {@link Graph} calls this, when the node is added.
+     */
+    void setId(int id) { this.id = id; }
+
     /**
      * Resets the node's Dijkstra algorithm properties to their initial state.
      */
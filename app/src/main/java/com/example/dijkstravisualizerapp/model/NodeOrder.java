@@ -0,0 +1,210 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Orders that number a graph's nodes so that nodes close in the graph get close ids.
+ * A search reads the distance and arc entries of a node's neighbors right after its own;
+ * when ids follow insertion order those entries are scattered, and on large imported
+ * graphs nearly every read misses the cache. Renumbering by one of these orders, with
+ * {@link Graph#reorder(int[])} or a {@link ReorderedGraph}, keeps them mostly on the
+ * same few cache lines.
+ *
+ * Each order is returned as an array where order[newId] is the node's current id.
+ */
+public final class NodeOrder {
+    // Bits per coordinate of the Hilbert curve grid; two of them must fit an int with the sign bit clear
+    private static final int HILBERT_BITS = 15;
+
+    private NodeOrder() {}
+
+    /**
+     * Reverse Cuthill–McKee: a breadth-first numbering from a node at the edge of the graph,
+     * taking each node's neighbors by increasing degree, then reversed. Neighbors end up
+     * within a narrow band of ids. Uses only the arcs, so it suits graphs without coordinates.
+     * @param graph The graph to order
+     * @return order[newId] = current id
+     */
+    public static int[] reverseCuthillMcKee(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        int[] order = new int[nodeCount];
+        int[] levels = new int[nodeCount];
+        boolean[] placed = new boolean[nodeCount];
+        int count = 0;
+        // Start each component from its lowest-degree node, in id order
+        int[] byDegree = sortByDegree(graph);
+        for (int candidate : byDegree) {
+            if (placed[candidate]) continue;
+            int start = peripheralNode(graph, candidate, placed, order, count, levels);
+            order[count] = start;
+            placed[start] = true;
+            int end = count + 1;
+            for (int head = count; head < end; head++) {
+                int node = order[head];
+                int first = end;
+                for (int arc = graph.getFirstArc(node), arcEnd = graph.getArcEnd(node); arc < arcEnd; arc++) {
+                    int neighbor = graph.getArcTarget(arc);
+                    if (!placed[neighbor]) {
+                        placed[neighbor] = true;
+                        order[end++] = neighbor;
+                    }
+                }
+                sortRangeByDegree(graph, order, first, end);
+            }
+            count = end;
+        }
+        // Reversing keeps the band as narrow and tends to shrink the fill behind each node
+        for (int i = 0, j = nodeCount - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    // A node far from everything in its component: repeatedly jump to the lowest-degree node
+    // of the last breadth-first level while that makes the search deeper. Uses the unplaced
+    // part of order, from `from` on, as the queue.
+    private static int peripheralNode(IndexedGraph graph, int start, boolean[] placed, int[] queue, int from, int[] levels) {
+        int depth = -1;
+        for (int attempt = 0; attempt < 8; attempt++) {
+            queue[from] = start;
+            levels[start] = 0;
+            placed[start] = true;
+            int end = from + 1;
+            for (int head = from; head < end; head++) {
+                int node = queue[head];
+                for (int arc = graph.getFirstArc(node), arcEnd = graph.getArcEnd(node); arc < arcEnd; arc++) {
+                    int neighbor = graph.getArcTarget(arc);
+                    if (!placed[neighbor]) {
+                        placed[neighbor] = true;
+                        levels[neighbor] = levels[node] + 1;
+                        queue[end++] = neighbor;
+                    }
+                }
+            }
+            int lastLevel = levels[queue[end - 1]];
+            int next = queue[end - 1];
+            for (int i = end - 1; i >= from && levels[queue[i]] == lastLevel; i--) {
+                if (degree(graph, queue[i]) < degree(graph, next)) next = queue[i];
+            }
+            for (int i = from; i < end; i++) {
+                placed[queue[i]] = false;
+            }
+            if (lastLevel <= depth) break;
+            depth = lastLevel;
+            start = next;
+        }
+        return start;
+    }
+
+    /**
+     * Hilbert curve order: nodes sorted by their position along a space-filling curve
+     * through their x/y coordinates. Nodes near each other on screen get nearby ids, which
+     * on road-like graphs, where edges are short, keeps neighbors close as well.
+     * @param graph The graph to order
+     * @return order[newId] = current id
+     */
+    public static int[] hilbert(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int node = 0; node < nodeCount; node++) {
+            minX = Math.min(minX, graph.getNodeX(node));
+            maxX = Math.max(maxX, graph.getNodeX(node));
+            minY = Math.min(minY, graph.getNodeY(node));
+            maxY = Math.max(maxY, graph.getNodeY(node));
+        }
+        int side = 1 << HILBERT_BITS;
+        double scale = (side - 1) / Math.max(Math.max(maxX - minX, maxY - minY), Float.MIN_NORMAL);
+        // Curve index in the high half, node id in the low half, so one primitive sort does it
+        long[] keys = new long[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int x = (int) ((graph.getNodeX(node) - minX) * scale);
+            int y = (int) ((graph.getNodeY(node) - minY) * scale);
+            keys[node] = (long) hilbertIndex(x, y, side) << 32 | node;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    // Position of cell (x, y) along the Hilbert curve filling a side x side grid
+    private static int hilbertIndex(int x, int y, int side) {
+        int index = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so the curve stays continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param order An order as returned by the methods above
+     * @return The inverse: inverse[currentId] = newId
+     */
+    public static int[] inverse(int[] order) {
+        int[] inverse = new int[order.length];
+        Arrays.fill(inverse, -1);
+        for (int newId = 0; newId < order.length; newId++) {
+            int id = order[newId];
+            if (id < 0 || id >= order.length || inverse[id] >= 0) {
+                throw new IllegalArgumentException("Not a permutation: node " + id + " at position " + newId);
+            }
+            inverse[id] = newId;
+        }
+        return inverse;
+    }
+
+    private static int degree(IndexedGraph graph, int node) {
+        return graph.getArcEnd(node) - graph.getFirstArc(node);
+    }
+
+    // Node ids by increasing degree, ties by id: a counting sort, degrees being small
+    private static int[] sortByDegree(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        int maxDegree = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            maxDegree = Math.max(maxDegree, degree(graph, node));
+        }
+        int[] starts = new int[maxDegree + 2];
+        for (int node = 0; node < nodeCount; node++) {
+            starts[degree(graph, node) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            starts[d + 1] += starts[d];
+        }
+        int[] sorted = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            sorted[starts[degree(graph, node)]++] = node;
+        }
+        return sorted;
+    }
+
+    // Insertion sort by degree; the ranges are one node's new neighbors, so short
+    private static void sortRangeByDegree(IndexedGraph graph, int[] nodes, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int node = nodes[i];
+            int nodeDegree = degree(graph, node);
+            int j = i - 1;
+            while (j >= from && degree(graph, nodes[j]) > nodeDegree) {
+                nodes[j + 1] = nodes[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+        }
+    }
+}
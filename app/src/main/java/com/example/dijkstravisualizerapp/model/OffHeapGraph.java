@@ -0,0 +1,278 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only graph whose nodes and arcs live outside the Java heap.
+ * Coordinates, arc offsets, arc targets and arc weights are each kept in one ByteBuffer
+ * segment, either allocated directly or memory-mapped from a file written by {@link #writeTo(File)}.
+ * No Node or Edge objects exist for it, so a network with tens of millions of edges costs
+ * 8 bytes per node plus 12 bytes per arc, and adds nothing for the garbage collector to trace.
+ *
+ * Each segment is a single buffer, so a graph is limited to about 268 million arcs
+ * (the weight segment must stay under 2 GB).
+ */
+public class OffHeapGraph implements IndexedGraph {
+    // File header: magic, format version, node count, arc count
+    private static final int MAGIC = 0x44475248;  // "DGRH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    private final int nodeCount;
+    private final int arcCount;
+    // x and y of each node, interleaved
+    private final FloatBuffer coordinates;
+    // nodeCount + 1 entries; the arcs of node i are offsets[i] .. offsets[i + 1] - 1
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    // The raw segments behind the typed views above, kept for writing out
+    private final ByteBuffer[] segments;
+
+    private OffHeapGraph(int nodeCount, int arcCount, ByteBuffer coordinates, ByteBuffer offsets,
+                         ByteBuffer targets, ByteBuffer weights) {
+        this.nodeCount = nodeCount;
+        this.arcCount = arcCount;
+        this.coordinates = coordinates.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        this.offsets = offsets.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        this.targets = targets.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        this.weights = weights.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        this.segments = new ByteBuffer[] { coordinates, offsets, targets, weights };
+    }
+
+    @Override
+    public int getNodeCount() { return nodeCount; }
+
+    @Override
+    public int getArcCount() { return arcCount; }
+
+    @Override
+    public int getFirstArc(int node) { return offsets.get(node); }
+
+    @Override
+    public int getArcEnd(int node) { return offsets.get(node + 1); }
+
+    @Override
+    public int getArcTarget(int arc) { return targets.get(arc); }
+
+    @Override
+    public double getArcWeight(int arc) { return weights.get(arc); }
+
+    @Override
+    public float getNodeX(int node) { return coordinates.get(2 * node); }
+
+    @Override
+    public float getNodeY(int node) { return coordinates.get(2 * node + 1); }
+
+    /**
+     * Copies any indexed graph into direct off-heap buffers.
+     * @param graph The graph to copy
+     * @return An off-heap graph with the same node ids and arc order
+     */
+    public static OffHeapGraph copyOf(IndexedGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        int arcCount = graph.getArcCount();
+        ByteBuffer coordinates = allocate(8L * nodeCount);
+        ByteBuffer offsets = allocate(4L * (nodeCount + 1));
+        ByteBuffer targets = allocate(4L * arcCount);
+        ByteBuffer weights = allocate(8L * arcCount);
+        for (int node = 0; node < nodeCount; node++) {
+            coordinates.putFloat(graph.getNodeX(node)).putFloat(graph.getNodeY(node));
+            offsets.putInt(graph.getFirstArc(node));
+            for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                targets.putInt(graph.getArcTarget(arc));
+                weights.putDouble(graph.getArcWeight(arc));
+            }
+        }
+        offsets.putInt(arcCount);
+        return new OffHeapGraph(nodeCount, arcCount, flip(coordinates), flip(offsets), flip(targets), flip(weights));
+    }
+
+    /**
+     * Writes the graph to a file that {@link #map(File)} can open later.
+     * @param file The file to write, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeTo(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(arcCount);
+            writeFully(channel, flip(header));
+            for (ByteBuffer segment : segments) {
+                writeFully(channel, segment.duplicate());
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a graph file written by {@link #writeTo(File)}.
+     * Pages are loaded by the OS on first touch, so opening is instant whatever the size.
+     * @param file The graph file
+     * @return A read-only graph backed by the mapped file
+     * @throws IOException If the file cannot be read or is not a graph file
+     */
+    public static OffHeapGraph map(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) throw new IOException("Truncated graph file " + file);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            int nodeCount = header.getInt();
+            int arcCount = header.getInt();
+
+            long position = HEADER_BYTES;
+            long coordinateBytes = 8L * nodeCount;
+            long offsetBytes = 4L * (nodeCount + 1);
+            long targetBytes = 4L * arcCount;
+            long weightBytes = 8L * arcCount;
+            if (channel.size() < position + coordinateBytes + offsetBytes + targetBytes + weightBytes) {
+                throw new IOException("Truncated graph file " + file);
+            }
+            ByteBuffer coordinates = channel.map(FileChannel.MapMode.READ_ONLY, position, coordinateBytes);
+            position += coordinateBytes;
+            ByteBuffer offsets = channel.map(FileChannel.MapMode.READ_ONLY, position, offsetBytes);
+            position += offsetBytes;
+            ByteBuffer targets = channel.map(FileChannel.MapMode.READ_ONLY, position, targetBytes);
+            position += targetBytes;
+            ByteBuffer weights = channel.map(FileChannel.MapMode.READ_ONLY, position, weightBytes);
+            // The mappings stay valid after the channel is closed
+            return new OffHeapGraph(nodeCount, arcCount, coordinates, offsets, targets, weights);
+        }
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        if (bytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Graph segment of " + bytes + " bytes exceeds the 2 GB buffer limit");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer flip(ByteBuffer buffer) {
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Builds an off-heap graph edge by edge without creating Node or Edge objects.
+     * Edges are staged in a direct buffer and sorted into per-node arc ranges by {@link #build()}.
+     */
+    public static class Builder {
+        private final int nodeCount;
+        private final ByteBuffer coordinates;
+        // Staged edges as (source, destination, weight) records of 16 bytes
+        private ByteBuffer edges;
+        private int edgeCount;
+
+        /**
+         * @param nodeCount The number of nodes; ids run from 0 to nodeCount - 1
+         * @param expectedEdges How many edges to reserve staging space for
+         */
+        public Builder(int nodeCount, int expectedEdges) {
+            this.nodeCount = nodeCount;
+            this.coordinates = allocate(8L * nodeCount);
+            this.edges = allocate(16L * Math.max(expectedEdges, 1));
+        }
+
+        /**
+         * Sets the position of a node.
+         * @return This builder
+         */
+        public Builder setNode(int node, float x, float y) {
+            coordinates.putFloat(8 * node, x);
+            coordinates.putFloat(8 * node + 4, y);
+            return this;
+        }
+
+        /**
+         * Adds an undirected edge.
+         * @param source The id of one node
+         * @param destination The id of the other node
+         * @param weight The weight/cost of traversing the edge
+         * @return This builder
+         */
+        public Builder addEdge(int source, int destination, double weight) {
+            if (source < 0 || source >= nodeCount || destination < 0 || destination >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + source + "-" + destination + " is outside 0.." + (nodeCount - 1));
+            }
+            if (!edges.hasRemaining()) {
+                ByteBuffer larger = allocate(2L * edges.capacity());
+                edges.flip();
+                larger.put(edges);
+                edges = larger;
+            }
+            edges.putInt(source).putInt(destination).putDouble(weight);
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Lays the staged edges out as contiguous arc ranges per node.
+         * @return The finished graph
+         */
+        public OffHeapGraph build() {
+            // Count the arcs leaving each node, then turn the counts into start offsets
+            ByteBuffer offsets = allocate(4L * (nodeCount + 1));
+            for (int i = 0; i < edgeCount; i++) {
+                int source = edges.getInt(16 * i);
+                int destination = edges.getInt(16 * i + 4);
+                increment(offsets, source + 1);
+                if (destination != source) increment(offsets, destination + 1);
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets.putInt(4 * (node + 1), offsets.getInt(4 * (node + 1)) + offsets.getInt(4 * node));
+            }
+            int arcCount = offsets.getInt(4 * nodeCount);
+
+            // Scatter arcs into place, using a scratch copy of the offsets as write cursors
+            ByteBuffer cursors = allocate(4L * nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                cursors.putInt(4 * node, offsets.getInt(4 * node));
+            }
+            ByteBuffer targets = allocate(4L * arcCount);
+            ByteBuffer weights = allocate(8L * arcCount);
+            for (int i = 0; i < edgeCount; i++) {
+                int source = edges.getInt(16 * i);
+                int destination = edges.getInt(16 * i + 4);
+                double weight = edges.getDouble(16 * i + 8);
+                placeArc(cursors, targets, weights, source, destination, weight);
+                if (destination != source) placeArc(cursors, targets, weights, destination, source, weight);
+            }
+            edges = null;  // Let the staging buffer go
+            return new OffHeapGraph(nodeCount, arcCount, coordinates.duplicate(), offsets, targets, weights);
+        }
+
+        private static void increment(ByteBuffer counts, int index) {
+            counts.putInt(4 * index, counts.getInt(4 * index) + 1);
+        }
+
+        private static void placeArc(ByteBuffer cursors, ByteBuffer targets, ByteBuffer weights,
+                                     int from, int to, double weight) {
+            int arc = cursors.getInt(4 * from);
+            cursors.putInt(4 * from, arc + 1);
+            targets.putInt(4 * arc, to);
+            weights.putDouble(8 * arc, weight);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dijkstravisualizerapp.model;
+
+/**
+ * Another graph with its nodes renumbered in a given order, built once as a compact copy
+ * of the arc index the way {@link ReversedGraph} is. Useful for graphs without Node
+ * objects, such as an imported {@link OffHeapGraph}: reorder with {@link NodeOrder}, then
+ * run searches here or copy the result off-heap. Each node and arc remembers its id in the
+ * original graph, so results map back to the original labels.
+ */
+public class ReorderedGraph implements IndexedGraph {
+    private final IndexedGraph original;
+    // originalNodes[newId] is the id in the original graph, newNodes the inverse
+    private final int[] originalNodes;
+    private final int[] newNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] originalArcs;
+
+    /**
+     * @param original The graph to renumber
+     * @param order order[newId] = id in the original graph, e.g. from {@link NodeOrder}
+     * @throws IllegalArgumentException If order is not a permutation of the node ids
+     */
+    public ReorderedGraph(IndexedGraph original, int[] order) {
+        int nodeCount = original.getNodeCount();
+        if (order.length != nodeCount) {
+            throw new IllegalArgumentException("Order has " + order.length + " nodes, graph has " + nodeCount);
+        }
+        this.original = original;
+        this.originalNodes = order.clone();
+        this.newNodes = NodeOrder.inverse(order);
+        int arcCount = original.getArcCount();
+        offsets = new int[nodeCount + 1];
+        targets = new int[arcCount];
+        weights = new double[arcCount];
+        originalArcs = new int[arcCount];
+        int next = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node] = next;
+            int originalNode = originalNodes[node];
+            for (int arc = original.getFirstArc(originalNode), end = original.getArcEnd(originalNode); arc < end; arc++) {
+                targets[next] = newNodes[original.getArcTarget(arc)];
+                weights[next] = original.getArcWeight(arc);
+                originalArcs[next] = arc;
+                next++;
+            }
+        }
+        offsets[nodeCount] = next;
+    }
+
+    /**
+     * @param node The id of a node of this graph
+     * @return Its id in the original graph
+     */
+    public int getOriginalNode(int node) { return originalNodes[node]; }
+
+    /**
+     * @param originalNode The id of a node in the original graph
+     * @return Its id in this graph
+     */
+    public int getNode(int originalNode) { return newNodes[originalNode]; }
+
+    /**
+     * @param arc The id of an arc of this graph
+     * @return The id of the same arc in the original graph
+     */
+    public int getOriginalArc(int arc) { return originalArcs[arc]; }
+
+    public IndexedGraph getOriginal() { return original; }
+
+    @Override
+    public int getNodeCount() { return offsets.length - 1; }
+
+    @Override
+    public int getArcCount() { return targets.length; }
+
+    @Override
+    public int getFirstArc(int node) { return offsets[node]; }
+
+    @Override
+    public int getArcEnd(int node) { return offsets[node + 1]; }
+
+    @Override
+    public int getArcTarget(int arc) { return targets[arc]; }
+
+    @Override
+    public double getArcWeight(int arc) { return weights[arc]; }
+
+    @Override
+    public float getNodeX(int node) { return original.getNodeX(originalNodes[node]); }
+
+    @Override
+    public float getNodeY(int node) { return original.getNodeY(originalNodes[node]); }
+}
@@ -0,0 +1,73 @@
+package com.example.dijkstravisualizerapp.model;
+
+/**
+ * Another graph with every arc turned around, so a search on it measures distances
+ * <em>to</em> a node instead of from it. Built once as a compact copy of the arc index;
+ * each reversed arc remembers the arc of the original graph it came from.
+ */
+public class ReversedGraph implements IndexedGraph {
+    private final IndexedGraph original;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] originalArcs;
+
+    public ReversedGraph(IndexedGraph original) {
+        this.original = original;
+        int nodeCount = original.getNodeCount();
+        int arcCount = original.getArcCount();
+        offsets = new int[nodeCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            offsets[original.getArcTarget(arc) + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] cursor = new int[nodeCount];
+        System.arraycopy(offsets, 0, cursor, 0, nodeCount);
+        targets = new int[arcCount];
+        weights = new double[arcCount];
+        originalArcs = new int[arcCount];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int arc = original.getFirstArc(node), end = original.getArcEnd(node); arc < end; arc++) {
+                int reversed = cursor[original.getArcTarget(arc)]++;
+                targets[reversed] = node;
+                weights[reversed] = original.getArcWeight(arc);
+                originalArcs[reversed] = arc;
+            }
+        }
+    }
+
+    /**
+     * @param arc The id of an arc of this reversed graph
+     * @return The id of the arc of the original graph it runs against
+     */
+    public int getOriginalArc(int arc) { return originalArcs[arc]; }
+
+    public IndexedGraph getOriginal() { return original; }
+
+    @Override
+    public int getNodeCount() { return offsets.length - 1; }
+
+    @Override
+    public int getArcCount() { return targets.length; }
+
+    @Override
+    public int getFirstArc(int node) { return offsets[node]; }
+
+    @Override
+    public int getArcEnd(int node) { return offsets[node + 1]; }
+
+    @Override
+    public int getArcTarget(int arc) { return targets[arc]; }
+
+    @Override
+    public double getArcWeight(int arc) { return weights[arc]; }
+
+    @Override
+    public float getNodeX(int node) { return original.getNodeX(node); }
+
+    @Override
+    public float getNodeY(int node) { return original.getNodeY(node); }
+}
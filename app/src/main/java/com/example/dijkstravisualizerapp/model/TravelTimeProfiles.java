@@ -0,0 +1,176 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Travel times that depend on the departure time, e.g. roads that are slower in the rush
+ * hour. A profile is a piecewise-linear function of time giving a factor on an arc's
+ * weight: 1 where traffic is free, 2 where a trip takes twice as long. It is given by
+ * breakpoints, interpolated linearly between them and held constant before the first and
+ * after the last. Times are in the same unit as the weights.
+ *
+ * Profiles are shared: all breakpoints live back to back in two primitive arrays, and each
+ * arc only stores which profile it follows, so a handful of road classes cover millions
+ * of arcs for four bytes an arc. Arcs without a profile keep their fixed weight.
+ *
+ * Every arc must be FIFO: leaving later never gets you there earlier. An arc whose
+ * profile falls faster than that would allow is rejected when it's assigned, since
+ * Dijkstra's algorithm is only correct on FIFO arcs.
+ */
+public class TravelTimeProfiles {
+    private final IndexedGraph graph;
+    // The breakpoints of profile p are [starts[p], starts[p + 1])
+    private double[] times = new double[16];
+    private double[] factors = new double[16];
+    private int[] starts = new int[9];
+    private int profileCount;
+    // The steepest fall of each profile's factor per unit of time, for the FIFO check
+    private double[] steepestFalls = new double[8];
+    // The profile each arc follows, -1 for its fixed weight
+    private final int[] arcProfiles;
+
+    /**
+     * Starts with every arc at its fixed weight.
+     * @param graph The graph whose arcs get profiles; its weights are the free-flow times
+     */
+    public TravelTimeProfiles(IndexedGraph graph) {
+        this.graph = graph;
+        this.arcProfiles = new int[graph.getArcCount()];
+        Arrays.fill(arcProfiles, -1);
+    }
+
+    /**
+     * Adds a profile that arcs can then be assigned to.
+     * @param times The breakpoint times, strictly increasing
+     * @param factors The factor on the weight at each breakpoint; positive
+     * @return The id of the profile
+     */
+    public int addProfile(double[] times, double[] factors) {
+        if (times.length == 0 || times.length != factors.length) {
+            throw new IllegalArgumentException("Need as many factors as times, and at least one: "
+                    + times.length + " times, " + factors.length + " factors");
+        }
+        double steepestFall = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (!(factors[i] > 0)) throw new IllegalArgumentException("Factors must be positive: " + factors[i]);
+            if (i == 0) continue;
+            if (!(times[i] > times[i - 1])) throw new IllegalArgumentException("Times must increase: " + times[i]);
+            steepestFall = Math.max(steepestFall, (factors[i - 1] - factors[i]) / (times[i] - times[i - 1]));
+        }
+
+        int start = starts[profileCount];
+        int end = start + times.length;
+        if (end > this.times.length) {
+            int capacity = Math.max(end, this.times.length * 2);
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.factors = Arrays.copyOf(this.factors, capacity);
+        }
+        if (profileCount + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            steepestFalls = Arrays.copyOf(steepestFalls, steepestFalls.length * 2);
+        }
+        System.arraycopy(times, 0, this.times, start, times.length);
+        System.arraycopy(factors, 0, this.factors, start, factors.length);
+        steepestFalls[profileCount] = steepestFall;
+        starts[++profileCount] = end;
+        return profileCount - 1;
+    }
+
+    /**
+     * @param arc The id of an arc
+     * @param profile The id of a profile, or -1 to go back to the fixed weight
+     * @throws IllegalArgumentException If the profile falls so fast that leaving later along
+     *         this arc would arrive earlier
+     */
+    public void assign(int arc, int profile) {
+        if (profile < -1 || profile >= profileCount) throw new IllegalArgumentException("No profile " + profile);
+        if (profile >= 0 && graph.getArcWeight(arc) * steepestFalls[profile] > 1) {
+            throw new IllegalArgumentException("Profile " + profile + " isn't FIFO on arc " + arc
+                    + " of weight " + graph.getArcWeight(arc) + ": a later departure would arrive earlier");
+        }
+        arcProfiles[arc] = profile;
+    }
+
+    /**
+     * Assigns a profile to every arc from one node to another.
+     * @return The number of arcs assigned
+     */
+    public int assign(int from, int to, int profile) {
+        int assigned = 0;
+        for (int arc = graph.getFirstArc(from), end = graph.getArcEnd(from); arc < end; arc++) {
+            if (graph.getArcTarget(arc) == to) {
+                assign(arc, profile);
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * @return The profile of the arc, or -1 if it has a fixed weight
+     */
+    public int getProfile(int arc) { return arcProfiles[arc]; }
+
+    public int getProfileCount() { return profileCount; }
+
+    /**
+     * The breakpoints of a profile are the indices from this one up to {@link #getBreakpointEnd(int)}.
+     */
+    public int getBreakpointStart(int profile) { return starts[profile]; }
+    public int getBreakpointEnd(int profile) { return starts[profile + 1]; }
+    public double getBreakpointTime(int breakpoint) { return times[breakpoint]; }
+    public double getBreakpointFactor(int breakpoint) { return factors[breakpoint]; }
+
+    /**
+     * @param profile The id of a profile
+     * @param time A departure time
+     * @return The profile's factor at that time
+     */
+    public double getFactor(int profile, double time) {
+        return interpolate(profile, getSegment(profile, time), time);
+    }
+
+    /**
+     * Finds, by binary search, the breakpoint that starts the piece of a profile a time falls in.
+     * The piece runs from that breakpoint up to the next one; the first piece also covers
+     * every earlier time, the last every later one.
+     * @param profile The id of a profile
+     * @param time A departure time
+     * @return The index of the breakpoint
+     */
+    public int getSegment(int profile, double time) {
+        int low = starts[profile], high = starts[profile + 1] - 1;
+        if (time >= times[high]) return high;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= time) low = middle;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @param profile The id of a profile
+     * @param segment The piece the time falls in, as found by {@link #getSegment(int, double)}
+     * @param time A departure time
+     * @return The profile's factor at that time
+     */
+    public double interpolate(int profile, int segment, double time) {
+        if (time <= times[segment] || segment == starts[profile + 1] - 1) return factors[segment];
+        double fraction = (time - times[segment]) / (times[segment + 1] - times[segment]);
+        return factors[segment] + fraction * (factors[segment + 1] - factors[segment]);
+    }
+
+    /**
+     * @param arc The id of an arc
+     * @param departure When the arc is entered
+     * @return How long it takes to traverse
+     */
+    public double getTravelTime(int arc, double departure) {
+        int profile = arcProfiles[arc];
+        double weight = graph.getArcWeight(arc);
+        return profile < 0 ? weight : weight * getFactor(profile, departure);
+    }
+
+    public IndexedGraph getGraph() { return graph; }
+}
@@ -0,0 +1,286 @@
+package com.example.dijkstravisualizerapp.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A graph whose weights can change while queries run on it. Every change produces a new
+ * immutable {@link GraphSnapshot}: a writer copies only the weight blocks it touches,
+ * shares the rest with the previous version, and publishes the result with a single
+ * atomic store. A query pins the current version, searches it, and unpins it; it never
+ * takes a lock and never sees a half-applied update.
+ *
+ * Writers take turns through {@link #edit()}. When a version has been replaced and the
+ * last query holding it unpins, the next writer reclaims it: the weight blocks that only
+ * old versions used are kept as spares and reused for the next copies, so steady updates
+ * don't keep allocating.
+ *
+ * Only weights change; the nodes and arcs are those of the graph it was created from.
+ */
+public class VersionedGraph {
+    // Spare weight blocks kept for reuse at most; beyond this they're left to the garbage collector
+    private static final int MAX_SPARE_BLOCKS = 256;
+
+    private final AtomicReference<GraphSnapshot> current;
+    // Everything below belongs to the writer holding the lock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Replaced versions that may still be pinned, oldest first
+    private final ArrayDeque<GraphSnapshot> retired = new ArrayDeque<>();
+    // Blocks replaced by each publish, tagged with the last version that used them
+    private final ArrayDeque<RetiredBlocks> retiredBlocks = new ArrayDeque<>();
+    private final ArrayDeque<double[]> spareBlocks = new ArrayDeque<>();
+
+    /**
+     * Starts at version 0 with a copy of the given graph's structure and weights.
+     */
+    public VersionedGraph(IndexedGraph graph) {
+        this.current = new AtomicReference<>(GraphSnapshot.copyOf(graph));
+    }
+
+    /**
+     * @return The latest version, without pinning it; for a query that runs on one thread
+     *         while no writer is active, or for reading the version number
+     */
+    public GraphSnapshot current() { return current.get(); }
+
+    /**
+     * Pins the latest version so it stays intact until {@link #unpin(GraphSnapshot)}.
+     * Lock-free: if a writer publishes in between, it simply retries on the newer version.
+     * @return The pinned version
+     */
+    public GraphSnapshot pin() {
+        while (true) {
+            GraphSnapshot snapshot = current.get();
+            snapshot.pins.incrementAndGet();
+            // Still current after the increment, so a writer retiring it will see the pin
+            if (current.get() == snapshot) return snapshot;
+            snapshot.pins.decrementAndGet();
+        }
+    }
+
+    /**
+     * Releases a version pinned by {@link #pin()}. It is reclaimed by the next writer once
+     * nothing holds it, so it must not be read afterwards.
+     */
+    public void unpin(GraphSnapshot snapshot) {
+        snapshot.pins.decrementAndGet();
+    }
+
+    /**
+     * @return A view for one query thread that searches whichever version it has pinned
+     */
+    public Reader newReader() {
+        return new Reader(this);
+    }
+
+    /**
+     * Starts building the next version from the latest one. Blocks while another writer is
+     * editing. The edit must end with {@link Editor#publish()} or {@link Editor#close()}.
+     */
+    public Editor edit() {
+        writeLock.lock();
+        return new Editor(current.get());
+    }
+
+    /**
+     * @return How many versions are still held in memory: the current one plus replaced
+     *         ones that were pinned when last checked
+     */
+    public int getRetainedVersionCount() {
+        writeLock.lock();
+        try {
+            reclaim();
+            return retired.size() + 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Frees replaced versions nobody pins, oldest first, and recycles the blocks only they used
+    private void reclaim() {
+        long reclaimedUpTo = -1;
+        while (!retired.isEmpty() && retired.peekFirst().pins.get() == 0) {
+            reclaimedUpTo = retired.pollFirst().getVersion();
+        }
+        if (reclaimedUpTo < 0) return;
+        while (!retiredBlocks.isEmpty() && retiredBlocks.peekFirst().lastVersion <= reclaimedUpTo) {
+            for (double[] block : retiredBlocks.pollFirst().blocks) {
+                if (spareBlocks.size() < MAX_SPARE_BLOCKS) spareBlocks.push(block);
+            }
+        }
+    }
+
+    private static final class RetiredBlocks {
+        final long lastVersion;
+        final List<double[]> blocks;
+
+        RetiredBlocks(long lastVersion, List<double[]> blocks) {
+            this.lastVersion = lastVersion;
+            this.blocks = blocks;
+        }
+    }
+
+    /**
+     * Changes weights for the next version. Nothing is visible to queries until
+     * {@link #publish()}; closing without publishing drops the changes.
+     */
+    public final class Editor implements AutoCloseable {
+        private final GraphSnapshot base;
+        private final double[][] blocks;
+        private final boolean[] copied;
+        private final List<double[]> replaced = new ArrayList<>();
+        private boolean open = true;
+
+        private Editor(GraphSnapshot base) {
+            this.base = base;
+            this.blocks = base.weightBlocks().clone();
+            this.copied = new boolean[blocks.length];
+        }
+
+        /**
+         * @param arc The id of an arc
+         * @param weight Its new weight; must not be negative
+         * @return This editor
+         */
+        public Editor setArcWeight(int arc, double weight) {
+            if (!open) throw new IllegalStateException("The edit has already ended");
+            if (!(weight >= 0)) throw new IllegalArgumentException("Weight must not be negative: " + weight);
+            int block = arc >> GraphSnapshot.BLOCK_SHIFT;
+            if (!copied[block]) {
+                double[] copy = spareBlocks.isEmpty() ? new double[GraphSnapshot.BLOCK_SIZE] : spareBlocks.pop();
+                System.arraycopy(blocks[block], 0, copy, 0, GraphSnapshot.BLOCK_SIZE);
+                replaced.add(blocks[block]);
+                blocks[block] = copy;
+                copied[block] = true;
+            }
+            blocks[block][arc & (GraphSnapshot.BLOCK_SIZE - 1)] = weight;
+            return this;
+        }
+
+        /**
+         * Sets the weight of every arc from one node to another.
+         * @return This editor
+         */
+        public Editor setWeight(int from, int to, double weight) {
+            for (int arc = base.getFirstArc(from), end = base.getArcEnd(from); arc < end; arc++) {
+                if (base.getArcTarget(arc) == to) setArcWeight(arc, weight);
+            }
+            return this;
+        }
+
+        /**
+         * @param arc The id of an arc
+         * @return Its weight in the version being built
+         */
+        public double getArcWeight(int arc) {
+            return blocks[arc >> GraphSnapshot.BLOCK_SHIFT][arc & (GraphSnapshot.BLOCK_SIZE - 1)];
+        }
+
+        /**
+         * Makes the changes visible to every query that pins from now on, and ends the edit.
+         * @return The new version
+         */
+        public GraphSnapshot publish() {
+            if (!open) throw new IllegalStateException("The edit has already ended");
+            GraphSnapshot next = base.next(blocks);
+            current.set(next);
+            retired.addLast(base);
+            if (!replaced.isEmpty()) retiredBlocks.addLast(new RetiredBlocks(base.getVersion(), replaced));
+            reclaim();
+            end();
+            return next;
+        }
+
+        /**
+         * Ends the edit, dropping any changes that weren't published.
+         */
+        @Override
+        public void close() {
+            if (!open) return;
+            // Copies made for nothing go back to the spares
+            for (int block = 0; block < blocks.length; block++) {
+                if (copied[block] && spareBlocks.size() < MAX_SPARE_BLOCKS) spareBlocks.push(blocks[block]);
+            }
+            end();
+        }
+
+        private void end() {
+            open = false;
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The graph as one query thread sees it: every read goes to the version the reader has
+     * pinned. Engines can be built on a reader once and reused for every query; pin before
+     * each query and unpin after. The nodes and arcs are the same in every version, so an
+     * engine's arrays stay valid, but give it a {@code BinaryHeapFrontier}, since weights
+     * that start as integers may not stay so. Not thread-safe: one reader per thread.
+     */
+    public static final class Reader implements IndexedGraph, AutoCloseable {
+        private final VersionedGraph graph;
+        // The structure, from any version
+        private final GraphSnapshot shape;
+        private GraphSnapshot pinned;
+
+        private Reader(VersionedGraph graph) {
+            this.graph = graph;
+            this.shape = graph.current();
+        }
+
+        /**
+         * Pins the latest version, releasing any version pinned before.
+         * @return The version that reads now go to
+         */
+        public GraphSnapshot pin() {
+            if (pinned != null) graph.unpin(pinned);
+            pinned = graph.pin();
+            return pinned;
+        }
+
+        /**
+         * Releases the pinned version; reads fail until the next {@link #pin()}.
+         */
+        public void unpin() {
+            if (pinned != null) {
+                graph.unpin(pinned);
+                pinned = null;
+            }
+        }
+
+        @Override
+        public void close() { unpin(); }
+
+        /**
+         * @return The pinned version, or null
+         */
+        public GraphSnapshot getPinned() { return pinned; }
+
+        @Override
+        public int getNodeCount() { return shape.getNodeCount(); }
+
+        @Override
+        public int getArcCount() { return shape.getArcCount(); }
+
+        @Override
+        public int getFirstArc(int node) { return shape.getFirstArc(node); }
+
+        @Override
+        public int getArcEnd(int node) { return shape.getArcEnd(node); }
+
+        @Override
+        public int getArcTarget(int arc) { return shape.getArcTarget(arc); }
+
+        @Override
+        public double getArcWeight(int arc) { return pinned.getArcWeight(arc); }
+
+        @Override
+        public float getNodeX(int node) { return shape.getNodeX(node); }
+
+        @Override
+        public float getNodeY(int node) { return shape.getNodeY(node); }
+    }
+}
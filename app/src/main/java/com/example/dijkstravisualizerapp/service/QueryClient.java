@@ -0,0 +1,146 @@
+package com.example.dijkstravisualizerapp.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A blocking client for a {@link QueryServer} on this device. Not thread-safe: give each
+ * thread its own client, or share one under a lock.
+ */
+public class QueryClient implements Closeable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private int nextRequestId;
+
+    /**
+     * Connects to a server on the loopback interface.
+     * @param port The port it listens on
+     */
+    public QueryClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * @param source The id of the start node
+     * @param target The id of the target node
+     * @return The answer
+     */
+    public Result query(int source, int target) throws IOException {
+        return queryAll(new int[] { source }, new int[] { target })[0];
+    }
+
+    /**
+     * Sends every query before reading any answer, so the server can batch them.
+     * @param sources The start node of each query
+     * @param targets The target node of each query
+     * @return The answers, in the order of the queries
+     */
+    public Result[] queryAll(int[] sources, int[] targets) throws IOException {
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("Got " + sources.length + " sources for " + targets.length + " targets");
+        }
+        int firstId = nextRequestId;
+        nextRequestId += sources.length;
+        for (int i = 0; i < sources.length; i++) {
+            out.writeInt(13);
+            out.writeByte(QueryServer.QUERY);
+            out.writeInt(firstId + i);
+            out.writeInt(sources[i]);
+            out.writeInt(targets[i]);
+        }
+        out.flush();
+
+        Result[] results = new Result[sources.length];
+        for (int received = 0; received < results.length; received++) {
+            int length = in.readInt();
+            byte type = in.readByte();
+            if (type != QueryServer.QUERY || length < 18) throw new IOException("Unexpected frame of type " + type);
+            int index = in.readInt() - firstId;
+            byte status = in.readByte();
+            double distance = in.readDouble();
+            int[] path = new int[in.readInt()];
+            for (int i = 0; i < path.length; i++) path[i] = in.readInt();
+            if (index < 0 || index >= results.length || results[index] != null) {
+                throw new IOException("Unexpected answer to request " + (index + firstId));
+            }
+            results[index] = new Result(status, distance, path);
+        }
+        return results;
+    }
+
+    /**
+     * @return The server's figures by name, as listed by {@link ServiceStats.Snapshot#toText()}
+     */
+    public Map<String, Double> stats() throws IOException {
+        out.writeInt(1);
+        out.writeByte(QueryServer.STATS);
+        out.flush();
+        int length = in.readInt();
+        byte type = in.readByte();
+        if (type != QueryServer.STATS) throw new IOException("Unexpected frame of type " + type);
+        byte[] text = new byte[length - 1];
+        in.readFully(text);
+        Map<String, Double> figures = new LinkedHashMap<>();
+        for (String line : new String(text, StandardCharsets.UTF_8).split("\\R")) {
+            if (line.isEmpty()) continue;
+            int space = line.indexOf(' ');
+            figures.put(line.substring(0, space), Double.parseDouble(line.substring(space + 1)));
+        }
+        return figures;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * The answer to one query.
+     */
+    public static final class Result {
+        private final byte status;
+        private final double distance;
+        private final int[] path;
+
+        private Result(byte status, double distance, int[] path) {
+            this.status = status;
+            this.distance = distance;
+            this.path = path;
+        }
+
+        public boolean isReachable() { return status == QueryServer.OK; }
+
+        /**
+         * @return Whether the source or target wasn't a node of the server's graph
+         */
+        public boolean isBadNode() { return status == QueryServer.BAD_NODE; }
+
+        /**
+         * @return Whether the server failed while searching for this query
+         */
+        public boolean isError() { return status == QueryServer.ERROR; }
+
+        /**
+         * @return The shortest distance, or Double.MAX_VALUE if there is no path
+         */
+        public double getDistance() { return distance; }
+
+        /**
+         * @return The node ids from the source to the target, or an empty array if there is no path
+         */
+        public int[] getPath() { return path; }
+    }
+}
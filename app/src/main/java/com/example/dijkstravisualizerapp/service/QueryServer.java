@@ -0,0 +1,434 @@
+package com.example.dijkstravisualizerapp.service;
+
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+import com.example.dijkstravisualizerapp.algorithm.WorkspacePool;
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Answers shortest-path queries over a loaded graph for other processes on the same device,
+ * on a loopback TCP port. One thread runs a NIO selector for every connection; worker
+ * threads take whatever queries are waiting, up to a batch at a time, and answer the batch
+ * with one engine from a shared {@link WorkspacePool}. Queries in a batch that share a
+ * source are answered by a single search. Under light load a batch is a single query, so
+ * nothing waits to fill one; under heavy load batches grow on their own.
+ *
+ * Every message is a frame: a 4-byte big-endian length, then that many bytes, the first
+ * being the message type.
+ * <ul>
+ *   <li>{@link #QUERY}: request id, source and target as ints. The answer is a QUERY frame
+ *       with the request id, a status byte, the distance as a double, and the path as a
+ *       node count followed by the node ids. Answers on one connection may arrive in any
+ *       order; the request id matches them up.</li>
+ *   <li>{@link #STATS}: no body. The answer is a STATS frame with {@link ServiceStats.Snapshot#toText()}
+ *       in UTF-8.</li>
+ * </ul>
+ * A malformed frame closes its connection. A connection may have a limited number of
+ * requests in flight, read but not yet answered in full; at the limit the server stops
+ * reading from it until answers have been written, so neither the queue of waiting queries
+ * nor the answers held for a slow reader grow without bound. A batch whose search throws
+ * is answered with {@link #ERROR} for the queries it hadn't answered, and its worker goes
+ * on. {@link QueryClient} speaks this protocol.
+ */
+public class QueryServer implements Closeable {
+    static final byte QUERY = 1;
+    static final byte STATS = 2;
+    // Statuses of a query answer
+    static final byte OK = 0;
+    static final byte UNREACHABLE = 1;
+    static final byte BAD_NODE = 2;
+    static final byte ERROR = 3;
+    // Bytes after the length: type, request id, source, target
+    private static final int QUERY_LENGTH = 13;
+    private static final int READ_BUFFER_BYTES = 4096;
+    private static final Comparator<Query> BY_SOURCE = (a, b) -> Integer.compare(a.source, b.source);
+
+    private final IndexedGraph graph;
+    private final ServiceStats stats = new ServiceStats();
+    private final LinkedBlockingQueue<Query> pending = new LinkedBlockingQueue<>();
+    // Connections with answers waiting to be written by the selector thread
+    private final ConcurrentLinkedQueue<Connection> toFlush = new ConcurrentLinkedQueue<>();
+    private int workerCount = Runtime.getRuntime().availableProcessors();
+    private int maxBatchSize = 64;
+    private int maxInFlight = 256;
+    private WorkspacePool<ShortestPathEngine> engines;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * @param graph The graph to answer queries on; it must not change while the server runs
+     */
+    public QueryServer(IndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @param workerCount How many threads answer queries; defaults to one per processor
+     */
+    public void setWorkerCount(int workerCount) {
+        if (running) throw new IllegalStateException("The server is already running");
+        if (workerCount < 1) throw new IllegalArgumentException("Need at least one worker: " + workerCount);
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * @param maxBatchSize How many queries a worker takes at once at most; defaults to 64
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (running) throw new IllegalStateException("The server is already running");
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @param maxInFlight How many requests a connection may have read but not answered in full;
+     *                    defaults to 256
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (running) throw new IllegalStateException("The server is already running");
+        if (maxInFlight < 1) throw new IllegalArgumentException("Need room for at least one request: " + maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     * @param port The port to listen on, or 0 for any free one
+     * @return The port listened on
+     */
+    public int start(int port) throws IOException {
+        if (running) throw new IllegalStateException("The server is already running");
+        engines = new WorkspacePool<>(() -> new ShortestPathEngine(graph), workerCount);
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+
+        Thread selectorThread = new Thread(this::serve, "query-server-selector");
+        threads.add(selectorThread);
+        for (int i = 0; i < workerCount; i++) {
+            threads.add(new Thread(this::work, "query-server-worker-" + i));
+        }
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return getPort();
+    }
+
+    /**
+     * @return The port listened on, or -1 if not started
+     */
+    public int getPort() {
+        return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+    }
+
+    public ServiceStats getStats() { return stats; }
+
+    /**
+     * Stops the server, closing every connection. Queries not answered yet are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) return;
+        running = false;
+        for (Thread thread : threads) thread.interrupt();
+        selector.wakeup();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        for (SelectionKey key : selector.keys()) key.channel().close();
+        selector.close();
+        serverChannel.close();
+        pending.clear();
+        toFlush.clear();
+    }
+
+    // The selector thread: accepts, reads and parses requests, and writes answers
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                for (Connection connection; (connection = toFlush.poll()) != null; ) {
+                    flush(connection);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) read(connection);
+                    if (key.isValid() && key.isWritable()) flush(connection);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // Only expected while closing
+            if (running) throw new IllegalStateException("Query server selector failed", e);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        stats.recordConnection();
+    }
+
+    private void read(Connection connection) {
+        try {
+            if (connection.channel.read(connection.in) < 0) {
+                disconnect(connection);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+        parseBuffered(connection);
+    }
+
+    // Parses the complete frames read so far, stopping at the connection's limit of requests in flight
+    private void parseBuffered(Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+        while (connection.inFlight < maxInFlight && connection.key.isValid() && in.remaining() >= 4) {
+            int length = in.getInt(in.position());
+            boolean valid = length >= 1 && length <= QUERY_LENGTH;
+            if (valid && in.remaining() < 4 + length) break;
+            if (!valid || !parse(connection, in, length)) {
+                stats.recordRejectedFrame();
+                disconnect(connection);
+                return;
+            }
+        }
+        in.compact();
+        if (connection.key.isValid()) {
+            setInterest(connection, (connection.key.interestOps() & SelectionKey.OP_WRITE) != 0);
+        }
+    }
+
+    // Reads only while the connection is under its limit, and writes while answers are left
+    private void setInterest(Connection connection, boolean writing) {
+        int ops = connection.inFlight < maxInFlight ? SelectionKey.OP_READ : 0;
+        connection.key.interestOps(writing ? ops | SelectionKey.OP_WRITE : ops);
+    }
+
+    // Consumes one complete frame; false if it is malformed
+    private boolean parse(Connection connection, ByteBuffer in, int length) {
+        byte type = in.get(in.position() + 4);
+        if (type == QUERY && length == QUERY_LENGTH) {
+            in.position(in.position() + 5);
+            int requestId = in.getInt();
+            int source = in.getInt();
+            int target = in.getInt();
+            connection.inFlight++;
+            pending.add(new Query(connection, requestId, source, target, System.nanoTime()));
+            return true;
+        }
+        if (type == STATS && length == 1) {
+            in.position(in.position() + 5);
+            byte[] text = stats.snapshot().toText().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer frame = ByteBuffer.allocate(5 + text.length);
+            frame.putInt(1 + text.length).put(STATS).put(text).flip();
+            connection.inFlight++;
+            connection.out.add(frame);
+            // Not flush, which could parse again from inside this parse
+            write(connection);
+            return true;
+        }
+        return false;
+    }
+
+    // Writes what the socket takes, and parses on if that brought a paused connection under its limit
+    private void flush(Connection connection) {
+        boolean paused = connection.inFlight >= maxInFlight;
+        // Frames that arrived before reading paused are parsed now, as no read may come for them
+        if (write(connection) && paused && connection.inFlight < maxInFlight) parseBuffered(connection);
+    }
+
+    // Writes as much as the socket takes; the rest waits for OP_WRITE. False if the connection is gone
+    private boolean write(Connection connection) {
+        if (!connection.key.isValid()) return false;
+        boolean writing = false;
+        try {
+            for (ByteBuffer frame; (frame = connection.out.peek()) != null; ) {
+                connection.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    writing = true;
+                    break;
+                }
+                connection.out.poll();
+                connection.inFlight--;
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+            return false;
+        }
+        setInterest(connection, writing);
+        return true;
+    }
+
+    private void disconnect(Connection connection) {
+        connection.key.cancel();
+        connection.out.clear();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    // A worker thread: takes a batch of waiting queries at a time and answers it
+    private void work() {
+        List<Query> batch = new ArrayList<>(maxBatchSize);
+        long[] latencies = new long[maxBatchSize];
+        int[] targets = new int[maxBatchSize];
+        while (running) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, maxBatchSize - 1);
+            try {
+                answer(batch, targets);
+            } catch (RuntimeException e) {
+                // The worker survives; the queries not answered yet learn that their search failed
+                stats.recordFailedBatch();
+                for (Query query : batch) {
+                    if (!query.answered) send(query, answerFrame(query.requestId, ERROR, Double.MAX_VALUE, new int[0]));
+                }
+            }
+            long now = System.nanoTime();
+            for (int i = 0; i < batch.size(); i++) {
+                latencies[i] = now - batch.get(i).receivedNanos;
+            }
+            stats.recordBatch(latencies, batch.size());
+            batch.clear();
+            selector.wakeup();
+        }
+    }
+
+    private void answer(List<Query> batch, int[] targets) {
+        batch.sort(BY_SOURCE);
+        int nodeCount = graph.getNodeCount();
+        ShortestPathEngine engine = engines.acquire();
+        try {
+            for (int from = 0, to; from < batch.size(); from = to) {
+                int source = batch.get(from).source;
+                to = from + 1;
+                while (to < batch.size() && batch.get(to).source == source) to++;
+                boolean validSource = source >= 0 && source < nodeCount;
+                int targetCount = 0;
+                for (int i = from; validSource && i < to; i++) {
+                    int target = batch.get(i).target;
+                    if (target >= 0 && target < nodeCount) targets[targetCount++] = target;
+                }
+                if (targetCount == 1) {
+                    engine.run(source, targets[0]);
+                } else if (targetCount > 1) {
+                    engine.run(source, Arrays.copyOf(targets, targetCount));
+                }
+                for (int i = from; i < to; i++) {
+                    respond(batch.get(i), validSource, engine, nodeCount);
+                }
+            }
+        } finally {
+            engines.release(engine);
+        }
+    }
+
+    private void respond(Query query, boolean validSource, ShortestPathEngine engine, int nodeCount) {
+        ByteBuffer frame;
+        if (!validSource || query.target < 0 || query.target >= nodeCount) {
+            frame = answerFrame(query.requestId, BAD_NODE, Double.MAX_VALUE, new int[0]);
+        } else if (engine.getDistance(query.target) == Double.MAX_VALUE) {
+            frame = answerFrame(query.requestId, UNREACHABLE, Double.MAX_VALUE, new int[0]);
+        } else {
+            frame = answerFrame(query.requestId, OK, engine.getDistance(query.target), engine.getPath(query.target));
+        }
+        send(query, frame);
+    }
+
+    private void send(Query query, ByteBuffer frame) {
+        query.answered = true;
+        query.connection.out.add(frame);
+        toFlush.add(query.connection);
+    }
+
+    private static ByteBuffer answerFrame(int requestId, byte status, double distance, int[] path) {
+        ByteBuffer frame = ByteBuffer.allocate(4 + 18 + 4 * path.length);
+        frame.putInt(18 + 4 * path.length).put(QUERY).putInt(requestId).put(status).putDouble(distance).putInt(path.length);
+        for (int node : path) frame.putInt(node);
+        frame.flip();
+        return frame;
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        // Written by the workers, drained by the selector thread
+        final ConcurrentLinkedQueue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        // Requests parsed whose answer isn't fully written, so at most maxInFlight frames wait in out;
+        // only the selector thread touches it
+        int inFlight;
+        SelectionKey key;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Query {
+        final Connection connection;
+        final int requestId;
+        final int source;
+        final int target;
+        final long receivedNanos;
+        // Set by the worker answering it
+        boolean answered;
+
+        Query(Connection connection, int requestId, int source, int target, long receivedNanos) {
+            this.connection = connection;
+            this.requestId = requestId;
+            this.source = source;
+            this.target = target;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.dijkstravisualizerapp.service;
+
+import com.example.dijkstravisualizerapp.algorithm.Histogram;
+
+import java.util.Locale;
+
+/**
+ * Throughput and latency of a {@link QueryServer}. Latencies go into a {@link Histogram},
+ * so recording costs one array increment. Workers record a whole batch under one lock,
+ * so the lock is taken once per batch rather than once per query.
+ */
+public class ServiceStats {
+    private final long startNanos = System.nanoTime();
+    private final Histogram latencies = new Histogram();
+    private long batches;
+    private long largestBatch;
+    private long connections;
+    private long rejectedFrames;
+    private long failedBatches;
+
+    /**
+     * Adds one answered batch.
+     * @param latencies Time from receiving each query to queueing its answer, in nanoseconds
+     * @param count How many entries of latencies belong to the batch
+     */
+    synchronized void recordBatch(long[] latencies, int count) {
+        batches++;
+        largestBatch = Math.max(largestBatch, count);
+        for (int i = 0; i < count; i++) {
+            this.latencies.record(latencies[i]);
+        }
+    }
+
+    synchronized void recordConnection() { connections++; }
+    synchronized void recordRejectedFrame() { rejectedFrames++; }
+    synchronized void recordFailedBatch() { failedBatches++; }
+
+    /**
+     * @return An immutable copy of the current totals
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * The totals of a {@link ServiceStats} at one moment.
+     */
+    public static final class Snapshot {
+        private final long uptimeNanos;
+        private final Histogram latencies;
+        private final long batches;
+        private final long largestBatch;
+        private final long connections;
+        private final long rejectedFrames;
+        private final long failedBatches;
+
+        private Snapshot(ServiceStats stats, long uptimeNanos) {
+            this.uptimeNanos = uptimeNanos;
+            this.latencies = new Histogram(stats.latencies);
+            this.batches = stats.batches;
+            this.largestBatch = stats.largestBatch;
+            this.connections = stats.connections;
+            this.rejectedFrames = stats.rejectedFrames;
+            this.failedBatches = stats.failedBatches;
+        }
+
+        public long getQueries() { return latencies.getCount(); }
+        public long getBatches() { return batches; }
+        public long getLargestBatch() { return largestBatch; }
+        public long getMaxLatencyNanos() { return latencies.getMax(); }
+        public long getConnections() { return connections; }
+        public long getRejectedFrames() { return rejectedFrames; }
+        public long getFailedBatches() { return failedBatches; }
+        public long getUptimeNanos() { return uptimeNanos; }
+
+        public double getMeanBatchSize() { return batches == 0 ? 0 : (double) getQueries() / batches; }
+
+        public double getQueriesPerSecond() { return uptimeNanos == 0 ? 0 : getQueries() * 1e9 / uptimeNanos; }
+
+        /**
+         * @param percentile Between 0 and 100
+         * @return A latency that at least that share of queries stayed within, in nanoseconds,
+         *         or 0 before the first query
+         */
+        public long getLatencyPercentileNanos(double percentile) {
+            return latencies.getPercentile(percentile);
+        }
+
+        /**
+         * @return One "name value" line per figure, as served by the stats request;
+         *         latencies in microseconds
+         */
+        public String toText() {
+            return String.format(Locale.ROOT,
+                    "queries %d%nbatches %d%nmean_batch_size %.2f%nlargest_batch %d%n"
+                            + "queries_per_second %.1f%nlatency_p50_us %.1f%nlatency_p90_us %.1f%n"
+                            + "latency_p99_us %.1f%nlatency_max_us %.1f%nconnections %d%n"
+                            + "rejected_frames %d%nfailed_batches %d%nuptime_s %.3f%n",
+                    getQueries(), batches, getMeanBatchSize(), largestBatch, getQueriesPerSecond(),
+                    getLatencyPercentileNanos(50) / 1e3, getLatencyPercentileNanos(90) / 1e3,
+                    getLatencyPercentileNanos(99) / 1e3, getMaxLatencyNanos() / 1e3, connections,
+                    rejectedFrames, failedBatches, uptimeNanos / 1e9);
+        }
+
+        @Override
+        public String toString() { return toText(); }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dijkstravisualizerapp.view;
+
+import com.example.dijkstravisualizerapp.algorithm.Histogram;
+
+import java.util.Locale;
+
+/**
+ * Rendering measurements of a graph view: how long each draw takes and how many objects
+ * it allocates, how long applying animation steps takes, and how many display frames
+ * playback missed. Everything goes into fixed-size {@link Histogram}s, so recording never
+ * allocates and can stay on for a whole run; {@link #report()} gives percentiles to
+ * compare one rendering change against another. Must be used from the main thread.
+ */
+public class FrameStats {
+    // How often the overlay text is rebuilt, so the overlay itself doesn't allocate every frame
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+
+    private final Histogram drawNanos = new Histogram();
+    private final Histogram drawAllocations = new Histogram();
+    private final Histogram stepNanos = new Histogram();
+    private final Histogram frameIntervals = new Histogram();
+    private long frameIntervalNanos = 1_000_000_000L / 60;
+    private long droppedFrames;
+    // The last overlay text and when it was built; null until first asked for
+    private String[] overlayLines;
+    private long overlayNanos;
+
+    /**
+     * @param nanos How long one draw took
+     * @param allocations How many objects it allocated, or -1 if not counted
+     */
+    public void recordDraw(long nanos, long allocations) {
+        drawNanos.record(nanos);
+        if (allocations >= 0) drawAllocations.record(allocations);
+    }
+
+    /**
+     * @param nanos How long applying one batch of animation steps took
+     */
+    public void recordStep(long nanos) {
+        stepNanos.record(nanos);
+    }
+
+    /**
+     * Records the time between two playback frames. A gap of more than one and a half
+     * display frames counts the frames that were missed in between.
+     */
+    public void recordFrameInterval(long nanos) {
+        frameIntervals.record(nanos);
+        if (nanos * 2 > frameIntervalNanos * 3) {
+            droppedFrames += (nanos + frameIntervalNanos / 2) / frameIntervalNanos - 1;
+        }
+    }
+
+    /**
+     * @param refreshRate The display refresh rate in Hz; 60 unless set
+     */
+    public void setRefreshRate(float refreshRate) {
+        this.frameIntervalNanos = (long) (1e9 / refreshRate);
+    }
+
+    public void reset() {
+        drawNanos.clear();
+        drawAllocations.clear();
+        stepNanos.clear();
+        frameIntervals.clear();
+        droppedFrames = 0;
+        overlayLines = null;
+    }
+
+    public Histogram getDrawNanos() { return drawNanos; }
+    public Histogram getDrawAllocations() { return drawAllocations; }
+    public Histogram getStepNanos() { return stepNanos; }
+    public Histogram getFrameIntervals() { return frameIntervals; }
+    public long getDroppedFrames() { return droppedFrames; }
+
+    /**
+     * @return Short lines for an on-screen overlay, rebuilt at most twice a second
+     */
+    public String[] getOverlayLines(long nowNanos) {
+        if (overlayLines == null || nowNanos - overlayNanos >= OVERLAY_REFRESH_NANOS) {
+            overlayNanos = nowNanos;
+            overlayLines = new String[] {
+                    String.format(Locale.ROOT, "draw ms  p50 %.2f  p95 %.2f  p99 %.2f",
+                            drawNanos.getPercentile(50) / 1e6, drawNanos.getPercentile(95) / 1e6, drawNanos.getPercentile(99) / 1e6),
+                    String.format(Locale.ROOT, "step ms  p50 %.2f  p95 %.2f  p99 %.2f",
+                            stepNanos.getPercentile(50) / 1e6, stepNanos.getPercentile(95) / 1e6, stepNanos.getPercentile(99) / 1e6),
+                    String.format(Locale.ROOT, "allocs/draw  p50 %d  p99 %d",
+                            drawAllocations.getPercentile(50), drawAllocations.getPercentile(99)),
+                    String.format(Locale.ROOT, "frames %d  dropped %d", frameIntervals.getCount(), droppedFrames)
+            };
+        }
+        return overlayLines;
+    }
+
+    /**
+     * @return Every measurement with its count, mean, percentiles and maximum, one per line
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        appendRow(report, "Draw time (ms)", drawNanos, 1e6);
+        appendRow(report, "Step apply time (ms)", stepNanos, 1e6);
+        appendRow(report, "Allocations per draw", drawAllocations, 1);
+        appendRow(report, "Frame interval (ms)", frameIntervals, 1e6);
+        report.append(String.format(Locale.ROOT, "Dropped frames: %d of %d%n",
+                droppedFrames, droppedFrames + frameIntervals.getCount()));
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, Histogram histogram, double unit) {
+        report.append(String.format(Locale.ROOT, "%-22s n %7d  mean %9.3f  p50 %9.3f  p95 %9.3f  p99 %9.3f  max %9.3f%n",
+                name + ":", histogram.getCount(), histogram.getMean() / unit,
+                histogram.getPercentile(50) / unit, histogram.getPercentile(95) / unit,
+                histogram.getPercentile(99) / unit, histogram.getMax() / unit));
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.dijkstravisualizerapp.view;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Draws a graph in a few batched calls instead of one call per edge and node.
+ * The drawing is split into layers:
+ * <ul>
+ *   <li>The edge layer: every edge in gray as one {@code drawLines} array, and the weights.
+ *       It changes only when nodes move.</li>
+ *   <li>Highlighted edges: the path edges of the frame, one {@code drawLines} array per color.
+ *       Only the highlighted edges are visited, not every edge of the graph.</li>
+ *   <li>The node layer: one reused {@link Path} of circles per fill color, and the labels.
+ *       It changes when nodes move or get other colors, not on every animation step.</li>
+ *   <li>The distance layer: the known distance under each node. It changes when the step
+ *       on screen does, and only the distances that changed are formatted again.</li>
+ * </ul>
+ * The layers are recorded once into display lists and replayed on every frame: a
+ * {@link RenderNode} from API 29, a {@link Picture} before. The owner marks them stale with
+ * {@link #invalidateGeometry()}, {@link #invalidateNodeColors()} and {@link #invalidateDistances()}.
+ * Must be used from the main thread.
+ */
+public class GraphRenderer {
+    /**
+     * The fill color of each node in the node layer.
+     */
+    public interface NodeColors {
+        int colorOf(Node node);
+    }
+
+    static final float NODE_RADIUS = 30;
+    private static final float EDGE_WIDTH = 3;
+    private static final float TEXT_SIZE = 30;
+    private static final float DISTANCE_TEXT_SIZE = 25;
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Layer edgeLayer;
+    private final Layer nodeLayer;
+    private final Layer distanceLayer;
+    // What the layers record; set by the draw calls
+    private Graph graph;
+    private NodeColors nodeColors;
+    // Both ends of every edge, reused between recordings
+    private float[] edgePoints = new float[0];
+    // Node circles by fill color, reused between recordings
+    private int[] pathColors = new int[8];
+    private Path[] paths = new Path[8];
+    private int pathCount;
+    // Highlighted edges of the current frame, by color and width
+    private LineBatch[] batches = new LineBatch[4];
+    private int batchCount;
+    // The formatted distance of each node and the distance it was formatted from, by node id
+    private String[] distanceLabels = new String[0];
+    private double[] labeledDistances = new double[0];
+
+    public GraphRenderer() {
+        linePaint.setStyle(Paint.Style.STROKE);
+        fillPaint.setStyle(Paint.Style.FILL);
+        textPaint.setColor(Color.BLACK);
+        boolean renderNodes = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q;
+        edgeLayer = renderNodes ? new RenderNodeLayer("edges", this::paintEdges) : new PictureLayer(this::paintEdges);
+        nodeLayer = renderNodes ? new RenderNodeLayer("nodes", this::paintNodes) : new PictureLayer(this::paintNodes);
+        distanceLayer = renderNodes ? new RenderNodeLayer("distances", this::paintDistances) : new PictureLayer(this::paintDistances);
+    }
+
+    /**
+     * Marks all three layers stale, e.g. after nodes moved or the graph was replaced.
+     */
+    public void invalidateGeometry() {
+        edgeLayer.dirty = true;
+        nodeLayer.dirty = true;
+        distanceLayer.dirty = true;
+    }
+
+    /**
+     * Marks the node layer stale, e.g. after the start node or the node groups changed.
+     */
+    public void invalidateNodeColors() {
+        nodeLayer.dirty = true;
+    }
+
+    /**
+     * Marks the distance layer stale, e.g. after the step on screen changed.
+     */
+    public void invalidateDistances() {
+        distanceLayer.dirty = true;
+    }
+
+    /**
+     * Draws the edge layer, recording it first if it is stale.
+     */
+    public void drawEdges(Canvas canvas, Graph graph, int width, int height) {
+        if (this.graph != graph) {
+            this.graph = graph;
+            invalidateGeometry();
+        }
+        edgeLayer.draw(canvas, width, height);
+    }
+
+    /**
+     * Adds an edge to the highlighted edges of this frame. Adding an edge twice draws it twice.
+     */
+    public void highlightEdge(Edge edge, int color, float width) {
+        LineBatch batch = null;
+        for (int i = 0; i < batchCount && batch == null; i++) {
+            if (batches[i].color == color && batches[i].width == width) batch = batches[i];
+        }
+        if (batch == null) {
+            if (batchCount == batches.length) batches = Arrays.copyOf(batches, batchCount * 2);
+            if (batches[batchCount] == null) batches[batchCount] = new LineBatch();
+            batch = batches[batchCount++];
+            batch.color = color;
+            batch.width = width;
+            batch.count = 0;
+        }
+        batch.add(edge);
+    }
+
+    /**
+     * Draws the edges added since the last call, one call per color, and clears them.
+     */
+    public void drawHighlightedEdges(Canvas canvas) {
+        for (int i = 0; i < batchCount; i++) {
+            LineBatch batch = batches[i];
+            linePaint.setColor(batch.color);
+            linePaint.setStrokeWidth(batch.width);
+            canvas.drawLines(batch.points, 0, batch.count, linePaint);
+        }
+        batchCount = 0;
+    }
+
+    /**
+     * Draws the node layer, recording it first if it is stale.
+     * @param colors The fill colors to record with; only read when recording
+     */
+    public void drawNodes(Canvas canvas, Graph graph, NodeColors colors, int width, int height) {
+        if (this.graph != graph) {
+            this.graph = graph;
+            invalidateGeometry();
+        }
+        this.nodeColors = colors;
+        nodeLayer.draw(canvas, width, height);
+    }
+
+    /**
+     * Draws one node over the node layer in another color, e.g. the node of the current step.
+     */
+    public void drawNode(Canvas canvas, Node node, int color) {
+        fillPaint.setColor(color);
+        canvas.drawCircle(node.getX(), node.getY(), NODE_RADIUS, fillPaint);
+    }
+
+    /**
+     * Draws the distance layer, the known distance below every reached node, recording it
+     * first if it is stale.
+     */
+    public void drawDistances(Canvas canvas, Graph graph, int width, int height) {
+        if (this.graph != graph) {
+            this.graph = graph;
+            invalidateGeometry();
+        }
+        distanceLayer.draw(canvas, width, height);
+    }
+
+    private void paintEdges(Canvas canvas) {
+        List<Edge> edges = graph.getEdges();
+        if (edgePoints.length != 4 * edges.size()) edgePoints = new float[4 * edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            putLine(edgePoints, 4 * i, edges.get(i));
+        }
+        linePaint.setColor(Color.GRAY);
+        linePaint.setStrokeWidth(EDGE_WIDTH);
+        canvas.drawLines(edgePoints, linePaint);
+
+        textPaint.setTextSize(TEXT_SIZE);
+        for (Edge edge : edges) {
+            float mx = (edge.getSource().getX() + edge.getDestination().getX()) / 2;
+            float my = (edge.getSource().getY() + edge.getDestination().getY()) / 2;
+            canvas.drawText(String.valueOf(edge.getWeight()), mx, my, textPaint);
+        }
+    }
+
+    private void paintNodes(Canvas canvas) {
+        for (int i = 0; i < pathCount; i++) paths[i].rewind();
+        pathCount = 0;
+        for (Node node : graph.getNodes()) {
+            pathFor(nodeColors.colorOf(node)).addCircle(node.getX(), node.getY(), NODE_RADIUS, Path.Direction.CW);
+        }
+        for (int i = 0; i < pathCount; i++) {
+            fillPaint.setColor(pathColors[i]);
+            canvas.drawPath(paths[i], fillPaint);
+        }
+
+        textPaint.setTextSize(TEXT_SIZE);
+        for (Node node : graph.getNodes()) {
+            canvas.drawText(node.getLabel(), node.getX() - 30, node.getY() - 40, textPaint);
+        }
+    }
+
+    private void paintDistances(Canvas canvas) {
+        List<Node> nodes = graph.getNodes();
+        if (distanceLabels.length != nodes.size()) {
+            distanceLabels = new String[nodes.size()];
+            labeledDistances = new double[nodes.size()];
+        }
+        textPaint.setTextSize(DISTANCE_TEXT_SIZE);
+        for (Node node : nodes) {
+            double distance = node.getDistance();
+            if (distance == Double.MAX_VALUE) continue;
+            int id = node.getId();
+            if (distanceLabels[id] == null || labeledDistances[id] != distance) {
+                distanceLabels[id] = String.format("%.2f", distance);
+                labeledDistances[id] = distance;
+            }
+            canvas.drawText(distanceLabels[id], node.getX() - 20, node.getY() + 50, textPaint);
+        }
+    }
+
+    // The path collecting the circles of one color; a handful of colors, so a linear search
+    private Path pathFor(int color) {
+        for (int i = 0; i < pathCount; i++) {
+            if (pathColors[i] == color) return paths[i];
+        }
+        if (pathCount == paths.length) {
+            paths = Arrays.copyOf(paths, pathCount * 2);
+            pathColors = Arrays.copyOf(pathColors, pathCount * 2);
+        }
+        if (paths[pathCount] == null) paths[pathCount] = new Path();
+        pathColors[pathCount] = color;
+        return paths[pathCount++];
+    }
+
+    private static void putLine(float[] points, int offset, Edge edge) {
+        points[offset] = edge.getSource().getX();
+        points[offset + 1] = edge.getSource().getY();
+        points[offset + 2] = edge.getDestination().getX();
+        points[offset + 3] = edge.getDestination().getY();
+    }
+
+    // The endpoints of the highlighted edges of one color and width; the array is kept between frames
+    private static final class LineBatch {
+        int color;
+        float width;
+        float[] points = new float[64];
+        int count;
+
+        void add(Edge edge) {
+            if (count + 4 > points.length) points = Arrays.copyOf(points, points.length * 2);
+            putLine(points, count, edge);
+            count += 4;
+        }
+    }
+
+    private interface Painter {
+        void paint(Canvas canvas);
+    }
+
+    // A recorded layer, recorded again when stale or when the view changed size
+    private abstract static class Layer {
+        final Painter painter;
+        boolean dirty = true;
+        private int width = -1, height = -1;
+
+        Layer(Painter painter) {
+            this.painter = painter;
+        }
+
+        void draw(Canvas canvas, int width, int height) {
+            if (dirty || width != this.width || height != this.height) {
+                record(width, height);
+                this.width = width;
+                this.height = height;
+                dirty = false;
+            }
+            replay(canvas);
+        }
+
+        abstract void record(int width, int height);
+
+        abstract void replay(Canvas canvas);
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static final class RenderNodeLayer extends Layer {
+        private final RenderNode renderNode;
+
+        RenderNodeLayer(String name, Painter painter) {
+            super(painter);
+            this.renderNode = new RenderNode(name);
+        }
+
+        @Override
+        void record(int width, int height) {
+            renderNode.setPosition(0, 0, width, height);
+            Canvas canvas = renderNode.beginRecording(width, height);
+            try {
+                painter.paint(canvas);
+            } finally {
+                renderNode.endRecording();
+            }
+        }
+
+        @Override
+        void replay(Canvas canvas) {
+            // A software canvas, e.g. when the view is drawn into a bitmap, can't replay display lists
+            if (canvas.isHardwareAccelerated()) canvas.drawRenderNode(renderNode);
+            else painter.paint(canvas);
+        }
+    }
+
+    // Before API 29; hardware canvases replay pictures from API 23
+    private static final class PictureLayer extends Layer {
+        private final Picture picture = new Picture();
+
+        PictureLayer(Painter painter) {
+            super(painter);
+        }
+
+        @Override
+        void record(int width, int height) {
+            Canvas canvas = picture.beginRecording(width, height);
+            try {
+                painter.paint(canvas);
+            } finally {
+                picture.endRecording();
+            }
+        }
+
+        @Override
+        void replay(Canvas canvas) {
+            canvas.drawPicture(picture);
+        }
+    }
+}
@@ -4,53 +4,133 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.os.Handler;
+import android.os.Debug;
 import android.util.AttributeSet;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.widget.TextView;
 
 import com.example.dijkstravisualizerapp.algorithm.DijkstraAlgorithm;
+import com.example.dijkstravisualizerapp.algorithm.DistanceTimeline;
+import com.example.dijkstravisualizerapp.algorithm.KShortestPaths;
+import com.example.dijkstravisualizerapp.algorithm.RangeQuery;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
 import com.example.dijkstravisualizerapp.model.Edge;
 import com.example.dijkstravisualizerapp.model.Graph;
 import com.example.dijkstravisualizerapp.model.Node;
+import com.example.dijkstravisualizerapp.model.SpatialIndex;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Custom view for visualizing the graph and Dijkstra's algorithm animation.
  */
 public class GraphView extends View {
-    private final Paint paint;
+    // How many recent steps the lazily generated run keeps for stepping back and scrubbing
+    private static final int STEP_HISTORY_LIMIT = 100_000;
+    // Node fill colors for partitions, cycled when there are more sources than colors
+    private static final int[] PARTITION_COLORS = {
+            0xFFFFA726, 0xFF66BB6A, 0xFFAB47BC, 0xFF29B6F6, 0xFFEF5350, 0xFFD4E157, 0xFF8D6E63, 0xFF26A69A
+    };
+    // Edge colors for alternative paths, shortest first; cycled when there are more paths
+    private static final int[] PATH_COLORS = {
+            Color.RED, 0xFF1E88E5, 0xFF43A047, 0xFFFB8C00, 0xFF8E24AA, 0xFF00ACC1
+    };
+    // Node fill colors for isochrone bands, from the nearest band outwards; the last repeats
+    private static final int[] ISOCHRONE_COLORS = {
+            0xFF1B5E20, 0xFF388E3C, 0xFF66BB6A, 0xFFA5D6A7, 0xFFE8F5E9
+    };
+    // How far from a node's center a touch still picks it, a little beyond the drawn circle
+    private static final float TOUCH_RADIUS = 60;
+
+    // Draws in batches and keeps the edges and nodes as recorded layers
+    private final GraphRenderer renderer = new GraphRenderer();
+    private final GraphRenderer.NodeColors nodeColors = this::nodeColor;
+    // Draw and step measurements while instrumentation is on, null otherwise
+    private FrameStats frameStats;
+    private Paint overlayText, overlayBackground;
     private Graph graph;
     private DijkstraAlgorithm dijkstraAlgorithm;
     private TextView infoText;
     private boolean isAnimating;
-    private Handler animationHandler;
-    private Runnable animationRunnable;
-    private List<Edge> currentAnimationPath;
+    // Plays steps on display frames at the chosen speed
+    private final PlaybackController playback;
+    // The edge each node is reached through at the step on screen, by node id
+    private PathEdges animationPathEdges;
+    // The step whose distances and path edges the nodes currently hold, -1 for the initial state
+    private int displayedStepIndex;
+    // Scratch space for copying the whole state of a step on big jumps, indexed by node id
+    private double[] stateDistances;
+    private int[] statePreviousArcs;
+    private OnStepChangeListener stepChangeListener;
+    // The group each node is colored by while a partition or isochrones are shown, indexed by
+    // node id, -1 for none; the colors of the groups, or null when neither is shown
+    private int[] nodeGroups;
+    private int[] groupColors;
+    private ShortestPathEngine partitionEngine;
+    private RangeQuery rangeQuery;
+    // While alternatives are shown: the index of the shortest path each edge belongs to; null otherwise
+    private Map<Edge, Integer> alternativePathOf;
+    private KShortestPaths kShortestPaths;
+    // Finds the node under a touch; built on the first touch, moved along with dragged nodes
+    private SpatialIndex spatialIndex;
+    private final int touchSlop;
+    // The node under the current touch, -1 if none; whether the touch has become a drag
+    private int touchedNode = -1;
+    private boolean dragging;
+    private float downX, downY;
+    // Taps alternate between picking the start and the target
+    private boolean pickTargetNext;
+    // Answers the query after a pick, reusing its arrays for every pick on the same graph
+    private ShortestPathEngine pickEngine;
+    // Keeps the graph and run on disk, or null; while a saved run loads, saving waits and
+    // the step it will show stands in for the current one
+    private RunSaver runSaver;
+    private boolean loading;
+    private int loadingStepIndex;
+
+    /**
+     * Notified whenever the step shown on screen changes, e.g. to move a seek bar along.
+     */
+    public interface OnStepChangeListener {
+        /**
+         * @param stepIndex The index of the step now shown, -1 if none
+         * @param totalSteps The number of steps in the current run
+         */
+        void onStepChanged(int stepIndex, int totalSteps);
+    }
+
+    /**
+     * The graph and run of a view, handed to the view that replaces it after a configuration
+     * change. Both are kept as they are, search state included, so nothing is copied or searched again.
+     */
+    public static final class RetainedRun {
+        private final Graph graph;
+        private final DijkstraAlgorithm algorithm;
+
+        private RetainedRun(Graph graph, DijkstraAlgorithm algorithm) {
+            this.graph = graph;
+            this.algorithm = algorithm;
+        }
+    }
 
     public GraphView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        paint = new Paint();
-        paint.setAntiAlias(true);
         setBackgroundColor(Color.WHITE);
 
         // Initialize graph
         graph = Graph.createHardcodedGraph();
         dijkstraAlgorithm = new DijkstraAlgorithm(graph);
-        currentAnimationPath = new java.util.ArrayList<>();
+        animationPathEdges = new PathEdges(graph.getNodeCount());
+        displayedStepIndex = -1;
 
-        // Set up animation handler
-        animationHandler = new Handler();
-        animationRunnable = new Runnable() {
-            @Override
-            public void run() {
-                stepAnimation();
-                if (isAnimating) {
-                    animationHandler.postDelayed(this, 1000); // 1 second delay
-                }
-            }
-        };
+        // Set up frame-driven playback
+        playback = new PlaybackController(this::advancePlayback);
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
         // Update node positions when view is ready
         post(this::updateNodePositions);
@@ -60,60 +140,128 @@ public class GraphView extends View {
         this.infoText = infoText;
     }
 
+    public void setOnStepChangeListener(OnStepChangeListener listener) {
+        this.stepChangeListener = listener;
+    }
+
+    /**
+     * Turns on measuring of draw times, allocations per draw, step times and dropped frames,
+     * shown in an overlay at the top left. Measuring reads the clock and the allocation
+     * counter around each draw and step; with instrumentation off nothing is measured.
+     * Turning it off discards the measurements, so take {@link #getFrameStats()} first.
+     */
+    @SuppressWarnings("deprecation")
+    public void setInstrumentationEnabled(boolean enabled) {
+        if (enabled == (frameStats != null)) return;
+        if (enabled) {
+            frameStats = new FrameStats();
+            if (overlayText == null) {
+                overlayText = new Paint(Paint.ANTI_ALIAS_FLAG);
+                overlayText.setColor(Color.WHITE);
+                overlayText.setTextSize(28);
+                overlayBackground = new Paint();
+                overlayBackground.setColor(0xB0000000);
+            }
+            // Deprecated, but still the only per-thread allocation counter
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+        } else {
+            Debug.stopAllocCounting();
+            frameStats = null;
+        }
+        playback.setFrameStats(frameStats);
+        invalidate();
+    }
+
+    /**
+     * @return The measurements so far, e.g. for {@link FrameStats#report()}, or null while
+     *         instrumentation is off
+     */
+    public FrameStats getFrameStats() { return frameStats; }
+
     @Override
+    @SuppressWarnings("deprecation")
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (frameStats == null) {
+            drawGraph(canvas);
+            return;
+        }
+        int allocations = Debug.getThreadAllocCount();
+        long start = System.nanoTime();
+        drawGraph(canvas);
+        long end = System.nanoTime();
+        frameStats.recordDraw(end - start, Debug.getThreadAllocCount() - allocations);
+        drawOverlay(canvas, end);
+    }
+
+    private void drawOverlay(Canvas canvas, long nowNanos) {
+        String[] lines = frameStats.getOverlayLines(nowNanos);
+        float lineHeight = overlayText.getTextSize() * 1.25f;
+        canvas.drawRect(0, 0, 620, lineHeight * lines.length + 16, overlayBackground);
+        for (int i = 0; i < lines.length; i++) {
+            canvas.drawText(lines[i], 12, lineHeight * (i + 1), overlayText);
+        }
+    }
+
+    private void drawGraph(Canvas canvas) {
+        // While playing or scrubbing, show the step's state; otherwise the finished result
+        boolean showingSteps = isShowingSteps();
+        int width = getWidth(), height = getHeight();
+        renderer.drawEdges(canvas, graph, width, height);
 
-        // Draw edges
-        for (Edge edge : graph.getEdges()) {
-            Node source = edge.getSource();
-            Node dest = edge.getDestination();
-
-            // Set edge color based on state
-            boolean isHighlightedEdge = isAnimating && dijkstraAlgorithm.getCurrentStep() != null && 
-                                      dijkstraAlgorithm.getCurrentStep().getHighlightedEdge() == edge;
-            boolean isAnimationPath = isAnimating && currentAnimationPath.contains(edge);
-            boolean isFinalPath = !isAnimating && dijkstraAlgorithm.getFinalPath().contains(edge);
-
-            paint.setColor(isHighlightedEdge || isAnimationPath || isFinalPath ? Color.RED : Color.GRAY);
-            paint.setStrokeWidth(3);
-            canvas.drawLine(source.getX(), source.getY(), dest.getX(), dest.getY(), paint);
-
-            // Draw edge weight
-            paint.setColor(Color.BLACK);
-            paint.setTextSize(30);
-            float mx = (source.getX() + dest.getX()) / 2;
-            float my = (source.getY() + dest.getY()) / 2;
-            canvas.drawText(String.valueOf(edge.getWeight()), mx, my, paint);
-        }
-
-        // Draw nodes
-        for (Node node : graph.getNodes()) {
-            // Set node color based on state
-            boolean isHighlightedNode = isAnimating && dijkstraAlgorithm.getCurrentStep() != null && 
-                                      dijkstraAlgorithm.getCurrentStep().getHighlightedNode() == node;
-
-            if (node == graph.getStartNode()) paint.setColor(Color.GREEN);
-            else if (node == graph.getTargetNode()) paint.setColor(Color.BLUE);
-            else if (isHighlightedNode) paint.setColor(Color.YELLOW);
-            else paint.setColor(Color.CYAN);
-
-            // Draw node circle
-            canvas.drawCircle(node.getX(), node.getY(), 30, paint);
-
-            // Draw node label
-            paint.setColor(Color.BLACK);
-            canvas.drawText(node.getLabel(), node.getX() - 30, node.getY() - 40, paint);
-
-            // Draw distance if known
-            if (node.getDistance() != Double.MAX_VALUE && 
-                (isAnimating || (!isAnimating && dijkstraAlgorithm.getCurrentStepIndex() == dijkstraAlgorithm.getTotalSteps() - 1))) {
-                paint.setColor(Color.BLACK);
-                paint.setTextSize(25);
-                canvas.drawText(String.format("%.2f", node.getDistance()), 
-                              node.getX() - 20, node.getY() + 50, paint);
+        // Only the highlighted edges are visited; the rest are in the recorded edge layer
+        if (alternativePathOf != null) {
+            for (Map.Entry<Edge, Integer> entry : alternativePathOf.entrySet()) {
+                renderer.highlightEdge(entry.getKey(), PATH_COLORS[entry.getValue() % PATH_COLORS.length], 6);
+            }
+        }
+        DijkstraAlgorithm.DijkstraStep step = showingSteps ? dijkstraAlgorithm.getCurrentStep() : null;
+        if (showingSteps) {
+            for (int i = 0, count = animationPathEdges.size(); i < count; i++) {
+                renderer.highlightEdge(animationPathEdges.edgeAt(i), Color.RED, 3);
+            }
+            if (step != null && step.getHighlightedEdge() != null) {
+                renderer.highlightEdge(step.getHighlightedEdge(), Color.RED, 3);
+            }
+        } else if (dijkstraAlgorithm.isComplete()) {
+            // The path is walked once per frame, not once per edge
+            for (Edge edge : dijkstraAlgorithm.getFinalPath()) {
+                renderer.highlightEdge(edge, Color.RED, 3);
             }
         }
+        renderer.drawHighlightedEdges(canvas);
+
+        renderer.drawNodes(canvas, graph, nodeColors, width, height);
+        Node highlighted = step != null ? step.getHighlightedNode() : null;
+        if (highlighted != null && highlighted != graph.getStartNode() && highlighted != graph.getTargetNode()) {
+            renderer.drawNode(canvas, highlighted, Color.YELLOW);
+        }
+
+        // Draw distances if known
+        if (showingSteps || (dijkstraAlgorithm.isComplete() &&
+                             dijkstraAlgorithm.getCurrentStepIndex() == dijkstraAlgorithm.getTotalSteps() - 1)) {
+            renderer.drawDistances(canvas, graph, width, height);
+        }
+    }
+
+    // The fill of each node in the recorded node layer; the node of the current step is drawn over it
+    private int nodeColor(Node node) {
+        if (node == graph.getStartNode()) return Color.GREEN;
+        if (node == graph.getTargetNode()) return Color.BLUE;
+        if (groupColors != null && nodeGroups[node.getId()] >= 0) return groupColor(nodeGroups[node.getId()]);
+        return Color.CYAN;
+    }
+
+    private int groupColor(int group) {
+        if (groupColors == ISOCHRONE_COLORS) return groupColors[Math.min(group, groupColors.length - 1)];
+        return groupColors[group % groupColors.length];
+    }
+
+    // True while playing, or while paused anywhere but on the last step of a finished search
+    private boolean isShowingSteps() {
+        int index = dijkstraAlgorithm.getCurrentStepIndex();
+        return isAnimating || (index >= 0 && (!dijkstraAlgorithm.isComplete() || index < dijkstraAlgorithm.getTotalSteps() - 1));
     }
 
     @Override
@@ -140,6 +288,100 @@ public class GraphView extends View {
             nodes.get(i).setX(x);
             nodes.get(i).setY(y);
         }
+        if (spatialIndex != null) spatialIndex.rebuild();
+        renderer.invalidateGeometry();
+        saveRun();
+        invalidate();
+    }
+
+    /**
+     * Tapping a node picks it as the start, the next tap as the target, and so on; each pick
+     * shows the new shortest path at once. Dragging a node moves it.
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (spatialIndex == null || spatialIndex.getGraph() != graph) spatialIndex = new SpatialIndex(graph);
+                touchedNode = spatialIndex.nearest(event.getX(), event.getY(), TOUCH_RADIUS);
+                if (touchedNode < 0) return false;
+                dragging = false;
+                downX = event.getX();
+                downY = event.getY();
+                // Keep a scrolling parent from taking over the drag
+                if (getParent() != null) getParent().requestDisallowInterceptTouchEvent(true);
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (touchedNode < 0) return false;
+                if (!dragging && Math.hypot(event.getX() - downX, event.getY() - downY) > touchSlop) dragging = true;
+                if (dragging) {
+                    Node node = graph.getNodes().get(touchedNode);
+                    node.setX(event.getX());
+                    node.setY(event.getY());
+                    spatialIndex.move(touchedNode, event.getX(), event.getY());
+                    renderer.invalidateGeometry();
+                    invalidate();
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (touchedNode < 0) return false;
+                if (!dragging) {
+                    performClick();
+                    pickNode(graph.getNodes().get(touchedNode));
+                } else {
+                    saveRun();
+                }
+                touchedNode = -1;
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                touchedNode = -1;
+                return true;
+            default:
+                return touchedNode >= 0;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    /**
+     * Makes a node the start or the target, alternately, and shows the shortest path between
+     * them right away. Only one bounded search runs: the graph and its arc index are kept,
+     * and no animation steps are recorded; {@link #runDijkstra()} still animates the new pair.
+     * @param node The node picked
+     */
+    public void pickNode(Node node) {
+        Node start = graph.getStartNode(), target = graph.getTargetNode();
+        if (pickTargetNext) target = node;
+        else start = node;
+        pickTargetNext = !pickTargetNext;
+        graph.setStartAndTarget(start != null ? start : node, target != null ? target : node);
+        renderer.invalidateNodeColors();
+        showPickedPath();
+    }
+
+    // Puts the nodes in the state a finished run would leave them in, from one engine search
+    private void showPickedPath() {
+        resetForDijkstra();
+        // A fresh algorithm holds no steps, so the view shows the final state set below
+        dijkstraAlgorithm = new DijkstraAlgorithm(graph);
+        notifyStepChanged();
+        if (pickEngine == null || pickEngine.getGraph() != graph) pickEngine = new ShortestPathEngine(graph);
+        Node start = graph.getStartNode(), target = graph.getTargetNode();
+        double cost = pickEngine.run(start.getId(), target.getId());
+
+        // The search stopped at the target, so only nodes no farther than it have final distances;
+        // the algorithm takes them over with their arcs, so the path is drawn from it as after a run
+        dijkstraAlgorithm.showResult(pickEngine, cost);
+        renderer.invalidateDistances();
+        saveRun();
+        if (infoText != null) {
+            infoText.setText(cost == Double.MAX_VALUE
+                    ? target.getLabel() + " can't be reached from " + start.getLabel() + "."
+                    : String.format("Shortest path from %s to %s: %.2f", start.getLabel(), target.getLabel(), cost));
+        }
         invalidate();
     }
 
@@ -150,15 +392,129 @@ public class GraphView extends View {
         }
 
         resetForDijkstra();
-        dijkstraAlgorithm.run();
+        // Only the first step is computed now; the rest are produced as the animation asks for them
+        dijkstraAlgorithm.start(STEP_HISTORY_LIMIT);
+        // Make sure the nodes show the state before the first step
+        showStateAt(-1, true);
+        notifyStepChanged();
+        // Recorded to a trace in the background now, so keeping it later costs nothing
+        saveRun();
+        invalidate();
+    }
+
+    /**
+     * Colors every node by the source it is closest to, e.g. to show each depot's service area.
+     * The partition comes from one multi-source search, however many sources there are.
+     * @param sources The nodes to partition the graph around; each gets its own color
+     */
+    public void showPartition(List<Node> sources) {
+        if (sources.isEmpty()) {
+            clearNodeGroups();
+            return;
+        }
+        // The engine's arrays are reused by every partition of the same graph
+        if (partitionEngine == null || partitionEngine.getGraph() != graph) {
+            partitionEngine = new ShortestPathEngine(graph);
+        }
+        prepareNodeGroups(PARTITION_COLORS);
+        int[] ids = new int[sources.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sources.get(i).getId();
+        }
+        partitionEngine.runFromSources(ids);
+        for (int node = 0; node < nodeGroups.length; node++) {
+            nodeGroups[node] = partitionEngine.getOwner(node);
+        }
+        if (infoText != null) infoText.setText("Partitioned the graph among " + ids.length + " sources.");
+        invalidate();
+    }
+
+    /**
+     * Shades the nodes reachable from a source within each of several cost limits, darkest
+     * for the nearest band, e.g. to show a 5, 10 and 15 minute service area at once.
+     * All bands come from one bounded search that stops at the largest limit.
+     * @param source The node to measure from
+     * @param limits Ascending band limits
+     */
+    public void showIsochrones(Node source, double... limits) {
+        // The query keeps its arrays between calls, so redrawing bands allocates nothing
+        if (rangeQuery == null || rangeQuery.getGraph() != graph) {
+            rangeQuery = new RangeQuery(graph);
+        }
+        prepareNodeGroups(ISOCHRONE_COLORS);
+        Arrays.fill(nodeGroups, -1);
+        int reached = rangeQuery.runBands(source.getId(), limits);
+        for (int band = 0, index = 0; band < rangeQuery.getBandCount(); band++) {
+            for (int end = rangeQuery.getBandEnd(band); index < end; index++) {
+                nodeGroups[rangeQuery.getReachedNode(index)] = band;
+            }
+        }
+        if (infoText != null) {
+            infoText.setText(reached + " nodes within " + limits[limits.length - 1] + " of " + source.getLabel() + ".");
+        }
+        invalidate();
+    }
+
+    /**
+     * Draws up to k shortest loopless paths from the start to the target node, each in its own
+     * color, e.g. to compare alternative routes. Where paths share an edge it takes the color of
+     * the shortest of them.
+     * @param k How many paths to show
+     * @return The number of paths found, which may be fewer than k
+     */
+    public int showAlternativePaths(int k) {
+        if (graph.getStartNode() == null || graph.getTargetNode() == null) {
+            if (infoText != null) infoText.setText("Set both start and target nodes.");
+            return 0;
+        }
+        // The finder keeps its reversed graph and spur workspaces between calls
+        if (kShortestPaths == null) kShortestPaths = new KShortestPaths(graph);
+        List<List<Edge>> paths = kShortestPaths.find(graph.getStartNode(), graph.getTargetNode(), k);
+        alternativePathOf = new HashMap<>();
+        for (int i = paths.size() - 1; i >= 0; i--) {
+            for (Edge edge : paths.get(i)) {
+                alternativePathOf.put(edge, i);
+            }
+        }
+        if (infoText != null) infoText.setText("Found " + paths.size() + " alternative paths.");
         invalidate();
+        return paths.size();
+    }
+
+    public void clearAlternativePaths() {
+        if (alternativePathOf == null) return;
+        alternativePathOf = null;
+        invalidate();
+    }
+
+    /**
+     * Goes back to the normal node colors after {@link #showPartition(List)} or {@link #showIsochrones(Node, double...)}.
+     */
+    public void clearNodeGroups() {
+        if (groupColors == null) return;
+        groupColors = null;
+        renderer.invalidateNodeColors();
+        invalidate();
+    }
+
+    private void prepareNodeGroups(int[] colors) {
+        if (nodeGroups == null || nodeGroups.length != graph.getNodeCount()) {
+            nodeGroups = new int[graph.getNodeCount()];
+        }
+        groupColors = colors;
+        renderer.invalidateNodeColors();
     }
 
     private void resetForDijkstra() {
+        groupColors = null;
+        renderer.invalidateNodeColors();
+        alternativePathOf = null;
         graph.resetNodes();
-        currentAnimationPath.clear();
+        animationPathEdges.clear();
+        renderer.invalidateDistances();
+        displayedStepIndex = -1;
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         if (infoText != null) infoText.setText("Ready to run Dijkstra's algorithm.");
     }
 
@@ -168,41 +524,130 @@ public class GraphView extends View {
             applyAnimationStep(step);
             invalidate();
         } else {
-            isAnimating = false;
-            if (infoText != null) infoText.setText("Algorithm complete.");
+            finishPlayback();
         }
     }
 
-    private void applyAnimationStep(DijkstraAlgorithm.DijkstraStep step) {
-        // Update node distances
-        for (Node node : graph.getNodes()) {
-            node.setDistance(step.getNodeDistances().getOrDefault(node, Double.MAX_VALUE));
+    /**
+     * Called by the playback controller once per frame with the number of steps that are due.
+     * All of them are applied as one jump, so the frame costs one diff and one invalidate
+     * however many steps it covers.
+     */
+    private boolean advancePlayback(int steps) {
+        int currentStep = dijkstraAlgorithm.getCurrentStepIndex();
+        // Seeking forward runs the search only as far as the steps we need
+        DijkstraAlgorithm.DijkstraStep step = dijkstraAlgorithm.seek((int) Math.min((long) currentStep + steps, Integer.MAX_VALUE));
+        if (step == null || dijkstraAlgorithm.getCurrentStepIndex() == currentStep) {
+            finishPlayback();
+            return false;
         }
+        applyAnimationStep(step);
+        invalidate();
+        return true;
+    }
 
-        // Update animation path
-        if (step.getUpdatedNode() != null && step.getUpdatedNode().getPrevious() != null) {
-            Edge edge = graph.getEdge(step.getUpdatedNode(), step.getUpdatedNode().getPrevious());
-            if (edge != null && !currentAnimationPath.contains(edge)) {
-                currentAnimationPath.add(edge);
-            }
+    private void finishPlayback() {
+        isAnimating = false;
+        playback.pause();
+        if (infoText != null) infoText.setText("Algorithm complete.");
+        invalidate();
+    }
+
+    /**
+     * Sets how many steps per second playback shows; 1 is the classic one step a second.
+     * Takes effect on the next frame, also while playing.
+     */
+    public void setPlaybackSpeed(float stepsPerSecond) {
+        playback.setSpeed(stepsPerSecond);
+    }
+
+    /**
+     * Jumps the animation to any step, e.g. from a seek bar.
+     * Only the nodes whose distance or path edge differs between the old and new step are touched.
+     * @param stepIndex The step to show
+     */
+    public void seekTo(int stepIndex) {
+        DijkstraAlgorithm.DijkstraStep step = dijkstraAlgorithm.seek(stepIndex);
+        if (step != null) {
+            applyAnimationStep(step);
+            invalidate();
         }
+    }
+
+    private void applyAnimationStep(DijkstraAlgorithm.DijkstraStep step) {
+        long start = frameStats != null ? System.nanoTime() : 0;
+        // Bring node distances and path edges to this step, touching only the nodes that changed
+        showStateAt(dijkstraAlgorithm.getCurrentStepIndex(), false);
 
         if (infoText != null) {
             infoText.setText("Step " + (dijkstraAlgorithm.getCurrentStepIndex() + 1) + ": " + 
                            step.getDescription());
         }
+        notifyStepChanged();
+        if (frameStats != null) frameStats.recordStep(System.nanoTime() - start);
+    }
+
+    /**
+     * Moves the per-node display state from the displayed step to the target step.
+     * The distance trace lists the changes between two steps in order, so only those nodes
+     * are updated: forwards by applying each change in turn, so the last one for a node wins,
+     * backwards by undoing them newest first. Each change costs the same whether the trace is
+     * in memory or replayed from a file. When more changes lie in between than there are nodes,
+     * the whole state at the target step is copied out in one pass instead.
+     */
+    private void showStateAt(int targetStep, boolean force) {
+        DistanceTimeline trace = dijkstraAlgorithm.getDistanceTrace();
+        if (trace == null) return;
+        List<Node> nodes = graph.getNodes();
+
+        int from = trace.firstChangeAfter(Math.min(displayedStepIndex, targetStep));
+        int to = trace.firstChangeAfter(Math.max(displayedStepIndex, targetStep));
+        if (force || to - from > nodes.size()) {
+            if (stateDistances == null || stateDistances.length != nodes.size()) {
+                stateDistances = new double[nodes.size()];
+                statePreviousArcs = new int[nodes.size()];
+            }
+            trace.copyStateAt(targetStep, stateDistances, statePreviousArcs);
+            for (Node node : nodes) {
+                int id = node.getId();
+                node.setDistance(stateDistances[id]);
+                animationPathEdges.set(id, statePreviousArcs[id] < 0 ? null : graph.getArcEdge(statePreviousArcs[id]));
+            }
+        } else if (targetStep >= displayedStepIndex) {
+            for (int change = from; change < to; change++) {
+                showNode(nodes.get(trace.getChangeNode(change)), trace.getChangeDistance(change), trace.getChangeArc(change));
+            }
+        } else {
+            for (int change = to - 1; change >= from; change--) {
+                showNode(nodes.get(trace.getChangeNode(change)), trace.getDistanceBefore(change), trace.getPreviousArcBefore(change));
+            }
+        }
+        displayedStepIndex = targetStep;
+        renderer.invalidateDistances();
+    }
+
+    private void showNode(Node node, double distance, int arc) {
+        node.setDistance(distance);
+        animationPathEdges.set(node.getId(), arc < 0 ? null : graph.getArcEdge(arc));
+    }
+
+    private void notifyStepChanged() {
+        if (stepChangeListener != null) {
+            stepChangeListener.onStepChanged(dijkstraAlgorithm.getCurrentStepIndex(), dijkstraAlgorithm.getTotalSteps());
+        }
     }
 
     public void startAnimation() {
-        if (!isAnimating && dijkstraAlgorithm.getCurrentStepIndex() < dijkstraAlgorithm.getTotalSteps() - 1) {
+        if (!isAnimating && (!dijkstraAlgorithm.isComplete() ||
+                             dijkstraAlgorithm.getCurrentStepIndex() < dijkstraAlgorithm.getTotalSteps() - 1)) {
             isAnimating = true;
-            animationHandler.postDelayed(animationRunnable, 0);
+            playback.play();
         }
     }
 
     public void pauseAnimation() {
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         if (infoText != null && dijkstraAlgorithm.getCurrentStep() != null) {
             infoText.setText("Animation paused at step " + (dijkstraAlgorithm.getCurrentStepIndex() + 1));
         }
@@ -211,16 +656,122 @@ public class GraphView extends View {
     public void resetGraph() {
         graph = Graph.createHardcodedGraph();
         dijkstraAlgorithm = new DijkstraAlgorithm(graph);
-        currentAnimationPath.clear();
+        animationPathEdges = new PathEdges(graph.getNodeCount());
+        groupColors = null;
+        alternativePathOf = null;
+        partitionEngine = null;
+        rangeQuery = null;
+        kShortestPaths = null;
+        pickEngine = null;
+        spatialIndex = null;
+        touchedNode = -1;
+        pickTargetNext = false;
+        displayedStepIndex = -1;
         isAnimating = false;
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
         updateNodePositions();
+        notifyStepChanged();
         if (infoText != null) infoText.setText("Graph reset.");
     }
 
+    /**
+     * @return The index of the step on screen, -1 if none, e.g. to keep in the instance state
+     *         for {@link #loadRun(int)}
+     */
+    public int getCurrentStepIndex() {
+        return loading ? loadingStepIndex : dijkstraAlgorithm.getCurrentStepIndex();
+    }
+
+    /**
+     * @return The graph and run on screen, for {@link #restoreRun(RetainedRun)} on the next view
+     */
+    public RetainedRun retainRun() {
+        return new RetainedRun(graph, dijkstraAlgorithm);
+    }
+
+    /**
+     * Shows a run taken from an earlier view with {@link #retainRun()}, at the step it was on.
+     * Playback stays paused.
+     */
+    public void restoreRun(RetainedRun run) {
+        showRun(run.graph, run.algorithm);
+    }
+
+    /**
+     * From now on, keeps the graph and run on screen saved with the given saver whenever they
+     * change, so {@link #loadRun(int)} can bring them back after the process has been killed.
+     * @param runSaver The saver, or null to stop saving
+     */
+    public void setRunSaver(RunSaver runSaver) {
+        this.runSaver = runSaver;
+    }
+
+    /**
+     * Saves the graph and run on screen in the background, if there is a saver. The view
+     * does this itself whenever they change; call it to replace files left by an earlier session.
+     */
+    public void saveRun() {
+        if (runSaver != null && !loading) runSaver.save(graph, dijkstraAlgorithm);
+    }
+
+    /**
+     * Shows the graph and run last saved by the saver, at the given step, without searching
+     * again. They load in the background and replace whatever is shown when they arrive;
+     * playback stays paused. If they cannot be loaded, the view keeps what it shows and saves that.
+     * @param stepIndex The step to show, as returned by {@link #getCurrentStepIndex()} when saving
+     */
+    public void loadRun(int stepIndex) {
+        if (runSaver == null) return;
+        loading = true;
+        loadingStepIndex = stepIndex;
+        runSaver.load(stepIndex, new RunSaver.LoadCallback() {
+            @Override
+            public void onLoaded(Graph graph, DijkstraAlgorithm algorithm) {
+                post(() -> {
+                    loading = false;
+                    showRun(graph, algorithm);
+                });
+            }
+
+            @Override
+            public void onFailed() {
+                post(() -> {
+                    loading = false;
+                    saveRun();
+                });
+            }
+        });
+    }
+
+    // Takes over a graph and run whose nodes already hold their state, dropping everything built for the old graph
+    private void showRun(Graph graph, DijkstraAlgorithm algorithm) {
+        this.graph = graph;
+        dijkstraAlgorithm = algorithm;
+        animationPathEdges = new PathEdges(graph.getNodeCount());
+        groupColors = null;
+        alternativePathOf = null;
+        partitionEngine = null;
+        rangeQuery = null;
+        kShortestPaths = null;
+        pickEngine = null;
+        spatialIndex = null;
+        touchedNode = -1;
+        pickTargetNext = false;
+        displayedStepIndex = -1;
+        isAnimating = false;
+        playback.pause();
+        int stepIndex = algorithm.getCurrentStepIndex();
+        if (stepIndex >= 0) showStateAt(stepIndex, true);
+        renderer.invalidateGeometry();
+        renderer.invalidateNodeColors();
+        notifyStepChanged();
+        if (infoText != null && stepIndex >= 0) infoText.setText("Resumed at step " + (stepIndex + 1) + ".");
+        invalidate();
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        animationHandler.removeCallbacks(animationRunnable);
+        playback.pause();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.dijkstravisualizerapp.view;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+
+import java.util.Arrays;
+
+/**
+ * The edge each node is reached through, indexed by node id, that also keeps a dense list of
+ * the nodes that have one. Drawing walks only that list, so a frame costs as many edges as
+ * are on screen rather than one check per node of the graph. Setting and clearing an entry
+ * are constant time; removal swaps the last listed node into the freed place.
+ */
+final class PathEdges {
+    private final Edge[] edges;
+    // The ids of the nodes with an edge, in no particular order, and each node's place in it or -1
+    private final int[] nodes;
+    private final int[] slots;
+    private int count;
+
+    PathEdges(int nodeCount) {
+        edges = new Edge[nodeCount];
+        nodes = new int[nodeCount];
+        slots = new int[nodeCount];
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * @param node The id of a node
+     * @param edge The edge the node is reached through, or null for none
+     */
+    void set(int node, Edge edge) {
+        edges[node] = edge;
+        int slot = slots[node];
+        if (edge != null && slot < 0) {
+            slots[node] = count;
+            nodes[count++] = node;
+        } else if (edge == null && slot >= 0) {
+            int last = nodes[--count];
+            nodes[slot] = last;
+            slots[last] = slot;
+            slots[node] = -1;
+        }
+    }
+
+    Edge get(int node) { return edges[node]; }
+
+    /**
+     * @return The number of nodes that have an edge
+     */
+    int size() { return count; }
+
+    /**
+     * @param index From 0 to {@link #size()} - 1
+     * @return The edge of the index-th listed node
+     */
+    Edge edgeAt(int index) { return edges[nodes[index]]; }
+
+    /**
+     * Removes every edge, touching only the nodes that had one.
+     */
+    void clear() {
+        for (int i = 0; i < count; i++) {
+            edges[nodes[i]] = null;
+            slots[nodes[i]] = -1;
+        }
+        count = 0;
+    }
+}
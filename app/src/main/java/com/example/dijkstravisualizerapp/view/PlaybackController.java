@@ -0,0 +1,102 @@
+package com.example.dijkstravisualizerapp.view;
+
+import android.view.Choreographer;
+
+/**
+ * Drives animation playback from display frames instead of fixed delays.
+ * Every vsync it works out how many steps are due from the elapsed frame time and the
+ * playback speed, and hands them to the target in one call, so the target can apply
+ * them together and invalidate once. Fractional steps carry over to the next frame,
+ * so slow speeds keep their pace and fast ones play hundreds of steps per frame.
+ * Must be used from the main thread.
+ */
+public class PlaybackController implements Choreographer.FrameCallback {
+
+    /**
+     * The thing being played, usually a graph view.
+     */
+    public interface Target {
+        /**
+         * Applies the next steps of the animation, invalidating at most once.
+         * @param steps How many steps to move forward, at least 1
+         * @return true if there are more steps to play after these
+         */
+        boolean advance(int steps);
+    }
+
+    // Never let a long stall (e.g. the app in background) turn into one giant jump
+    private static final long MAX_FRAME_NANOS = 100_000_000L;
+
+    private final Target target;
+    private final Choreographer choreographer;
+    private float stepsPerSecond = 1f;
+    private boolean playing;
+    private long lastFrameNanos;
+    // Steps that are due but not yet whole
+    private double pendingSteps;
+    // Where frame gaps go, or null to skip measuring
+    private FrameStats frameStats;
+
+    public PlaybackController(Target target) {
+        this.target = target;
+        this.choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * Starts playing from the next frame. The first step is shown on that frame.
+     */
+    public void play() {
+        if (playing) return;
+        playing = true;
+        lastFrameNanos = 0;
+        pendingSteps = 1;
+        choreographer.postFrameCallback(this);
+    }
+
+    /**
+     * Stops playing; no step is applied after this call returns.
+     */
+    public void pause() {
+        playing = false;
+        choreographer.removeFrameCallback(this);
+    }
+
+    public boolean isPlaying() { return playing; }
+
+    /**
+     * Sets how fast steps play. Takes effect on the next frame.
+     * @param stepsPerSecond Steps per second; 1 is the classic one step a second
+     */
+    public void setSpeed(float stepsPerSecond) {
+        this.stepsPerSecond = Math.max(stepsPerSecond, 0.01f);
+    }
+
+    public float getSpeed() { return stepsPerSecond; }
+
+    /**
+     * @param frameStats Receives the time between frames while playing, or null to stop measuring
+     */
+    public void setFrameStats(FrameStats frameStats) { this.frameStats = frameStats; }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!playing) return;
+        if (lastFrameNanos != 0) {
+            if (frameStats != null) frameStats.recordFrameInterval(frameTimeNanos - lastFrameNanos);
+            long elapsed = Math.min(frameTimeNanos - lastFrameNanos, MAX_FRAME_NANOS);
+            pendingSteps += elapsed * (double) stepsPerSecond / 1e9;
+        }
+        lastFrameNanos = frameTimeNanos;
+
+        int due = (int) Math.min(pendingSteps, Integer.MAX_VALUE);
+        if (due > 0) {
+            pendingSteps -= due;
+            if (!target.advance(due)) {
+                playing = false;
+                return;
+            }
+        }
+        // The target may have paused us while applying steps
+        if (playing) choreographer.postFrameCallback(this);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.dijkstravisualizerapp.view;
+
+import com.example.dijkstravisualizerapp.algorithm.DijkstraAlgorithm;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the graph on screen and its run saved in a directory, so both can be shown again after
+ * the process has been killed without searching again. All file work happens on one background
+ * thread. A save copies the graph on the calling thread, then writes the copy and records the
+ * run to a step trace by searching the copy, which gives the same steps as the run on screen.
+ * Each file is written under a temporary name and renamed over the old one, so the directory
+ * never holds a half-written file, and a new run's graph is never paired with an old run's trace.
+ * A save still waiting when the next one comes is dropped for it, and a run whose trace is
+ * already on disk is not recorded again.
+ */
+public final class RunSaver {
+    private static final String GRAPH_FILE = "graph.bin";
+    private static final String TRACE_FILE = "run.trace";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Shared by every saver, so one made for a recreated activity never writes alongside an older one
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "run-saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Told on the saver thread how {@link #load(int, LoadCallback)} went.
+     */
+    public interface LoadCallback {
+        /**
+         * @param graph The saved graph, its nodes in the state of the step loaded
+         * @param algorithm Its run, replayed from the trace and at the step asked for; else
+         *                  the picked path if the graph was saved showing one, or nothing
+         */
+        void onLoaded(Graph graph, DijkstraAlgorithm algorithm);
+
+        /**
+         * The files are missing or unreadable; the error has gone to the saver's error handler.
+         */
+        void onFailed();
+    }
+
+    // A graph copy to write, and the run shown on it or null
+    private static final class Save {
+        final Graph graph;
+        final DijkstraAlgorithm run;
+
+        Save(Graph graph, DijkstraAlgorithm run) {
+            this.graph = graph;
+            this.run = run;
+        }
+    }
+
+    // Writes a file's content to the given file
+    private interface Content {
+        void writeTo(File file) throws IOException;
+    }
+
+    private final File directory;
+    private final Consumer<IOException> onError;
+    // The latest save the saver thread hasn't started on, or null
+    private final AtomicReference<Save> pending = new AtomicReference<>();
+    // The run whose trace is on disk; only the saver thread touches it
+    private WeakReference<DijkstraAlgorithm> recordedRun = new WeakReference<>(null);
+
+    /**
+     * @param directory Where to keep the files; created when first saved to
+     * @param onError Told on the saver thread of every save or load that fails
+     */
+    public RunSaver(File directory, Consumer<IOException> onError) {
+        this.directory = directory;
+        this.onError = onError;
+    }
+
+    /**
+     * Saves the graph and its run in the background. Call it on the thread that changes the
+     * graph, whenever something worth keeping changes; playing or scrubbing the run isn't,
+     * as only the step index tells those apart.
+     * @param graph The graph on screen, copied before this returns
+     * @param run The run shown on the graph, or null; one without steps is not saved
+     */
+    public void save(Graph graph, DijkstraAlgorithm run) {
+        Save save = new Save(graph.copy(), run != null && run.getTotalSteps() > 0 ? run : null);
+        if (pending.getAndSet(save) == null) EXECUTOR.execute(this::writePending);
+    }
+
+    /**
+     * Loads the saved graph and run in the background, after any saves already asked for.
+     * @param stepIndex The step to show, -1 for the graph alone
+     * @param callback Told on the saver thread how it went
+     */
+    public void load(int stepIndex, LoadCallback callback) {
+        EXECUTOR.execute(() -> {
+            Graph graph;
+            DijkstraAlgorithm algorithm;
+            try {
+                graph = Graph.readFrom(new File(directory, GRAPH_FILE));
+                algorithm = new DijkstraAlgorithm(graph);
+                File traceFile = new File(directory, TRACE_FILE);
+                if (stepIndex >= 0 && traceFile.exists()) {
+                    algorithm.replay(traceFile);
+                    algorithm.seek(stepIndex);
+                    recordedRun = new WeakReference<>(algorithm);
+                } else if (showsPick(graph)) {
+                    // A pick keeps no trace; its one bounded search gives the path back
+                    ShortestPathEngine engine = new ShortestPathEngine(graph);
+                    Node start = graph.getStartNode(), target = graph.getTargetNode();
+                    algorithm.showResult(engine, engine.run(start.getId(), target.getId()));
+                }
+            } catch (IOException e) {
+                onError.accept(e);
+                callback.onFailed();
+                return;
+            }
+            callback.onLoaded(graph, algorithm);
+        });
+    }
+
+    // Whether the nodes were saved holding a shortest path to the target, as a pick leaves them
+    private static boolean showsPick(Graph graph) {
+        Node target = graph.getTargetNode();
+        return graph.getStartNode() != null && target != null && target.getDistance() != Double.MAX_VALUE;
+    }
+
+    private void writePending() {
+        Save save = pending.getAndSet(null);
+        if (save == null) return;
+        try {
+            write(save);
+        } catch (IOException e) {
+            onError.accept(e);
+        }
+    }
+
+    private void write(Save save) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        File traceFile = new File(directory, TRACE_FILE);
+        boolean recorded = save.run != null && save.run == recordedRun.get();
+        if (!recorded) {
+            // The old trace goes first, so a crash from here on leaves the graph alone
+            recordedRun = new WeakReference<>(null);
+            if (traceFile.exists() && !traceFile.delete()) throw new IOException("Cannot delete " + traceFile);
+        }
+        replace(new File(directory, GRAPH_FILE), save.graph::writeTo);
+        if (save.run != null && !recorded) {
+            replace(traceFile, file -> new DijkstraAlgorithm(save.graph).record(file));
+            recordedRun = new WeakReference<>(save.run);
+        }
+    }
+
+    // Writes to a temporary file beside the target, then renames it over the target
+    private static void replace(File file, Content content) throws IOException {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        try {
+            content.writeTo(temp);
+            if (!temp.renameTo(file)) throw new IOException("Cannot replace " + file);
+        } finally {
+            if (temp.exists()) temp.delete();
+        }
+    }
+}
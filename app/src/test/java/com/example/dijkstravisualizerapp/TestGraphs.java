@@ -0,0 +1,105 @@
+package com.example.dijkstravisualizerapp;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graph fixtures shared by the tests: grids, graphs of random node pairs, and rings with
+ * random chords, each labelled by node id. Every fixture draws from the given Random in a
+ * fixed order, so the same seed always gives the same graph.
+ */
+public final class TestGraphs {
+    /**
+     * Makes the edge between two nodes, drawing its weight and direction from the random source.
+     */
+    public interface EdgeFactory {
+        Edge create(Node source, Node destination, Random random);
+    }
+
+    /** Undirected, weights 1 to 9 */
+    public static final EdgeFactory SMALL_INTEGERS = (a, b, random) -> new Edge(a, b, 1 + random.nextInt(9));
+    /** Each edge directed or not at random, weights 1 to 20 */
+    public static final EdgeFactory MIXED_DIRECTIONS =
+            (a, b, random) -> new Edge(a, b, 1 + random.nextInt(20), random.nextBoolean());
+
+    private TestGraphs() {}
+
+    /**
+     * Weights from 1 to just under 10 in hundredths, so distances rarely tie.
+     * @param directed Whether the edges are directed
+     */
+    public static EdgeFactory decimals(boolean directed) {
+        return (a, b, random) -> new Edge(a, b, 1 + random.nextInt(9) + random.nextInt(100) / 100.0, directed);
+    }
+
+    /**
+     * A side × side grid with weights 1 to 9; node i sits at (i % side, i / side).
+     */
+    public static Graph grid(int side, Random random) {
+        return grid(side, random, SMALL_INTEGERS);
+    }
+
+    /**
+     * A side × side grid where each node joins its right and lower neighbors;
+     * node i sits at (i % side, i / side).
+     */
+    public static Graph grid(int side, Random random, EdgeFactory edges) {
+        Graph graph = new Graph();
+        for (int i = 0; i < side * side; i++) graph.addNode(new Node(i % side, i / side, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int id = y * side + x;
+                if (x + 1 < side) graph.addEdge(edges.create(nodes.get(id), nodes.get(id + 1), random));
+                if (y + 1 < side) graph.addEdge(edges.create(nodes.get(id), nodes.get(id + side), random));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Nodes at the origin joined by edges between random pairs; pairs that draw the same
+     * node twice are skipped, so there may be fewer edges than asked for.
+     */
+    public static Graph randomPairs(int nodeCount, int edgeCount, Random random, EdgeFactory edges) {
+        Graph graph = new Graph();
+        for (int i = 0; i < nodeCount; i++) graph.addNode(new Node(0, 0, String.valueOf(i)));
+        addRandomEdges(graph, edgeCount, random, edges);
+        return graph;
+    }
+
+    /**
+     * Adds edges between random pairs of the graph's nodes, skipping pairs that draw the same node twice.
+     */
+    public static void addRandomEdges(Graph graph, int edgeCount, Random random, EdgeFactory edges) {
+        List<Node> nodes = graph.getNodes();
+        int nodeCount = nodes.size();
+        for (int i = 0; i < edgeCount; i++) {
+            int a = random.nextInt(nodeCount), b = random.nextInt(nodeCount);
+            if (a != b) graph.addEdge(edges.create(nodes.get(a), nodes.get(b), random));
+        }
+    }
+
+    /**
+     * A ring through every node, so all are reachable, plus random chords up to about
+     * edgesPerNode / 2 edges per node, weights 1 to 20. Searches run from the first node
+     * to the last.
+     */
+    public static Graph ring(int nodeCount, int edgesPerNode, Random random) {
+        Graph graph = new Graph();
+        for (int i = 0; i < nodeCount; i++) graph.addNode(new Node(0, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        for (int i = 0; i < nodeCount; i++) {
+            graph.addEdge(new Edge(nodes.get(i), nodes.get((i + 1) % nodeCount), 1 + random.nextInt(20)));
+            for (int j = 1; j < edgesPerNode / 2; j++) {
+                graph.addEdge(new Edge(nodes.get(i), nodes.get(random.nextInt(nodeCount)), 1 + random.nextInt(20)));
+            }
+        }
+        graph.setStartAndTarget(nodes.get(0), nodes.get(nodeCount - 1));
+        return graph;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AllPairsEngineTest {
+    private static final int NODES = 600;
+    private static final int ROUNDS = 3;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("distances", ".apsp");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void bothStrategies_matchSingleSourceSearches_onHardcodedGraph() {
+        Graph graph = Graph.createHardcodedGraph();
+        assertMatchesEngine(graph, new AllPairsEngine(graph).compute(AllPairsEngine.Strategy.REPEATED_DIJKSTRA));
+        assertMatchesEngine(graph, new AllPairsEngine(graph).compute(AllPairsEngine.Strategy.BLOCKED_FLOYD_WARSHALL));
+    }
+
+    @Test
+    public void bothStrategies_matchSingleSourceSearches_onRandomGraph() {
+        // 600 nodes is not a multiple of the tile size, so the last tiles are partial
+        Graph graph = TestGraphs.randomPairs(NODES, NODES * 3, new Random(37), TestGraphs.decimals(false));
+        assertMatchesEngine(graph, new AllPairsEngine(graph).compute(AllPairsEngine.Strategy.REPEATED_DIJKSTRA));
+        assertMatchesEngine(graph, new AllPairsEngine(graph).compute(AllPairsEngine.Strategy.BLOCKED_FLOYD_WARSHALL));
+
+        AllPairsEngine sequential = new AllPairsEngine(graph);
+        sequential.setParallel(false);
+        assertMatchesEngine(graph, sequential.compute(AllPairsEngine.Strategy.BLOCKED_FLOYD_WARSHALL));
+    }
+
+    @Test
+    public void chooseStrategy_prefersFloydWarshallForDenseGraphs() {
+        Random random = new Random(5);
+        assertEquals(AllPairsEngine.Strategy.REPEATED_DIJKSTRA,
+                new AllPairsEngine(TestGraphs.randomPairs(400, 800, random, TestGraphs.decimals(false))).chooseStrategy());
+        assertEquals(AllPairsEngine.Strategy.BLOCKED_FLOYD_WARSHALL,
+                new AllPairsEngine(TestGraphs.randomPairs(100, 3000, random, TestGraphs.decimals(false))).chooseStrategy());
+    }
+
+    @Test
+    public void writeTo_readFrom_roundTrips() throws IOException {
+        Graph graph = TestGraphs.randomPairs(150, 300, new Random(3), TestGraphs.decimals(false));
+        DistanceMatrix matrix = new AllPairsEngine(graph).compute();
+        matrix.writeTo(file);
+        DistanceMatrix loaded = DistanceMatrix.readFrom(file);
+
+        assertEquals(matrix.size(), loaded.size());
+        for (int from = 0; from < matrix.size(); from++) {
+            for (int to = 0; to < matrix.size(); to++) {
+                assertEquals(matrix.get(from, to), loaded.get(from, to), 0);
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsATruncatedFile() throws IOException {
+        new AllPairsEngine(Graph.createHardcodedGraph()).compute().writeTo(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 8);
+        }
+        DistanceMatrix.readFrom(file);
+    }
+
+    @Test
+    public void strategies_reportTimings() {
+        Graph sparse = TestGraphs.randomPairs(NODES, NODES * 3, new Random(42), TestGraphs.decimals(false));
+        Graph dense = TestGraphs.randomPairs(NODES, NODES * 60, new Random(42), TestGraphs.decimals(false));
+        long[] sparseTimes = time(sparse);
+        long[] denseTimes = time(dense);
+
+        System.out.printf("All-pairs benchmark (%d nodes, best of %d):%n", NODES, ROUNDS);
+        System.out.printf("                              %10s %10s%n", "sparse", "dense");
+        System.out.printf("  Repeated Dijkstra:          %7.2f ms %7.2f ms%n", sparseTimes[0] / 1e6, denseTimes[0] / 1e6);
+        System.out.printf("  Blocked Floyd-Warshall:     %7.2f ms %7.2f ms%n", sparseTimes[1] / 1e6, denseTimes[1] / 1e6);
+        System.out.printf("  Textbook Floyd-Warshall:    %7.2f ms %7.2f ms%n", sparseTimes[2] / 1e6, denseTimes[2] / 1e6);
+    }
+
+    // Best times of repeated Dijkstra, blocked Floyd–Warshall and the triple loop over double[][]
+    private static long[] time(Graph graph) {
+        AllPairsEngine engine = new AllPairsEngine(graph);
+        long dijkstra = Long.MAX_VALUE, blocked = Long.MAX_VALUE, textbook = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            DistanceMatrix fromDijkstra = engine.compute(AllPairsEngine.Strategy.REPEATED_DIJKSTRA);
+            dijkstra = Math.min(dijkstra, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            DistanceMatrix fromBlocked = engine.compute(AllPairsEngine.Strategy.BLOCKED_FLOYD_WARSHALL);
+            blocked = Math.min(blocked, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            double[][] fromTextbook = textbookFloydWarshall(graph);
+            textbook = Math.min(textbook, System.nanoTime() - start);
+
+            for (int from = 0; from < NODES; from += 37) {
+                for (int to = 0; to < NODES; to++) {
+                    assertEquals(fromTextbook[from][to], fromDijkstra.get(from, to), 1e-9);
+                    assertEquals(fromTextbook[from][to], fromBlocked.get(from, to), 1e-9);
+                }
+            }
+        }
+        return new long[] { dijkstra, blocked, textbook };
+    }
+
+    private static double[][] textbookFloydWarshall(Graph graph) {
+        int n = graph.getNodeCount();
+        double[][] d = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) d[i][j] = i == j ? 0 : Double.MAX_VALUE;
+            for (int arc = graph.getFirstArc(i); arc < graph.getArcEnd(i); arc++) {
+                int j = graph.getArcTarget(arc);
+                d[i][j] = Math.min(d[i][j], graph.getArcWeight(arc));
+            }
+        }
+        for (int k = 0; k < n; k++)
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    if (d[i][k] != Double.MAX_VALUE && d[k][j] != Double.MAX_VALUE && d[i][k] + d[k][j] < d[i][j])
+                        d[i][j] = d[i][k] + d[k][j];
+        return d;
+    }
+
+    private static void assertMatchesEngine(Graph graph, DistanceMatrix matrix) {
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        assertEquals(graph.getNodeCount(), matrix.size());
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            engine.run(source);
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(engine.getDistance(node), matrix.get(source, node), 1e-9);
+            }
+        }
+    }
+}
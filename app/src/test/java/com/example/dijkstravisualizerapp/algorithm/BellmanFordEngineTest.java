@@ -0,0 +1,175 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BellmanFordEngineTest {
+
+    @Test
+    public void directedEdges_areOnlyTraversedForwards() {
+        Graph graph = new Graph();
+        Node a = new Node(0, 0, "A"), b = new Node(0, 0, "B"), c = new Node(0, 0, "C");
+        graph.addEdge(new Edge(a, b, 1, true));
+        graph.addEdge(new Edge(b, c, 1));
+
+        assertEquals(3, graph.getArcCount());
+        assertNotNull(graph.getEdge(a, b));
+        assertNull(graph.getEdge(b, a));
+        assertNotNull(graph.getEdge(c, b));
+
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(c.getId());
+        assertEquals(1, engine.getDistance(b.getId()), 0);
+        assertEquals(Double.MAX_VALUE, engine.getDistance(a.getId()), 0);
+    }
+
+    @Test
+    public void run_delegatesToDijkstraWithoutNegativeWeights() {
+        Graph graph = Graph.createHardcodedGraph();
+        BellmanFordEngine engine = new BellmanFordEngine(graph);
+        ShortestPathEngine dijkstra = new ShortestPathEngine(graph);
+        assertFalse(engine.usesBellmanFord());
+        assertTrue(engine.run(0));
+        dijkstra.run(0);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(dijkstra.getDistance(node), engine.getDistance(node), 0);
+        }
+    }
+
+    @Test
+    public void run_matchesTextbookBellmanFord_onNegativeWeights() {
+        Random random = new Random(17);
+        for (int round = 0; round < 20; round++) {
+            Graph graph = randomDirectedGraph(60, 240, random);
+            BellmanFordEngine engine = new BellmanFordEngine(graph);
+            assertTrue(engine.usesBellmanFord());
+            assertTrue(engine.run(0));
+            double[] expected = textbookBellmanFord(graph, 0);
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(expected[node], engine.getDistance(node), 1e-9);
+                assertPathCost(graph, engine, node);
+            }
+        }
+    }
+
+    @Test
+    public void parallelRounds_matchQueueBasedSearch() {
+        Graph graph = randomDirectedGraph(6000, 30000, new Random(4));
+        BellmanFordEngine queue = new BellmanFordEngine(graph);
+        queue.setParallel(false);
+        BellmanFordEngine rounds = new BellmanFordEngine(graph);
+        SolverMetrics metrics = new SolverMetrics();
+        rounds.setMetrics(metrics);
+
+        assertTrue(queue.run(0));
+        assertTrue(rounds.run(0));
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(queue.getDistance(node), rounds.getDistance(node), 1e-9);
+            assertPathCost(graph, rounds, node);
+        }
+        assertTrue(metrics.snapshot().getRelaxations() > 0);
+    }
+
+    @Test
+    public void run_reportsNegativeCycles() {
+        for (boolean parallel : new boolean[] { false, true }) {
+            // Big enough for parallel rounds, plus a negative cycle reachable from node 0
+            Graph graph = randomDirectedGraph(5000, 15000, new Random(9));
+            List<Node> nodes = graph.getNodes();
+            graph.addEdge(new Edge(nodes.get(0), nodes.get(4000), 1, true));
+            graph.addEdge(new Edge(nodes.get(4000), nodes.get(4001), 2, true));
+            graph.addEdge(new Edge(nodes.get(4001), nodes.get(4002), -1, true));
+            graph.addEdge(new Edge(nodes.get(4002), nodes.get(4000), -3, true));
+
+            BellmanFordEngine engine = new BellmanFordEngine(graph);
+            engine.setParallel(parallel);
+            assertFalse(engine.run(0));
+            assertTrue(engine.hasNegativeCycle());
+            assertEquals(0, engine.getPath(4000).length);
+
+            int[] cycle = engine.getNegativeCycle();
+            assertTrue(cycle.length > 0);
+            double cost = 0;
+            for (int i = 0; i < cycle.length; i++) {
+                assertEquals(cycle[i], engine.getPrevious(cycle[(i + 1) % cycle.length]));
+                cost += graph.getArcWeight(engine.getPreviousArc(cycle[(i + 1) % cycle.length]));
+            }
+            assertTrue(cost < 0);
+        }
+    }
+
+    @Test
+    public void run_treatsANegativeUndirectedEdgeAsACycle() {
+        Graph graph = new Graph();
+        Node a = new Node(0, 0, "A"), b = new Node(0, 0, "B");
+        graph.addEdge(new Edge(a, b, -1));
+        BellmanFordEngine engine = new BellmanFordEngine(graph);
+        assertFalse(engine.run(a.getId()));
+        int[] cycle = engine.getNegativeCycle();
+        Arrays.sort(cycle);
+        assertArrayEquals(new int[] { 0, 1 }, cycle);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void dijkstraAlgorithm_rejectsNegativeWeights() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> nodes = graph.getNodes();
+        graph.addEdge(new Edge(nodes.get(3), nodes.get(4), -2, true));
+        new DijkstraAlgorithm(graph).run();
+    }
+
+    private static void assertPathCost(Graph graph, BellmanFordEngine engine, int node) {
+        int[] path = engine.getPath(node);
+        if (engine.getDistance(node) == Double.MAX_VALUE) {
+            assertEquals(0, path.length);
+            return;
+        }
+        double cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            assertEquals(path[i - 1], engine.getPrevious(path[i]));
+            cost += graph.getArcWeight(engine.getPreviousArc(path[i]));
+        }
+        assertEquals(engine.getDistance(node), cost, 1e-6);
+    }
+
+    private static double[] textbookBellmanFord(Graph graph, int source) {
+        double[] distances = new double[graph.getNodeCount()];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        distances[source] = 0;
+        for (int pass = 1; pass < graph.getNodeCount(); pass++) {
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                if (distances[node] == Double.MAX_VALUE) continue;
+                for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                    int next = graph.getArcTarget(arc);
+                    distances[next] = Math.min(distances[next], distances[node] + graph.getArcWeight(arc));
+                }
+            }
+        }
+        return distances;
+    }
+
+    // Directed edges whose weights are positive costs shifted by node potentials: many are
+    // negative, yet every cycle keeps its positive cost, so there are no negative cycles
+    private static Graph randomDirectedGraph(int nodeCount, int edgeCount, Random random) {
+        Graph graph = new Graph();
+        for (int i = 0; i < nodeCount; i++) graph.addNode(new Node(0, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        int[] potentials = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) potentials[i] = random.nextInt(20);
+        for (int i = 0; i < edgeCount; i++) {
+            int a = random.nextInt(nodeCount), b = random.nextInt(nodeCount);
+            double weight = 1 + random.nextInt(9) + potentials[a] - potentials[b];
+            if (a != b) graph.addEdge(new Edge(nodes.get(a), nodes.get(b), weight, true));
+        }
+        return graph;
+    }
+}
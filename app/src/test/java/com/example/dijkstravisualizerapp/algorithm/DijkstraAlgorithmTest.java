@@ -0,0 +1,135 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DijkstraAlgorithmTest {
+
+    @Test
+    public void start_producesStepsOnDemand() {
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+
+        assertEquals(1, algorithm.getTotalSteps());
+        assertFalse(algorithm.isComplete());
+        algorithm.nextStep();
+        algorithm.nextStep();
+        algorithm.nextStep();
+        // Only the start step, the first visit and one relaxation have been computed
+        assertEquals(3, algorithm.getTotalSteps());
+    }
+
+    @Test
+    public void start_producesTheSameStepsAsRun() {
+        List<String> eager = new ArrayList<>();
+        for (DijkstraAlgorithm.DijkstraStep step : new DijkstraAlgorithm(Graph.createHardcodedGraph()).run()) {
+            eager.add(step.getDescription());
+        }
+
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm lazy = new DijkstraAlgorithm(graph);
+        lazy.start(1000);
+        List<String> generated = new ArrayList<>();
+        for (DijkstraAlgorithm.DijkstraStep step = lazy.nextStep(); step != null; step = lazy.nextStep()) {
+            generated.add(step.getDescription());
+        }
+
+        assertEquals(eager, generated);
+        assertTrue(lazy.isComplete());
+        assertEquals(4, graph.getTargetNode().getDistance(), 0);
+        assertEquals(1, lazy.getFinalPath().size());
+    }
+
+    @Test
+    public void start_keepsOnlyTheHistoryWindow() {
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(Graph.createHardcodedGraph());
+        algorithm.start(5);
+        algorithm.seek(30);
+
+        assertEquals(30, algorithm.getCurrentStepIndex());
+        assertEquals(26, algorithm.getFirstAvailableStep());
+        int back = 0;
+        while (algorithm.previousStep() != null) back++;
+        assertEquals(4, back);
+        // Seeking before the window lands on the oldest step still held
+        algorithm.seek(0);
+        assertEquals(26, algorithm.getCurrentStepIndex());
+    }
+
+    @Test
+    public void distances_areAvailableForEveryGeneratedStep() {
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(3);
+        DijkstraAlgorithm.DijkstraStep last = algorithm.seek(Integer.MAX_VALUE);
+
+        // Steps that fell out of the window are gone, but the distance trace still covers them
+        for (Node node : graph.getNodes()) {
+            assertEquals(node.getDistance(), last.getNodeDistances().getDistance(node), 0);
+        }
+        assertEquals(0, algorithm.getDistanceTrace().getDistance(graph.getStartNode().getId(), 0), 0);
+    }
+
+    @Test
+    public void scrubbingBackThenOn_givesTheDistancesOfAFullRun() {
+        Graph expectedGraph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm expected = new DijkstraAlgorithm(expectedGraph);
+        expected.run();
+
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+        for (int i = 0; i < 20; i++) algorithm.nextStep();
+        algorithm.seek(3);
+        // What a view does to show step 3: the nodes go back to that step's state
+        int nodeCount = graph.getNodeCount();
+        double[] distances = new double[nodeCount];
+        int[] arcs = new int[nodeCount];
+        algorithm.getDistanceTrace().copyStateAt(3, distances, arcs);
+        for (Node node : graph.getNodes()) {
+            node.setDistance(distances[node.getId()]);
+            node.setVisited(false);
+            node.setPrevious(null);
+        }
+
+        algorithm.seek(Integer.MAX_VALUE);
+        assertTrue(algorithm.isComplete());
+        ShortestPathTree tree = algorithm.getShortestPathTree();
+        for (Node node : expectedGraph.getNodes()) {
+            assertEquals(node.getDistance(), tree.getDistance(node.getId()), 0);
+        }
+        assertEquals(expected.getFinalPath().toString(), algorithm.getFinalPath().toString());
+    }
+
+    @Test
+    public void showResult_givesThePickedPath() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> nodes = graph.getNodes();
+        graph.setStartAndTarget(nodes.get(0), nodes.get(9));
+        DijkstraAlgorithm expected = new DijkstraAlgorithm(graph);
+        expected.run();
+        List<String> expectedPath = new ArrayList<>();
+        for (Edge edge : expected.getFinalPath()) expectedPath.add(edge.toString());
+
+        // As a pick does: one bounded search, taken over by a fresh algorithm
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        double cost = engine.run(0, 9);
+        DijkstraAlgorithm picked = new DijkstraAlgorithm(graph);
+        picked.showResult(engine, cost);
+        List<String> path = new ArrayList<>();
+        for (Edge edge : picked.getFinalPath()) path.add(edge.toString());
+        assertFalse(path.isEmpty());
+        assertEquals(expectedPath, path);
+        assertEquals(cost, graph.getTargetNode().getDistance(), 0);
+        assertEquals(0, picked.getTotalSteps());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DistanceTraceTest {
+
+    @Test
+    public void viewAt_returnsDistanceAsOfEachStep() {
+        DistanceTrace trace = new DistanceTrace(new double[] {0, Double.MAX_VALUE, Double.MAX_VALUE});
+        trace.record(2, 1, 10, 0);
+        trace.record(5, 2, 7, 3);
+        trace.record(8, 1, 4, 5);
+
+        assertEquals(Double.MAX_VALUE, trace.viewAt(1).getDistance(1), 0);
+        assertEquals(10, trace.viewAt(2).getDistance(1), 0);
+        assertEquals(10, trace.viewAt(7).getDistance(1), 0);
+        assertEquals(4, trace.viewAt(8).getDistance(1), 0);
+        assertEquals(7, trace.viewAt(100).getDistance(2), 0);
+        assertEquals(0, trace.viewAt(100).getDistance(0), 0);
+        assertEquals(-1, trace.getPreviousArc(1, 1));
+        assertEquals(0, trace.getPreviousArc(1, 7));
+        assertEquals(5, trace.getPreviousArc(1, 8));
+    }
+
+    @Test
+    public void firstChangeAfter_boundsTheNodesThatDifferBetweenSteps() {
+        DistanceTrace trace = new DistanceTrace(new double[] {0, Double.MAX_VALUE, Double.MAX_VALUE});
+        trace.record(2, 1, 10, 0);
+        trace.record(5, 2, 7, 3);
+        trace.record(8, 1, 4, 5);
+
+        assertEquals(0, trace.firstChangeAfter(-1));
+        assertEquals(1, trace.firstChangeAfter(2));
+        assertEquals(1, trace.firstChangeAfter(4));
+        assertEquals(3, trace.firstChangeAfter(8));
+        // Only node 2 changes between steps 3 and 6
+        int from = trace.firstChangeAfter(3), to = trace.firstChangeAfter(6);
+        assertEquals(1, to - from);
+        assertEquals(2, trace.getChangeNode(from));
+    }
+
+    @Test
+    public void seek_jumpsToAnyStepAndClamps() {
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(Graph.createHardcodedGraph());
+        assertNull(algorithm.seek(3));
+        List<DijkstraAlgorithm.DijkstraStep> steps = algorithm.run();
+
+        assertSame(steps.get(17), algorithm.seek(17));
+        assertEquals(17, algorithm.getCurrentStepIndex());
+        assertSame(steps.get(16), algorithm.previousStep());
+        assertSame(steps.get(steps.size() - 1), algorithm.seek(Integer.MAX_VALUE));
+        assertSame(steps.get(0), algorithm.seek(-5));
+    }
+
+    @Test
+    public void steps_seeTheSameDistancesAsTheOldSnapshots() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<DijkstraAlgorithm.DijkstraStep> steps = new DijkstraAlgorithm(graph).run();
+
+        // Replay the improvements the way the per-step HashMap copies used to see them
+        Map<Node, Double> snapshot = new HashMap<>();
+        for (Node node : graph.getNodes()) snapshot.put(node, Double.MAX_VALUE);
+        snapshot.put(graph.getStartNode(), 0.0);
+        for (DijkstraAlgorithm.DijkstraStep step : steps) {
+            Node updated = step.getUpdatedNode();
+            if (updated != null) {
+                snapshot.put(updated, snapshot.get(step.getHighlightedEdge().getOtherNode(updated))
+                        + step.getHighlightedEdge().getWeight());
+            }
+            for (Node node : graph.getNodes()) {
+                assertEquals(snapshot.get(node), step.getNodeDistances().getDistance(node), 0);
+            }
+        }
+    }
+
+    @Test
+    public void run_allocatesFarLessThanPerStepMapCopies() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        Graph graph = TestGraphs.ring(300, 6, new Random(7));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.run();  // Warm up
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        algorithm.run();
+        long traced = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        int stepCount = algorithm.getTotalSteps();
+
+        // What the previous version did on top of that: copy a HashMap<Node, Double> for every step
+        Map<Node, Double> distances = new HashMap<>();
+        for (Node node : graph.getNodes()) distances.put(node, node.getDistance());
+        Object[] sink = new Object[stepCount];
+        before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < stepCount; i++) {
+            sink[i] = new HashMap<>(distances);
+        }
+        long copied = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        System.out.printf("Allocation for %d steps over %d nodes: %d KB with DistanceTrace, %d KB for map copies alone%n",
+                stepCount, graph.getNodes().size(), traced / 1024, copied / 1024);
+        assertNotNull(sink[0]);
+        assertTrue(traced * 10 < copied);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FileStepTraceTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("run", ".trace");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void record_navigatesLikeAnInMemoryRun() throws IOException {
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm inMemory = new DijkstraAlgorithm(graph);
+        List<DijkstraAlgorithm.DijkstraStep> expected = inMemory.run();
+        List<Edge> expectedPath = inMemory.getFinalPath();
+
+        DijkstraAlgorithm recorded = new DijkstraAlgorithm(graph);
+        recorded.record(file);
+        assertTrue(recorded.isComplete());
+        assertEquals(expected.size(), recorded.getTotalSteps());
+        assertEquals(0, recorded.getFirstAvailableStep());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameStep(expected.get(i), recorded.nextStep());
+        }
+        assertNull(recorded.nextStep());
+        assertSameStep(expected.get(3), recorded.seek(3));
+        assertSameStep(expected.get(2), recorded.previousStep());
+        assertEquals(expectedPath, recorded.getFinalPath());
+    }
+
+    @Test
+    public void replay_opensASavedRunWithoutSearching() throws IOException {
+        new DijkstraAlgorithm(Graph.createHardcodedGraph()).record(file);
+
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm inMemory = new DijkstraAlgorithm(graph);
+        List<DijkstraAlgorithm.DijkstraStep> expected = inMemory.run();
+        List<Edge> expectedPath = inMemory.getFinalPath();
+
+        // A fresh graph whose nodes have never been searched
+        Graph fresh = Graph.createHardcodedGraph();
+        DijkstraAlgorithm replayed = new DijkstraAlgorithm(fresh);
+        replayed.replay(file);
+        assertEquals(expected.size(), replayed.getTotalSteps());
+        DijkstraAlgorithm.DijkstraStep last = replayed.seek(Integer.MAX_VALUE);
+        assertEquals(expected.get(expected.size() - 1).getDescription(), last.getDescription());
+        assertEquals(expectedPath.size(), replayed.getFinalPath().size());
+        for (int i = 0; i < expectedPath.size(); i++) {
+            assertEquals(expectedPath.get(i).toString(), replayed.getFinalPath().get(i).toString());
+        }
+    }
+
+    @Test
+    public void distances_matchTheInMemoryTraceAcrossKeyframes() throws IOException {
+        Graph graph = TestGraphs.ring(5000, 8, new Random(11));
+        DijkstraAlgorithm inMemory = new DijkstraAlgorithm(graph);
+        inMemory.run();
+        DistanceTimeline expected = inMemory.getDistanceTrace();
+
+        DijkstraAlgorithm recorded = new DijkstraAlgorithm(graph);
+        recorded.record(file);
+        DistanceTimeline actual = recorded.getDistanceTrace();
+        // Enough changes to need several keyframes
+        assertEquals(expected.getChangeCount(), actual.getChangeCount());
+        assertTrue(actual.getChangeCount() > 2 * 4096);
+
+        Random random = new Random(3);
+        int nodeCount = graph.getNodeCount();
+        double[] expectedDistances = new double[nodeCount], actualDistances = new double[nodeCount];
+        int[] expectedArcs = new int[nodeCount], actualArcs = new int[nodeCount];
+        for (int round = 0; round < 20; round++) {
+            int step = random.nextInt(recorded.getTotalSteps() + 1) - 1;
+            assertEquals(expected.firstChangeAfter(step), actual.firstChangeAfter(step));
+            expected.copyStateAt(step, expectedDistances, expectedArcs);
+            actual.copyStateAt(step, actualDistances, actualArcs);
+            assertArrayEquals(expectedDistances, actualDistances, 0);
+            assertArrayEquals(expectedArcs, actualArcs);
+            for (int i = 0; i < 50; i++) {
+                int node = random.nextInt(nodeCount);
+                assertEquals(expectedDistances[node], actual.getDistance(node, step), 0);
+                assertEquals(expectedArcs[node], actual.getPreviousArc(node, step));
+            }
+        }
+    }
+
+    @Test
+    public void changes_applyForwardsAndUndoBackwards() throws IOException {
+        Graph graph = TestGraphs.ring(5000, 8, new Random(13));
+        DijkstraAlgorithm inMemory = new DijkstraAlgorithm(graph);
+        inMemory.run();
+        DijkstraAlgorithm recorded = new DijkstraAlgorithm(graph);
+        recorded.record(file);
+        for (DistanceTimeline trace : new DistanceTimeline[] { inMemory.getDistanceTrace(), recorded.getDistanceTrace() }) {
+            int nodeCount = trace.getNodeCount();
+            double[] distances = new double[nodeCount], expectedDistances = new double[nodeCount];
+            int[] arcs = new int[nodeCount], expectedArcs = new int[nodeCount];
+            Random random = new Random(5);
+            int step = -1;
+            trace.copyStateAt(step, distances, arcs);
+            for (int round = 0; round < 40; round++) {
+                int target = random.nextInt(recorded.getTotalSteps() + 1) - 1;
+                int from = trace.firstChangeAfter(Math.min(step, target));
+                int to = trace.firstChangeAfter(Math.max(step, target));
+                if (target >= step) {
+                    for (int change = from; change < to; change++) {
+                        distances[trace.getChangeNode(change)] = trace.getChangeDistance(change);
+                        arcs[trace.getChangeNode(change)] = trace.getChangeArc(change);
+                    }
+                } else {
+                    for (int change = to - 1; change >= from; change--) {
+                        distances[trace.getChangeNode(change)] = trace.getDistanceBefore(change);
+                        arcs[trace.getChangeNode(change)] = trace.getPreviousArcBefore(change);
+                    }
+                }
+                step = target;
+                trace.copyStateAt(step, expectedDistances, expectedArcs);
+                assertArrayEquals(expectedDistances, distances, 0);
+                assertArrayEquals(expectedArcs, arcs);
+            }
+        }
+    }
+
+    @Test
+    public void replay_resumesASavedGraphMidRun() throws IOException {
+        Graph graph = TestGraphs.ring(20000, 8, new Random(12));
+        graph.setStartAndTarget(graph.getNodes().get(0), graph.getNodes().get(19999));
+        // Halfway through, far past what the history window still holds of the start
+        int step = new DijkstraAlgorithm(graph).run().size() / 2;
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+        DijkstraAlgorithm.DijkstraStep expected = algorithm.seek(step);
+        int nodeCount = graph.getNodeCount();
+        double[] expectedDistances = new double[nodeCount];
+        int[] expectedArcs = new int[nodeCount];
+        algorithm.getDistanceTrace().copyStateAt(step, expectedDistances, expectedArcs);
+
+        // What the run saver does in the background, so the files are there if the process is killed
+        File graphFile = File.createTempFile("graph", ".bin");
+        try {
+            long start = System.nanoTime();
+            algorithm.record(file);
+            long recordNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            graph.writeTo(graphFile);
+            long saveNanos = System.nanoTime() - start;
+
+            // ... and after it comes back: load and map, no search
+            start = System.nanoTime();
+            Graph loaded = Graph.readFrom(graphFile);
+            DijkstraAlgorithm resumed = new DijkstraAlgorithm(loaded);
+            resumed.replay(file);
+            DijkstraAlgorithm.DijkstraStep actual = resumed.seek(step);
+            long resumeNanos = System.nanoTime() - start;
+
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getHighlightedNode().getId(), actual.getHighlightedNode().getId());
+            double[] actualDistances = new double[nodeCount];
+            int[] actualArcs = new int[nodeCount];
+            resumed.getDistanceTrace().copyStateAt(step, actualDistances, actualArcs);
+            assertArrayEquals(expectedDistances, actualDistances, 0);
+            assertArrayEquals(expectedArcs, actualArcs);
+            System.out.printf("Resume benchmark (%d nodes, %d steps, %.1f MB trace, %.1f MB graph):%n",
+                    nodeCount, resumed.getTotalSteps(), file.length() / 1048576.0, graphFile.length() / 1048576.0);
+            System.out.printf("  record run            %8.2f ms (once, in the background when a run starts)%n", recordNanos / 1e6);
+            System.out.printf("  write graph           %8.2f ms%n", saveNanos / 1e6);
+            System.out.printf("  load, map and seek    %8.2f ms%n", resumeNanos / 1e6);
+        } finally {
+            graphFile.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void replay_rejectsARunFromAnotherGraph() throws IOException {
+        new DijkstraAlgorithm(TestGraphs.ring(50, 4, new Random(1))).record(file);
+        new DijkstraAlgorithm(Graph.createHardcodedGraph()).replay(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsAnUnfinishedFile() throws IOException {
+        try (FileStepTrace.Writer writer = new FileStepTrace.Writer(file, 3, 2, 0)) {
+            writer.addStep(FileStepTrace.KIND_START, 0, -1, -1, 0);
+            // The header stays blank until finish(), as after a crash mid-run
+            FileStepTrace.open(file);
+        }
+    }
+
+    private static void assertSameStep(DijkstraAlgorithm.DijkstraStep expected, DijkstraAlgorithm.DijkstraStep actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertSame(expected.getHighlightedNode(), actual.getHighlightedNode());
+        assertSame(expected.getHighlightedEdge(), actual.getHighlightedEdge());
+        assertSame(expected.getUpdatedNode(), actual.getUpdatedNode());
+        for (int node = 0; node < expected.getNodeDistances().size(); node++) {
+            assertEquals(expected.getNodeDistances().getDistance(node), actual.getNodeDistances().getDistance(node), 0);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that both frontiers settle nodes in distance order, and times them against the
+ * {@code PriorityQueue<Node>} with remove-and-re-add that the algorithm used before.
+ * The timings are printed rather than asserted, since they depend on the machine.
+ */
+public class FrontierBenchmarkTest {
+    private static final int NODES = 5_000;
+    private static final int EDGES_PER_NODE = 8;
+    private static final int MAX_WEIGHT = 20;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void hardcodedGraph_usesRadixHeap() {
+        Graph graph = Graph.createHardcodedGraph();
+        assertTrue(Frontier.create(graph) instanceof RadixHeapFrontier);
+    }
+
+    @Test
+    public void fractionalWeights_fallBackToBinaryHeap() {
+        Graph graph = new Graph();
+        Node a = new Node(0, 0, "a");
+        Node b = new Node(0, 0, "b");
+        graph.addEdge(new Edge(a, b, 1.5));
+        assertTrue(Frontier.create(graph) instanceof BinaryHeapFrontier);
+    }
+
+    @Test
+    public void hardcodedGraph_matchesAllPairsDistances() {
+        Graph graph = Graph.createHardcodedGraph();
+        int n = graph.getNodes().size();
+        double[][] expected = new double[n][n];
+        for (double[] row : expected) Arrays.fill(row, Double.MAX_VALUE);
+        for (int i = 0; i < n; i++) expected[i][i] = 0;
+        for (Edge edge : graph.getEdges()) {
+            int u = edge.getSource().getId();
+            int v = edge.getDestination().getId();
+            expected[u][v] = Math.min(expected[u][v], edge.getWeight());
+            expected[v][u] = expected[u][v];
+        }
+        for (int k = 0; k < n; k++)
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    if (expected[i][k] + expected[k][j] < expected[i][j])
+                        expected[i][j] = expected[i][k] + expected[k][j];
+
+        new DijkstraAlgorithm(graph).run();
+        for (Node node : graph.getNodes()) {
+            assertEquals(expected[0][node.getId()], node.getDistance(), 0);
+        }
+    }
+
+    @Test
+    public void frontiers_agreeWithPriorityQueue_andReportTimings() {
+        int[][] graph = randomGraph(new Random(42));
+
+        double[] expected = null;
+        long baseline = Long.MAX_VALUE, binary = Long.MAX_VALUE, radix = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            double[] fromQueue = runWithPriorityQueue(graph);
+            baseline = Math.min(baseline, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            double[] fromBinary = runWithFrontier(graph, new BinaryHeapFrontier(NODES));
+            binary = Math.min(binary, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            double[] fromRadix = runWithFrontier(graph, new RadixHeapFrontier(NODES));
+            radix = Math.min(radix, System.nanoTime() - start);
+
+            expected = fromQueue;
+            assertArrayEquals(expected, fromBinary, 0);
+            assertArrayEquals(expected, fromRadix, 0);
+        }
+
+        System.out.printf("Frontier benchmark (%d nodes, %d edges, best of %d):%n",
+                NODES, NODES * EDGES_PER_NODE, ROUNDS);
+        System.out.printf("  PriorityQueue<Node> remove/add: %8.2f ms%n", baseline / 1e6);
+        System.out.printf("  BinaryHeapFrontier:             %8.2f ms%n", binary / 1e6);
+        System.out.printf("  RadixHeapFrontier:              %8.2f ms%n", radix / 1e6);
+    }
+
+    // Adjacency as {neighbor, weight, neighbor, weight, ...} per node, undirected
+    private static int[][] randomGraph(Random random) {
+        int[][] adjacency = new int[NODES][0];
+        int[] sizes = new int[NODES];
+        for (int u = 0; u < NODES; u++) {
+            for (int i = 0; i < EDGES_PER_NODE / 2; i++) {
+                int v = random.nextInt(NODES);
+                int w = 1 + random.nextInt(MAX_WEIGHT);
+                sizes[u] = append(adjacency, u, sizes[u], v, w);
+                sizes[v] = append(adjacency, v, sizes[v], u, w);
+            }
+            // Keep the graph connected with a chain
+            if (u > 0) {
+                sizes[u] = append(adjacency, u, sizes[u], u - 1, MAX_WEIGHT);
+                sizes[u - 1] = append(adjacency, u - 1, sizes[u - 1], u, MAX_WEIGHT);
+            }
+        }
+        for (int u = 0; u < NODES; u++) {
+            adjacency[u] = Arrays.copyOf(adjacency[u], sizes[u]);
+        }
+        return adjacency;
+    }
+
+    private static int append(int[][] adjacency, int u, int size, int v, int w) {
+        if (size + 2 > adjacency[u].length) {
+            adjacency[u] = Arrays.copyOf(adjacency[u], Math.max(8, adjacency[u].length * 2));
+        }
+        adjacency[u][size] = v;
+        adjacency[u][size + 1] = w;
+        return size + 2;
+    }
+
+    private static double[] runWithFrontier(int[][] graph, Frontier frontier) {
+        double[] distances = new double[NODES];
+        boolean[] settled = new boolean[NODES];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        distances[0] = 0;
+        frontier.offer(0, 0);
+        while (!frontier.isEmpty()) {
+            int u = frontier.poll();
+            settled[u] = true;
+            int[] arcs = graph[u];
+            for (int i = 0; i < arcs.length; i += 2) {
+                int v = arcs[i];
+                double candidate = distances[u] + arcs[i + 1];
+                if (!settled[v] && candidate < distances[v]) {
+                    distances[v] = candidate;
+                    frontier.offer(v, candidate);
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static double[] runWithPriorityQueue(int[][] graph) {
+        Node[] nodes = new Node[NODES];
+        for (int i = 0; i < NODES; i++) nodes[i] = new Node(0, 0, String.valueOf(i));
+        nodes[0].setDistance(0);
+        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingDouble(Node::getDistance));
+        Map<Node, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < NODES; i++) ids.put(nodes[i], i);
+        pq.add(nodes[0]);
+        while (!pq.isEmpty()) {
+            Node current = pq.poll();
+            if (current.isVisited()) continue;
+            current.setVisited(true);
+            int[] arcs = graph[ids.get(current)];
+            for (int i = 0; i < arcs.length; i += 2) {
+                Node neighbor = nodes[arcs[i]];
+                double candidate = current.getDistance() + arcs[i + 1];
+                if (!neighbor.isVisited() && candidate < neighbor.getDistance()) {
+                    neighbor.setDistance(candidate);
+                    pq.remove(neighbor);
+                    pq.add(neighbor);
+                }
+            }
+        }
+        double[] distances = new double[NODES];
+        for (int i = 0; i < NODES; i++) distances[i] = nodes[i].getDistance();
+        return distances;
+    }
+}
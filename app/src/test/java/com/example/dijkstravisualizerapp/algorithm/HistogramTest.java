@@ -0,0 +1,46 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void buckets_boundValuesWithinAnEighth() {
+        for (long value : new long[] { 0, 7, 8, 9, 100, 12345, 1L << 40, Long.MAX_VALUE }) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(value <= Histogram.bucketUpperBound(bucket));
+            assertTrue(Histogram.bucketUpperBound(bucket) - value <= value / 8);
+            if (bucket > 0) assertTrue(value > Histogram.bucketUpperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    public void percentiles_matchSortedValues() {
+        Random random = new Random(1);
+        long[] values = new long[10_000];
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] { 1, 50, 95, 99, 100 }) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact);
+            assertTrue(reported - exact <= exact / 8);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values.length, histogram.getCount());
+
+        Histogram copy = new Histogram(histogram);
+        histogram.clear();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(values.length, copy.getCount());
+    }
+}
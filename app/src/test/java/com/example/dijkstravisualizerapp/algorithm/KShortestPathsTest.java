@@ -0,0 +1,114 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class KShortestPathsTest {
+
+    @Test
+    public void find_startsWithTheShortestPath() {
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.run();
+        List<List<Edge>> paths = new KShortestPaths(graph).find(graph.getStartNode(), graph.getTargetNode(), 5);
+
+        assertEquals(5, paths.size());
+        assertEquals(cost(algorithm.getFinalPath()), cost(paths.get(0)), 1e-9);
+        for (int i = 1; i < paths.size(); i++) {
+            assertTrue(cost(paths.get(i - 1)) <= cost(paths.get(i)));
+        }
+    }
+
+    @Test
+    public void findPaths_matchesBruteForceEnumeration() {
+        Random random = new Random(21);
+        for (int round = 0; round < 20; round++) {
+            Graph graph = TestGraphs.randomPairs(8, 14, random, TestGraphs.decimals(false));
+            int source = 0, target = 7;
+            List<Double> expected = allSimplePathCosts(graph, source, target);
+            KShortestPaths finder = new KShortestPaths(graph);
+            List<KShortestPaths.Path> paths = finder.findPaths(source, target, 12);
+
+            assertEquals(Math.min(12, expected.size()), paths.size());
+            Set<KShortestPaths.Path> distinct = new HashSet<>(paths);
+            assertEquals(paths.size(), distinct.size());
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals(expected.get(i), paths.get(i).getCost(), 1e-9);
+                assertLoopless(graph, paths.get(i), source, target);
+            }
+        }
+    }
+
+    @Test
+    public void parallelSpurSearches_giveTheSameResults() {
+        Graph graph = TestGraphs.grid(30, new Random(8));
+        KShortestPaths sequential = new KShortestPaths(graph);
+        sequential.setParallel(false);
+        KShortestPaths parallel = new KShortestPaths(graph);
+        List<KShortestPaths.Path> expected = sequential.findPaths(0, 899, 15);
+        List<KShortestPaths.Path> actual = parallel.findPaths(0, 899, 15);
+        assertEquals(15, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void findPaths_returnsNothingForUnreachableTargets() {
+        Graph graph = new Graph();
+        graph.addNode(new Node(0, 0, "A"));
+        graph.addNode(new Node(0, 0, "B"));
+        assertTrue(new KShortestPaths(graph).findPaths(0, 1, 3).isEmpty());
+    }
+
+    private static void assertLoopless(Graph graph, KShortestPaths.Path path, int source, int target) {
+        assertEquals(source, path.getNode(0));
+        assertEquals(target, path.getNode(path.getArcCount()));
+        Set<Integer> visited = new HashSet<>();
+        double cost = 0;
+        for (int i = 0; i < path.getArcCount(); i++) {
+            assertTrue(visited.add(path.getNode(i)));
+            assertEquals(path.getNode(i + 1), graph.getArcTarget(path.getArc(i)));
+            cost += graph.getArcWeight(path.getArc(i));
+        }
+        assertEquals(cost, path.getCost(), 1e-9);
+    }
+
+    // Costs of every simple path by depth-first enumeration, sorted
+    private static List<Double> allSimplePathCosts(Graph graph, int source, int target) {
+        List<Double> costs = new ArrayList<>();
+        enumerate(graph, source, target, new boolean[graph.getNodeCount()], 0, costs);
+        Collections.sort(costs);
+        return costs;
+    }
+
+    private static void enumerate(Graph graph, int node, int target, boolean[] onPath, double cost, List<Double> costs) {
+        if (node == target) {
+            costs.add(cost);
+            return;
+        }
+        onPath[node] = true;
+        for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+            int next = graph.getArcTarget(arc);
+            if (!onPath[next]) enumerate(graph, next, target, onPath, cost + graph.getArcWeight(arc), costs);
+        }
+        onPath[node] = false;
+    }
+
+    private static double cost(List<Edge> path) {
+        double cost = 0;
+        for (Edge edge : path) cost += edge.getWeight();
+        return cost;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LandmarkSearchTest {
+    private static final int SIDE = 120;
+    private static final int QUERIES = 300;
+
+    @Test
+    public void lowerBound_neverOverestimates() {
+        Random random = new Random(12);
+        for (boolean directed : new boolean[] { false, true }) {
+            Graph graph = TestGraphs.randomPairs(300, 1200, random, TestGraphs.decimals(directed));
+            ShortestPathEngine engine = new ShortestPathEngine(graph);
+            for (LandmarkTable.Selection selection : LandmarkTable.Selection.values()) {
+                LandmarkTable table = new LandmarkTable(graph, 6, selection, 1);
+                for (int source = 0; source < graph.getNodeCount(); source += 7) {
+                    engine.run(source);
+                    for (int target = 0; target < graph.getNodeCount(); target++) {
+                        double distance = engine.getDistance(target);
+                        double bound = table.lowerBound(source, target);
+                        if (bound == Double.MAX_VALUE) {
+                            assertEquals(Double.MAX_VALUE, distance, 0);
+                        } else {
+                            assertTrue(bound <= distance + 1e-9);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void landmarks_areDistinct() {
+        Graph graph = TestGraphs.grid(40, new Random(2));
+        for (LandmarkTable.Selection selection : LandmarkTable.Selection.values()) {
+            LandmarkTable table = new LandmarkTable(graph, 8, selection, 3);
+            Set<Integer> landmarks = new HashSet<>();
+            for (int i = 0; i < table.getLandmarkCount(); i++) landmarks.add(table.getLandmark(i));
+            assertEquals(8, landmarks.size());
+        }
+    }
+
+    @Test
+    public void heaviestLeaf_handlesZeroWeightTies() {
+        // 0 -> 1 -> 3 and 0 -> 2 -> 4, each child of 1 and 2 as far from 0 as its parent
+        Graph graph = new Graph();
+        for (int i = 0; i < 5; i++) graph.addNode(new Node(i, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        graph.addEdge(new Edge(nodes.get(0), nodes.get(1), 1, true));
+        graph.addEdge(new Edge(nodes.get(0), nodes.get(2), 1, true));
+        graph.addEdge(new Edge(nodes.get(1), nodes.get(3), 0, true));
+        graph.addEdge(new Edge(nodes.get(2), nodes.get(4), 0, true));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(0);
+        boolean[] holdsLandmark = new boolean[5];
+        holdsLandmark[4] = true;
+
+        // 2 alone outweighs 1 and 3 together, but its subtree holds a landmark
+        double[] gaps = { 0, 1, 10, 5, 0 };
+        assertEquals(3, LandmarkTable.heaviestLeaf(engine, gaps, holdsLandmark));
+        assertTrue(holdsLandmark[4] && !holdsLandmark[2]);
+        // Without it, 2's subtree is heavier, and the walk stops where the weight runs out
+        holdsLandmark[4] = false;
+        assertEquals(2, LandmarkTable.heaviestLeaf(engine, gaps, holdsLandmark));
+        // 3 counts towards 1 although no farther from 0
+        gaps[2] = 5.5;
+        assertEquals(3, LandmarkTable.heaviestLeaf(engine, gaps, holdsLandmark));
+    }
+
+    @Test
+    public void run_matchesDijkstra() {
+        Random random = new Random(6);
+        for (boolean directed : new boolean[] { false, true }) {
+            Graph graph = TestGraphs.randomPairs(500, 2000, random, TestGraphs.decimals(directed));
+            ShortestPathEngine engine = new ShortestPathEngine(graph);
+            LandmarkSearch search = new LandmarkSearch(new LandmarkTable(graph, 8, LandmarkTable.Selection.AVOID, 4));
+            for (int query = 0; query < 200; query++) {
+                int source = random.nextInt(500), target = random.nextInt(500);
+                double expected = engine.run(source, target);
+                assertEquals(expected, search.run(source, target), 1e-9);
+
+                int[] path = search.getPath();
+                if (expected == Double.MAX_VALUE) {
+                    assertEquals(0, path.length);
+                    continue;
+                }
+                assertEquals(source, path[0]);
+                assertEquals(target, path[path.length - 1]);
+                double cost = 0;
+                for (int i = 1; i < path.length; i++) {
+                    int arc = search.getPreviousArc(path[i]);
+                    assertEquals(path[i], graph.getArcTarget(arc));
+                    cost += graph.getArcWeight(arc);
+                }
+                assertEquals(expected, cost, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void landmarks_reduceExpansions_andReportCosts() {
+        Graph graph = TestGraphs.grid(SIDE, new Random(42));
+        int nodeCount = graph.getNodeCount();
+        int[][] queries = new int[QUERIES][2];
+        Random random = new Random(7);
+        for (int[] query : queries) {
+            query[0] = random.nextInt(nodeCount);
+            query[1] = random.nextInt(nodeCount);
+        }
+
+        SolverMetrics dijkstraMetrics = new SolverMetrics();
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.setMetrics(dijkstraMetrics);
+        double[] expected = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) expected[i] = engine.run(queries[i][0], queries[i][1]);
+        long dijkstraSettled = dijkstraMetrics.snapshot().getSettledNodes();
+
+        System.out.printf("Landmark benchmark (%d nodes, %d queries, Dijkstra settles %d nodes):%n",
+                nodeCount, QUERIES, dijkstraSettled);
+        for (LandmarkTable.Selection selection : LandmarkTable.Selection.values()) {
+            LandmarkTable table = new LandmarkTable(graph, 16, selection, 11);
+            SolverMetrics metrics = new SolverMetrics();
+            LandmarkSearch search = new LandmarkSearch(table);
+            search.setMetrics(metrics);
+            for (int i = 0; i < QUERIES; i++) {
+                assertEquals(expected[i], search.run(queries[i][0], queries[i][1]), 1e-9);
+            }
+            long settled = metrics.snapshot().getSettledNodes();
+            assertTrue(settled < dijkstraSettled / 2);
+            System.out.printf("  %-9s build %7.2f ms, table %6d KB, settles %8d nodes (%.1fx fewer)%n",
+                    selection, table.getBuildNanos() / 1e6, table.getTableBytes() / 1024,
+                    settled, (double) dijkstraSettled / settled);
+        }
+    }
+}
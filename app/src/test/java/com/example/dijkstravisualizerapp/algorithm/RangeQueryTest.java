@@ -0,0 +1,110 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RangeQueryTest {
+
+    @Test
+    public void run_findsExactlyTheNodesWithinTheLimit() {
+        Graph graph = TestGraphs.ring(3000, 6, new Random(9));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        RangeQuery query = new RangeQuery(graph);
+        for (int source : new int[] { 0, 1234, 2999 }) {
+            engine.run(source);
+            for (double limit : new double[] { 0, 15, 40, 1e9 }) {
+                int reached = query.run(source, limit);
+                int expected = 0;
+                for (int node = 0; node < graph.getNodeCount(); node++) {
+                    double distance = engine.getDistance(node);
+                    if (distance <= limit) {
+                        expected++;
+                        assertEquals(distance, query.getDistance(node), 0);
+                    } else {
+                        assertEquals(Double.MAX_VALUE, query.getDistance(node), 0);
+                    }
+                }
+                assertEquals(expected, reached);
+                assertEquals(source, query.getReachedNode(0));
+                for (int i = 1; i < reached; i++) {
+                    assertTrue(query.getReachedDistance(i - 1) <= query.getReachedDistance(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void runBands_splitsTheReachedNodesByLimit() {
+        Graph graph = TestGraphs.ring(3000, 6, new Random(4));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(7);
+        double[] limits = { 5, 12, 12, 30 };
+        RangeQuery query = new RangeQuery(graph);
+        query.runBands(7, limits);
+
+        assertEquals(limits.length, query.getBandCount());
+        for (int band = 0, index = 0; band < limits.length; band++) {
+            for (; index < query.getBandEnd(band); index++) {
+                double distance = query.getReachedDistance(index);
+                assertTrue(distance <= limits[band]);
+                if (band > 0) assertTrue(distance > limits[band - 1]);
+            }
+        }
+        // An empty band in the middle still has an end
+        assertEquals(query.getBandEnd(1), query.getBandEnd(2));
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            double distance = engine.getDistance(node);
+            int expected = -1;
+            for (int band = limits.length - 1; band >= 0; band--) {
+                if (distance <= limits[band]) expected = band;
+            }
+            if (expected == 2) expected = 1;
+            assertEquals(expected, query.getBand(node));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runBands_rejectsDescendingLimits() {
+        new RangeQuery(Graph.createHardcodedGraph()).runBands(0, new double[] { 10, 5 });
+    }
+
+    @Test
+    public void repeatedQueries_allocateNothing() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        Graph graph = TestGraphs.ring(3000, 6, new Random(2));
+        WorkspacePool<RangeQuery> pool = new WorkspacePool<>(() -> new RangeQuery(graph), 2);
+        double[] limits = { 10, 20, 40 };
+        // Warm up: creates the workspace and grows the frontier's buckets
+        for (int i = 0; i < 50; i++) {
+            RangeQuery query = pool.acquire();
+            query.runBands(i * 31 % 3000, limits);
+            pool.release(query);
+        }
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long reached = 0;
+        for (int i = 0; i < 200; i++) {
+            RangeQuery query = pool.acquire();
+            reached += query.runBands(i * 17 % 3000, limits);
+            pool.release(query);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        System.out.printf("200 isochrone queries reaching %d nodes allocated %d bytes%n", reached, allocated);
+        assertTrue(reached > 0);
+        assertEquals(1, pool.getIdleCount());
+        // Leave room for the measurement itself
+        assertTrue(allocated < 1024);
+    }
+}
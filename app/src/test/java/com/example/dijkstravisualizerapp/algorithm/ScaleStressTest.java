@@ -0,0 +1,186 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.CompressedGraph;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.GraphGenerators;
+import com.example.dijkstravisualizerapp.model.OffHeapGraph;
+import com.example.dijkstravisualizerapp.model.SpatialIndex;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every stage from generating a graph to stepping through a search at growing sizes,
+ * recording the time and peak heap of each, so a stage whose cost per edge jumps between
+ * sizes stands out, and fails if a stage costs more than {@link #MAX_GROWTH} times as much
+ * per edge at the largest size as at the one before. The check leaves out time spent
+ * collecting garbage, which grows with the live heap rather than with what the stage does.
+ * The canvas side of drawing needs a device and is covered by the instrumented
+ * GraphRendererStressTest.
+ * <p>
+ * It takes minutes and gigabytes, so it is skipped unless the "stress" system property is set:
+ * {@code ./gradlew test -Pstress=true}.
+ */
+public class ScaleStressTest {
+    // Edge counts to try; every stage should grow roughly linearly across them
+    private static final int[] EDGE_COUNTS = { 10_000, 100_000, 1_000_000 };
+    // The view keeps this many steps for going back
+    private static final int STEP_HISTORY_LIMIT = 100_000;
+    private static final String[] FAMILIES = { "grid", "geometric", "erdos-renyi", "barabasi-albert" };
+    // Roughly linear stages stay well under this, while a quadratic one grows by about ten
+    // between the last two sizes; the slack absorbs garbage collection and timer noise
+    private static final double MAX_GROWTH = 4;
+
+    @Test
+    public void stress_allFamiliesAtGrowingSizes() {
+        Assume.assumeTrue(Boolean.getBoolean("stress"));
+        System.out.println("Scale stress (time, ns per edge, of that in collections, peak heap during the stage, direct buffers):");
+        System.out.printf("  %-16s %9s %-22s %10s %9s %9s %10s %10s%n",
+                "family", "edges", "stage", "ms", "ns/edge", "gc ns", "heap MB", "direct MB");
+        for (String family : FAMILIES) {
+            // Nanoseconds per edge of each stage outside collections, by size
+            Map<String, double[]> costs = new HashMap<>();
+            for (int i = 0; i < EDGE_COUNTS.length; i++) {
+                stress(family, EDGE_COUNTS[i], costs, i);
+            }
+            int last = EDGE_COUNTS.length - 1;
+            for (Map.Entry<String, double[]> entry : costs.entrySet()) {
+                double[] cost = entry.getValue();
+                assertTrue(String.format(Locale.ROOT, "%s, %s: %.1f ns per edge at %d edges, %.1f at %d",
+                                family, entry.getKey(), cost[last], EDGE_COUNTS[last], cost[last - 1], EDGE_COUNTS[last - 1]),
+                        cost[last] <= MAX_GROWTH * cost[last - 1]);
+            }
+        }
+    }
+
+    private static void stress(String family, int edgeCount, Map<String, double[]> costs, int size) {
+        Stage stage = new Stage(family, edgeCount, costs, size);
+        OffHeapGraph generated = generate(family, edgeCount);
+        stage.end("generate");
+        int edges = generated.getArcCount() / 2;
+        stage.edges = edges;
+
+        ShortestPathEngine engine = new ShortestPathEngine(generated);
+        engine.run(0);
+        stage.end("engine, off-heap");
+
+        CompressedGraph compressed = CompressedGraph.compress(generated, 16, 1);
+        stage.end("compress");
+        ShortestPathEngine compressedEngine = new ShortestPathEngine(compressed);
+        compressedEngine.run(0);
+        stage.end("engine, compressed");
+        // Integer weights survive scale 1 exactly
+        for (int node = 0; node < generated.getNodeCount(); node += 97) {
+            assertEquals(engine.getDistance(node), compressedEngine.getDistance(node), 0);
+        }
+
+        // What the view works with: Node and Edge objects, the arc index and the touch index
+        Graph graph = GraphGenerators.toGraph(generated);
+        graph.getArcCount();
+        stage.end("materialize Graph");
+        new SpatialIndex(graph);
+        stage.end("spatial index");
+        ShortestPathEngine graphEngine = new ShortestPathEngine(graph);
+        graphEngine.run(0);
+        stage.end("engine, Graph");
+
+        // The animation: every step of a run, as playback produces them
+        graph.setStartAndTarget(graph.getNodes().get(0), graph.getNodes().get(graph.getNodeCount() - 1));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(STEP_HISTORY_LIMIT);
+        int steps = 0;
+        while (algorithm.nextStep() != null) steps++;
+        stage.end("step through");
+        System.out.printf(Locale.ROOT, "  %-16s %9d %d steps%n", family, edgeCount, steps);
+        assertEquals(engine.getDistance(graph.getNodeCount() - 1), graph.getTargetNode().getDistance(), 0);
+    }
+
+    private static OffHeapGraph generate(String family, int edgeCount) {
+        switch (family) {
+            case "grid": {
+                int side = (int) Math.sqrt(edgeCount / 2.0);
+                return GraphGenerators.grid(side, side, 9, 1);
+            }
+            case "geometric":
+                return GraphGenerators.randomGeometric(edgeCount / 3, 6, 2);
+            case "erdos-renyi":
+                return GraphGenerators.erdosRenyi(edgeCount / 3, edgeCount, 20, 3);
+            default:
+                return GraphGenerators.barabasiAlbert(edgeCount / 3, 3, 20, 4);
+        }
+    }
+
+    // Times consecutive stages, each from the end of the one before, and tracks peak memory across each
+    private static final class Stage {
+        private final String family;
+        private final int requestedEdges;
+        private final Map<String, double[]> costs;
+        private final int size;
+        int edges;
+        private long start;
+        private long startCollectionMillis;
+
+        Stage(String family, int requestedEdges, Map<String, double[]> costs, int size) {
+            this.family = family;
+            this.requestedEdges = requestedEdges;
+            this.edges = requestedEdges;
+            this.costs = costs;
+            this.size = size;
+            begin();
+        }
+
+        void end(String name) {
+            long nanos = System.nanoTime() - start;
+            long collectionNanos = (collectionMillis() - startCollectionMillis) * 1_000_000;
+            System.out.printf(Locale.ROOT, "  %-16s %9d %-22s %10.1f %9.1f %9.1f %10.1f %10.1f%n",
+                    family, requestedEdges, name, nanos / 1e6, (double) nanos / edges, (double) collectionNanos / edges,
+                    peakHeap() / 1048576.0, directBytes() / 1048576.0);
+            costs.computeIfAbsent(name, key -> new double[EDGE_COUNTS.length])[size] =
+                    (double) Math.max(nanos - collectionNanos, 0) / edges;
+            begin();
+        }
+
+        private void begin() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+            }
+            startCollectionMillis = collectionMillis();
+            start = System.nanoTime();
+        }
+
+        private static long collectionMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(collector.getCollectionTime(), 0);
+            }
+            return millis;
+        }
+
+        private static long peakHeap() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+            }
+            return peak;
+        }
+
+        private static long directBytes() {
+            for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+                if (pool.getName().equals("direct")) return pool.getMemoryUsed();
+            }
+            return 0;
+        }
+    }
+}
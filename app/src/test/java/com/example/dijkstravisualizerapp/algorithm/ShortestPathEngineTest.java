@@ -0,0 +1,82 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathEngineTest {
+
+    @Test
+    public void runFromSources_matchesTheNearestOfSeparateRuns() {
+        Graph graph = TestGraphs.ring(2000, 6, new Random(5));
+        int[] sources = { 17, 500, 1203, 1999 };
+        double[][] separate = new double[sources.length][];
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        for (int i = 0; i < sources.length; i++) {
+            engine.run(sources[i]);
+            separate[i] = new double[graph.getNodeCount()];
+            for (int node = 0; node < graph.getNodeCount(); node++) separate[i][node] = engine.getDistance(node);
+        }
+
+        engine.runFromSources(sources);
+        assertEquals(-1, engine.getSource());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            double nearest = Double.MAX_VALUE;
+            for (double[] distances : separate) nearest = Math.min(nearest, distances[node]);
+            assertEquals(nearest, engine.getDistance(node), 0);
+
+            // The owner is a nearest source, and the path leads back to it
+            int owner = engine.getOwner(node);
+            assertEquals(nearest, separate[owner][node], 0);
+            assertEquals(sources[owner], engine.getPath(node)[0]);
+        }
+    }
+
+    @Test
+    public void runToTargets_settlesEveryTarget() {
+        Graph graph = TestGraphs.ring(2000, 6, new Random(6));
+        ShortestPathEngine full = new ShortestPathEngine(graph);
+        full.run(3);
+        int[] targets = { 40, 900, 40, 1500 };
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(3, targets);
+        for (int target : targets) {
+            assertEquals(full.getDistance(target), engine.getDistance(target), 0);
+            assertArrayEquals(full.getPath(target), engine.getPath(target));
+        }
+
+        // The marks are cleared, so a later run with other targets isn't cut short
+        engine.run(3, new int[] { 1999 });
+        assertEquals(full.getDistance(1999), engine.getDistance(1999), 0);
+    }
+
+    @Test
+    public void runFromSources_countsDuplicatesOnceAndLeavesUnreachedNodesUnowned() {
+        Graph graph = new Graph();
+        for (int i = 0; i < 4; i++) graph.addNode(new Node(0, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        graph.addEdge(new Edge(nodes.get(0), nodes.get(1), 2));
+        // Node 3 is cut off from both sources
+
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.runFromSources(2, 0, 2);
+        assertEquals(0, engine.getOwner(2));
+        assertEquals(1, engine.getOwner(0));
+        assertEquals(1, engine.getOwner(1));
+        assertEquals(-1, engine.getOwner(3));
+        assertEquals(Double.MAX_VALUE, engine.getDistance(3), 0);
+
+        engine.run(0);
+        assertEquals(0, engine.getSource());
+        assertEquals(0, engine.getOwner(1));
+        assertEquals(-1, engine.getOwner(2));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathTreeTest {
+    private static final int BENCHMARK_SIDE = 300;
+
+    @Test
+    public void getPath_matchesTheEngineForEveryTarget() {
+        Graph graph = TestGraphs.randomPairs(2000, 5000, new Random(1), TestGraphs.MIXED_DIRECTIONS);
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(11);
+        ShortestPathTree tree = ShortestPathTree.of(engine);
+        // The tree is a copy: another run doesn't change it
+        engine.run(12);
+        engine.run(11);
+        assertEquals(11, tree.getSource());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertArrayEquals(engine.getPath(node), tree.getPath(node));
+            assertEquals(engine.getDistance(node), tree.getDistance(node), 0);
+            assertEquals(tree.getPath(node).length - 1, tree.getDepth(node));
+
+            // The arcs chain up from the source, and their weights add up to the distance
+            int[] arcs = tree.getPathArcs(node);
+            double cost = 0;
+            for (int i = 0; i < arcs.length; i++) {
+                assertEquals(tree.getPath(node)[i + 1], graph.getArcTarget(arcs[i]));
+                cost += graph.getArcWeight(arcs[i]);
+            }
+            if (tree.isReached(node)) assertEquals(tree.getDistance(node), cost, 1e-9);
+        }
+    }
+
+    @Test
+    public void getShortestPathTree_agreesWithFinalPath() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> nodes = graph.getNodes();
+        graph.setStartAndTarget(nodes.get(0), nodes.get(nodes.size() - 1));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.run();
+        ShortestPathTree tree = algorithm.getShortestPathTree();
+        assertEquals(algorithm.getFinalPath(), tree.getPathEdges(graph, nodes.size() - 1));
+        for (Node node : nodes) {
+            assertEquals(node.getDistance(), tree.getDistance(node.getId()), 0);
+        }
+    }
+
+    @Test
+    public void writeAndRead_roundTrips() throws IOException {
+        Graph graph = TestGraphs.randomPairs(500, 900, new Random(2), TestGraphs.MIXED_DIRECTIONS);
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(0);
+        ShortestPathTree tree = ShortestPathTree.of(engine);
+        File file = File.createTempFile("tree", ".bin");
+        try {
+            tree.writeTo(file);
+            ShortestPathTree read = ShortestPathTree.readFrom(file);
+            assertEquals(tree.getSource(), read.getSource());
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(tree.getDistance(node), read.getDistance(node), 0);
+                assertEquals(tree.getPreviousArc(node), read.getPreviousArc(node));
+                assertArrayEquals(tree.getPath(node), read.getPath(node));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void readFrom_rejectsCorruptFiles() throws IOException {
+        Graph graph = Graph.createHardcodedGraph();
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(0);
+        int nodeCount = graph.getNodeCount();
+        File file = File.createTempFile("tree", ".bin");
+        try {
+            ShortestPathTree.of(engine).writeTo(file);
+            // The node count, the source, a previous node out of range, and two nodes each other's previous
+            assertCorrupt(file, new long[] { 8 }, -1);
+            assertCorrupt(file, new long[] { 8 }, Integer.MAX_VALUE);
+            assertCorrupt(file, new long[] { 12 }, nodeCount);
+            assertCorrupt(file, new long[] { 16 + 4 * 3 }, nodeCount);
+            assertCorrupt(file, new long[] { 16 + 4, 16 + 4 * 2 }, 2, 1);
+            ShortestPathTree.readFrom(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    // Writes the values over the ints at the offsets, expects loading to fail, and puts the old values back
+    private static void assertCorrupt(File file, long[] offsets, int... values) throws IOException {
+        byte[] original = Files.readAllBytes(file.toPath());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (int i = 0; i < offsets.length; i++) {
+                raf.seek(offsets[i]);
+                raf.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(values[i]).array());
+            }
+        }
+        try {
+            ShortestPathTree.readFrom(file);
+            fail("Loaded a corrupt tree");
+        } catch (IOException expected) {
+            // Rejected instead of looping, running out of memory or failing with an unchecked exception
+        } finally {
+            Files.write(file.toPath(), original);
+        }
+    }
+
+    @Test
+    public void writePathsTo_writesEveryReachedPath() throws IOException {
+        // Sparse, so some nodes stay unreached
+        Graph graph = TestGraphs.randomPairs(3000, 2500, new Random(3), TestGraphs.MIXED_DIRECTIONS);
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(5);
+        ShortestPathTree tree = ShortestPathTree.of(engine);
+        File file = File.createTempFile("paths", ".bin");
+        try {
+            int written = tree.writePathsTo(file);
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(12);
+            assertEquals(5, buffer.getInt());
+            assertEquals(written, buffer.getInt());
+            boolean[] seen = new boolean[graph.getNodeCount()];
+            for (int i = 0; i < written; i++) {
+                int target = buffer.getInt();
+                int[] path = new int[buffer.getInt()];
+                for (int j = 0; j < path.length; j++) path[j] = buffer.getInt();
+                assertArrayEquals(tree.getPath(target), path);
+                seen[target] = true;
+            }
+            assertFalse(buffer.hasRemaining());
+            for (int node = 0; node < graph.getNodeCount(); node++) assertEquals(tree.isReached(node), seen[node]);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void benchmark_allPaths() throws IOException {
+        Graph graph = TestGraphs.grid(BENCHMARK_SIDE, new Random(4));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(0);
+        int nodeCount = graph.getNodeCount();
+
+        // Every path through the engine, walking each one twice
+        long start = System.nanoTime();
+        long hops = 0;
+        for (int node = 0; node < nodeCount; node++) hops += engine.getPath(node).length;
+        long engineNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ShortestPathTree tree = ShortestPathTree.of(engine);
+        long buildNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int node = 0; node < nodeCount; node++) hops -= tree.getPath(node).length;
+        long treeNanos = System.nanoTime() - start;
+        assertEquals(0, hops);
+
+        File file = File.createTempFile("paths", ".bin");
+        try {
+            start = System.nanoTime();
+            tree.writePathsTo(file);
+            long exportNanos = System.nanoTime() - start;
+            System.out.printf("Shortest-path tree benchmark (%dx%d grid, paths to all %d nodes):%n",
+                    BENCHMARK_SIDE, BENCHMARK_SIDE, nodeCount);
+            System.out.printf("  engine getPath        %8.2f ms%n", engineNanos / 1e6);
+            System.out.printf("  tree build            %8.2f ms%n", buildNanos / 1e6);
+            System.out.printf("  tree getPath          %8.2f ms%n", treeNanos / 1e6);
+            System.out.printf("  export all paths      %8.2f ms, %.1f MB%n", exportNanos / 1e6, file.length() / 1048576.0);
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SolverMetricsTest {
+
+    @Test
+    public void dijkstraAlgorithm_countsEveryNodeAndStep() {
+        Graph graph = Graph.createHardcodedGraph();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        SolverMetrics metrics = new SolverMetrics();
+        algorithm.setMetrics(metrics);
+        algorithm.run();
+        algorithm.getFinalPath();
+
+        SolverMetrics.Snapshot snapshot = metrics.snapshot();
+        int nodeCount = graph.getNodes().size();
+        assertEquals(1, snapshot.getRuns());
+        assertEquals(nodeCount, snapshot.getHeapPushes());
+        assertEquals(nodeCount, snapshot.getHeapPops());
+        assertEquals(nodeCount, snapshot.getSettledNodes());
+        assertEquals(snapshot.getImprovedRelaxations(), snapshot.getHeapPushes() - 1 + snapshot.getDecreaseKeys());
+        // One start step, one step per settled node, one step per relaxation
+        assertEquals(algorithm.getTotalSteps(), 1 + snapshot.getSettledNodes() + snapshot.getRelaxations());
+        assertTrue(snapshot.getSearchNanos() >= snapshot.getRecordingNanos());
+        assertTrue(snapshot.getPathNanos() > 0);
+    }
+
+    @Test
+    public void engine_agreesWithDijkstraAlgorithm() {
+        Graph graph = Graph.createHardcodedGraph();
+        SolverMetrics stepped = new SolverMetrics();
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.setMetrics(stepped);
+        algorithm.run();
+
+        SolverMetrics plain = new SolverMetrics();
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.setMetrics(plain);
+        engine.run(graph.getStartNode().getId());
+
+        // The engine also relaxes into settled nodes, so only the improvements must match
+        assertEquals(stepped.snapshot().getSettledNodes(), plain.snapshot().getSettledNodes());
+        assertEquals(stepped.snapshot().getImprovedRelaxations(), plain.snapshot().getImprovedRelaxations());
+    }
+
+    @Test
+    public void reset_clearsTotals() {
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.recordSearch(1, 2, 3, 4, 5, 6);
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getRuns());
+        assertEquals(0, metrics.snapshot().getRelaxations());
+    }
+}
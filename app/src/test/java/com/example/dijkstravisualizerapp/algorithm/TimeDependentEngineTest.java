@@ -0,0 +1,195 @@
+package com.example.dijkstravisualizerapp.algorithm;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.Node;
+import com.example.dijkstravisualizerapp.model.TravelTimeProfiles;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TimeDependentEngineTest {
+    private static final int SIDE = 150;
+    private static final int QUERIES = 200;
+
+    @Test
+    public void getFactor_interpolatesAndHoldsTheEndsConstant() {
+        TravelTimeProfiles profiles = new TravelTimeProfiles(TestGraphs.grid(2, new Random(1)));
+        int profile = profiles.addProfile(new double[] { 10, 20, 40 }, new double[] { 1, 3, 2 });
+        assertEquals(1, profiles.getFactor(profile, -5), 0);
+        assertEquals(1, profiles.getFactor(profile, 10), 0);
+        assertEquals(2, profiles.getFactor(profile, 15), 1e-12);
+        assertEquals(3, profiles.getFactor(profile, 20), 0);
+        assertEquals(2.5, profiles.getFactor(profile, 30), 1e-12);
+        assertEquals(2, profiles.getFactor(profile, 40), 0);
+        assertEquals(2, profiles.getFactor(profile, 1000), 0);
+    }
+
+    @Test
+    public void assign_rejectsProfilesThatArentFifo() {
+        Graph graph = new Graph();
+        graph.addNode(new Node(0, 0, "A"));
+        graph.addNode(new Node(0, 0, "B"));
+        graph.addEdge(new Edge(graph.getNodes().get(0), graph.getNodes().get(1), 10, true));
+        TravelTimeProfiles profiles = new TravelTimeProfiles(graph);
+        // Falls by 0.05 per unit of time: leaving one unit later saves half a unit on this arc, fine
+        int gentle = profiles.addProfile(new double[] { 0, 20 }, new double[] { 2, 1 });
+        // Falls by 0.2 per unit: leaving one unit later saves two, so waiting would get there sooner
+        int steep = profiles.addProfile(new double[] { 0, 5 }, new double[] { 2, 1 });
+        profiles.assign(0, gentle);
+        try {
+            profiles.assign(0, steep);
+            fail("A profile falling faster than the arc allows must be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(gentle, profiles.getProfile(0));
+        }
+        try {
+            profiles.addProfile(new double[] { 0, 0 }, new double[] { 1, 1 });
+            fail("Breakpoint times must increase");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(2, profiles.getProfileCount());
+        }
+    }
+
+    @Test
+    public void run_withoutProfilesMatchesShortestPathEngine() {
+        Graph graph = TestGraphs.grid(40, new Random(2));
+        ShortestPathEngine reference = new ShortestPathEngine(graph);
+        TimeDependentEngine engine = new TimeDependentEngine(new TravelTimeProfiles(graph));
+        reference.run(7);
+        engine.run(7, 100);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(100 + reference.getDistance(node), engine.getArrival(node), 1e-9);
+            assertEquals(reference.getDistance(node), engine.getTravelTime(node), 1e-9);
+        }
+    }
+
+    @Test
+    public void run_matchesLabelCorrectingSearch() {
+        Random random = new Random(3);
+        Graph graph = TestGraphs.grid(30, random);
+        TravelTimeProfiles profiles = rushHourProfiles(graph, random);
+        TimeDependentEngine engine = new TimeDependentEngine(profiles);
+        for (double departure : new double[] { 0, 30, 55, 80, 200 }) {
+            int source = random.nextInt(graph.getNodeCount());
+            double[] expected = labelCorrecting(profiles, source, departure);
+            engine.run(source, departure);
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(expected[node], engine.getArrival(node), 1e-9);
+                assertPathArrives(profiles, engine, node);
+            }
+            int target = random.nextInt(graph.getNodeCount());
+            assertEquals(expected[target], engine.run(source, target, departure), 1e-9);
+        }
+    }
+
+    @Test
+    public void run_departureTimeChangesTheRoute() {
+        // A fast road that jams in the rush hour, and a slower bypass that doesn't
+        Graph graph = new Graph();
+        for (int i = 0; i < 3; i++) graph.addNode(new Node(0, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        graph.addEdge(new Edge(nodes.get(0), nodes.get(2), 10, true));
+        graph.addEdge(new Edge(nodes.get(0), nodes.get(1), 8, true));
+        graph.addEdge(new Edge(nodes.get(1), nodes.get(2), 8, true));
+        TravelTimeProfiles profiles = new TravelTimeProfiles(graph);
+        int rushHour = profiles.addProfile(new double[] { 50, 60, 90, 110 }, new double[] { 1, 3, 3, 1 });
+        profiles.assign(0, 2, rushHour);
+
+        TimeDependentEngine engine = new TimeDependentEngine(profiles);
+        assertEquals(10, engine.run(0, 2, 0), 1e-12);
+        assertArrayEquals(new int[] { 0, 2 }, engine.getPath(2));
+        assertEquals(70 + 16, engine.run(0, 2, 70), 1e-12);
+        assertArrayEquals(new int[] { 0, 1, 2 }, engine.getPath(2));
+        // Halfway up the ramp the jam costs 2 x 10 = 20, so the bypass still wins by 4
+        assertEquals(55 + 16, engine.run(0, 2, 55), 1e-12);
+    }
+
+    @Test
+    public void benchmark_segmentCache() {
+        Random random = new Random(4);
+        Graph graph = TestGraphs.grid(SIDE, random);
+        TravelTimeProfiles profiles = rushHourProfiles(graph, random);
+        TimeDependentEngine engine = new TimeDependentEngine(profiles);
+        ShortestPathEngine fixed = new ShortestPathEngine(graph);
+        int[] sources = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) sources[i] = random.nextInt(graph.getNodeCount());
+
+        // Warm up both engines
+        for (int i = 0; i < 20; i++) {
+            engine.run(sources[i], 60);
+            fixed.run(sources[i]);
+        }
+
+        long start = System.nanoTime();
+        for (int source : sources) fixed.run(source);
+        long fixedNanos = System.nanoTime() - start;
+
+        long hits = engine.getCacheHits(), misses = engine.getCacheMisses();
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) engine.run(sources[i], 30 + i % 60);
+        long timeDependentNanos = System.nanoTime() - start;
+        hits = engine.getCacheHits() - hits;
+        misses = engine.getCacheMisses() - misses;
+
+        System.out.printf("Time-dependent benchmark (%dx%d grid, %d full searches):%n", SIDE, SIDE, QUERIES);
+        System.out.printf("  fixed weights    %8.3f ms/search%n", fixedNanos / 1e6 / QUERIES);
+        System.out.printf("  time-dependent   %8.3f ms/search, %.3f%% of profile lookups hit the cache, %.1f binary searches/search%n",
+                timeDependentNanos / 1e6 / QUERIES, 100.0 * hits / (hits + misses), (double) misses / QUERIES);
+        assertTrue(hits > misses);
+    }
+
+    // Follows the path back from the node and checks that traversing it at the departure gives the arrival
+    private static void assertPathArrives(TravelTimeProfiles profiles, TimeDependentEngine engine, int node) {
+        if (engine.getArrival(node) == Double.MAX_VALUE) return;
+        int[] path = engine.getPath(node);
+        assertEquals(engine.getSource(), path[0]);
+        double time = engine.getDeparture();
+        for (int i = 1; i < path.length; i++) {
+            time += profiles.getTravelTime(engine.getPreviousArc(path[i]), time);
+        }
+        assertEquals(engine.getArrival(node), time, 1e-9);
+    }
+
+    // Relaxes every arc until nothing improves; slow, but correct for FIFO arcs without a heap
+    private static double[] labelCorrecting(TravelTimeProfiles profiles, int source, double departure) {
+        Graph graph = (Graph) profiles.getGraph();
+        double[] arrivals = new double[graph.getNodeCount()];
+        Arrays.fill(arrivals, Double.MAX_VALUE);
+        arrivals[source] = departure;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                if (arrivals[node] == Double.MAX_VALUE) continue;
+                for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                    double arrival = arrivals[node] + profiles.getTravelTime(arc, arrivals[node]);
+                    if (arrival < arrivals[graph.getArcTarget(arc)]) {
+                        arrivals[graph.getArcTarget(arc)] = arrival;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return arrivals;
+    }
+
+    // Gives a third of the arcs a morning rush hour and a sixth an all-day slowdown with a lunch peak
+    private static TravelTimeProfiles rushHourProfiles(Graph graph, Random random) {
+        TravelTimeProfiles profiles = new TravelTimeProfiles(graph);
+        int rushHour = profiles.addProfile(new double[] { 40, 50, 60, 70, 80 }, new double[] { 1, 2.5, 3, 2, 1 });
+        int lunch = profiles.addProfile(new double[] { 0, 90, 110, 130, 300 }, new double[] { 1.2, 1.2, 1.8, 1.2, 1.2 });
+        for (int arc = 0; arc < graph.getArcCount(); arc++) {
+            int roll = random.nextInt(6);
+            if (roll < 2) profiles.assign(arc, rushHour);
+            else if (roll == 2) profiles.assign(arc, lunch);
+        }
+        return profiles;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.dijkstravisualizerapp.model;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.algorithm.AllPairsEngine;
+import com.example.dijkstravisualizerapp.algorithm.DistanceMatrix;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CompressedGraphTest {
+    private static final int BENCHMARK_SIDE = 300;
+    private static final int QUERIES = 30;
+
+    @Test
+    public void compress_keepsEveryNodesArcs() {
+        Graph graph = randomGraph(3000, 12000, new Random(1));
+        CompressedGraph compressed = CompressedGraph.compress(graph, 16, 100);
+        assertEquals(graph.getNodeCount(), compressed.getNodeCount());
+        assertEquals(graph.getArcCount(), compressed.getArcCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(graph.getNodeX(node), compressed.getNodeX(node), 0);
+            assertArrayEquals(sortedArcs(graph, node), sortedArcs(compressed, node));
+            // Sorted by target, and the weights within the rounding error
+            for (int arc = compressed.getFirstArc(node); arc < compressed.getArcEnd(node); arc++) {
+                int target = compressed.getArcTarget(arc);
+                assertEquals(closestWeight(graph, node, target, compressed.getArcWeight(arc)),
+                        compressed.getArcWeight(arc), compressed.getMaxWeightError());
+                if (arc > compressed.getFirstArc(node)) assertTrue(compressed.getArcTarget(arc - 1) <= target);
+            }
+        }
+    }
+
+    @Test
+    public void getArcTarget_worksInAnyOrder() {
+        Graph graph = randomGraph(500, 3000, new Random(2));
+        CompressedGraph compressed = CompressedGraph.compress(graph, 32, 1000);
+        int[] inOrder = new int[compressed.getArcCount()];
+        for (int arc = 0; arc < inOrder.length; arc++) inOrder[arc] = compressed.getArcTarget(arc);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            int arc = random.nextInt(inOrder.length);
+            assertEquals(inOrder[arc], compressed.getArcTarget(arc));
+            // Asking for the same arc twice, or stepping back one
+            assertEquals(inOrder[arc], compressed.getArcTarget(arc));
+            if (arc > 0) assertEquals(inOrder[arc - 1], compressed.getArcTarget(arc - 1));
+        }
+    }
+
+    @Test
+    public void parallelEngines_matchSerial() throws InterruptedException {
+        CompressedGraph compressed = CompressedGraph.compress(gridGraph(40, new Random(6)), 16, 100);
+        AllPairsEngine engine = new AllPairsEngine(compressed);
+        engine.setParallel(false);
+        DistanceMatrix serial = engine.compute(AllPairsEngine.Strategy.REPEATED_DIJKSTRA);
+        // Every worker reads the one instance at once
+        engine.setParallel(true);
+        DistanceMatrix parallel = engine.compute(AllPairsEngine.Strategy.REPEATED_DIJKSTRA);
+        for (int from = 0; from < serial.size(); from++) {
+            for (int to = 0; to < serial.size(); to++) assertEquals(serial.get(from, to), parallel.get(from, to), 0);
+        }
+
+
+        // Plain threads as well, as the parallel stream runs on one thread on a single-core machine
+        int threadCount = 4;
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                ShortestPathEngine search = new ShortestPathEngine(compressed);
+                for (int source = offset; source < compressed.getNodeCount(); source += threadCount) {
+                    search.run(source);
+                    for (int node = 0; node < compressed.getNodeCount(); node++) {
+                        if (search.getDistance(node) != serial.get(source, node)) mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    public void shortestPaths_stayWithinTheQuantizationError() {
+        Graph graph = gridGraph(60, new Random(4));
+        ShortestPathEngine exact = new ShortestPathEngine(graph);
+        for (int bits : new int[] { 16, 32 }) {
+            CompressedGraph compressed = CompressedGraph.compress(graph, bits, bits == 16 ? 1000 : 1e6);
+            ShortestPathEngine engine = new ShortestPathEngine(compressed);
+            for (int source : new int[] { 0, 1234, 3599 }) {
+                exact.run(source);
+                engine.run(source);
+                for (int node = 0; node < graph.getNodeCount(); node++) {
+                    // A path of k arcs is off by at most k times the error per weight
+                    double bound = engine.getPath(node).length * compressed.getMaxWeightError();
+                    assertEquals(exact.getDistance(node), engine.getDistance(node), bound);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compress_rejectsWeightsThatDontFit() {
+        Graph graph = new Graph();
+        graph.addNode(new Node(0, 0, "A"));
+        graph.addNode(new Node(0, 0, "B"));
+        graph.addEdge(new Edge(graph.getNodes().get(0), graph.getNodes().get(1), 700));
+        CompressedGraph.compress(graph, 16, 90);
+        try {
+            CompressedGraph.compress(graph, 16, 100);
+            fail("70000 doesn't fit in 16 bits");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(700, CompressedGraph.compress(graph, 32, 100).getArcWeight(0), 0);
+        }
+    }
+
+    @Test
+    public void benchmark_memoryAgainstSpeed() {
+        Random random = new Random(5);
+        long before = usedMemory();
+        Graph graph = gridGraph(BENCHMARK_SIDE, random);
+        long graphBytes = usedMemory() - before;
+        int nodeCount = graph.getNodeCount(), arcCount = graph.getArcCount();
+        OffHeapGraph offHeap = OffHeapGraph.copyOf(graph);
+        long offHeapBytes = 8L * nodeCount + 4L * (nodeCount + 1) + 12L * arcCount;
+        CompressedGraph compressed16 = CompressedGraph.compress(graph, 16, 100);
+        CompressedGraph compressed32 = CompressedGraph.compress(graph, 32, 100);
+        int[] sources = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) sources[i] = random.nextInt(nodeCount);
+
+        System.out.printf("Compressed graph benchmark (%dx%d grid, %d arcs, %d full searches):%n",
+                BENCHMARK_SIDE, BENCHMARK_SIDE, arcCount, QUERIES);
+        System.out.printf("  %-24s %10s %10s %12s%n", "form", "MB", "bytes/arc", "ms/search");
+        printRow("Graph (ArrayList<Edge>)", graphBytes, arcCount, time(graph, sources));
+        printRow("OffHeapGraph (CSR)", offHeapBytes, arcCount, time(offHeap, sources));
+        printRow("Compressed, 32-bit", compressed32.getByteSize(), arcCount, time(compressed32, sources));
+        printRow("Compressed, 16-bit", compressed16.getByteSize(), arcCount, time(compressed16, sources));
+        System.out.printf("  targets take %.2f bytes/arc after delta encoding; Graph size is a heap estimate%n",
+                (double) compressed16.getTargetBytes() / arcCount);
+        assertTrue(compressed16.getByteSize() < compressed32.getByteSize());
+        assertTrue(compressed32.getByteSize() < offHeapBytes);
+    }
+
+    private static void printRow(String form, long bytes, int arcCount, double millis) {
+        System.out.printf("  %-24s %10.2f %10.2f %12.3f%n", form, bytes / 1048576.0, (double) bytes / arcCount, millis);
+    }
+
+    // Milliseconds per full search, after a warm-up round
+    private static double time(IndexedGraph graph, int[] sources) {
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        for (int i = 0; i < 5; i++) engine.run(sources[i]);
+        long start = System.nanoTime();
+        for (int source : sources) engine.run(source);
+        return (System.nanoTime() - start) / 1e6 / sources.length;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int[] sortedArcs(IndexedGraph graph, int node) {
+        int[] targets = new int[graph.getArcEnd(node) - graph.getFirstArc(node)];
+        for (int i = 0; i < targets.length; i++) targets[i] = graph.getArcTarget(graph.getFirstArc(node) + i);
+        Arrays.sort(targets);
+        return targets;
+    }
+
+    // The weight, among the node's arcs to the target, closest to the given one, to match up parallel arcs
+    private static double closestWeight(IndexedGraph graph, int node, int target, double weight) {
+        double closest = Double.MAX_VALUE;
+        for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+            double candidate = graph.getArcWeight(arc);
+            if (graph.getArcTarget(arc) == target && Math.abs(candidate - weight) < Math.abs(closest - weight)) {
+                closest = candidate;
+            }
+        }
+        return closest;
+    }
+
+    private static Graph randomGraph(int nodeCount, int edgeCount, Random random) {
+        Graph graph = new Graph();
+        for (int i = 0; i < nodeCount; i++) graph.addNode(new Node(random.nextFloat() * 1000, 0, String.valueOf(i)));
+        TestGraphs.addRandomEdges(graph, edgeCount, random,
+                (a, b, r) -> new Edge(a, b, r.nextInt(50000) / 100.0, r.nextBoolean()));
+        return graph;
+    }
+
+    private static Graph gridGraph(int side, Random random) {
+        return TestGraphs.grid(side, random, (a, b, r) -> new Edge(a, b, 1 + r.nextInt(900) / 100.0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.dijkstravisualizerapp.model;
+
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GraphGeneratorsTest {
+
+    @Test
+    public void generators_areDeterministicPerSeed() {
+        assertSameGraph(GraphGenerators.grid(30, 20, 9, 1), GraphGenerators.grid(30, 20, 9, 1));
+        assertSameGraph(GraphGenerators.randomGeometric(2000, 6, 2), GraphGenerators.randomGeometric(2000, 6, 2));
+        assertSameGraph(GraphGenerators.erdosRenyi(2000, 5000, 20, 3), GraphGenerators.erdosRenyi(2000, 5000, 20, 3));
+        assertSameGraph(GraphGenerators.barabasiAlbert(2000, 3, 20, 4), GraphGenerators.barabasiAlbert(2000, 3, 20, 4));
+        assertNotEquals(GraphGenerators.erdosRenyi(2000, 5000, 20, 3).getArcTarget(0),
+                GraphGenerators.erdosRenyi(2000, 5000, 20, 5).getArcTarget(0));
+    }
+
+    @Test
+    public void grid_joinsEachNodeToItsNeighbors() {
+        OffHeapGraph grid = GraphGenerators.grid(30, 20, 9, 1);
+        assertEquals(600, grid.getNodeCount());
+        assertEquals(2 * (29 * 20 + 30 * 19), grid.getArcCount());
+        // A corner has two neighbors, an inner node four
+        assertEquals(2, grid.getArcEnd(0) - grid.getFirstArc(0));
+        assertEquals(4, grid.getArcEnd(31) - grid.getFirstArc(31));
+        assertEquals(GraphGenerators.SPACING * 3, grid.getNodeX(63), 0);
+    }
+
+    @Test
+    public void randomGeometric_onlyJoinsCloseNodes() {
+        OffHeapGraph graph = GraphGenerators.randomGeometric(5000, 8, 2);
+        double radius = Math.sqrt(5000) * GraphGenerators.SPACING * Math.sqrt(8 / (Math.PI * 5000));
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                int other = graph.getArcTarget(arc);
+                double distance = Math.hypot(graph.getNodeX(node) - graph.getNodeX(other), graph.getNodeY(node) - graph.getNodeY(other));
+                assertTrue(distance < radius);
+                assertEquals(Math.max(1, Math.ceil(distance)), graph.getArcWeight(arc), 1e-3);
+            }
+        }
+        // Close to the requested degree; the border loses a little
+        double degree = (double) graph.getArcCount() / graph.getNodeCount();
+        assertTrue("average degree " + degree, degree > 7 && degree < 8.5);
+    }
+
+    @Test
+    public void barabasiAlbert_growsHubs() {
+        OffHeapGraph graph = GraphGenerators.barabasiAlbert(20000, 3, 20, 4);
+        assertEquals(2 * (20000 - 3) * 3, graph.getArcCount());
+        int maxDegree = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            maxDegree = Math.max(maxDegree, graph.getArcEnd(node) - graph.getFirstArc(node));
+            // No node joins itself
+            for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                assertNotEquals(node, graph.getArcTarget(arc));
+            }
+        }
+        // Preferential attachment gives hubs far above the average degree of 6; uniform picks wouldn't
+        assertTrue("max degree " + maxDegree, maxDegree > 100);
+    }
+
+    @Test
+    public void toGraph_keepsDistances() {
+        OffHeapGraph generated = GraphGenerators.erdosRenyi(800, 2000, 20, 6);
+        Graph graph = GraphGenerators.toGraph(generated);
+        assertEquals(2000, graph.getEdges().size());
+        assertEquals(generated.getArcCount(), graph.getArcCount());
+        ShortestPathEngine expected = new ShortestPathEngine(generated);
+        ShortestPathEngine actual = new ShortestPathEngine(graph);
+        expected.run(0);
+        actual.run(0);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(expected.getDistance(node), actual.getDistance(node), 0);
+        }
+    }
+
+    private static void assertSameGraph(IndexedGraph expected, IndexedGraph actual) {
+        assertEquals(expected.getNodeCount(), actual.getNodeCount());
+        assertEquals(expected.getArcCount(), actual.getArcCount());
+        for (int node = 0; node < expected.getNodeCount(); node++) {
+            assertEquals(expected.getNodeX(node), actual.getNodeX(node), 0);
+            assertEquals(expected.getFirstArc(node), actual.getFirstArc(node));
+        }
+        for (int arc = 0; arc < expected.getArcCount(); arc++) {
+            assertEquals(expected.getArcTarget(arc), actual.getArcTarget(arc));
+            assertEquals(expected.getArcWeight(arc), actual.getArcWeight(arc), 0);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.dijkstravisualizerapp.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("graph", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void writeAndRead_roundTrips() throws IOException {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> nodes = graph.getNodes();
+        nodes.get(3).setX(12.5f);
+        nodes.get(3).setY(-4);
+        // A directed edge, and a label longer than the write buffer
+        StringBuilder label = new StringBuilder();
+        while (label.length() < 100_000) label.append("Zürich ");
+        Node extra = new Node(1, 2, label.toString());
+        graph.addEdge(new Edge(nodes.get(9), extra, 2.25, true));
+        graph.setStartAndTarget(nodes.get(2), extra);
+        // Node state as a shown result leaves it
+        nodes.get(5).setDistance(7);
+        nodes.get(5).setVisited(true);
+        nodes.get(5).setPrevious(nodes.get(2));
+
+        graph.writeTo(file);
+        Graph read = Graph.readFrom(file);
+        assertEquals(graph.getNodeCount(), read.getNodeCount());
+        assertEquals(graph.getEdges().size(), read.getEdges().size());
+        assertEquals(2, read.getStartNode().getId());
+        assertEquals(extra.getId(), read.getTargetNode().getId());
+        for (int id = 0; id < graph.getNodeCount(); id++) {
+            Node expected = graph.getNodes().get(id), actual = read.getNodes().get(id);
+            assertEquals(expected.getLabel(), actual.getLabel());
+            assertEquals(expected.getX(), actual.getX(), 0);
+            assertEquals(expected.getY(), actual.getY(), 0);
+            assertEquals(expected.getDistance(), actual.getDistance(), 0);
+            assertEquals(expected.isVisited(), actual.isVisited());
+            assertEquals(expected.getPrevious() == null ? -1 : expected.getPrevious().getId(),
+                    actual.getPrevious() == null ? -1 : actual.getPrevious().getId());
+        }
+        for (int i = 0; i < graph.getEdges().size(); i++) {
+            Edge expected = graph.getEdges().get(i), actual = read.getEdges().get(i);
+            assertEquals(expected.getSource().getId(), actual.getSource().getId());
+            assertEquals(expected.getDestination().getId(), actual.getDestination().getId());
+            assertEquals(expected.getWeight(), actual.getWeight(), 0);
+            assertEquals(expected.isDirected(), actual.isDirected());
+        }
+        // The arc index is rebuilt the same way
+        for (int arc = 0; arc < graph.getArcCount(); arc++) {
+            assertEquals(graph.getArcTarget(arc), read.getArcTarget(arc));
+        }
+    }
+
+    @Test
+    public void copy_matchesAndSharesNothing() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> nodes = graph.getNodes();
+        graph.setStartAndTarget(nodes.get(1), nodes.get(8));
+        nodes.get(4).setDistance(3);
+        nodes.get(4).setPrevious(nodes.get(1));
+
+        Graph copy = graph.copy();
+        assertEquals(1, copy.getStartNode().getId());
+        assertEquals(8, copy.getTargetNode().getId());
+        Node copied = copy.getNodes().get(4);
+        assertNotSame(nodes.get(4), copied);
+        assertEquals(3, copied.getDistance(), 0);
+        assertSame(copy.getNodes().get(1), copied.getPrevious());
+        assertEquals(graph.getArcCount(), copy.getArcCount());
+        for (int arc = 0; arc < graph.getArcCount(); arc++) {
+            assertEquals(graph.getArcTarget(arc), copy.getArcTarget(arc));
+            assertEquals(graph.getArcWeight(arc), copy.getArcWeight(arc), 0);
+            assertTrue(copy.contains(copy.getArcEdge(arc)));
+        }
+    }
+
+    @Test
+    public void addNode_rejectsANodeOfAnotherGraph() {
+        Graph graph = Graph.createHardcodedGraph();
+        Node node = graph.getNodes().get(4);
+        try {
+            new Graph().addNode(node);
+            fail("Added a node of another graph");
+        } catch (IllegalArgumentException expected) {
+            // The node keeps its id, and its graph still finds it
+        }
+        assertEquals(4, node.getId());
+        assertTrue(graph.contains(node));
+        // Adding it to its own graph again changes nothing
+        graph.addNode(node);
+        assertEquals(10, graph.getNodeCount());
+    }
+
+    @Test
+    public void addEdge_rejectsAnEdgeOfAnotherGraph() {
+        Graph graph = Graph.createHardcodedGraph();
+        Edge edge = graph.getEdges().get(7);
+        Graph other = new Graph();
+        try {
+            other.addEdge(edge);
+            fail("Added an edge of another graph");
+        } catch (IllegalArgumentException expected) {
+            // Nothing was added
+        }
+        assertTrue(graph.contains(edge));
+        assertEquals(0, other.getEdges().size());
+
+        // A new edge between nodes of another graph fails before it is added
+        try {
+            other.addEdge(new Edge(graph.getNodes().get(0), graph.getNodes().get(1), 1));
+            fail("Added an edge between nodes of another graph");
+        } catch (IllegalArgumentException expected) {
+            // Nothing was added
+        }
+        assertEquals(0, other.getEdges().size());
+        assertEquals(0, other.getNodeCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsATruncatedFile() throws IOException {
+        Graph.createHardcodedGraph().writeTo(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        Graph.readFrom(file);
+    }
+
+    @Test
+    public void readFrom_rejectsCorruptIdsAndLabelLengths() throws IOException {
+        Graph graph = Graph.createHardcodedGraph();
+        graph.writeTo(file);
+        long edges = file.length() - 17L * graph.getEdges().size();
+        // The start id, the first node's previous id and label length, and an edge's destination
+        assertCorruptAt(20, 10);
+        assertCorruptAt(40, -2);
+        assertCorruptAt(45, -1);
+        assertCorruptAt(45, Integer.MAX_VALUE);
+        assertCorruptAt(45, (int) file.length());
+        assertCorruptAt(edges + 17 * 3 + 4, 10);
+        assertCorruptAt(edges + 4, -1);
+    }
+
+    // Writes the value over the int at the offset, expects loading to fail, and puts the old value back
+    private void assertCorruptAt(long offset, int value) throws IOException {
+        ByteBuffer original = ByteBuffer.allocate(4);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.readFully(original.array());
+            raf.seek(offset);
+            raf.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+        }
+        try {
+            Graph.readFrom(file);
+            fail("Loaded a file with " + value + " at " + offset);
+        } catch (IOException expected) {
+            // Rejected instead of failing with an unchecked exception
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.write(original.array());
+        }
+        Graph.readFrom(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsOtherFiles() throws IOException {
+        OffHeapGraph.copyOf(Graph.createHardcodedGraph()).writeTo(file);
+        Graph.readFrom(file);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.dijkstravisualizerapp.model;
+
+import com.example.dijkstravisualizerapp.algorithm.DijkstraAlgorithm;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NodeOrderTest {
+    private static final int SIDE = 300;
+    private static final int ROUNDS = 5;
+    private static final int SEARCHES = 6;
+
+    @Test
+    public void orders_arePermutations() {
+        Graph graph = jitteredGrid(40, new Random(1));
+        graph.addNode(new Node(-5, -5, "isolated"));
+        for (int[] order : new int[][] { NodeOrder.reverseCuthillMcKee(graph), NodeOrder.hilbert(graph) }) {
+            assertEquals(graph.getNodeCount(), order.length);
+            NodeOrder.inverse(order);  // Throws unless every node appears once
+        }
+    }
+
+    @Test
+    public void reorderedGraph_keepsDistances() {
+        Graph graph = jitteredGrid(30, new Random(2));
+        ReorderedGraph reordered = new ReorderedGraph(graph, NodeOrder.reverseCuthillMcKee(graph));
+        ShortestPathEngine expected = new ShortestPathEngine(graph);
+        ShortestPathEngine actual = new ShortestPathEngine(reordered);
+        for (int source = 0; source < graph.getNodeCount(); source += 37) {
+            expected.run(source);
+            actual.run(reordered.getNode(source));
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(expected.getDistance(node), actual.getDistance(reordered.getNode(node)), 0);
+                int arc = actual.getPreviousArc(reordered.getNode(node));
+                if (arc >= 0) assertEquals(node, graph.getArcTarget(reordered.getOriginalArc(arc)));
+            }
+        }
+    }
+
+    @Test
+    public void graphReorder_keepsNodesAndLabels() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Node> before = new ArrayList<>(graph.getNodes());
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        engine.run(graph.getStartNode().getId());
+        double[] distances = new double[graph.getNodeCount()];
+        for (int id = 0; id < distances.length; id++) distances[id] = engine.getDistance(id);
+
+        int[] order = NodeOrder.reverseCuthillMcKee(graph);
+        graph.reorder(order);
+        for (int newId = 0; newId < order.length; newId++) {
+            Node node = graph.getNodes().get(newId);
+            assertSame(before.get(order[newId]), node);
+            assertEquals(newId, node.getId());
+        }
+        assertEquals("0", graph.getStartNode().getLabel());
+
+        engine = new ShortestPathEngine(graph);
+        engine.run(graph.getStartNode().getId());
+        for (int id = 0; id < distances.length; id++) {
+            assertEquals(distances[id], engine.getDistance(before.get(id).getId()), 0);
+        }
+        assertEquals(distances[9], cost(new DijkstraAlgorithm(graph)), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void graphReorder_rejectsNonPermutations() {
+        Graph graph = Graph.createHardcodedGraph();
+        int[] order = new int[graph.getNodeCount()];
+        graph.reorder(order);
+    }
+
+    @Test
+    public void orders_reportSearchTimings() {
+        Graph grid = jitteredGrid(SIDE, new Random(42));
+        // Imported graphs come in no useful order; model that with a random one
+        int[] shuffle = new int[grid.getNodeCount()];
+        for (int i = 0; i < shuffle.length; i++) shuffle[i] = i;
+        Random random = new Random(5);
+        for (int i = shuffle.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffle[i];
+            shuffle[i] = shuffle[j];
+            shuffle[j] = swap;
+        }
+        ReorderedGraph shuffled = new ReorderedGraph(grid, shuffle);
+
+        long start = System.nanoTime();
+        int[] rcmOrder = NodeOrder.reverseCuthillMcKee(shuffled);
+        long rcmNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        int[] hilbertOrder = NodeOrder.hilbert(shuffled);
+        long hilbertNanos = System.nanoTime() - start;
+        ReorderedGraph rcm = new ReorderedGraph(shuffled, rcmOrder);
+        ReorderedGraph hilbert = new ReorderedGraph(shuffled, hilbertOrder);
+
+        System.out.printf("Node order benchmark (%d nodes, %d searches, best of %d):%n",
+                grid.getNodeCount(), SEARCHES, ROUNDS);
+        System.out.printf("  Insertion order:        %8.2f ms, mean arc span %8.0f%n",
+                time(shuffled, shuffled, null) / 1e6, meanSpan(shuffled));
+        System.out.printf("  Reverse Cuthill-McKee:  %8.2f ms, mean arc span %8.0f (ordering took %.2f ms)%n",
+                time(rcm, shuffled, rcm) / 1e6, meanSpan(rcm), rcmNanos / 1e6);
+        System.out.printf("  Hilbert curve:          %8.2f ms, mean arc span %8.0f (ordering took %.2f ms)%n",
+                time(hilbert, shuffled, hilbert) / 1e6, meanSpan(hilbert), hilbertNanos / 1e6);
+        assertTrue(meanSpan(rcm) < meanSpan(shuffled) / 10);
+        assertTrue(meanSpan(hilbert) < meanSpan(shuffled) / 10);
+    }
+
+    // Best time of a batch of full searches, checking them against the unordered graph
+    private static long time(IndexedGraph graph, IndexedGraph reference, ReorderedGraph mapping) {
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        ShortestPathEngine expected = new ShortestPathEngine(reference);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int search = 0; search < SEARCHES; search++) {
+                int source = search * 7919 % reference.getNodeCount();
+                engine.run(mapping != null ? mapping.getNode(source) : source);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int source = (SEARCHES - 1) * 7919 % reference.getNodeCount();
+        expected.run(source);
+        for (int node = 0; node < reference.getNodeCount(); node += 101) {
+            assertEquals(expected.getDistance(node), engine.getDistance(mapping != null ? mapping.getNode(node) : node), 0);
+        }
+        return best;
+    }
+
+    // How far apart, on average, the ids at the two ends of an arc are
+    private static double meanSpan(IndexedGraph graph) {
+        long total = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getArcEnd(node); arc++) {
+                total += Math.abs(graph.getArcTarget(arc) - node);
+            }
+        }
+        return (double) total / graph.getArcCount();
+    }
+
+    private static double cost(DijkstraAlgorithm algorithm) {
+        algorithm.run();
+        double cost = 0;
+        for (Edge edge : algorithm.getFinalPath()) cost += edge.getWeight();
+        return cost;
+    }
+
+    // A grid with slightly displaced nodes, like a small road map
+    private static Graph jitteredGrid(int side, Random random) {
+        Graph graph = new Graph();
+        for (int i = 0; i < side * side; i++) {
+            graph.addNode(new Node(i % side + random.nextFloat() * 0.6f, i / side + random.nextFloat() * 0.6f, String.valueOf(i)));
+        }
+        List<Node> nodes = graph.getNodes();
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int id = y * side + x;
+                if (x + 1 < side) graph.addEdge(new Edge(nodes.get(id), nodes.get(id + 1), 1 + random.nextInt(9)));
+                if (y + 1 < side) graph.addEdge(new Edge(nodes.get(id), nodes.get(id + side), 1 + random.nextInt(9)));
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.dijkstravisualizerapp.model;
+
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+
+    @Test
+    public void copyOf_keepsArcsAndCoordinates() {
+        Graph graph = Graph.createHardcodedGraph();
+        graph.getNodes().get(3).setX(12.5f);
+        OffHeapGraph offHeap = OffHeapGraph.copyOf(graph);
+
+        assertEquals(graph.getNodeCount(), offHeap.getNodeCount());
+        assertEquals(graph.getArcCount(), offHeap.getArcCount());
+        assertEquals(12.5f, offHeap.getNodeX(3), 0);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(graph.getFirstArc(node), offHeap.getFirstArc(node));
+            assertEquals(graph.getArcEnd(node), offHeap.getArcEnd(node));
+        }
+        for (int arc = 0; arc < graph.getArcCount(); arc++) {
+            assertEquals(graph.getArcTarget(arc), offHeap.getArcTarget(arc));
+            assertEquals(graph.getArcWeight(arc), offHeap.getArcWeight(arc), 0);
+        }
+    }
+
+    @Test
+    public void builder_matchesGraphDistances() {
+        Graph graph = Graph.createHardcodedGraph();
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(graph.getNodeCount(), 4);
+        for (Edge edge : graph.getEdges()) {
+            builder.addEdge(edge.getSource().getId(), edge.getDestination().getId(), edge.getWeight());
+        }
+        assertSameDistances(graph, builder.build());
+    }
+
+    @Test
+    public void writeAndMap_roundTrips() throws IOException {
+        Graph graph = Graph.createHardcodedGraph();
+        File file = File.createTempFile("graph", ".bin");
+        try {
+            OffHeapGraph.copyOf(graph).writeTo(file);
+            assertSameDistances(graph, OffHeapGraph.map(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsUnknownNodes() {
+        new OffHeapGraph.Builder(2, 1).addEdge(0, 2, 1);
+    }
+
+    private static void assertSameDistances(IndexedGraph expected, IndexedGraph actual) {
+        ShortestPathEngine expectedEngine = new ShortestPathEngine(expected);
+        ShortestPathEngine actualEngine = new ShortestPathEngine(actual);
+        for (int source = 0; source < expected.getNodeCount(); source++) {
+            expectedEngine.run(source);
+            actualEngine.run(source);
+            for (int node = 0; node < expected.getNodeCount(); node++) {
+                assertEquals(expectedEngine.getDistance(node), actualEngine.getDistance(node), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.dijkstravisualizerapp.model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest {
+    private static final int BENCHMARK_NODES = 100_000;
+    private static final int LOOKUPS = 100_000;
+
+    @Test
+    public void nearest_matchesBruteForce() {
+        Random random = new Random(1);
+        Graph graph = scatteredGraph(5000, 1000, random);
+        SpatialIndex index = new SpatialIndex(graph);
+        for (int i = 0; i < 2000; i++) {
+            // Some queries fall outside the nodes' bounding box
+            float x = random.nextFloat() * 1200 - 100, y = random.nextFloat() * 1200 - 100;
+            float radius = i % 2 == 0 ? 15 : Float.MAX_VALUE;
+            assertEquals(bruteForce(graph, x, y, radius), index.nearest(x, y, radius));
+        }
+    }
+
+    @Test
+    public void move_keepsLookupsExact() {
+        Random random = new Random(2);
+        Graph graph = scatteredGraph(2000, 500, random);
+        SpatialIndex index = new SpatialIndex(graph);
+        for (int i = 0; i < 3000; i++) {
+            Node node = graph.getNodes().get(random.nextInt(graph.getNodeCount()));
+            // Some moves leave the area the grid was built for
+            node.setX(random.nextFloat() * 900 - 200);
+            node.setY(random.nextFloat() * 900 - 200);
+            index.move(node.getId(), node.getX(), node.getY());
+            float x = random.nextFloat() * 900 - 200, y = random.nextFloat() * 900 - 200;
+            assertEquals(bruteForce(graph, x, y, 40), index.nearest(x, y, 40));
+        }
+        index.rebuild();
+        assertEquals(bruteForce(graph, 250, 250, Float.MAX_VALUE), index.nearest(250, 250, Float.MAX_VALUE));
+    }
+
+    @Test
+    public void degenerateLayouts_work() {
+        Graph line = new Graph();
+        for (int i = 0; i < 100; i++) line.addNode(new Node(i * 10, 50, String.valueOf(i)));
+        SpatialIndex index = new SpatialIndex(line);
+        assertEquals(42, index.nearest(421, 80, 100));
+        assertEquals(-1, index.nearest(421, 80, 20));
+
+        Graph stacked = new Graph();
+        for (int i = 0; i < 10; i++) stacked.addNode(new Node(5, 5, String.valueOf(i)));
+        // Equally near nodes resolve to the lowest id
+        assertEquals(0, new SpatialIndex(stacked).nearest(6, 6, 10));
+        assertEquals(-1, new SpatialIndex(new Graph()).nearest(0, 0, Float.MAX_VALUE));
+    }
+
+    @Test
+    public void nearest_reportsLookupTimings() {
+        Random random = new Random(3);
+        Graph graph = scatteredGraph(BENCHMARK_NODES, 10_000, random);
+        long start = System.nanoTime();
+        SpatialIndex index = new SpatialIndex(graph);
+        long buildNanos = System.nanoTime() - start;
+
+        float[] xs = new float[LOOKUPS], ys = new float[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            xs[i] = random.nextFloat() * 10_000;
+            ys[i] = random.nextFloat() * 10_000;
+        }
+        long best = Long.MAX_VALUE;
+        int found = 0;
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (index.nearest(xs[i], ys[i], 60) >= 0) found++;
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        start = System.nanoTime();
+        int scans = 200;
+        for (int i = 0; i < scans; i++) found += bruteForce(graph, xs[i], ys[i], 60) >= 0 ? 1 : 0;
+        long scanNanos = System.nanoTime() - start;
+
+        double lookupMicros = best / 1e3 / LOOKUPS;
+        System.out.printf("Spatial index benchmark (%d nodes, %d lookups, best of 3):%n", BENCHMARK_NODES, LOOKUPS);
+        System.out.printf("  Build:        %8.2f ms%n", buildNanos / 1e6);
+        System.out.printf("  Grid lookup:  %8.3f us each%n", lookupMicros);
+        System.out.printf("  Linear scan:  %8.3f us each%n", scanNanos / 1e3 / scans);
+        assertTrue(found > 0);
+        assertTrue(lookupMicros < 1000);
+    }
+
+    private static int bruteForce(Graph graph, float x, float y, float maxDistance) {
+        int best = -1;
+        double bestSquared = (double) maxDistance * maxDistance;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            double dx = graph.getNodeX(node) - x, dy = graph.getNodeY(node) - y;
+            double squared = dx * dx + dy * dy;
+            if (squared < bestSquared || (squared == bestSquared && best < 0)) {
+                best = node;
+                bestSquared = squared;
+            }
+        }
+        return best;
+    }
+
+    // Nodes spread over a square, half of them in a few dense clusters
+    private static Graph scatteredGraph(int nodeCount, float side, Random random) {
+        Graph graph = new Graph();
+        for (int i = 0; i < nodeCount; i++) {
+            float x, y;
+            if (i % 2 == 0) {
+                x = random.nextFloat() * side;
+                y = random.nextFloat() * side;
+            } else {
+                int cluster = i % 5;
+                x = side * (0.2f + 0.15f * cluster) + (float) random.nextGaussian() * side / 100;
+                y = side * (0.8f - 0.15f * cluster) + (float) random.nextGaussian() * side / 100;
+            }
+            graph.addNode(new Node(x, y, String.valueOf(i)));
+        }
+        return graph;
+    }
+}
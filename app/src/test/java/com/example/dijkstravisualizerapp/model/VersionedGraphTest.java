@@ -0,0 +1,139 @@
+package com.example.dijkstravisualizerapp.model;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.algorithm.BinaryHeapFrontier;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class VersionedGraphTest {
+
+    @Test
+    public void publish_copiesOnlyTheChangedBlocks() {
+        Graph graph = TestGraphs.grid(60, new Random(1));
+        VersionedGraph versioned = new VersionedGraph(graph);
+        GraphSnapshot first = versioned.pin();
+        GraphSnapshot second;
+        try (VersionedGraph.Editor editor = versioned.edit()) {
+            editor.setArcWeight(5, 100);
+            second = editor.publish();
+        }
+
+        assertEquals(0, first.getVersion());
+        assertEquals(1, second.getVersion());
+        assertSame(second, versioned.current());
+        assertEquals(graph.getArcWeight(5), first.getArcWeight(5), 0);
+        assertEquals(100, second.getArcWeight(5), 0);
+        assertNotSame(first.weightBlocks()[0], second.weightBlocks()[0]);
+        for (int block = 1; block < first.weightBlocks().length; block++) {
+            assertSame(first.weightBlocks()[block], second.weightBlocks()[block]);
+        }
+        versioned.unpin(first);
+    }
+
+    @Test
+    public void close_withoutPublishing_dropsTheChanges() {
+        VersionedGraph versioned = new VersionedGraph(Graph.createHardcodedGraph());
+        try (VersionedGraph.Editor editor = versioned.edit()) {
+            editor.setWeight(0, 1, 1);
+        }
+        assertEquals(0, versioned.current().getVersion());
+        assertEquals(Graph.createHardcodedGraph().getArcWeight(0), versioned.current().getArcWeight(0), 0);
+    }
+
+    @Test
+    public void replacedVersions_areReclaimedOnceUnpinned() {
+        VersionedGraph versioned = new VersionedGraph(TestGraphs.grid(40, new Random(2)));
+        GraphSnapshot pinned = versioned.pin();
+        double[] firstBlock = versioned.current().weightBlocks()[0];
+        double[] secondBlock = publish(versioned, 0, 50).weightBlocks()[0];
+        publish(versioned, 1, 50);
+        // Version 0 is still pinned, so it and every later replaced version stay
+        assertEquals(3, versioned.getRetainedVersionCount());
+        assertEquals(versioned.current().getArcWeight(3), pinned.getArcWeight(3), 0);
+
+        versioned.unpin(pinned);
+        assertEquals(1, versioned.getRetainedVersionCount());
+        // A block only the reclaimed versions used is recycled for the next copy
+        GraphSnapshot next = publish(versioned, 0, 70);
+        double[] recycled = next.weightBlocks()[0];
+        assertTrue(recycled == firstBlock || recycled == secondBlock);
+        assertEquals(70, next.getArcWeight(0), 0);
+        assertEquals(50, next.getArcWeight(1), 0);
+    }
+
+    @Test
+    public void queries_seeConsistentVersionsWhileWritersUpdate() throws InterruptedException {
+        Graph graph = TestGraphs.grid(40, new Random(3));
+        VersionedGraph versioned = new VersionedGraph(graph);
+        int arcCount = graph.getArcCount();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // Every version scales all weights by one factor, so each has a known distance
+        Thread writer = new Thread(() -> {
+            for (int version = 1; running.get(); version++) {
+                int factor = 1 + version % 5;
+                try (VersionedGraph.Editor editor = versioned.edit()) {
+                    for (int arc = 0; arc < arcCount; arc++) {
+                        editor.setArcWeight(arc, graph.getArcWeight(arc) * factor);
+                    }
+                    editor.publish();
+                }
+            }
+        });
+        ShortestPathEngine reference = new ShortestPathEngine(graph);
+        double baseDistance = reference.run(0, graph.getNodeCount() - 1);
+
+        int readerCount = 4;
+        CountDownLatch done = new CountDownLatch(readerCount);
+        for (int r = 0; r < readerCount; r++) {
+            new Thread(() -> {
+                try (VersionedGraph.Reader reader = versioned.newReader()) {
+                    ShortestPathEngine engine = new ShortestPathEngine(reader, new BinaryHeapFrontier(reader.getNodeCount()));
+                    for (int query = 0; query < 300; query++) {
+                        GraphSnapshot snapshot = reader.pin();
+                        double factor = snapshot.getArcWeight(0) / graph.getArcWeight(0);
+                        double distance = engine.run(0, graph.getNodeCount() - 1);
+                        assertEquals(baseDistance * factor, distance, 1e-9);
+                        reader.unpin();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        writer.start();
+        done.await();
+        running.set(false);
+        writer.join();
+
+        if (failure.get() != null) throw new AssertionError(failure.get());
+        assertTrue(versioned.current().getVersion() > 0);
+        assertEquals(1, versioned.getRetainedVersionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setArcWeight_rejectsNegativeWeights() {
+        VersionedGraph versioned = new VersionedGraph(Graph.createHardcodedGraph());
+        try (VersionedGraph.Editor editor = versioned.edit()) {
+            editor.setArcWeight(0, -1);
+        }
+    }
+
+    private static GraphSnapshot publish(VersionedGraph versioned, int arc, double weight) {
+        try (VersionedGraph.Editor editor = versioned.edit()) {
+            editor.setArcWeight(arc, weight);
+            return editor.publish();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.dijkstravisualizerapp.service;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+import com.example.dijkstravisualizerapp.model.IndexedGraph;
+import com.example.dijkstravisualizerapp.model.Node;
+
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class QueryServerTest {
+    private static final int CLIENTS = 8;
+    private static final int QUERIES_PER_CLIENT = 250;
+    private static final int LINE_LENGTH = 10_000;
+
+    @Test
+    public void answers_matchTheEngine() throws Exception {
+        Graph graph = TestGraphs.grid(50, new Random(1));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        Random random = new Random(2);
+        int[] sources = new int[200];
+        int[] targets = new int[200];
+        for (int i = 0; i < sources.length; i++) {
+            // Few distinct sources, so batches hold queries that share a search
+            sources[i] = random.nextInt(5) * 401;
+            targets[i] = random.nextInt(graph.getNodeCount());
+        }
+
+        try (QueryServer server = new QueryServer(graph); QueryClient client = new QueryClient(server.start(0))) {
+            QueryClient.Result[] results = client.queryAll(sources, targets);
+            for (int i = 0; i < results.length; i++) {
+                assertTrue(results[i].isReachable());
+                assertEquals(engine.run(sources[i], targets[i]), results[i].getDistance(), 0);
+                assertArrayEquals(engine.getPath(targets[i]), results[i].getPath());
+            }
+        }
+    }
+
+    @Test
+    public void unreachableAndUnknownNodes_getTheirStatus() throws Exception {
+        Graph graph = TestGraphs.grid(4, new Random(3));
+        graph.addNode(new Node(10, 10, "isolated"));
+        try (QueryServer server = new QueryServer(graph); QueryClient client = new QueryClient(server.start(0))) {
+            QueryClient.Result unreachable = client.query(0, 16);
+            assertFalse(unreachable.isReachable());
+            assertFalse(unreachable.isBadNode());
+            assertEquals(0, unreachable.getPath().length);
+
+            assertTrue(client.query(0, 17).isBadNode());
+            assertTrue(client.query(-1, 3).isBadNode());
+            // A bad query in a batch doesn't disturb the others from the same source
+            QueryClient.Result[] mixed = client.queryAll(new int[] { 0, 0 }, new int[] { 99, 15 });
+            assertTrue(mixed[0].isBadNode());
+            assertTrue(mixed[1].isReachable());
+        }
+    }
+
+    @Test
+    public void malformedFrame_closesOnlyItsConnection() throws Exception {
+        Graph graph = TestGraphs.grid(4, new Random(4));
+        try (QueryServer server = new QueryServer(graph)) {
+            int port = server.start(0);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeInt(1 << 20);
+                out.flush();
+                try {
+                    new DataInputStream(socket.getInputStream()).readByte();
+                    fail("The connection should have been closed");
+                } catch (EOFException expected) {
+                    // Closed by the server
+                }
+            }
+            try (QueryClient client = new QueryClient(port)) {
+                assertTrue(client.query(0, 15).isReachable());
+                assertEquals(1, client.stats().get("rejected_frames"), 0);
+            }
+        }
+    }
+
+    @Test
+    public void failingSearch_isAnsweredWithAnError() throws Exception {
+        Graph graph = TestGraphs.grid(4, new Random(6));
+        // Searching from node 5 throws, as a bug in an engine would
+        IndexedGraph failing = new IndexedGraph() {
+            @Override public int getNodeCount() { return graph.getNodeCount(); }
+            @Override public int getArcCount() { return graph.getArcCount(); }
+            @Override public int getFirstArc(int node) {
+                if (node == 5) throw new IllegalStateException("Broken node");
+                return graph.getFirstArc(node);
+            }
+            @Override public int getArcEnd(int node) { return graph.getArcEnd(node); }
+            @Override public int getArcTarget(int arc) { return graph.getArcTarget(arc); }
+            @Override public double getArcWeight(int arc) { return graph.getArcWeight(arc); }
+            @Override public float getNodeX(int node) { return graph.getNodeX(node); }
+            @Override public float getNodeY(int node) { return graph.getNodeY(node); }
+        };
+        try (QueryServer server = new QueryServer(failing)) {
+            // One worker, so the next answers show it survived
+            server.setWorkerCount(1);
+            try (QueryClient client = new QueryClient(server.start(0))) {
+                QueryClient.Result failed = client.query(5, 0);
+                assertTrue(failed.isError());
+                assertFalse(failed.isReachable());
+                assertEquals(0, failed.getPath().length);
+                // Node 5 isn't the source here, and is only reached once the target is settled
+                assertTrue(client.query(0, 1).isReachable());
+                assertEquals(1, client.stats().get("failed_batches"), 0);
+            }
+        }
+    }
+
+    @Test
+    public void slowReader_pausesItsConnection() throws Exception {
+        // A line, so every answer carries a path of thousands of nodes
+        Graph graph = new Graph();
+        for (int i = 0; i < LINE_LENGTH; i++) graph.addNode(new Node(i, 0, String.valueOf(i)));
+        List<Node> nodes = graph.getNodes();
+        for (int i = 1; i < LINE_LENGTH; i++) graph.addEdge(new Edge(nodes.get(i - 1), nodes.get(i), 1));
+        int queries = 2000;
+        try (QueryServer server = new QueryServer(graph)) {
+            server.setMaxInFlight(4);
+            int port = server.start(0);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                for (int i = 0; i < queries; i++) {
+                    out.writeInt(13);
+                    out.writeByte(QueryServer.QUERY);
+                    out.writeInt(i);
+                    out.writeInt(0);
+                    out.writeInt(LINE_LENGTH - 1);
+                }
+                out.flush();
+
+                // Far more answer bytes than the socket buffers hold, so the server stops answering
+                Thread.sleep(1000);
+                long answered = server.getStats().snapshot().getQueries();
+                Thread.sleep(500);
+                assertEquals(answered, server.getStats().snapshot().getQueries());
+                assertTrue("Answered " + answered, answered < queries);
+
+                // Reading on lets every query through, each answered once
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                boolean[] seen = new boolean[queries];
+                for (int i = 0; i < queries; i++) {
+                    int length = in.readInt();
+                    assertEquals(QueryServer.QUERY, in.readByte());
+                    int requestId = in.readInt();
+                    assertFalse(seen[requestId]);
+                    seen[requestId] = true;
+                    assertEquals(QueryServer.OK, in.readByte());
+                    assertEquals(LINE_LENGTH - 1, in.readDouble(), 0);
+                    assertEquals(LINE_LENGTH, in.readInt());
+                    in.skipBytes(length - 18);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void concurrentClients_areBatched() throws Exception {
+        Graph graph = TestGraphs.grid(100, new Random(5));
+        try (QueryServer server = new QueryServer(graph)) {
+            server.setWorkerCount(2);
+            int port = server.start(0);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(CLIENTS);
+            long start = System.nanoTime();
+            for (int c = 0; c < CLIENTS; c++) {
+                int seed = c;
+                new Thread(() -> {
+                    Random random = new Random(seed);
+                    int[] sources = new int[QUERIES_PER_CLIENT];
+                    int[] targets = new int[QUERIES_PER_CLIENT];
+                    // Queries from a few dozen depots, so some in each batch share a search
+                    for (int i = 0; i < sources.length; i++) {
+                        sources[i] = random.nextInt(32) * 311;
+                        targets[i] = random.nextInt(graph.getNodeCount());
+                    }
+                    try (QueryClient client = new QueryClient(port)) {
+                        for (QueryClient.Result result : client.queryAll(sources, targets)) {
+                            assertTrue(result.isReachable());
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            if (failure.get() != null) throw new AssertionError(failure.get());
+
+            Map<String, Double> stats;
+            try (QueryClient client = new QueryClient(port)) {
+                stats = client.stats();
+            }
+            System.out.printf("Query server benchmark (%d nodes, %d clients x %d pipelined queries):%n",
+                    graph.getNodeCount(), CLIENTS, QUERIES_PER_CLIENT);
+            System.out.printf("  %8.0f queries/s, mean batch %.1f, latency p50 %.0f us, p90 %.0f us, p99 %.0f us%n",
+                    CLIENTS * QUERIES_PER_CLIENT * 1e9 / elapsed, stats.get("mean_batch_size"),
+                    stats.get("latency_p50_us"), stats.get("latency_p90_us"), stats.get("latency_p99_us"));
+            assertEquals(CLIENTS * QUERIES_PER_CLIENT, stats.get("queries"), 0);
+            assertEquals(CLIENTS + 1, stats.get("connections"), 0);
+            assertTrue(stats.get("batches") < stats.get("queries"));
+            assertTrue(stats.get("latency_p50_us") <= stats.get("latency_p99_us"));
+        }
+    }
+
+    @Test
+    public void percentiles_comeFromTheHistogram() {
+        ServiceStats stats = new ServiceStats();
+        long[] latencies = new long[100];
+        for (int i = 0; i < latencies.length; i++) latencies[i] = (i + 1) * 1000L;
+        stats.recordBatch(latencies, latencies.length);
+        ServiceStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(50_000, snapshot.getLatencyPercentileNanos(50), 50_000 / 8);
+        assertEquals(99_000, snapshot.getLatencyPercentileNanos(99), 99_000 / 8);
+        assertEquals(100_000, snapshot.getLatencyPercentileNanos(100));
+    }
+}
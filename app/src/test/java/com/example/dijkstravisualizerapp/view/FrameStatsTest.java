@@ -0,0 +1,56 @@
+package com.example.dijkstravisualizerapp.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameStatsTest {
+    private static final long FRAME = 1_000_000_000L / 60;
+
+    @Test
+    public void frameGaps_countDroppedFrames() {
+        FrameStats stats = new FrameStats();
+        stats.recordFrameInterval(FRAME);
+        stats.recordFrameInterval(FRAME + FRAME / 3);  // Late, but not a missed frame
+        stats.recordFrameInterval(2 * FRAME);
+        stats.recordFrameInterval(5 * FRAME);
+        assertEquals(1 + 4, stats.getDroppedFrames());
+
+        stats.setRefreshRate(120);
+        stats.recordFrameInterval(FRAME);
+        assertEquals(6, stats.getDroppedFrames());
+        stats.reset();
+        assertEquals(0, stats.getDroppedFrames());
+        assertEquals(0, stats.getFrameIntervals().getCount());
+    }
+
+    @Test
+    public void report_listsEveryMeasurement() {
+        FrameStats stats = new FrameStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.recordDraw(i * 100_000L, i % 3);
+            stats.recordStep(i * 10_000L);
+        }
+        stats.recordDraw(1_000_000L, -1);  // Allocations not counted
+        assertEquals(101, stats.getDrawNanos().getCount());
+        assertEquals(100, stats.getDrawAllocations().getCount());
+        assertEquals(10_000_000L, stats.getDrawNanos().getMax());
+
+        String report = stats.report();
+        assertTrue(report.contains("Draw time (ms):"));
+        assertTrue(report.contains("Step apply time (ms):"));
+        assertTrue(report.contains("Allocations per draw:"));
+        assertTrue(report.contains("Dropped frames: 0 of 0"));
+    }
+
+    @Test
+    public void overlayLines_areRebuiltAtMostTwiceASecond() {
+        FrameStats stats = new FrameStats();
+        stats.recordDraw(2_000_000L, 0);
+        String[] first = stats.getOverlayLines(0);
+        assertTrue(first[0].startsWith("draw ms"));
+        stats.recordDraw(9_000_000L, 0);
+        assertSame(first, stats.getOverlayLines(100_000_000L));
+        assertNotSame(first, stats.getOverlayLines(600_000_000L));
+    }
+}
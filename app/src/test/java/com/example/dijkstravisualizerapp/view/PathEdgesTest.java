@@ -0,0 +1,53 @@
+package com.example.dijkstravisualizerapp.view;
+
+import com.example.dijkstravisualizerapp.model.Edge;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PathEdgesTest {
+
+    @Test
+    public void set_listsExactlyTheNodesWithAnEdge() {
+        Graph graph = Graph.createHardcodedGraph();
+        List<Edge> edges = graph.getEdges();
+        int nodeCount = graph.getNodeCount();
+        PathEdges pathEdges = new PathEdges(nodeCount);
+        Edge[] expected = new Edge[nodeCount];
+        Random random = new Random(1);
+        for (int round = 0; round < 2000; round++) {
+            int node = random.nextInt(nodeCount);
+            Edge edge = random.nextInt(3) == 0 ? null : edges.get(random.nextInt(edges.size()));
+            pathEdges.set(node, edge);
+            expected[node] = edge;
+            if (round % 500 == 499) {
+                pathEdges.clear();
+                expected = new Edge[nodeCount];
+            }
+            assertListed(expected, pathEdges);
+        }
+    }
+
+    private static void assertListed(Edge[] expected, PathEdges actual) {
+        Set<Edge> listed = new HashSet<>();
+        for (int i = 0; i < actual.size(); i++) listed.add(actual.edgeAt(i));
+        Set<Edge> set = new HashSet<>();
+        int count = 0;
+        for (int node = 0; node < expected.length; node++) {
+            assertSame(expected[node], actual.get(node));
+            if (expected[node] != null) {
+                set.add(expected[node]);
+                count++;
+            }
+        }
+        assertEquals(count, actual.size());
+        assertEquals(set, listed);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.dijkstravisualizerapp.view;
+
+import com.example.dijkstravisualizerapp.TestGraphs;
+import com.example.dijkstravisualizerapp.algorithm.DijkstraAlgorithm;
+import com.example.dijkstravisualizerapp.algorithm.ShortestPathEngine;
+import com.example.dijkstravisualizerapp.model.Graph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RunSaverTest {
+    private File directory;
+    private final List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+    private RunSaver saver;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File(Files.createTempDirectory("run").toFile(), "saved");
+        saver = new RunSaver(directory, errors::add);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) for (File file : files) file.delete();
+        directory.delete();
+        directory.getParentFile().delete();
+    }
+
+    @Test
+    public void load_showsTheSavedRunAtItsStep() throws InterruptedException {
+        Graph graph = TestGraphs.ring(3000, 6, new Random(4));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+        DijkstraAlgorithm.DijkstraStep expected = algorithm.seek(2500);
+        saver.save(graph, algorithm);
+        // Scrubbing on while the saver records doesn't change what it saves
+        algorithm.seek(100);
+
+        Loaded loaded = load(2500);
+        assertNotNull(loaded.graph);
+        assertEquals(2500, loaded.algorithm.getCurrentStepIndex());
+        assertEquals(expected.getDescription(), loaded.algorithm.getCurrentStep().getDescription());
+        int nodeCount = graph.getNodeCount();
+        double[] expectedDistances = new double[nodeCount], actualDistances = new double[nodeCount];
+        int[] expectedArcs = new int[nodeCount], actualArcs = new int[nodeCount];
+        algorithm.getDistanceTrace().copyStateAt(2500, expectedDistances, expectedArcs);
+        loaded.algorithm.getDistanceTrace().copyStateAt(2500, actualDistances, actualArcs);
+        assertArrayEquals(expectedDistances, actualDistances, 0);
+        assertArrayEquals(expectedArcs, actualArcs);
+        // Only the renamed files are left
+        assertEquals(new HashSet<>(Arrays.asList("graph.bin", "run.trace")), new HashSet<>(Arrays.asList(directory.list())));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void save_recordsEachRunOnce() throws InterruptedException {
+        Graph graph = TestGraphs.ring(500, 6, new Random(5));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+        saver.save(graph, algorithm);
+        load(-1);
+        File traceFile = new File(directory, "run.trace");
+        assertTrue(traceFile.delete());
+
+        // A node moved: the graph is written again, the run isn't recorded again
+        graph.getNodes().get(7).setX(42);
+        saver.save(graph, algorithm);
+        assertEquals(42, load(-1).graph.getNodes().get(7).getX(), 0);
+        assertFalse(traceFile.exists());
+
+        // A new run is
+        DijkstraAlgorithm next = new DijkstraAlgorithm(graph);
+        next.start(1000);
+        saver.save(graph, next);
+        load(-1);
+        assertTrue(traceFile.exists());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void save_withoutARunDropsTheOldTrace() throws InterruptedException {
+        Graph graph = TestGraphs.ring(500, 6, new Random(6));
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(graph);
+        algorithm.start(1000);
+        saver.save(graph, algorithm);
+        // As after a pick, which shows a result without steps
+        saver.save(graph, new DijkstraAlgorithm(graph));
+
+        Loaded loaded = load(10);
+        assertEquals(0, loaded.algorithm.getTotalSteps());
+        assertFalse(new File(directory, "run.trace").exists());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void load_bringsBackAPickedPath() throws InterruptedException {
+        Graph graph = Graph.createHardcodedGraph();
+        graph.setStartAndTarget(graph.getNodes().get(0), graph.getNodes().get(9));
+        ShortestPathEngine engine = new ShortestPathEngine(graph);
+        DijkstraAlgorithm picked = new DijkstraAlgorithm(graph);
+        picked.showResult(engine, engine.run(0, 9));
+        saver.save(graph, picked);
+
+        Loaded loaded = load(-1);
+        assertEquals(picked.getFinalPath().size(), loaded.algorithm.getFinalPath().size());
+        assertFalse(loaded.algorithm.getFinalPath().isEmpty());
+        assertEquals(0, loaded.algorithm.getTotalSteps());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void load_failsWithoutFiles() throws InterruptedException {
+        Loaded loaded = load(3);
+        assertNull(loaded.graph);
+        assertEquals(1, errors.size());
+    }
+
+    private static final class Loaded {
+        Graph graph;
+        DijkstraAlgorithm algorithm;
+    }
+
+    // Saves run in order, so this also waits for every save asked for before it
+    private Loaded load(int stepIndex) throws InterruptedException {
+        Loaded loaded = new Loaded();
+        CountDownLatch done = new CountDownLatch(1);
+        saver.load(stepIndex, new RunSaver.LoadCallback() {
+            @Override
+            public void onLoaded(Graph graph, DijkstraAlgorithm algorithm) {
+                loaded.graph = graph;
+                loaded.algorithm = algorithm;
+                done.countDown();
+            }
+
+            @Override
+            public void onFailed() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        return loaded;
+    }
+}